@@ -0,0 +1,140 @@
+package group24.escaperoom.game.entities.properties.util;
+
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import group24.escaperoom.game.entities.properties.AnimatedProperty;
+import group24.escaperoom.game.entities.properties.ConditionallyActive;
+import group24.escaperoom.game.entities.properties.LockedProperty;
+import group24.escaperoom.game.entities.properties.PropertyType;
+import group24.escaperoom.game.entities.properties.SpinnableProperty;
+import group24.escaperoom.game.entities.properties.base.Connectable;
+import group24.escaperoom.game.entities.properties.base.ItemProperty;
+import group24.escaperoom.game.entities.properties.values.ItemPropertyValue;
+
+/**
+ * The property lookups a frame makes for every item (update, draw, sight and
+ * connector matching), through {@link PropertyMap} and through the
+ * {@code HashMap} and {@code Optional} lookups it replaced.
+ *
+ * Each invocation is one frame over {@code items} items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PropertyLookupBenchmark {
+  private static final PropertyType[] CONNECTABLE_TYPES = {
+    PropertyType.Connector,
+    PropertyType.ConnectorSource,
+    PropertyType.ConnectorRelay,
+    PropertyType.ConnectorSink,
+    PropertyType.ConnectorBridge,
+  };
+  private static final long CONNECTABLE_MASK = PropertyMap.maskOf(CONNECTABLE_TYPES);
+
+  /**
+   * Types items are given at random, roughly as often as they are found on maps
+   */
+  private static final PropertyType[] COMMON_TYPES = {
+    PropertyType.Collideable,
+    PropertyType.Interactable,
+    PropertyType.Obtainable,
+    PropertyType.Containable,
+    PropertyType.Barrier,
+    PropertyType.LockedProperty,
+    PropertyType.Spinable,
+    PropertyType.Animated,
+    PropertyType.ConditionallyActive,
+    PropertyType.Connector,
+    PropertyType.ConnectorSink,
+  };
+
+  @Param({"1000", "10000"})
+  int items;
+
+  PropertyMap[] maps;
+  HashMap<PropertyType, ItemProperty<? extends ItemPropertyValue>>[] hashMaps;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    Random random = new Random(24);
+    maps = new PropertyMap[items];
+    hashMaps = new HashMap[items];
+
+    for (int i = 0; i < items; i++) {
+      maps[i] = new PropertyMap();
+      hashMaps[i] = new HashMap<>();
+      for (PropertyType type : COMMON_TYPES) {
+        if (random.nextInt(4) != 0) continue;
+
+        ItemProperty<? extends ItemPropertyValue> p = type.getEmptyProperty();
+        maps[i].put(type, p);
+        hashMaps[i].put(type, p);
+      }
+    }
+  }
+
+  @Benchmark
+  public void propertyMap(Blackhole bh) {
+    for (PropertyMap map : maps) {
+      // update
+      bh.consume(map.getAs(PropertyType.Animated, AnimatedProperty.class));
+      bh.consume(map.getAs(PropertyType.ConditionallyActive, ConditionallyActive.class));
+      // draw, getRotation and getDrawRotation
+      bh.consume(map.getAs(PropertyType.Spinable, SpinnableProperty.class));
+      bh.consume(map.getAs(PropertyType.Spinable, SpinnableProperty.class));
+      // sight
+      if (map.has(PropertyType.Barrier)) {
+        bh.consume(map.getAs(PropertyType.LockedProperty, LockedProperty.class));
+      }
+      // connector matching
+      if (map.hasAny(CONNECTABLE_MASK)) {
+        for (PropertyType type : CONNECTABLE_TYPES) {
+          bh.consume(map.getAs(type, Connectable.class));
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public void hashMapOptional(Blackhole bh) {
+    for (HashMap<PropertyType, ItemProperty<? extends ItemPropertyValue>> map : hashMaps) {
+      bh.consume(get(map, PropertyType.Animated, AnimatedProperty.class));
+      bh.consume(get(map, PropertyType.ConditionallyActive, ConditionallyActive.class));
+      bh.consume(get(map, PropertyType.Spinable, SpinnableProperty.class));
+      bh.consume(get(map, PropertyType.Spinable, SpinnableProperty.class));
+      if (map.containsKey(PropertyType.Barrier)) {
+        bh.consume(get(map, PropertyType.LockedProperty, LockedProperty.class));
+      }
+      for (PropertyType type : CONNECTABLE_TYPES) {
+        bh.consume(get(map, type, Connectable.class));
+      }
+    }
+  }
+
+  /**
+   * Item.getProperty as it was before PropertyMap
+   */
+  private static <P> Optional<P> get(HashMap<PropertyType, ItemProperty<? extends ItemPropertyValue>> map, PropertyType type, Class<P> expectedClass) {
+    ItemProperty<? extends ItemPropertyValue> prop = map.get(type);
+    if (prop == null) return Optional.empty();
+    try {
+      return Optional.of(expectedClass.cast(prop));
+    } catch (ClassCastException e) {
+      return Optional.empty();
+    }
+  }
+}
@@ -7,6 +7,7 @@ import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
 import com.badlogic.gdx.Game;
 
+import group24.escaperoom.engine.StartupTimer;
 import group24.escaperoom.engine.assets.AssetManager;
 import group24.escaperoom.engine.assets.items.ItemLoader;
 import group24.escaperoom.engine.control.CursorManager;
@@ -19,11 +20,12 @@ public class EscapeRoomGame extends Game {
 
   public void create() {
     configLogger();
-    ItemLoader.LoadAllObjects();
-    AssetManager.instance().finishLoading();
+    StartupTimer.time("Loading items", ItemLoader::LoadAllObjects);
+    StartupTimer.time("Loading assets", () -> AssetManager.instance().finishLoading());
     ScreenManager.instance().initialize(this);
     CursorManager.setCursor(CursorType.Pointer);
-    ScreenManager.instance().showScreen(new MainMenu());
+    StartupTimer.time("Showing main menu", () -> ScreenManager.instance().showScreen(new MainMenu()));
+    StartupTimer.finish();
   }
 
   public void configLogger() {
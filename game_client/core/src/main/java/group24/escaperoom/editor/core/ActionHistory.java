@@ -1,11 +1,18 @@
 package group24.escaperoom.editor.core;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.Optional;
+import java.util.logging.Logger;
 
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.ui.ImageButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Null;
 
 import group24.escaperoom.engine.control.input.Input;
 import group24.escaperoom.screens.AbstractScreen;
@@ -16,10 +23,50 @@ import group24.escaperoom.ui.widgets.G24Label;
 /**
  * Utility class to manage the undo/redo history 
  * in the {@link LevelEditor} 
+ *
+ * The history keeps to a memory budget: once the actions it holds are
+ * estimated to exceed it, the oldest {@link JournaledAction}s are moved to a
+ * compressed journal on disk and read back when they are undone or redone.
+ * Older actions which cannot be journaled are dropped instead.
+ *
+ * Actions recorded between {@link ActionHistory#beginGroup} and
+ * {@link ActionHistory#endGroup} (e.g. every cell of a brush stroke) are
+ * merged into as few entries as they allow, see {@link EditorAction#absorb}.
  */
 public class ActionHistory {
-  private final Array<EditorAction> actions = new Array<>();
+  static Logger log = Logger.getLogger(ActionHistory.class.getName());
+
+  /**
+   * Default estimated size, in bytes, of the actions kept in memory
+   */
+  public static final long DEFAULT_BUDGET = 8 << 20;
+
+  // estimated size of an entry whose action is in the journal
+  private static final long JOURNALED_SIZE = 48;
+  // how much of the journal may belong to dropped entries before it is compacted
+  private static final long JOURNAL_RECLAIM_BYTES = 4 << 20;
+
+  private static class Entry {
+    // null once written to the journal
+    @Null EditorAction action;
+    @Null JournaledAction.Reader reader;
+    long offset;
+    long size;
+
+    Entry(EditorAction action) {
+      this.action = action;
+      this.size = action.sizeEstimate();
+    }
+  }
+
+  private final Array<Entry> entries = new Array<>();
   private int index = -1;
+  private long budget;
+  private long used = 0;
+  private boolean grouping = false;
+  private int groupStart = 0;
+  private boolean journalOpened = false;
+  private Optional<HistoryJournal> journal = Optional.empty();
   private final ImageButton undoButton = new ImageButton(AbstractScreen.skin, "undo");
   private final ImageButton redoButton = new ImageButton(AbstractScreen.skin, "redo");
 
@@ -32,8 +79,17 @@ public class ActionHistory {
   }
 
   /**
+   * A history with the {@link ActionHistory#DEFAULT_BUDGET}
    */
   public ActionHistory() {
+    this(DEFAULT_BUDGET);
+  }
+
+  /**
+   * @param budget estimated size, in bytes, of the actions to keep in memory
+   */
+  public ActionHistory(long budget) {
+    this.budget = budget;
     undoButton.setProgrammaticChangeEvents(false);
     undoButton.setDisabled(true);
     undoButton.addListener(new ChangeListener() {
@@ -80,51 +136,257 @@ public class ActionHistory {
   }
 
 
+  /**
+   * @param budget estimated size, in bytes, of the actions to keep in memory
+   */
+  public void setBudget(long budget) {
+    this.budget = budget;
+    trim();
+  }
+
   /**
    * @param action the action to record
    */
   public void record(EditorAction action) {
-    for (int i = actions.size - 1; i > index; i--) {
-      actions.pop();
+    discardRedo();
+
+    if (grouping && index >= groupStart) {
+      Entry last = entries.get(index);
+      if (last.action != null && last.action.absorb(action)) {
+        // an over-estimate until the group ends, merging only ever shrinks an action
+        long size = action.sizeEstimate();
+        last.size += size;
+        used += size;
+        return;
+      }
     }
-    undoButton.setDisabled(false);
-    redoButton.setDisabled(true);
-    actions.add(action);
+
+    Entry e = new Entry(action);
+    entries.add(e);
+    used += e.size;
     index += 1;
+    updateButtons();
+
+    if (!grouping) trim();
+  }
+
+  /**
+   * Start merging recorded actions, until {@link ActionHistory#endGroup},
+   * ending any group already started
+   */
+  public void beginGroup() {
+    endGroup();
+    grouping = true;
+    groupStart = index + 1;
+  }
+
+  /**
+   * Stop merging recorded actions, does nothing if no group was started
+   */
+  public void endGroup() {
+    if (!grouping) return;
+    grouping = false;
+
+    if (index >= groupStart) {
+      Entry last = entries.get(index);
+      if (last.action != null) {
+        used -= last.size;
+        last.size = last.action.sizeEstimate();
+        used += last.size;
+      }
+    }
+    trim();
   }
 
   /**
    * @return whether or not there is an action to undo
    */
   public boolean undo() {
-    if (index >= 0) {
-      actions.get(index).undoAction();
-      index -= 1;
-      if (index <= 0) {
-        undoButton.setDisabled(true);
-      }
-      redoButton.setDisabled(false);
-      return true;
-    } else {
+    if (index < 0) return false;
+
+    Optional<EditorAction> action = actionAt(index);
+    if (action.isEmpty()) {
+      // nothing before an action which cannot be undone can be either
+      dropOldest(index + 1);
+      updateButtons();
+      return false;
+    }
+
+    if (!action.get().undoAction()) {
+      // the map no longer matches the history before this action
+      log.warning("Failed to undo an editor action, discarding it and every action before it");
+      dropOldest(index + 1);
+      updateButtons();
       return false;
     }
+    index -= 1;
+    updateButtons();
+    return true;
   }
 
   /**
    * @return whether or not there is an action to redo
    */
   public boolean redo() {
-    if (index < actions.size - 1) {
-      index += 1;
-      actions.get(index).doAction();
-      if (index >= actions.size - 1) {
-        redoButton.setDisabled(true);
+    if (index >= entries.size - 1) return false;
+
+    Optional<EditorAction> action = actionAt(index + 1);
+    if (action.isEmpty()) {
+      discardRedo();
+      updateButtons();
+      return false;
+    }
+
+    if (!action.get().doAction()) {
+      log.warning("Failed to redo an editor action, discarding it and every action after it");
+      discardRedo();
+      updateButtons();
+      return false;
+    }
+    index += 1;
+    updateButtons();
+    return true;
+  }
+
+  /**
+   * Delete the journal of this history, which must not be used afterwards
+   */
+  public void dispose() {
+    entries.clear();
+    index = -1;
+    used = 0;
+    journal.ifPresent(HistoryJournal::close);
+    journal = Optional.empty();
+  }
+
+  private void updateButtons() {
+    undoButton.setDisabled(index < 0);
+    redoButton.setDisabled(index >= entries.size - 1);
+  }
+
+  /**
+   * @return the action of entry {@code i}, read back from the journal if needed
+   */
+  private Optional<EditorAction> actionAt(int i) {
+    Entry e = entries.get(i);
+    if (e.action != null) return Optional.of(e.action);
+
+    try {
+      byte[] data = journal.get().read(e.offset);
+      return Optional.of(e.reader.read(new DataInputStream(new ByteArrayInputStream(data))));
+    } catch (IOException ex) {
+      log.warning("Failed to read action from history journal: " + ex.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Discard every action after the current one
+   */
+  private void discardRedo() {
+    long journalEnd = -1;
+    for (int i = entries.size - 1; i > index; i--) {
+      Entry e = entries.pop();
+      used -= e.size;
+      if (e.action == null) journalEnd = e.offset;
+    }
+    if (journalEnd < 0) return;
+
+    try {
+      journal.get().truncate(journalEnd);
+    } catch (IOException ex) {
+      log.warning("Failed to truncate history journal");
+    }
+  }
+
+  /**
+   * Discard the {@code count} oldest actions
+   */
+  private void dropOldest(int count) {
+    for (int i = 0; i < count; i++) {
+      used -= entries.get(i).size;
+    }
+    entries.removeRange(0, count - 1);
+    index -= count;
+    groupStart = Math.max(0, groupStart - count);
+    reclaimJournal();
+  }
+
+  /**
+   * Cut the records of dropped entries off the journal, once there are enough
+   * of them to be worth moving the rest
+   */
+  private void reclaimJournal() {
+    if (journal.isEmpty()) return;
+
+    // every record before the first one still referenced belongs to a dropped entry
+    long start = -1;
+    for (Entry e : entries) {
+      if (e.action == null && (start < 0 || e.offset < start)) start = e.offset;
+    }
+
+    try {
+      if (start < 0) {
+        journal.get().truncate(0);
+      } else if (start >= JOURNAL_RECLAIM_BYTES) {
+        journal.get().dropBefore(start);
+        for (Entry e : entries) {
+          if (e.action == null) e.offset -= start;
+        }
+      }
+    } catch (IOException ex) {
+      log.warning("Failed to compact history journal: " + ex.getMessage());
+    }
+  }
+
+  /**
+   * Journal (or drop) the oldest actions until the rest fit the budget
+   */
+  private void trim() {
+    int i = 0;
+    while (used > budget && i < entries.size) {
+      Entry e = entries.get(i);
+      if (e.action == null) {
+        i++;
+      } else if (journal(e)) {
+        i++;
+      } else {
+        dropOldest(i + 1);
+        i = 0;
       }
-      undoButton.setDisabled(false);
-      return true;
-    } else {
+    }
+  }
+
+  /**
+   * Move the action of {@code e} to the journal
+   *
+   * @return whether it could be
+   */
+  private boolean journal(Entry e) {
+    if (!(e.action instanceof JournaledAction)) return false;
+    if (!journalOpened) {
+      journalOpened = true;
+      journal = HistoryJournal.create();
+    }
+    if (journal.isEmpty()) return false;
+
+    JournaledAction action = (JournaledAction) e.action;
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      action.write(out);
+      out.flush();
+      e.offset = journal.get().append(bytes.toByteArray());
+    } catch (IOException ex) {
+      log.warning("Failed to write action to history journal: " + ex.getMessage());
       return false;
     }
+
+    e.reader = action.reader();
+    e.action = null;
+    used += JOURNALED_SIZE - e.size;
+    e.size = JOURNALED_SIZE;
+    return true;
   }
 
   /**
@@ -135,12 +397,58 @@ public class ActionHistory {
 
     /**
      * Called by {@link ActionHistory} to do an {@link EditorAction}
+     *
+     * @return whether the action could be done, nothing is changed otherwise
      */
-    void doAction();
+    boolean doAction();
 
     /**
      * Called by {@link ActionHistory} to undo an {@link EditorAction}
+     *
+     * @return whether the action could be undone, nothing is changed otherwise
+     */
+    boolean undoAction();
+
+    /**
+     * @return a rough estimate of the memory, in bytes, kept alive by this action
+     */
+    default long sizeEstimate() {
+      return 256;
+    }
+
+    /**
+     * Merge {@code next}, recorded right after this action in the same group,
+     * into this action
+     *
+     * @return whether {@code next} was merged, and so need not be recorded
+     */
+    default boolean absorb(EditorAction next) {
+      return false;
+    }
+  }
+
+  /**
+   * An {@link EditorAction} which can be written to the history journal
+   */
+  public interface JournaledAction extends EditorAction {
+
+    /**
+     * Reads back an action written by {@link JournaledAction#write}
+     */
+    @FunctionalInterface
+    public interface Reader {
+      EditorAction read(DataInputStream in) throws IOException;
+    }
+
+    /**
+     * Write everything needed to do and undo this action
+     */
+    void write(DataOutputStream out) throws IOException;
+
+    /**
+     * @return the reader of what {@link JournaledAction#write} wrote, which
+     *         must not keep this action alive
      */
-    void undoAction();
+    Reader reader();
   }
 }
@@ -0,0 +1,128 @@
+package group24.escaperoom.editor.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import group24.escaperoom.editor.events.EditorEvent;
+import group24.escaperoom.editor.events.EditorEventBus;
+import group24.escaperoom.editor.events.EditorEventBus.EditorEventListener;
+import group24.escaperoom.engine.assets.maps.MapJournal;
+import group24.escaperoom.engine.assets.maps.MapSaver;
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.world.Grid;
+import group24.escaperoom.screens.LevelEditor;
+
+/**
+ * Crash safe saving of the map open in the {@link LevelEditor}.
+ *
+ * Items reported changed on the {@link EditorEventBus} are appended to the
+ * {@link MapJournal} of the map as soon as an action is recorded, or shortly
+ * after otherwise. The map file itself is rewritten from the journal thread
+ * every so often, and whenever the map is saved.
+ */
+public class Autosave implements EditorEventListener {
+  // how long changes wait to be appended if no action is recorded
+  private static final float CAPTURE_INTERVAL = 0.5f;
+  // how often the map file is rewritten while the journal has records
+  private static final float COMPACT_INTERVAL = 60f;
+  // how many records the journal may grow to before the map file is rewritten
+  private static final int COMPACT_RECORDS = 5000;
+
+  private final LevelEditor editor;
+  private final MapJournal journal;
+  private final LinkedHashSet<Integer> dirty = new LinkedHashSet<>();
+  private boolean recorded = false;
+  private float sinceCapture = 0;
+  private float sinceCompact = 0;
+  private int records = 0;
+
+  private Autosave(LevelEditor editor, MapJournal journal) {
+    this.editor = editor;
+    this.journal = journal;
+    EditorEventBus.addListener(this);
+  }
+
+  /**
+   * Start journaling the changes made in {@code editor}
+   *
+   * @return empty if the journal cannot be written
+   */
+  public static Optional<Autosave> start(LevelEditor editor) {
+    return MapJournal.open(editor.getMetadata()).map((journal) -> new Autosave(editor, journal));
+  }
+
+  @Override
+  public void handle(EditorEvent event) {
+    if (event.source != null) dirty.add(event.source.getID());
+  }
+
+  /**
+   * Append the changes of the action just recorded on the next update
+   */
+  public void recorded() {
+    recorded = true;
+  }
+
+  /**
+   * Called every frame, on the render thread
+   */
+  public void update(float delta) {
+    sinceCompact += delta;
+    if (!dirty.isEmpty()) {
+      sinceCapture += delta;
+      if (recorded || sinceCapture >= CAPTURE_INTERVAL) capture();
+    }
+
+    if (records > 0 && (records >= COMPACT_RECORDS || sinceCompact >= COMPACT_INTERVAL)) {
+      save();
+    }
+  }
+
+  /**
+   * Append the current state of every changed item to the journal
+   */
+  private void capture() {
+    Grid grid = editor.getGrid();
+    ArrayList<String> lines = new ArrayList<>(dirty.size());
+    for (int id : dirty) {
+      Optional<Item> item = grid.getItemByID(id);
+      lines.add(item.isPresent() ? MapJournal.put(item.get()) : MapJournal.remove(id));
+    }
+    journal.append(lines);
+
+    records += lines.size();
+    dirty.clear();
+    recorded = false;
+    sinceCapture = 0;
+  }
+
+  /**
+   * Write the whole map on the journal thread, emptying the journal
+   *
+   * @return completed with whether the map was written, off the render thread
+   */
+  public CompletableFuture<Boolean> save() {
+    // everything changed so far is part of the snapshot
+    dirty.clear();
+    recorded = false;
+    sinceCapture = 0;
+    sinceCompact = 0;
+    records = 0;
+
+    return MapSaver.snapshot(editor.getGrid(), editor.getMetadata())
+      .map(journal::compact)
+      .orElseGet(() -> CompletableFuture.completedFuture(false));
+  }
+
+  /**
+   * Save any changes and stop journaling, waiting for the journal to be written
+   */
+  public void stop() {
+    EditorEventBus.removeListener(this);
+    if (!dirty.isEmpty()) capture();
+    if (records > 0) save();
+    journal.close();
+  }
+}
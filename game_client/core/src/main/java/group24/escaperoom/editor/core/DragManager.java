@@ -9,7 +9,6 @@ import com.badlogic.gdx.scenes.scene2d.utils.DragAndDrop;
 import com.badlogic.gdx.scenes.scene2d.utils.DragAndDrop.Payload;
 import com.badlogic.gdx.scenes.scene2d.utils.DragAndDrop.Source;
 
-import group24.escaperoom.editor.core.ActionHistory.EditorAction;
 import group24.escaperoom.engine.control.CursorManager;
 import group24.escaperoom.engine.types.IntVector2;
 import group24.escaperoom.game.entities.Item;
@@ -103,23 +102,10 @@ public class DragManager {
   /**
    * Represents a placement operation
    */
-  public static class PlacementAction implements EditorAction {
-    final Item obj;
-    final MapScreen screen;
-
+  public static class PlacementAction extends GridDelta {
     public PlacementAction(Item obj, MapScreen screen) {
-      this.obj = obj;
-      this.screen = screen;
-    }
-
-    @Override
-    public void doAction() {
-      screen.placeItem(obj);
-    }
-
-    @Override
-    public void undoAction() {
-      obj.remove();
+      super(screen);
+      placed(obj);
     }
   }
 }
@@ -0,0 +1,276 @@
+package group24.escaperoom.editor.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.Null;
+
+import group24.escaperoom.editor.core.ActionHistory.EditorAction;
+import group24.escaperoom.editor.core.ActionHistory.JournaledAction;
+import group24.escaperoom.engine.types.IntVector2;
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.entities.properties.PropertyType;
+import group24.escaperoom.game.entities.properties.ViewableProperty;
+import group24.escaperoom.game.world.GridTransaction;
+import group24.escaperoom.screens.MapScreen;
+
+/**
+ * Placements, moves and removals of items, as an {@link EditorAction}.
+ *
+ * Items are referred to by id, and resolved against the grid of the map when
+ * the action is done or undone. Items which are placed or removed are also
+ * held on to, to be put back once they are no longer in the grid. They are
+ * only saved as json once the delta is written to the history journal, and
+ * rebuilt from it when it is read back.
+ *
+ * Deltas recorded in the same {@link ActionHistory} group (e.g. a brush stroke)
+ * are merged, keeping only where each item started and where it ended up.
+ */
+public class GridDelta implements JournaledAction {
+  private static Logger log = Logger.getLogger(GridDelta.class.getName());
+  // only used on the render thread
+  private static final Json json = new Json();
+
+  // rough size of an item held on to, and of each of its properties, which are not measured
+  private static final long ITEM_BASE_SIZE = 512;
+  private static final long PROPERTY_SIZE = 128;
+
+  private static class Change {
+    final int id;
+    /**
+     * The item, null if it is only moved or was read back from the journal
+     */
+    @Null Item item;
+    /**
+     * Saved json of the item, only set when it was read back from the journal
+     */
+    @Null byte[] saved;
+    /**
+     * Position of the item before, null if it was not placed
+     */
+    @Null IntVector2 from;
+    /**
+     * Position of the item after, null if it is removed
+     */
+    @Null IntVector2 to;
+
+    Change(int id, @Null Item item, @Null IntVector2 from, @Null IntVector2 to) {
+      this.id = id;
+      this.item = item;
+      this.from = from;
+      this.to = to;
+    }
+
+    boolean isNoop() {
+      return from == null ? to == null : from.equals(to);
+    }
+  }
+
+  private final MapScreen screen;
+  private final LinkedHashMap<Integer, Change> changes = new LinkedHashMap<>();
+
+  public GridDelta(MapScreen screen) {
+    this.screen = screen;
+  }
+
+  private void add(Change c) {
+    Change prev = changes.get(c.id);
+    if (prev == null) {
+      changes.put(c.id, c);
+      return;
+    }
+
+    prev.to = c.to;
+    if (c.item != null || c.saved != null) {
+      prev.item = c.item;
+      prev.saved = c.saved;
+    }
+    // e.g. placed and then removed again within one brush stroke
+    if (prev.isNoop()) changes.remove(c.id);
+  }
+
+  /**
+   * Record that {@code item} was placed at its position
+   */
+  public GridDelta placed(Item item) {
+    add(new Change(item.getID(), item, null, item.getPosition().cpy()));
+    return this;
+  }
+
+  /**
+   * Record that {@code item} was removed from its position
+   */
+  public GridDelta removed(Item item) {
+    add(new Change(item.getID(), item, item.getPosition().cpy(), null));
+    return this;
+  }
+
+  /**
+   * Record that {@code item} was moved from {@code from} to {@code to}
+   */
+  public GridDelta moved(Item item, IntVector2 from, IntVector2 to) {
+    add(new Change(item.getID(), null, from.cpy(), to.cpy()));
+    return this;
+  }
+
+  /**
+   * @return whether this delta changes nothing
+   */
+  public boolean isEmpty() {
+    for (Change c : changes.values()) {
+      if (!c.isNoop()) return false;
+    }
+    return true;
+  }
+
+  /**
+   * @return the item with the id of {@code c}, the one held on to or rebuilt
+   *         from its json if it is no longer in the grid
+   */
+  private Optional<Item> resolve(Change c) {
+    Optional<Item> live = screen.getGrid().getItemByID(c.id);
+    if (live.isPresent()) return live;
+    if (c.item != null) return Optional.of(c.item);
+    if (c.saved == null) return Optional.empty();
+
+    try {
+      Item item = new Item();
+      item.read(json, new JsonReader().parse(new String(c.saved, StandardCharsets.UTF_8)));
+      screen.getGrid().applyCallbacks();
+      c.item = item;
+      c.saved = null;
+      return Optional.of(item);
+    } catch (Exception e) {
+      log.warning("Failed to rebuild item " + c.id + ": " + e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * @return whether the changes could be applied, nothing is changed otherwise
+   */
+  private boolean apply(boolean undo) {
+    GridTransaction transaction = new GridTransaction(screen);
+    for (Change c : changes.values()) {
+      if (c.isNoop()) continue;
+
+      IntVector2 to = undo ? c.from : c.to;
+      Optional<Item> item = resolve(c);
+      if (item.isEmpty()) {
+        log.warning(String.format("Item %d of an editor action no longer exists", c.id));
+        return false;
+      }
+
+      if (to == null) {
+        transaction.remove(item.get());
+      } else {
+        transaction.place(item.get(), to.x, to.y);
+      }
+    }
+    if (!transaction.commit()) {
+      log.warning(String.format("Failed to %s editor action, items are in the way", undo ? "undo" : "redo"));
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean doAction() {
+    return apply(false);
+  }
+
+  @Override
+  public boolean undoAction() {
+    return apply(true);
+  }
+
+  @Override
+  public boolean absorb(EditorAction next) {
+    if (!(next instanceof GridDelta) || ((GridDelta) next).screen != screen) return false;
+
+    ((GridDelta) next).changes.values().forEach(this::add);
+    return true;
+  }
+
+  @Override
+  public long sizeEstimate() {
+    long size = 64;
+    for (Change c : changes.values()) {
+      size += 64;
+      if (c.item != null) size += sizeOf(c.item);
+      if (c.saved != null) size += c.saved.length;
+    }
+    return size;
+  }
+
+  /**
+   * @return an estimate of the memory {@code item} keeps alive, measuring the
+   *         pixels of its image, which dwarf everything else an item holds
+   */
+  private static long sizeOf(Item item) {
+    long size = ITEM_BASE_SIZE + PROPERTY_SIZE * item.getProperties().size();
+
+    ViewableProperty viewable = item.getPropertyOrNull(PropertyType.Viewable, ViewableProperty.class);
+    if (viewable != null) size += viewable.imageBytes();
+    return size;
+  }
+
+  //----------------------------------------------------------------------------
+  // Journal
+  //----------------------------------------------------------------------------
+
+  private static void writePosition(DataOutputStream out, @Null IntVector2 pos) throws IOException {
+    out.writeBoolean(pos != null);
+    if (pos == null) return;
+    out.writeInt(pos.x);
+    out.writeInt(pos.y);
+  }
+
+  private static @Null IntVector2 readPosition(DataInputStream in) throws IOException {
+    return in.readBoolean() ? new IntVector2(in.readInt(), in.readInt()) : null;
+  }
+
+  @Override
+  public void write(DataOutputStream out) throws IOException {
+    out.writeInt(changes.size());
+    for (Change c : changes.values()) {
+      out.writeInt(c.id);
+      writePosition(out, c.from);
+      writePosition(out, c.to);
+      byte[] saved = c.item != null ? json.toJson(c.item).getBytes(StandardCharsets.UTF_8) : c.saved;
+      out.writeInt(saved == null ? -1 : saved.length);
+      if (saved != null) out.write(saved);
+    }
+  }
+
+  @Override
+  public Reader reader() {
+    MapScreen screen = this.screen;
+    return (in) -> read(screen, in);
+  }
+
+  private static GridDelta read(MapScreen screen, DataInputStream in) throws IOException {
+    GridDelta delta = new GridDelta(screen);
+    int count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      int id = in.readInt();
+      IntVector2 from = readPosition(in);
+      IntVector2 to = readPosition(in);
+      int length = in.readInt();
+      Change c = new Change(id, null, from, to);
+      if (length >= 0) {
+        c.saved = new byte[length];
+        in.readFully(c.saved);
+      }
+      delta.changes.put(id, c);
+    }
+    return delta;
+  }
+}
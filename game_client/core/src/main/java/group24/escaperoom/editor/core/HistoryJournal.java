@@ -0,0 +1,130 @@
+package group24.escaperoom.editor.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A temporary file of deflated records, which {@link ActionHistory} moves
+ * its oldest entries to once they no longer fit in its memory budget.
+ *
+ * Records are only ever appended, cut off the end of the file when the
+ * entries they belong to are discarded, or cut off the start of the file once
+ * enough of the oldest entries have been dropped.
+ */
+class HistoryJournal implements AutoCloseable {
+  private final File file;
+  private final RandomAccessFile raf;
+  private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+  private final Inflater inflater = new Inflater();
+  private final byte[] buffer = new byte[8192];
+
+  private HistoryJournal(File file, RandomAccessFile raf) {
+    this.file = file;
+    this.raf = raf;
+  }
+
+  /**
+   * @return a new, empty journal, empty if no temporary file could be made
+   */
+  static Optional<HistoryJournal> create() {
+    try {
+      File file = File.createTempFile("escaperoom-history", ".journal");
+      file.deleteOnExit();
+      return Optional.of(new HistoryJournal(file, new RandomAccessFile(file, "rw")));
+    } catch (IOException e) {
+      ActionHistory.log.warning("Failed to create history journal, old actions will be dropped instead");
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * @return the offset of the record of {@code data}
+   */
+  long append(byte[] data) throws IOException {
+    ByteArrayOutputStream deflated = new ByteArrayOutputStream(data.length / 2 + 16);
+    deflater.reset();
+    deflater.setInput(data);
+    deflater.finish();
+    while (!deflater.finished()) {
+      deflated.write(buffer, 0, deflater.deflate(buffer));
+    }
+
+    long offset = raf.length();
+    raf.seek(offset);
+    raf.writeInt(data.length);
+    raf.writeInt(deflated.size());
+    raf.write(deflated.toByteArray());
+    return offset;
+  }
+
+  /**
+   * @return the data of the record at {@code offset}
+   */
+  byte[] read(long offset) throws IOException {
+    raf.seek(offset);
+    byte[] data = new byte[raf.readInt()];
+    byte[] deflated = new byte[raf.readInt()];
+    raf.readFully(deflated);
+
+    inflater.reset();
+    inflater.setInput(deflated);
+    try {
+      int n = 0;
+      while (n < data.length && !inflater.finished()) {
+        int read = inflater.inflate(data, n, data.length - n);
+        if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IOException("Truncated history record at " + offset);
+        }
+        n += read;
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupt history record at " + offset, e);
+    }
+    return data;
+  }
+
+  /**
+   * Discard every record before {@code offset}, moving the rest to the start
+   * of the file, so the record which was at {@code o} is now at {@code o - offset}
+   */
+  void dropBefore(long offset) throws IOException {
+    long end = raf.length();
+    long from = offset;
+    long to = 0;
+    while (from < end) {
+      raf.seek(from);
+      int n = raf.read(buffer, 0, (int) Math.min(buffer.length, end - from));
+      if (n < 0) throw new IOException("History journal ended early at " + from);
+      raf.seek(to);
+      raf.write(buffer, 0, n);
+      from += n;
+      to += n;
+    }
+    raf.setLength(to);
+  }
+
+  /**
+   * Discard the record at {@code offset} and every record after it
+   */
+  void truncate(long offset) throws IOException {
+    raf.setLength(offset);
+  }
+
+  @Override
+  public void close() {
+    try {
+      raf.close();
+    } catch (IOException e) {
+      ActionHistory.log.warning("Failed to close history journal");
+    }
+    deflater.end();
+    inflater.end();
+    file.delete();
+  }
+}
@@ -8,6 +8,11 @@ public class EditorEvent {
 
   public enum EventType {
     ItemRemoved,
+    ItemPlaced,
+    /**
+     * An item was changed in place, e.g. its properties were edited
+     */
+    ItemChanged,
   }
 
   public final EventType type;
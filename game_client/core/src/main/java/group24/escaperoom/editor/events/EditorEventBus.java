@@ -9,15 +9,15 @@ public class EditorEventBus {
   private static final HashSet<EditorEventListener> toRemove = new HashSet<>();
 
 
-  public void addListener(EditorEventListener listener){
+  public static void addListener(EditorEventListener listener){
     listeners.put(listener, null);
   } 
 
-  public void addListener(EditorEventListener listener, EditorEventFilter filter){
+  public static void addListener(EditorEventListener listener, EditorEventFilter filter){
     listeners.put(listener, filter);
   } 
 
-  public void removeListener(EditorEventListener listener){
+  public static void removeListener(EditorEventListener listener){
     // A handler may try and remove itself from our map 
     // -> to avoid concurrent modification, store here and remove later
     toRemove.add(listener);
@@ -25,6 +25,7 @@ public class EditorEventBus {
 
   public static void post(EditorEvent event){
     toRemove.forEach((l) -> listeners.remove(l));
+    toRemove.clear();
     for (Map.Entry<EditorEventListener, EditorEventFilter> pair : listeners.entrySet()){
       EditorEventListener listener = pair.getKey();
       EditorEventFilter filter = pair.getValue();
@@ -102,14 +102,14 @@ public class ItemSideBar extends Table {
         "Name", 
         ItemEditor.get().getNewItem().getItemName(), 
         "None", 
-        (i, s) -> i.getType().name = s
+        (i, s) -> i.changeType((t) -> t.withName(s))
     );
 
     G24TextInput categoryInp = nonEmptyStringField(
         "Category", 
         ItemEditor.get().getNewItem().getType().category, 
         "Custom", 
-        (i, s) -> i.getType().category = s
+        (i, s) -> i.changeType((t) -> t.withCategory(s))
     );
 
     G24NumberInput sizeInpWidth = numericField(
@@ -153,7 +153,7 @@ public class ItemSideBar extends Table {
 
               String sansPng = filename.substring(0, filename.lastIndexOf(".png"));
 
-              newItem.getType().texture = sansPng;
+              newItem.changeType((t) -> t.withTexture(sansPng));
               newItem.setTexture(AssetManager.instance().getRegion(sansPng));
               textureInp.setText(sansPng);
               ItemEditor.get().markModified();
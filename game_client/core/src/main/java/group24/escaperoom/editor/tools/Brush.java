@@ -34,17 +34,24 @@ public abstract class Brush extends EditorTool {
   public void cancel() {
     CursorManager.restoreDefault();
     editor.removeListener(listener);
+    editor.endActionGroup();
   }
 
   private InputListener listener = new InputListener() {
     @Override
     public boolean touchDown(InputEvent event, float x, float y, int pointer, int button) {
-      return handleTouchDown(x, y);
+      // a stroke is undone as a whole
+      editor.beginActionGroup();
+      if (handleTouchDown(x, y)) return true;
+
+      editor.endActionGroup();
+      return false;
     }
 
     @Override
     public void touchUp(InputEvent event, float x, float y, int pointer, int button) {
       handleTouchUp();
+      editor.endActionGroup();
     }
 
     @Override
@@ -61,6 +68,16 @@ public abstract class Brush extends EditorTool {
    */
   abstract public Optional<Item> draw(int x , int y);
 
+  /**
+   * Draw without updating any neighbouring items, used when drawing many
+   * tiles at once and updating their surroundings afterwards
+   *
+   * @see Brush#draw(int, int)
+   */
+  public Optional<Item> drawUnrefreshed(int x, int y) {
+    return draw(x, y);
+  }
+
   /**
    * @param x touchdown coord
    * @param y touchdown coord
@@ -5,14 +5,13 @@ import java.util.Optional;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.InputListener;
-import com.badlogic.gdx.utils.Array;
 
+import group24.escaperoom.editor.core.GridDelta;
 import group24.escaperoom.engine.control.CursorManager;
 import group24.escaperoom.engine.control.CursorManager.CursorType;
 import group24.escaperoom.engine.types.IntVector2;
 import group24.escaperoom.game.entities.Item;
 import group24.escaperoom.screens.LevelEditor;
-import group24.escaperoom.editor.core.ActionHistory.EditorAction;
 import group24.escaperoom.editor.core.ToolManager.ToolType;
 import group24.escaperoom.editor.tools.SelectionTool.Selection;
 
@@ -58,6 +57,7 @@ public class DeletionTool extends EditorTool {
   public void cancel() {
     CursorManager.restoreDefault();
     editor.removeListener(deleteListener);
+    editor.endActionGroup();
   }
 
   //----------------------------------------------------------------------------
@@ -100,6 +100,8 @@ public class DeletionTool extends EditorTool {
   private InputListener deleteListener = new InputListener() {
     @Override
     public boolean touchDown(InputEvent event, float x, float y, int pointer, int button) {
+      // everything deleted in one drag is undone at once
+      editor.beginActionGroup();
       return handleTouchDown(x, y);
     }
     public void touchDragged (InputEvent event, float x, float y, int pointer) {
@@ -108,6 +110,7 @@ public class DeletionTool extends EditorTool {
 
     public void touchUp(InputEvent event, float x, float y, int pointer, int button) {
       deleting = false;
+      editor.endActionGroup();
     };
   };
 
@@ -116,23 +119,12 @@ public class DeletionTool extends EditorTool {
   /**
    * Represents a deletion operation
    */
-  public static class Deletion implements EditorAction {
-    Array<Item> objs;
-    LevelEditor editor;
-
+  public static class Deletion extends GridDelta {
     public Deletion(LevelEditor editor, Item... objs) {
-      this.objs = Array.with(objs);
-      this.editor = editor;
-    }
-
-    @Override
-    public void doAction() {
-      objs.forEach((o) -> o.remove());
-    }
-
-    @Override
-    public void undoAction() {
-      objs.forEach((o) -> editor.placeItem(o));
+      super(editor);
+      for (Item o : objs) {
+        removed(o);
+      }
     }
   }
 
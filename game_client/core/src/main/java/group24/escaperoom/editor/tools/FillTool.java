@@ -1,29 +1,43 @@
 package group24.escaperoom.editor.tools;
 
+import java.util.Arrays;
 import java.util.Optional;
 
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.InputListener;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 
-import group24.escaperoom.editor.core.ActionHistory.EditorAction;
-import group24.escaperoom.editor.core.DragManager.PlacementAction;
+import group24.escaperoom.editor.core.GridDelta;
 import group24.escaperoom.editor.core.ToolManager.ToolType;
 import group24.escaperoom.engine.control.CursorManager;
 import group24.escaperoom.engine.control.CursorManager.CursorType;
+import group24.escaperoom.engine.types.IntVector2;
 import group24.escaperoom.game.entities.Item;
 import group24.escaperoom.game.entities.properties.PropertyType;
-import group24.escaperoom.game.entities.properties.TiledBrushable;
-import group24.escaperoom.screens.AbstractScreen;
 import group24.escaperoom.screens.LevelEditor;
 
 public class FillTool extends EditorTool {
   private Brush brush;
-  boolean[][] visited = new boolean[AbstractScreen.WORLD_HEIGHT][AbstractScreen.WORLD_WIDTH];
+
+  private static final byte UNVISITED = 0;
+  private static final byte FILLED = 1;
+  private static final byte BLOCKED = 2;
+
+  /**
+   * Visit state of every tile of the grid, indexed by {@code y * width + x}
+   */
+  private byte[] visited = new byte[0];
+  private int width, height;
+
+  /**
+   * Tiles to fill, packed as {@code y * width + x}
+   */
+  private IntArray region = new IntArray();
+  private IntArray seeds = new IntArray();
 
   public FillTool(LevelEditor stage) {
     super(stage);
-    resetVisted();
   }
 
   //----------------------------------------------------------------------------
@@ -43,13 +57,19 @@ public class FillTool extends EditorTool {
   // Fill logic
   //----------------------------------------------------------------------------
   private interface FloodAction {
-    public boolean visit(int x, int y);
-    public void recordEditorAction();
+    /**
+     * @return whether or not the flood may cover this tile
+     */
+    public boolean accepts(int x, int y);
+
+    /**
+     * Fill every tile of {@link FillTool#region} and record the editor action
+     */
+    public void apply();
   }
 
   private class Fill implements FloodAction {
-    Array<PlacementAction> placements = new Array<>();
-    public boolean visit(int x, int y){
+    public boolean accepts(int x, int y){
 
       // Don't go over a barrier or replace another item 
       // with the same render priority
@@ -61,26 +81,32 @@ public class FillTool extends EditorTool {
           }
         }
       }
-
-      brush.draw(x, y).ifPresent((i) -> {
-        placements.add(new PlacementAction(i, editor));
-      });
       return true;
     }
-    public void recordEditorAction(){
-      editor.recordEditorAction(new FloodFillAction(placements));
+
+    public void apply(){
+      Array<Item> placed = new Array<>();
+      for (int i = 0; i < region.size; i++) {
+        int tile = region.get(i);
+        brush.drawUnrefreshed(tile % width, tile / width).ifPresent(placed::add);
+      }
+
+      refreshAdjacency(region.toArray(), width, brush.getItem());
+
+      GridDelta fill = new GridDelta(editor);
+      placed.forEach(fill::placed);
+      editor.recordEditorAction(fill);
     }
   }
 
   private class Replace implements FloodAction {
     Item target;
-    Array<ReplacementAction> replacements = new Array<>();
     public Replace(Item target){
       this.target = target;
     }
 
-    public boolean visit(int x, int y){
-      Item toReplace = editor.getItemsAt(x, y).flatMap(items -> {
+    private Item toReplace(int x, int y){
+      return editor.getItemsAt(x, y).flatMap(items -> {
         for (Item item : items){
           if (item.getItemName().equals(target.getItemName())){
             return Optional.of(item);
@@ -88,57 +114,119 @@ public class FillTool extends EditorTool {
         }
         return Optional.empty();
       }).orElse(null);
+    }
 
-      if (toReplace == null) return false;
+    public boolean accepts(int x, int y){
+      return toReplace(x, y) != null;
+    }
 
-      // remove our old item
-      toReplace.remove();
+    public void apply(){
+      Array<Item> removed = new Array<>();
+      Array<Item> added = new Array<>();
+      for (int i = 0; i < region.size; i++) {
+        int tile = region.get(i);
+        Item old = toReplace(tile % width, tile / width);
+
+        // an item covering several tiles is only replaced once
+        if (old == null) continue;
+
+        // remove our old item
+        old.remove();
+
+        Optional<Item> replacement = brush.drawUnrefreshed(tile % width, tile / width);
+        if (replacement.isPresent()) {
+          removed.add(old);
+          added.add(replacement.get());
+        } else {
+          editor.placeItem(old);
+        }
+      }
 
-      brush.draw(x, y).ifPresent((i) -> {
-        replacements.add(new ReplacementAction(toReplace, i));
-      });
-      return true;
-    }
+      int[] tiles = region.toArray();
+      refreshAdjacency(tiles, width, brush.getItem());
+      refreshAdjacency(tiles, width, target);
 
-    public void recordEditorAction(){
-      editor.recordEditorAction(new FloodReplaceAction(replacements));
+      GridDelta replace = new GridDelta(editor);
+      removed.forEach(replace::removed);
+      added.forEach(replace::placed);
+      editor.recordEditorAction(replace);
     }
   }
 
-
-  private void resetVisted() {
-    for (int y = 0; y < AbstractScreen.WORLD_HEIGHT; y++) {
-      for (int x = 0; x < AbstractScreen.WORLD_WIDTH; x++) {
-        visited[y][x] = false;
-      }
+  /**
+   * Size {@link FillTool#visited} to the current grid and mark every tile unvisited
+   */
+  private void resetVisited() {
+    width = editor.getGrid().getWidth();
+    height = editor.getGrid().getHeight();
+    if (visited.length != width * height) {
+      visited = new byte[width * height];
+    } else {
+      Arrays.fill(visited, UNVISITED);
     }
   }
 
-  private boolean validLocation(int x, int y){
-    return !(x < 0 || x >= AbstractScreen.WORLD_WIDTH || y < 0 || y >= AbstractScreen.WORLD_HEIGHT || visited[y][x]);
+  private boolean inBounds(int x, int y){
+    return !(x < 0 || x >= width || y < 0 || y >= height);
   }
 
-  private boolean flood(int x, int y, FloodAction action){
-    if (!validLocation(x, y))  return false;
+  /**
+   * @return whether the flood may cover {@code (x, y)} and has not yet done so
+   */
+  private boolean fillable(int x, int y, FloodAction action){
+    int i = y * width + x;
+    if (visited[i] != UNVISITED) return false;
+    if (action.accepts(x, y)) return true;
 
-    visited[y][x] = true;
+    visited[i] = BLOCKED;
+    return false;
+  }
 
-    if (!action.visit(x, y)) return false;
+  /**
+   * Collect into {@link FillTool#region} every tile connected to {@code (x, y)}
+   * (without going diagonally) which {@code action} accepts.
+   *
+   * Scanline fill: each seed is extended into the longest horizontal run it
+   * belongs to, and the rows above and below that run get one seed for each
+   * of their fillable runs, so the work stack stays small regardless of the
+   * size of the region.
+   */
+  private void flood(int x, int y, FloodAction action){
+    seeds.clear();
+    seeds.add(y * width + x);
+
+    while (seeds.notEmpty()) {
+      int seed = seeds.pop();
+      int sy = seed / width;
+      int sx = seed % width;
+      if (!fillable(sx, sy, action)) continue;
+
+      int left = sx;
+      while (left > 0 && fillable(left - 1, sy, action)) left--;
+      int right = sx;
+      while (right < width - 1 && fillable(right + 1, sy, action)) right++;
+
+      for (int rx = left; rx <= right; rx++) {
+        visited[sy * width + rx] = FILLED;
+        region.add(sy * width + rx);
+      }
 
+      for (int ny = sy - 1; ny <= sy + 1; ny += 2) {
+        if (ny < 0 || ny >= height) continue;
 
-    for (int dy = -1; dy <= 1; dy++) {
-      for (int dx = -1; dx <= 1; dx++) {
-        if (Math.abs(dy) == Math.abs(dx)) {
-          continue;
+        boolean inRun = false;
+        for (int rx = left; rx <= right; rx++) {
+          boolean open = fillable(rx, ny, action);
+          if (open && !inRun) seeds.add(ny * width + rx);
+          inRun = open;
         }
-        flood(x + dx, y + dy, action);
       }
     }
-    return true;
   }
 
   private boolean startFlood(int x, int y) {
-    if (!validLocation(x, y)) return false; 
+    resetVisited();
+    if (!inBounds(x, y)) return false; 
 
     FloodAction action = editor.getItemsAt(x, y).map(items -> {
       for (Item item : items){
@@ -149,85 +237,44 @@ public class FillTool extends EditorTool {
       return new Fill();
     }).orElse(new Fill());
 
-    if(flood(x, y, action)){
-      action.recordEditorAction();
-      return true;
-    } else {
-      return false;
-    }
-
-  }
+    region.clear();
+    flood(x, y, action);
+    if (region.isEmpty()) return false;
 
-  //----------------------------------------------------------------------------
-  // Tool action
-  //----------------------------------------------------------------------------
-
-  private class FloodFillAction implements EditorAction {
-    private Array<PlacementAction> placements;
-
-    private FloodFillAction(Array<PlacementAction> placements) {
-      this.placements = placements;
-    }
-
-    @Override
-    public void doAction() {
-      placements.forEach((pa) -> pa.doAction());
-    }
-
-    @Override
-    public void undoAction() {
-      placements.forEach((pa) -> pa.undoAction());
-    }
-  }
-
-  private class ReplacementAction implements EditorAction {
-    private Item removed;
-    private Item added;
-
-    private ReplacementAction(Item removed, Item added) {
-      this.removed = removed;
-      this.added = added;
-    }
-
-    @Override
-    public void doAction() {
-      removed.remove();
-      editor.placeItem(added);
-      added.getProperty(PropertyType.TiledBrushable, TiledBrushable.class).ifPresent((tbp) -> {
-        tbp.refreshAdjacency(editor);
-      });
-    }
-
-    @Override
-    public void undoAction() {
-      added.remove();
-      editor.placeItem(removed);
-      removed.getProperty(PropertyType.TiledBrushable, TiledBrushable.class).ifPresent((tbp) -> {
-        tbp.refreshAdjacency(editor);
-      });
-    }
+    action.apply();
+    region.clear();
+    return true;
   }
 
-  private class FloodReplaceAction implements EditorAction {
-    private Array<ReplacementAction> replacements;
-
-    private FloodReplaceAction(Array<ReplacementAction> replacements) {
-      this.replacements = replacements;
-    }
-
-    @Override
-    public void doAction() {
-      replacements.forEach((pa) -> pa.doAction());
-    }
-
-    @Override
-    public void undoAction() {
-      replacements.forEach((pa) -> pa.undoAction());
+  /**
+   * Recompute, once per tile, the orientation of the tiled items matching
+   * {@code item} on every tile of {@code tiles} and the tiles around them
+   */
+  private void refreshAdjacency(int[] tiles, int tilesWidth, Item item) {
+    if (!item.hasProperty(PropertyType.TiledBrushable)) return;
+
+    int gridWidth = editor.getGrid().getWidth();
+    int gridHeight = editor.getGrid().getHeight();
+    boolean[] refreshed = new boolean[gridWidth * gridHeight];
+    IntVector2 pos = new IntVector2(0, 0);
+
+    for (int tile : tiles) {
+      int tx = tile % tilesWidth;
+      int ty = tile / tilesWidth;
+      for (int dy = -1; dy <= 1; dy++) {
+        for (int dx = -1; dx <= 1; dx++) {
+          int x = tx + dx, y = ty + dy;
+          if (x < 0 || x >= gridWidth || y < 0 || y >= gridHeight || refreshed[y * gridWidth + x]) continue;
+
+          refreshed[y * gridWidth + x] = true;
+          pos.x = x;
+          pos.y = y;
+          TiledBrush.updateTiles(pos, editor, item, false);
+        }
+      }
     }
   }
 
-
-
   //---------------------------------------------------------------------------
   // Input handling
   //---------------------------------------------------------------------------
@@ -239,10 +286,6 @@ public class FillTool extends EditorTool {
       }
       return false;
     }
-
-    public void touchUp(InputEvent event, float x, float y, int pointer, int button) {
-      resetVisted();
-    }
   };
 
 
@@ -252,7 +295,6 @@ public class FillTool extends EditorTool {
 
   @Override
   public void select() {
-    resetVisted();
     CursorManager.setCursor(CursorType.Fill);
     editor.addListener(listener);
   }
@@ -75,11 +75,10 @@ public class ItemSelectionTool extends SelectionTool implements Pollable {
       Array<Item> items = selection.getItems();
       Item[] itemsArr = new Item[items.size];
       for (int i = 0; i < items.size; i++) {
-        Item item = items.get(i);
-        item.remove();
-        itemsArr[i] = item;
+        itemsArr[i] = items.get(i);
       }
-      editor.recordEditorAction(new Deletion(editor, itemsArr));
+      Deletion deletion = new Deletion(editor, itemsArr);
+      if (deletion.doAction()) editor.recordEditorAction(deletion);
       selection.clearSelectedItems();
     });
     editor.removeOverlayDrawable(this);
@@ -10,12 +10,13 @@ import com.badlogic.gdx.scenes.scene2d.InputListener;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.Array;
 
+import group24.escaperoom.editor.core.GridDelta;
 import group24.escaperoom.engine.control.CursorManager;
 import group24.escaperoom.engine.control.CursorManager.CursorType;
 import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.world.GridTransaction;
 import group24.escaperoom.screens.LevelEditor;
 import group24.escaperoom.engine.types.IntVector2;
-import group24.escaperoom.editor.core.ActionHistory.EditorAction;
 import group24.escaperoom.editor.core.ToolManager.ToolType;
 import group24.escaperoom.editor.tools.SelectionTool.Selection;
 
@@ -83,44 +84,31 @@ public class MoveTool extends EditorTool {
     public void handleDrag(float x, float y) {
       Vector2 newPos = new Vector2(x, y);
 
-      // remove all the selected items from the grid so we can "overlap ourselves"
+      // the items leave their tiles before taking new ones, so they can "overlap themselves"
+      GridTransaction move = new GridTransaction(editor);
       for (MovingItem i : items) {
-        editor.grid.removeItem(i.item);
+        IntVector2 newPosI = i.newPositionFor(newPos);
+        move.move(i.item, newPosI.x, newPosI.y);
       }
+      if (move.isEmpty()) return;
 
-      boolean illegalMove = false;
-      // check if we can place every item legally
+      // check if we can place every item legally, without touching the grid
+      Array<Item> illegal = move.findConflicts();
       for (MovingItem i : items) {
-        if (!editor.canPlace(i.item, i.newPositionFor(newPos))) {
-          CursorManager.setCursor(CursorType.InvalidMove);
+        if (illegal.contains(i.item, true)) {
           i.item.setColor(1, 0.5f, 0.5f, 0.5f);
-          illegalMove = true;
         } else {
           i.item.setColor(1, 1, 1, 0.5f);
         }
       }
 
-      if (illegalMove){
-        // if we can't replace the items on the grid and bail
-        for (MovingItem item : items) {
-          editor.grid.placeItem(item.item);
-        }
+      if (!illegal.isEmpty()){
+        CursorManager.setCursor(CursorType.InvalidMove);
         return;
       }
 
       CursorManager.setCursor(CursorType.Move);
-
-      // update their positions
-      for (MovingItem i : items) {
-        IntVector2 newPosI = i.newPositionFor(newPos);
-        i.item.moveTo(newPosI.x, newPosI.y);
-        i.item.setColor(1, 1, 1, 0.5f);
-      }
-
-      // add them back to the grid
-      for (MovingItem item : items) {
-        editor.grid.placeItem(item.item);
-      }
+      move.commit();
 
       // update the position of the selection
       Vector2 selectionPt = new Vector2(MathUtils.floor(newPos.x + selectionOffset.x),
@@ -131,11 +119,13 @@ public class MoveTool extends EditorTool {
 
     @Override
     public void handleUp(float x, float y) {
+      GridDelta moves = new GridDelta(editor);
       for (MovingItem i : items) {
         i.pos.finalPosition = i.item.getPosition();
         i.item.setColor(1,1,1,1);
+        moves.moved(i.item, i.pos.originalPosition, i.pos.finalPosition);
       }
-      editor.recordEditorAction(new BulkMoveAction(items));
+      editor.recordEditorAction(moves);
       this.items = new Array<>();
     }
 
@@ -145,9 +135,12 @@ public class MoveTool extends EditorTool {
 
     @Override
     public void cancel() {
+      GridTransaction undo = new GridTransaction(editor);
       for (MovingItem i : items) {
-        i.returnToWhenceYouCame();
+        undo.move(i.item, i.pos.originalPosition.x, i.pos.originalPosition.y);
+        i.item.setAlpha(1);
       }
+      undo.commit();
     }
 
     // Inner class bundling position information
@@ -167,11 +160,6 @@ public class MoveTool extends EditorTool {
       public IntVector2 newPositionFor(Vector2 point) {
         return new IntVector2(MathUtils.floor(point.x + this.offsets.x), MathUtils.floor(point.y + this.offsets.y));
       }
-
-      public void returnToWhenceYouCame() {
-        item.moveTo(pos.originalPosition.x, pos.originalPosition.y);
-        item.setAlpha(1);
-      }
     }
 
     // Bundle of original and new positions
@@ -179,28 +167,6 @@ public class MoveTool extends EditorTool {
       IntVector2 originalPosition;
       IntVector2 finalPosition;
     }
-
-    private class BulkMoveAction implements EditorAction {
-      private Array<MovingItem> items;
-
-      public BulkMoveAction(Array<MovingItem> items) {
-        this.items = items;
-      }
-
-      @Override
-      public void doAction() {
-        for (MovingItem info : items) {
-          info.item.moveTo(info.pos.finalPosition.x, info.pos.finalPosition.y);
-        }
-      }
-
-      @Override
-      public void undoAction() {
-        for (MovingItem info : items) {
-          info.item.moveTo(info.pos.originalPosition.x, info.pos.originalPosition.y);
-        }
-      }
-    }
   }
 
   public static class SoloMoveTool implements MovesItems {
@@ -251,7 +217,7 @@ public class MoveTool extends EditorTool {
     public void handleUp(float x, float y) {
       finalPosition = target.getPosition().cpy();
       target.setColor(1,1,1,1);
-      editor.recordEditorAction(new MoveAction());
+      editor.recordEditorAction(new GridDelta(editor).moved(target, originalPosition, finalPosition));
     }
 
     //-------------------------------------------------------------------------
@@ -263,18 +229,6 @@ public class MoveTool extends EditorTool {
       target.moveTo(originalPosition.x, originalPosition.y);
       target.setAlpha(1);
     }
-
-    private class MoveAction implements EditorAction {
-      @Override
-      public void doAction() {
-        target.moveTo(finalPosition.x, finalPosition.y);
-      }
-
-      @Override
-      public void undoAction() {
-        target.moveTo(originalPosition.x, originalPosition.y);
-      }
-    }
   }
   
   
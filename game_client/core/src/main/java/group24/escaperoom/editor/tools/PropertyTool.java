@@ -9,9 +9,13 @@ import com.badlogic.gdx.Input.Buttons;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.InputListener;
+import com.badlogic.gdx.utils.Null;
 
 import group24.escaperoom.editor.core.ActionHistory.EditorAction;
 import group24.escaperoom.editor.core.ToolManager.ToolType;
+import group24.escaperoom.editor.events.EditorEvent;
+import group24.escaperoom.editor.events.EditorEvent.EventType;
+import group24.escaperoom.editor.events.EditorEventBus;
 import group24.escaperoom.editor.ui.GridView;
 import group24.escaperoom.editor.ui.ItemDecoration;
 import group24.escaperoom.editor.ui.Menu;
@@ -26,8 +30,8 @@ import group24.escaperoom.game.entities.Item;
 import group24.escaperoom.game.entities.properties.PropertyType;
 import group24.escaperoom.game.entities.properties.base.ItemProperty;
 import group24.escaperoom.game.entities.properties.values.ItemPropertyValue;
-import group24.escaperoom.game.world.Grid;
 import group24.escaperoom.screens.LevelEditor;
+import group24.escaperoom.screens.MapScreen;
 import group24.escaperoom.ui.notifications.Notifier;
 
 public class PropertyTool extends EditorTool {
@@ -133,9 +137,6 @@ public class PropertyTool extends EditorTool {
     if (!oTarget.isPresent()) return;
     Item i = oTarget.get();
 
-    // clear state here, as we need to call all of these callbacks when done
-    Grid.onMapCompletion.clear();
-
     // only paste if this state allows it
     switch (state) {
       case Inactive:
@@ -145,7 +146,7 @@ public class PropertyTool extends EditorTool {
 
         itemProperties.forEach(p -> {
           if (!excludedProperties.contains(p.getType())) {
-            i.addProperty(p.cloneProperty(i));
+            editor.grid.readNow(() -> i.addProperty(p.cloneProperty(i)));
           }
         });
 
@@ -155,17 +156,15 @@ public class PropertyTool extends EditorTool {
       case Property:
         if (!i.hasProperty(singleProperty.getType())) return;
 
-        i.addProperty(singleProperty.cloneProperty(i));
+        editor.grid.readNow(() -> i.addProperty(singleProperty.cloneProperty(i)));
         // editor.recordEditorAction(new SetProperty(i, , replacement));
 
         break;
     }
 
 
+    EditorEventBus.post(new EditorEvent(EventType.ItemChanged, i));
     Notifier.info(String.format("Pasted properties to %s", i.getItemName()));
-
-    // apply created callbacks
-    Grid.onMapCompletion.forEach((f) -> f.apply(editor.grid));
     return;
   }
 
@@ -266,52 +265,77 @@ public class PropertyTool extends EditorTool {
    */
   public static class SetProperty implements EditorAction {
     State state;
-    Item item;
+    // the item is looked up by id, as undoing its deletion rebuilds it
+    MapScreen screen;
+    int id;
     Collection<ItemProperty<? extends ItemPropertyValue>> originals, replacement;
     ItemProperty<? extends ItemPropertyValue> original, replaced;
 
     public SetProperty(Item item, Collection<ItemProperty<? extends ItemPropertyValue>> originals, Collection<ItemProperty<? extends ItemPropertyValue>> replacement) {
       this.state = State.Item;
-      this.item = item;
+      this.screen = item.map;
+      this.id = item.getID();
       this.originals = originals;
       this.replacement = replacement;
     }
 
     public SetProperty(Item item, ItemProperty<? extends ItemPropertyValue> original, ItemProperty<? extends ItemPropertyValue> replaced) {
       this.state = State.Property;
-      this.item = item;
+      this.screen = item.map;
+      this.id = item.getID();
       this.original = original;
       this.replaced = replaced;
     }
 
-    @Override
-    public void doAction() {
-      switch (this.state) {
-        case Inactive:
-          throw new IllegalStateException();
-        case Item:
-          replacement.forEach(p -> {
-            item.addProperty(p);
-          });
-        case Property:
-          item.addProperty(replaced);
-          break;
+    private void set(Item item, @Null ItemProperty<? extends ItemPropertyValue> p) {
+      if (p == null) return;
+      if (p.getOwner() == item) {
+        item.addProperty(p);
+        return;
       }
+
+      // clones copied through json resolve the items they reference, as when pasted
+      screen.getGrid().readNow(() -> item.addProperty(p.cloneProperty(item)));
     }
 
     @Override
-    public void undoAction() {
-      switch (this.state) {
-        case Inactive:
-          throw new IllegalStateException();
-        case Item:
-          originals.forEach(p -> {
-            item.addProperty(p);
-          });
-        case Property:
-          item.addProperty(original);
-          break;
-      }
+    public boolean doAction() {
+      Optional<Item> target = screen.getGrid().getItemByID(id);
+      target.ifPresent((item) -> {
+        switch (this.state) {
+          case Inactive:
+            throw new IllegalStateException();
+          case Item:
+            replacement.forEach(p -> {
+              set(item, p);
+            });
+          case Property:
+            set(item, replaced);
+            break;
+        }
+        screen.itemChanged(item);
+      });
+      return target.isPresent();
+    }
+
+    @Override
+    public boolean undoAction() {
+      Optional<Item> target = screen.getGrid().getItemByID(id);
+      target.ifPresent((item) -> {
+        switch (this.state) {
+          case Inactive:
+            throw new IllegalStateException();
+          case Item:
+            originals.forEach(p -> {
+              set(item, p);
+            });
+          case Property:
+            set(item, original);
+            break;
+        }
+        screen.itemChanged(item);
+      });
+      return target.isPresent();
     }
   }
 
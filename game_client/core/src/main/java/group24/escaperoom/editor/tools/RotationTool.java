@@ -1,14 +1,19 @@
 package group24.escaperoom.editor.tools;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.InputListener;
 
-import group24.escaperoom.editor.core.ActionHistory.EditorAction;
+import group24.escaperoom.editor.core.ActionHistory.JournaledAction;
 import group24.escaperoom.editor.core.ToolManager.ToolType;
 import group24.escaperoom.engine.control.CursorManager;
 import group24.escaperoom.engine.control.CursorManager.CursorType;
 import group24.escaperoom.game.entities.Item;
 import group24.escaperoom.screens.LevelEditor;
+import group24.escaperoom.screens.MapScreen;
 
 public class RotationTool extends EditorTool {
 
@@ -58,21 +63,49 @@ public class RotationTool extends EditorTool {
   /**
    * Represents a rotation operation
    */
-  public static class RotationAction implements EditorAction {
-    Item target;
+  public static class RotationAction implements JournaledAction {
+    final MapScreen screen;
+    final int id;
 
     public RotationAction(Item obj) {
-      this.target = obj;
+      this(obj.map, obj.getID());
+    }
+
+    private RotationAction(MapScreen screen, int id) {
+      this.screen = screen;
+      this.id = id;
+    }
+
+    @Override
+    public boolean doAction() {
+      return rotateBy(90);
+    }
+
+    @Override
+    public boolean undoAction() {
+      return rotateBy(-90);
+    }
+
+    private boolean rotateBy(int degrees) {
+      Optional<Item> item = screen.getGrid().getItemByID(id);
+      item.ifPresent((i) -> i.rotateBy(degrees));
+      return item.isPresent();
+    }
+
+    @Override
+    public long sizeEstimate() {
+      return 32;
     }
 
     @Override
-    public void doAction() {
-      target.rotateBy(90);
+    public void write(DataOutputStream out) throws IOException {
+      out.writeInt(id);
     }
 
     @Override
-    public void undoAction() {
-      target.rotateBy(-90);
+    public Reader reader() {
+      MapScreen screen = this.screen;
+      return (in) -> new RotationAction(screen, in.readInt());
     }
   }
 
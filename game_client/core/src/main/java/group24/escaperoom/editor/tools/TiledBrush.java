@@ -530,6 +530,11 @@ IntVector2 newPos = new IntVector2((int) x, (int) y);
     return "TiledBrush for " + item.getItemName();
   }
 
+  @Override
+  public Optional<Item> drawUnrefreshed(int x, int y) {
+    return super.draw(x, y);
+  }
+
   @Override
   public Optional<Item> draw(int x, int y) {
     IntVector2 newPos = new IntVector2( x, y);
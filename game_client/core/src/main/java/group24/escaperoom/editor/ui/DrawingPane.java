@@ -1,10 +1,11 @@
 package group24.escaperoom.editor.ui;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.InputListener;
@@ -25,40 +26,30 @@ public class DrawingPane extends Actor {
   private RectangleBrush rectangleBrush = new RectangleBrush();
   private ItemBrush itemBrush = new ItemBrush();
 
+  // pixels drawn on since the last upload, empty when min > max
+  private int dirtyX0 = Integer.MAX_VALUE, dirtyY0 = Integer.MAX_VALUE;
+  private int dirtyX1 = Integer.MIN_VALUE, dirtyY1 = Integer.MIN_VALUE;
+  // region of the canvas being uploaded, reused while strokes are the same size
+  private Pixmap upload;
+
   private class ItemBrush implements Brush {
-    private int lastBrushSize = brushSize;
     private Item currentItem;
-    private Pixmap itemPixmap;
 
     public void setItem(Item item) {
       currentItem = item;
-      updateBrush();
-    }
-
-    private void updateBrush(){
-      if (currentItem == null){
-        return;
-      }
-      if (itemPixmap != null){
-        itemPixmap.dispose();
-      }
-      itemPixmap = PixMapHelper.fromTextureRegion(new AtlasRegion(currentItem.getTexture()), brushSize);
-      lastBrushSize = brushSize;
     }
 
     public void drawPixel(int x, int y) {
       if (currentItem == null){
         return;
       }
-      if (itemPixmap == null) {
-        updateBrush();
-      }
 
-      if (brushSize != lastBrushSize) {
-        updateBrush();
-      }
-
-      pixmap.drawPixmap(itemPixmap, x - itemPixmap.getWidth() / 2, y - itemPixmap.getHeight()/2);
+      // stamps are cached per region and size, so changing the brush is cheap
+      Pixmap stamp = PixMapHelper.stamp(currentItem.getTexture(), brushSize);
+      int sx = x - stamp.getWidth() / 2;
+      int sy = y - stamp.getHeight() / 2;
+      pixmap.drawPixmap(stamp, sx, sy);
+      markDirty(sx, sy, sx + stamp.getWidth() - 1, sy + stamp.getHeight() - 1);
     }
   }
 
@@ -66,8 +57,11 @@ public class DrawingPane extends Actor {
     public void drawPixel(int x, int y) {
       if (brushSize == 1) {
         pixmap.drawPixel(x, y);
+        markDirty(x, y, x, y);
       } else {
-        pixmap.fillCircle(x, y, brushSize / 2);
+        int r = brushSize / 2;
+        pixmap.fillCircle(x, y, r);
+        markDirty(x - r, y - r, x + r, y + r);
       }
     }
   }
@@ -76,8 +70,10 @@ public class DrawingPane extends Actor {
     public void drawPixel(int x, int y) {
       if (brushSize == 1) {
         pixmap.drawPixel(x, y);
+        markDirty(x, y, x, y);
       } else {
         pixmap.fillRectangle(x, y, brushSize, brushSize);
+        markDirty(x, y, x + brushSize - 1, y + brushSize - 1);
       }
     }
   }
@@ -97,7 +93,6 @@ public class DrawingPane extends Actor {
     this.pixmap = pixmap;
     texture = new Texture(pixmap);
     pixmap.setColor(canvasColor);
-    updateTexture();
 
     addListener(new InputListener() {
       @Override
@@ -140,7 +135,6 @@ public class DrawingPane extends Actor {
     pixmap.setColor(currentColor);
     int invY = (int) getHeight() - y;
     brush.drawPixel(x, invY);
-    updateTexture();
   }
 
   private void drawLine(int x1, int y1, int x2, int y2) {
@@ -173,11 +167,50 @@ public class DrawingPane extends Actor {
         cy += sy;
       }
     }
-    updateTexture();
   }
 
+  /**
+   * Grow the region of the canvas to upload on the next frame to include the
+   * given pixels (inclusive, in pixmap coordinates)
+   */
+  private void markDirty(int x0, int y0, int x1, int y1) {
+    dirtyX0 = Math.min(dirtyX0, x0);
+    dirtyY0 = Math.min(dirtyY0, y0);
+    dirtyX1 = Math.max(dirtyX1, x1);
+    dirtyY1 = Math.max(dirtyY1, y1);
+  }
+
+  /**
+   * Upload the pixels drawn on since the last frame, and only those
+   */
   private void updateTexture() {
-    texture.draw(pixmap, 0, 0);
+    int x0 = Math.max(dirtyX0, 0);
+    int y0 = Math.max(dirtyY0, 0);
+    int x1 = Math.min(dirtyX1, pixmap.getWidth() - 1);
+    int y1 = Math.min(dirtyY1, pixmap.getHeight() - 1);
+    dirtyX0 = dirtyY0 = Integer.MAX_VALUE;
+    dirtyX1 = dirtyY1 = Integer.MIN_VALUE;
+    if (x0 > x1 || y0 > y1) return;
+
+    int w = x1 - x0 + 1;
+    int h = y1 - y0 + 1;
+    if (w == pixmap.getWidth() && h == pixmap.getHeight()) {
+      texture.draw(pixmap, 0, 0);
+      return;
+    }
+
+    // the rows of a region are not contiguous in the canvas, so copy them out first
+    if (upload == null || upload.getWidth() != w || upload.getHeight() != h) {
+      if (upload != null) upload.dispose();
+      upload = new Pixmap(w, h, pixmap.getFormat());
+      upload.setBlending(Pixmap.Blending.None);
+    }
+    upload.drawPixmap(pixmap, x0, y0, w, h, 0, 0, w, h);
+
+    texture.bind();
+    Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 1);
+    Gdx.gl.glTexSubImage2D(GL20.GL_TEXTURE_2D, 0, x0, y0, w, h,
+      upload.getGLFormat(), upload.getGLType(), upload.getPixels());
   }
 
   public void setDrawColor(Color color) {
@@ -211,11 +244,13 @@ public class DrawingPane extends Actor {
   public void clear() {
     pixmap.setColor(canvasColor);
     pixmap.fill();
-    updateTexture();
+    markDirty(0, 0, pixmap.getWidth() - 1, pixmap.getHeight() - 1);
   }
 
   @Override
   public void draw(Batch batch, float parentAlpha) {
+    // strokes since the last frame are uploaded together
+    updateTexture();
     batch.draw(texture, getX(), getY(), getWidth(), getHeight());
   }
 }
@@ -29,7 +29,6 @@ import group24.escaperoom.engine.assets.items.ItemLoader.LoadedObjects;
 import group24.escaperoom.engine.assets.items.ItemTypeData;
 import group24.escaperoom.engine.assets.maps.GameSettings;
 import group24.escaperoom.engine.assets.maps.MapData;
-import group24.escaperoom.engine.assets.maps.MapSaver;
 import group24.escaperoom.engine.types.IntVector2;
 import group24.escaperoom.game.entities.Item;
 import group24.escaperoom.game.entities.properties.PropertyType;
@@ -258,7 +257,7 @@ public class EditorUI {
     playButton.addListener(new ChangeListener() {
       public void changed(ChangeEvent event, Actor actor) {
         if (playButton.isChecked()) {
-          boolean s = MapSaver.saveMap(screen.getGrid(), screen.getMetadata());
+          boolean s = screen.saveMap();
           if (s) {
             screen.setPlayMode();
             playButton.setChecked(false);
@@ -274,12 +273,14 @@ public class EditorUI {
     saveButton.addListener(new ChangeListener() {
       public void changed(ChangeEvent event, Actor actor) {
         if (saveButton.isChecked()) {
-          boolean s = MapSaver.saveMap(screen.getGrid(), screen.getMetadata());
-          if (s) {
-            Notifier.info("Map saved");
-          } else {
-            Notifier.warn("Map failed to save");
-          }
+          // written on the journal thread, large maps would stall the editor otherwise
+          screen.saveMapInBackground().thenAccept((s) -> Gdx.app.postRunnable(() -> {
+            if (s) {
+              Notifier.info("Map saved");
+            } else {
+              Notifier.warn("Map failed to save");
+            }
+          }));
           saveButton.setChecked(false);
         }
       }
@@ -290,7 +291,7 @@ public class EditorUI {
     newItemBtn.addListener(new ChangeListener() {
       public void changed(ChangeEvent event, Actor actor) {
         if (newItemBtn.isChecked()) {
-          if (MapSaver.saveMap(screen.grid, screen.getMetadata())){
+          if (screen.saveMap()){
             ScreenManager.instance().showScreen(new ItemEditor(
               new MapData(screen.grid, screen.getMetadata()), null));
           } else {
@@ -4,11 +4,13 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Align;
 
 import group24.escaperoom.editor.core.ToolManager.ToolType;
+import group24.escaperoom.editor.events.EditorEvent;
+import group24.escaperoom.editor.events.EditorEvent.EventType;
+import group24.escaperoom.editor.events.EditorEventBus;
 import group24.escaperoom.editor.tools.DeletionTool.Deletion;
 import group24.escaperoom.editor.tools.EyeDropTool;
 import group24.escaperoom.editor.tools.RotationTool.RotationAction;
 import group24.escaperoom.engine.assets.maps.MapData;
-import group24.escaperoom.engine.assets.maps.MapSaver;
 import group24.escaperoom.game.entities.Item;
 import group24.escaperoom.game.entities.properties.base.ItemProperty.MenuType;
 import group24.escaperoom.screens.ItemEditor;
@@ -42,7 +44,7 @@ public class ItemMenu extends Menu {
     add(new MenuEntryBuilder(this,"Edit Item Instance")
       .onClick(() -> {
         target.setSelected(false);
-        if (MapSaver.saveMap(editor.grid, editor.getMetadata())){
+        if (editor.saveMap()){
           ScreenManager.instance().showScreen(new ItemEditor(
             new MapData(editor.grid, editor.getMetadata()),  target), true
           );
@@ -112,4 +114,11 @@ public class ItemMenu extends Menu {
     pack();
   }
 
+  @Override
+  public void close() {
+    // properties, mirroring and render priority are edited here without
+    // placing or removing the item
+    EditorEventBus.post(new EditorEvent(EventType.ItemChanged, item));
+    super.close();
+  }
 }
@@ -0,0 +1,93 @@
+package group24.escaperoom.engine;
+
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Static class for measuring how long each phase of starting the game takes
+ *
+ * Phases are reported to a {@link Reporter} as they finish, by default to the log.
+ */
+public class StartupTimer {
+  private static Logger log = Logger.getLogger(StartupTimer.class.getName());
+
+  /**
+   * Receives startup timings
+   */
+  public interface Reporter {
+    /**
+     * Called when a phase finishes
+     *
+     * @param phase the name of the phase
+     * @param nanos how long it took
+     */
+    public void phase(String phase, long nanos);
+
+    /**
+     * Called once the game has started
+     *
+     * @param nanos how long since {@link StartupTimer#begin}
+     */
+    public void finished(long nanos);
+  }
+
+  private static Reporter reporter = new Reporter() {
+    @Override
+    public void phase(String phase, long nanos) {
+      log.info(String.format("%s took %.1f ms", phase, nanos / 1e6));
+    }
+
+    @Override
+    public void finished(long nanos) {
+      log.info(String.format("Started in %.1f ms", nanos / 1e6));
+    }
+  };
+
+  private static long start = -1;
+
+  /**
+   * Replace the reporter, e.g. to collect timings in a benchmark
+   */
+  public static void setReporter(Reporter r) {
+    reporter = r;
+  }
+
+  /**
+   * Start timing the whole startup, if not already started
+   */
+  public static void begin() {
+    if (start < 0) start = System.nanoTime();
+  }
+
+  /**
+   * Time one phase of startup
+   */
+  public static void time(String phase, Runnable r) {
+    time(phase, () -> {
+      r.run();
+      return null;
+    });
+  }
+
+  /**
+   * Time one phase of startup
+   *
+   * @return the result of the phase
+   */
+  public static <T> T time(String phase, Supplier<T> s) {
+    begin();
+    long t0 = System.nanoTime();
+    T result = s.get();
+    reporter.phase(phase, System.nanoTime() - t0);
+    return result;
+  }
+
+  /**
+   * Report the total startup time, once
+   */
+  public static void finish() {
+    if (start < 0) return;
+    reporter.finished(System.nanoTime() - start);
+    start = -1;
+  }
+}
@@ -1,12 +1,17 @@
 package group24.escaperoom.engine.assets;
 
+import java.io.File;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.logging.Logger;
 
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.utils.ObjectMap;
 
 /**
  * A wrapper around {@link com.badlogic.gdx.assets.AssetManager}
@@ -15,7 +20,19 @@ public class AssetManager extends com.badlogic.gdx.assets.AssetManager {
   Logger log = Logger.getLogger(AssetManager.class.getName());
   Optional<TextureAtlas> userAtlas = Optional.empty();
   TextureAtlas defaultAtlas;
+  /**
+   * Regions already looked up, only ever touched on the render thread
+   */
   HashMap<String, AtlasRegion> loadedTextures = new HashMap<>();
+  /**
+   * The thread the manager was created on, which has the GL context
+   */
+  private final Thread renderThread = Thread.currentThread();
+
+  /**
+   * Textures changed since the user atlas was packed, see {@link AssetManager#repackUserTextures}
+   */
+  Optional<IncrementalAtlas> changedTextures = Optional.empty();
 
   private static AssetManager mgr;
 
@@ -53,6 +70,31 @@ public class AssetManager extends com.badlogic.gdx.assets.AssetManager {
   public void clearUserTextures(){
     userAtlas.ifPresent((a) -> a.dispose());
     userAtlas = Optional.empty();
+    changedTextures.ifPresent((a) -> a.dispose());
+    changedTextures = Optional.empty();
+  }
+
+  /**
+   * Pack {@code textures} into spare pages and swap their regions in place of
+   * the ones currently loaded, leaving every other region untouched. Must be
+   * called on the render thread.
+   *
+   * Anything holding one of the previous regions (e.g. placed items) keeps
+   * it until it asks for the region again.
+   *
+   * @param textures the file of each changed texture, keyed on region name
+   * @return the region names which were swapped
+   */
+  public Set<String> repackUserTextures(Map<String, File> textures){
+    if (changedTextures.isEmpty()) changedTextures = Optional.of(new IncrementalAtlas());
+
+    ObjectMap<String, AtlasRegion> regions = changedTextures.get().pack(textures);
+    HashSet<String> swapped = new HashSet<>();
+    for (ObjectMap.Entry<String, AtlasRegion> e : regions) {
+      loadedTextures.put(e.key, e.value);
+      swapped.add(e.key);
+    }
+    return swapped;
   }
 
   /**
@@ -63,10 +105,13 @@ public class AssetManager extends com.badlogic.gdx.assets.AssetManager {
   }
 
   /**
+   * Must be called on the render thread, like anything else creating items
+   *
    * @param identifier the identifier of the region
    * @return the {@link AtlasRegion} or a placeholder texture if not found
    */
   public AtlasRegion getRegion(String identifier) {
+    assert Thread.currentThread() == renderThread : "regions must be looked up on the render thread";
 
     AtlasRegion cached = loadedTextures.get(identifier);
     if (cached != null){
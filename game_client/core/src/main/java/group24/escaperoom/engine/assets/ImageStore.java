@@ -0,0 +1,352 @@
+package group24.escaperoom.engine.assets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.Null;
+
+import group24.escaperoom.engine.assets.utils.ContentHash;
+import group24.escaperoom.game.entities.properties.PropertyType;
+
+/**
+ * Images (drawn by map creators) stored once per map, keyed on the content
+ * hash of their PNG encoding, in the {@code images} folder of the map content.
+ *
+ * Items hold the hash of their image and a {@link Handle} to the one decoded
+ * {@link Pixmap} (and {@link Texture}) shared by every item showing that image.
+ * Decoded images are reference counted, and disposed of once the last handle
+ * is released, either explicitly or when its holder is garbage collected.
+ *
+ * Images are only written to disk when a map or item referencing them is saved,
+ * and image files no longer referenced are deleted when the whole map is
+ * saved. An image is read back from the folder it was read from or saved to,
+ * which need not be the current map's (e.g. saving a copy of a map).
+ */
+public class ImageStore {
+  private static Logger log = Logger.getLogger(ImageStore.class.getName());
+  public static final String IMAGE_DIR = "images";
+
+  private static ImageStore store;
+  private static final Cleaner cleaner = Cleaner.create();
+
+  /**
+   * @return the singleton {@link ImageStore}
+   */
+  public static ImageStore instance() {
+    if (store == null) {
+      store = new ImageStore();
+    }
+    return store;
+  }
+
+  /**
+   * A reference to a shared image, which must not be drawn on
+   */
+  public static class Handle {
+    public final String hash;
+    public final Pixmap pixmap;
+    private final Cleaner.Cleanable cleanable;
+
+    private Handle(String hash, Pixmap pixmap, Object holder) {
+      this.hash = hash;
+      this.pixmap = pixmap;
+      this.cleanable = cleaner.register(holder, () -> instance().release(hash));
+    }
+
+    /**
+     * @return another reference to this image, released along with {@code holder}
+     */
+    public Handle acquire(Object holder) {
+      return instance().acquire(hash, holder).get();
+    }
+
+    /**
+     * @return the texture of this image, must be called on the render thread
+     */
+    public Texture getTexture() {
+      return instance().textureOf(hash);
+    }
+
+    /**
+     * Release this reference now rather than when its holder is collected
+     */
+    public void release() {
+      cleanable.clean();
+    }
+  }
+
+  private static class Entry {
+    // encoded image, null once it is known to be on disk
+    byte[] png;
+    // the images folder it is on disk in, null while only in memory
+    File source;
+    Pixmap pixmap;
+    Texture texture;
+    int refs;
+  }
+
+  private final HashMap<String, Entry> entries = new HashMap<>();
+  private Optional<File> directory = Optional.empty();
+
+  private ImageStore() {}
+
+  /**
+   * Read images of the map content at {@code contentPath}, forgetting unused
+   * images of any previous map
+   */
+  public synchronized void setMapContent(String contentPath) {
+    directory = Optional.of(new File(contentPath, IMAGE_DIR));
+    entries.values().removeIf((e) -> e.refs == 0);
+  }
+
+  /**
+   * Encode {@code pixmap}, without taking ownership of it
+   *
+   * @return the hash of the image
+   */
+  public String put(Pixmap pixmap) {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    PixmapIO.PNG png = new PixmapIO.PNG();
+    png.setFlipY(false);
+    try {
+      png.write(baos, pixmap);
+    } catch (IOException e) {
+      log.warning("Failed to encode image");
+    } finally {
+      png.dispose();
+    }
+    return put(baos.toByteArray());
+  }
+
+  /**
+   * @param png an encoded image
+   * @return the hash of the image
+   */
+  public synchronized String put(byte[] png) {
+    String hash = ContentHash.of(png);
+    Entry e = entries.computeIfAbsent(hash, (h) -> new Entry());
+    if (e.png == null && sourceOf(e).isEmpty()) {
+      if (onDisk(hash)) {
+        e.source = directory.get();
+      } else {
+        e.png = png;
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Take ownership of {@code pixmap}, sharing it as its image. If the image
+   * is already decoded, {@code pixmap} is disposed of in favour of it.
+   *
+   * @return a reference to the image, released along with {@code holder}
+   */
+  public synchronized Handle share(Pixmap pixmap, Object holder) {
+    String hash = put(pixmap);
+    Entry e = entries.get(hash);
+    if (e.pixmap == null) {
+      e.pixmap = pixmap;
+    } else if (e.pixmap != pixmap) {
+      pixmap.dispose();
+    }
+    e.refs++;
+    return new Handle(hash, e.pixmap, holder);
+  }
+
+  /**
+   * @return a reference to the image with {@code hash}, released along with
+   *         {@code holder}, empty if there is no such image
+   */
+  public synchronized Optional<Handle> acquire(String hash, Object holder) {
+    Entry e = entries.get(hash);
+    if (e == null || e.pixmap == null) {
+      Optional<byte[]> png = e != null && e.png != null ? Optional.of(e.png) : readFromDisk(hash, e);
+      if (png.isEmpty()) return Optional.empty();
+
+      Pixmap pixmap;
+      try {
+        pixmap = new Pixmap(png.get(), 0, png.get().length);
+      } catch (Exception ex) {
+        log.warning("Failed to decode image " + hash);
+        return Optional.empty();
+      }
+      if (e == null) {
+        e = new Entry();
+        e.source = directory.orElse(null);
+        entries.put(hash, e);
+      }
+      e.pixmap = pixmap;
+    }
+    e.refs++;
+    return Optional.of(new Handle(hash, e.pixmap, holder));
+  }
+
+  private synchronized Texture textureOf(String hash) {
+    Entry e = entries.get(hash);
+    if (e.texture == null) e.texture = new Texture(e.pixmap);
+    return e.texture;
+  }
+
+  private synchronized void release(String hash) {
+    Entry e = entries.get(hash);
+    if (e == null || --e.refs > 0) return;
+
+    Pixmap pixmap = e.pixmap;
+    Texture texture = e.texture;
+    e.pixmap = null;
+    e.texture = null;
+    // images still only in memory have to be kept until they are saved
+    if (e.png == null) entries.remove(hash);
+
+    // may be called from the cleaner thread, textures have to be disposed of on the render thread
+    if (texture != null) Gdx.app.postRunnable(texture::dispose);
+    if (pixmap != null) pixmap.dispose();
+  }
+
+  /**
+   * Write the images with {@code hashes} which are not on disk yet to the map content at {@code contentPath}
+   *
+   * @return whether every image could be written
+   */
+  public synchronized boolean save(String contentPath, Iterable<String> hashes) {
+    File dir = new File(contentPath, IMAGE_DIR);
+    if (!dir.exists() && !dir.mkdirs()) {
+      log.warning("Failed to create image dir " + dir.getAbsolutePath());
+      return false;
+    }
+
+    boolean saved = true;
+    for (String hash : hashes) {
+      File file = new File(dir, hash + ".png");
+      if (file.exists()) continue;
+
+      // saving to another map than the one images are read from
+      Entry e = entries.get(hash);
+      byte[] png = e != null && e.png != null ? e.png : readFromDisk(hash, e).orElse(null);
+      if (png == null) {
+        log.warning("Image " + hash + " is neither in memory nor on disk");
+        saved = false;
+        continue;
+      }
+
+      try {
+        Files.write(file.toPath(), png);
+      } catch (IOException ex) {
+        log.warning("Failed to save image " + file.getAbsolutePath());
+        saved = false;
+        continue;
+      }
+      if (e != null && directory.map(dir::equals).orElse(false)) {
+        e.png = null;
+        e.source = dir;
+        if (e.refs == 0) entries.remove(hash);
+      }
+    }
+    return saved;
+  }
+
+  /**
+   * Save the images of a whole map, as {@link ImageStore#save}, then delete
+   * the image files of the map content which nothing references any more:
+   * neither the map, nor its custom objects, nor any item still in memory
+   * (e.g. one which was deleted but can be restored by undoing).
+   *
+   * @param hashes every image the map references
+   * @return whether every image could be written
+   */
+  public synchronized boolean saveMap(String contentPath, Set<String> hashes) {
+    boolean saved = save(contentPath, hashes);
+
+    File dir = new File(contentPath, IMAGE_DIR);
+    File[] files = dir.listFiles((d, name) -> name.endsWith(".png"));
+    if (files == null) return saved;
+
+    HashSet<String> referenced = new HashSet<>(hashes);
+    addObjectImages(new File(contentPath, "objects"), referenced);
+
+    for (File file : files) {
+      String hash = file.getName().substring(0, file.getName().length() - ".png".length());
+      if (referenced.contains(hash)) continue;
+
+      Entry e = entries.get(hash);
+      if (e != null && e.refs > 0) continue;
+
+      if (file.delete()) {
+        if (e != null && dir.equals(e.source)) entries.remove(hash);
+      } else {
+        log.warning("Failed to delete unused image " + file.getAbsolutePath());
+      }
+    }
+    return saved;
+  }
+
+  /**
+   * Add the images referenced by the object files under {@code dir}
+   */
+  private static void addObjectImages(File dir, Set<String> into) {
+    File[] files = dir.listFiles();
+    if (files == null) return;
+
+    JsonReader reader = new JsonReader();
+    for (File file : files) {
+      if (file.isDirectory()) {
+        addObjectImages(file, into);
+        continue;
+      }
+      if (!file.getName().endsWith(".json")) continue;
+
+      try {
+        JsonValue values = reader.parse(new FileHandle(file)).get("property_values");
+        JsonValue viewable = values == null ? null : values.get(PropertyType.Viewable.asJsonString());
+        String hash = viewable == null ? null : viewable.getString("image", null);
+        if (hash != null) into.add(hash);
+      } catch (Exception ex) {
+        log.warning("Failed to read object " + file.getAbsolutePath() + " for its images");
+      }
+    }
+  }
+
+  /**
+   * @return the folder the image of {@code e} is on disk in, if known
+   */
+  private Optional<File> sourceOf(@Null Entry e) {
+    return e != null && e.source != null ? Optional.of(e.source) : Optional.empty();
+  }
+
+  private boolean onDisk(String hash) {
+    return directory.map((d) -> new File(d, hash + ".png").exists()).orElse(false);
+  }
+
+  /**
+   * Read an image from the folder its entry {@code e} is on disk in, or from
+   * the current map's images if that is not known
+   */
+  private Optional<byte[]> readFromDisk(String hash, @Null Entry e) {
+    Optional<File> dir = sourceOf(e).or(() -> directory);
+    if (dir.isEmpty()) return Optional.empty();
+
+    File file = new File(dir.get(), hash + ".png");
+    if (!file.exists()) return Optional.empty();
+    try {
+      return Optional.of(Files.readAllBytes(file.toPath()));
+    } catch (IOException ex) {
+      log.warning("Failed to read image " + file.getAbsolutePath());
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package group24.escaperoom.engine.assets;
+
+import java.io.File;
+import java.util.Map;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Spare atlas pages into which textures changed since the user atlas was
+ * packed are added, one at a time, without repacking anything else.
+ *
+ * A texture changed more than once is packed again rather than replaced, so
+ * the space of its older versions is only reclaimed once the user atlas is
+ * packed from scratch, when the map is next loaded.
+ *
+ * Textures which do not fit on a page are loaded as textures of their own.
+ *
+ * Must only be used on the render thread.
+ */
+class IncrementalAtlas implements Disposable {
+  private static final int PAGE_SIZE = 1024;
+
+  private final PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, 0, false);
+  private final TextureAtlas atlas = new TextureAtlas();
+  /**
+   * Textures too large for a page
+   */
+  private final Array<Texture> standalone = new Array<>();
+
+  /**
+   * Number of times each region was packed
+   */
+  private final ObjectIntMap<String> versions = new ObjectIntMap<>();
+
+  /**
+   * Pack {@code textures} into spare pages, uploading only the pages which changed
+   *
+   * @param textures the file of each texture, keyed on region name
+   * @return the new region of each texture which could be read
+   */
+  ObjectMap<String, AtlasRegion> pack(Map<String, File> textures) {
+    ObjectMap<String, String> packedAs = new ObjectMap<>();
+    ObjectMap<String, AtlasRegion> regions = new ObjectMap<>();
+    textures.forEach((name, file) -> {
+      Pixmap image;
+      try {
+        image = new Pixmap(new FileHandle(file));
+      } catch (Exception e) {
+        UserAtlasBuilder.log.warning("Failed to read texture " + file.getAbsolutePath());
+        return;
+      }
+
+      if (image.getWidth() > PAGE_SIZE || image.getHeight() > PAGE_SIZE) {
+        UserAtlasBuilder.log.warning(String.format("Texture %s is larger than %dx%d, loading it on its own",
+          file.getAbsolutePath(), PAGE_SIZE, PAGE_SIZE));
+        regions.put(name, loadStandalone(name, file, image.getWidth(), image.getHeight()));
+        image.dispose();
+        return;
+      }
+
+      int version = versions.getAndIncrement(name, 0, 1);
+      String key = version == 0 ? name : name + "#" + version;
+      try {
+        packer.pack(key, image);
+        packedAs.put(name, key);
+      } catch (RuntimeException e) {
+        UserAtlasBuilder.log.warning("Failed to pack texture " + file.getAbsolutePath() + ": " + e.getMessage());
+      } finally {
+        image.dispose();
+      }
+    });
+
+    packer.updateTextureAtlas(atlas, TextureFilter.Nearest, TextureFilter.Nearest, false);
+
+    for (ObjectMap.Entry<String, String> e : packedAs) {
+      AtlasRegion region = atlas.findRegion(e.value);
+      if (region == null) continue;
+
+      // items record the name of their region as their texture
+      region.name = e.key;
+      regions.put(e.key, region);
+    }
+    return regions;
+  }
+
+  /**
+   * Loaded from {@code file} rather than from a pixmap, so that its data can be
+   * read back again (e.g. by {@link group24.escaperoom.engine.render.PixMapHelper#fromTextureRegion})
+   * after any pixmap read for it is disposed
+   *
+   * @return a region covering the whole of a new texture of {@code file}
+   */
+  private AtlasRegion loadStandalone(String name, File file, int width, int height) {
+    Texture texture = new Texture(new FileHandle(file));
+    texture.setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
+    standalone.add(texture);
+
+    AtlasRegion region = new AtlasRegion(texture, 0, 0, width, height);
+    region.name = name;
+    return region;
+  }
+
+  @Override
+  public void dispose() {
+    atlas.dispose();
+    packer.dispose();
+    for (Texture texture : standalone) {
+      texture.dispose();
+    }
+    standalone.clear();
+  }
+}
@@ -0,0 +1,137 @@
+package group24.escaperoom.engine.assets;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.Gdx;
+
+import group24.escaperoom.engine.assets.utils.ContentHash;
+
+/**
+ * Watches a user texture directory, and reports textures whose contents
+ * actually changed.
+ *
+ * Events are collected on a daemon thread until the directory has been quiet
+ * for a moment (image editors often write a file several times when saving),
+ * then the changed files are hashed and compared to their last known hash so
+ * that touching or rewriting a file identically reports nothing.
+ */
+public class TextureWatcher implements AutoCloseable {
+
+  @FunctionalInterface
+  public interface Listener {
+    /**
+     * Called on the render thread
+     *
+     * @param changed the file of each new or changed texture, keyed on region name
+     */
+    void texturesChanged(Map<String, File> changed);
+  }
+
+  private static final long QUIET_MILLIS = 200;
+
+  private final File textureDir;
+  private final WatchService watcher;
+  private final Listener listener;
+  private final Map<String, String> hashes;
+  private final Thread thread;
+
+  private TextureWatcher(File textureDir, WatchService watcher, Listener listener) {
+    this.textureDir = textureDir;
+    this.watcher = watcher;
+    this.listener = listener;
+    this.hashes = UserAtlasBuilder.hashTextures(textureDir);
+    this.thread = new Thread(this::run, "texture-watcher");
+    this.thread.setDaemon(true);
+  }
+
+  /**
+   * Start watching {@code textureDir}
+   *
+   * @return the watcher, empty if the directory cannot be watched
+   */
+  public static Optional<TextureWatcher> watch(String textureDir, Listener listener) {
+    File dir = new File(textureDir);
+    if (!dir.isDirectory()) return Optional.empty();
+
+    try {
+      WatchService service = FileSystems.getDefault().newWatchService();
+      dir.toPath().register(service,
+        StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_MODIFY);
+
+      TextureWatcher w = new TextureWatcher(dir, service, listener);
+      w.thread.start();
+      return Optional.of(w);
+    } catch (IOException e) {
+      UserAtlasBuilder.log.warning("Failed to watch texture directory " + dir.getAbsolutePath());
+      return Optional.empty();
+    }
+  }
+
+  private void run() {
+    HashSet<String> touched = new HashSet<>();
+    try {
+      while (true) {
+        // block until something happens, then gather events until it is quiet
+        WatchKey key = touched.isEmpty() ? watcher.take() : watcher.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS);
+        if (key == null) {
+          report(touched);
+          touched.clear();
+          continue;
+        }
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+          if (event.context() instanceof Path) {
+            touched.add(((Path) event.context()).getFileName().toString());
+          }
+        }
+        if (!key.reset()) return;
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // closed
+    }
+  }
+
+  private void report(HashSet<String> fileNames) {
+    HashMap<String, File> changed = new HashMap<>();
+    for (String fileName : fileNames) {
+      File file = new File(textureDir, fileName);
+      if (!UserAtlasBuilder.isTexture(file)) continue;
+
+      String name = UserAtlasBuilder.regionName(file);
+      try {
+        String hash = ContentHash.of(file);
+        if (!hash.equals(hashes.put(name, hash))) changed.put(name, file);
+      } catch (IOException e) {
+        // still being written, the next event will pick it up
+      }
+    }
+
+    if (!changed.isEmpty()) {
+      Gdx.app.postRunnable(() -> listener.texturesChanged(changed));
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      watcher.close();
+    } catch (IOException e) {
+      UserAtlasBuilder.log.warning("Failed to stop watching " + textureDir.getAbsolutePath());
+    }
+    thread.interrupt();
+  }
+}
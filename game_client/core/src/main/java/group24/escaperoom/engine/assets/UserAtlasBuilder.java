@@ -1,36 +1,126 @@
 package group24.escaperoom.engine.assets;
 
 import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.logging.Logger;
 
 import com.badlogic.gdx.tools.texturepacker.TexturePacker;
 
+import group24.escaperoom.engine.assets.utils.ContentHash;
+
 public class UserAtlasBuilder {
   static Logger log = Logger.getLogger(UserAtlasBuilder.class.getName());
 
+  /**
+   * Name of the file, next to a packed atlas, holding the content hash of
+   * every texture packed into it
+   */
+  public static final String MANIFEST_NAME = "atlas.manifest";
+
   public UserAtlasBuilder() {}
 
   /**
-   * We need to build the atlas if 
+   * @return whether {@code file} is a texture which would be packed
+   */
+  public static boolean isTexture(File file) {
+    return file.isFile() && file.getName().endsWith(".png");
+  }
+
+  /**
+   * @return the name of the region {@code file} is packed as
+   */
+  public static String regionName(File file) {
+    String name = file.getName();
+    return name.substring(0, name.length() - ".png".length());
+  }
+
+  /**
+   * @return the content hash of every texture in {@code textureDir}, keyed on region name
+   */
+  public static Map<String, String> hashTextures(File textureDir) {
+    HashMap<String, String> hashes = new HashMap<>();
+    File[] files = textureDir.listFiles();
+    if (files == null) return hashes;
+
+    for (File f : files) {
+      if (!isTexture(f)) continue;
+      try {
+        hashes.put(regionName(f), ContentHash.of(f));
+      } catch (IOException e) {
+        log.warning("Failed to read texture " + f.getAbsolutePath());
+      }
+    }
+    return hashes;
+  }
+
+  /**
+   * @return the region names whose hashes differ between {@code from} and {@code to},
+   *         including those only in either
+   */
+  public static HashSet<String> changedBetween(Map<String, String> from, Map<String, String> to) {
+    HashSet<String> changed = new HashSet<>();
+    to.forEach((name, hash) -> {
+      if (!hash.equals(from.get(name))) changed.add(name);
+    });
+    from.keySet().forEach((name) -> {
+      if (!to.containsKey(name)) changed.add(name);
+    });
+    return changed;
+  }
+
+  /**
+   * @return the hashes recorded when the atlas in {@code atlasDir} was packed,
+   *         empty if there are none
+   */
+  public static Map<String, String> readManifest(File atlasDir) {
+    HashMap<String, String> hashes = new HashMap<>();
+    File manifest = new File(atlasDir, MANIFEST_NAME);
+    if (!manifest.exists()) return hashes;
+
+    Properties props = new Properties();
+    try (Reader reader = new FileReader(manifest)) {
+      props.load(reader);
+    } catch (IOException e) {
+      log.warning("Failed to read atlas manifest " + manifest.getAbsolutePath());
+      return hashes;
+    }
+    props.stringPropertyNames().forEach((name) -> hashes.put(name, props.getProperty(name)));
+    return hashes;
+  }
+
+  public static void writeManifest(File atlasDir, Map<String, String> hashes) {
+    Properties props = new Properties();
+    props.putAll(hashes);
+    try (Writer writer = new FileWriter(new File(atlasDir, MANIFEST_NAME))) {
+      props.store(writer, null);
+    } catch (IOException e) {
+      log.warning("Failed to write atlas manifest in " + atlasDir.getAbsolutePath());
+    }
+  }
+
+  /**
+   * We need to build the atlas if
    * 1. the atlas does not exist
-   * 2. there are textures in the user texture directory which 
-   * are newer than the atlas
+   * 2. the contents of the user texture directory differ from what was
+   * packed, according to the manifest of the atlas (touching a file
+   * without changing it does not count)
    */
-  private static boolean needsBuild(File textureDir, String atlasPath){
+  private static boolean needsBuild(Map<String, String> hashes, File atlasDir, String atlasPath){
     File atlasFile = new File(atlasPath);
     if (!atlasFile.exists()){
       return true;
     }
 
-    for (File f : textureDir.listFiles()){
-      if (f.lastModified() > atlasFile.lastModified()){
-        return true;
-      }
-    }
-
-    return false;
-
+    return !changedBetween(readManifest(atlasDir), hashes).isEmpty();
   }
 
   public static Optional<String> buildAtlas(String textureDirPath){
@@ -54,7 +144,8 @@ public class UserAtlasBuilder {
 
     String atlasPath = atlasDir.getAbsolutePath() + "/atlas.atlas";
 
-    if (!needsBuild(textureDir, atlasPath)){
+    Map<String, String> hashes = hashTextures(textureDir);
+    if (!needsBuild(hashes, atlasDir, atlasPath)){
       return Optional.of(atlasPath);
     }
 
@@ -65,6 +156,7 @@ public class UserAtlasBuilder {
     settings.maxHeight = 2048;
     settings.bleed = false;
     TexturePacker.process(settings, textureDir.getAbsolutePath(), atlasDir.getAbsolutePath(), "atlas");
+    writeManifest(atlasDir, hashes);
     AssetManager.instance().invalidateTextureCache();
 
     return Optional.of(atlasPath);
@@ -0,0 +1,224 @@
+package group24.escaperoom.engine.assets.items;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonValue.ValueType;
+import com.badlogic.gdx.utils.JsonWriter.OutputType;
+
+import group24.escaperoom.engine.assets.utils.ContentHash;
+import group24.escaperoom.engine.assets.utils.FileUtils;
+
+/**
+ * The parsed item definitions of an object folder, and the content hash of
+ * the files they were parsed from.
+ *
+ * The catalog can be saved as a single file, so that the next start only reads
+ * and parses that one file rather than every definition. The saved catalog is
+ * used as long as the name, size and modification time of every definition
+ * still match, and only when they do not are the definitions read and hashed
+ * to tell whether they actually changed.
+ *
+ * Building a catalog only reads files, so it can happen on any thread, the
+ * item types are only created from it by {@link ItemLoader}.
+ */
+public class ItemCatalog {
+  /**
+   * A definition file as read from disk
+   */
+  private static class Source {
+    final String category, filename;
+    final File file;
+    /**
+     * Contents of the file, null until it is read
+     */
+    byte[] bytes;
+
+    Source(String category, String filename, File file) {
+      this.category = category;
+      this.filename = filename;
+      this.file = file;
+    }
+  }
+
+  /**
+   * The parsed definition of a single item type
+   */
+  private static class Parsed {
+    final Source source;
+    final JsonValue json;
+
+    Parsed(Source source, JsonValue json) {
+      this.source = source;
+      this.json = json;
+    }
+  }
+
+  // category -> definitions, in file name order
+  final LinkedHashMap<String, List<JsonValue>> definitions = new LinkedHashMap<>();
+  // files which could not be read or parsed
+  final List<String> failed = new ArrayList<>();
+  final String hash;
+  // hash of the name, size and modification time of every definition
+  final String manifest;
+
+  private ItemCatalog(String hash, String manifest) {
+    this.hash = hash;
+    this.manifest = manifest;
+  }
+
+  /**
+   * Read every definition in {@code objectFolder}, using the catalog saved in
+   * {@code cacheFile} if it was made from the same definitions, or parsing
+   * the definitions in parallel and saving them to it otherwise
+   */
+  static ItemCatalog load(String objectFolder, Optional<File> cacheFile) {
+    List<String> categories = FileUtils.getFolders(objectFolder);
+    Collections.sort(categories);
+
+    ArrayList<Source> sources = new ArrayList<>();
+    for (String category : categories) {
+      List<String> files = FileUtils.getFiles(objectFolder + "/" + category);
+      Collections.sort(files);
+      for (String filename : files) {
+        sources.add(new Source(category, filename, new File(objectFolder + "/" + category, filename)));
+      }
+    }
+
+    String manifest = manifest(sources);
+    Optional<JsonValue> cache = cacheFile.flatMap(ItemCatalog::read);
+    if (cache.isPresent() && manifest.equals(cache.get().getString("manifest", null))) {
+      return fromCache(cache.get(), manifest);
+    }
+
+    ArrayList<String> unreadable = new ArrayList<>();
+    for (Source s : sources) {
+      try {
+        s.bytes = Files.readAllBytes(s.file.toPath());
+      } catch (IOException e) {
+        unreadable.add(s.filename);
+      }
+    }
+    sources.removeIf((s) -> s.bytes == null);
+
+    String hash = hash(sources);
+    if (unreadable.isEmpty() && cache.isPresent() && hash.equals(cache.get().getString("hash", null))) {
+      // e.g. the definitions were touched or copied, record their new times
+      ItemCatalog catalog = fromCache(cache.get(), manifest);
+      cacheFile.ifPresent(catalog::save);
+      return catalog;
+    }
+
+    ItemCatalog catalog = parse(hash, manifest, categories, sources);
+    catalog.failed.addAll(unreadable);
+    // a catalog missing definitions would hide them until they next change
+    if (catalog.failed.isEmpty()) cacheFile.ifPresent(catalog::save);
+    return catalog;
+  }
+
+  private static String manifest(List<Source> sources) {
+    StringBuilder all = new StringBuilder();
+    for (Source s : sources) {
+      all.append(s.category).append('/').append(s.filename).append('\0')
+        .append(s.file.length()).append('\0')
+        .append(s.file.lastModified()).append('\n');
+    }
+    return ContentHash.of(all.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String hash(List<Source> sources) {
+    ByteArrayOutputStream all = new ByteArrayOutputStream();
+    for (Source s : sources) {
+      all.writeBytes((s.category + "/" + s.filename + "\0").getBytes(StandardCharsets.UTF_8));
+      all.writeBytes(s.bytes);
+    }
+    return ContentHash.of(all.toByteArray());
+  }
+
+  private static ItemCatalog parse(String hash, String manifest, List<String> categories, List<Source> sources) {
+    // readers are not thread safe, so each definition gets its own
+    List<Parsed> parsed = sources.parallelStream()
+      .map((s) -> {
+        try {
+          return new Parsed(s, new JsonReader().parse(new String(s.bytes, StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+          return new Parsed(s, null);
+        }
+      })
+      .collect(Collectors.toList());
+
+    ItemCatalog catalog = new ItemCatalog(hash, manifest);
+    categories.forEach((c) -> catalog.definitions.put(c, new ArrayList<>()));
+    for (Parsed p : parsed) {
+      if (p.json == null) {
+        catalog.failed.add(p.source.filename);
+      } else {
+        catalog.definitions.get(p.source.category).add(p.json);
+      }
+    }
+    return catalog;
+  }
+
+  /**
+   * @return the catalog saved in {@code cacheFile}, if it can be read
+   */
+  private static Optional<JsonValue> read(File cacheFile) {
+    if (!cacheFile.exists()) return Optional.empty();
+
+    try {
+      return Optional.of(new JsonReader().parse(Files.readString(cacheFile.toPath())));
+    } catch (Exception e) {
+      ItemLoader.log.warning("Ignoring unreadable item catalog " + cacheFile.getAbsolutePath());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * @return the catalog saved as {@code root}, recorded as made from definitions with {@code manifest}
+   */
+  private static ItemCatalog fromCache(JsonValue root, String manifest) {
+    ItemCatalog catalog = new ItemCatalog(root.getString("hash"), manifest);
+    for (JsonValue category : root.get("categories")) {
+      ArrayList<JsonValue> defs = new ArrayList<>();
+      category.forEach(defs::add);
+      catalog.definitions.put(category.name, defs);
+    }
+    return catalog;
+  }
+
+  private void save(File cacheFile) {
+    JsonValue categories = new JsonValue(ValueType.object);
+    definitions.forEach((category, defs) -> {
+      JsonValue array = new JsonValue(ValueType.array);
+      defs.forEach(array::addChild);
+      categories.addChild(category, array);
+    });
+
+    JsonValue root = new JsonValue(ValueType.object);
+    root.addChild("hash", new JsonValue(hash));
+    root.addChild("manifest", new JsonValue(manifest));
+    root.addChild("categories", categories);
+
+    File dir = cacheFile.getParentFile();
+    if (dir != null && !dir.exists() && !dir.mkdirs()) {
+      ItemLoader.log.warning("Failed to create cache dir " + dir.getAbsolutePath());
+      return;
+    }
+    try {
+      Files.writeString(cacheFile.toPath(), root.toJson(OutputType.json));
+    } catch (IOException e) {
+      ItemLoader.log.warning("Failed to save item catalog " + cacheFile.getAbsolutePath());
+    }
+  }
+}
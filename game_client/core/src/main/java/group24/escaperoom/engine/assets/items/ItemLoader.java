@@ -1,13 +1,12 @@
 package group24.escaperoom.engine.assets.items;
 
-import java.io.FileReader;
+import java.io.File;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
-import com.badlogic.gdx.utils.Json;
-import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
 
 import group24.escaperoom.engine.assets.AssetManager;
@@ -22,6 +21,25 @@ public class ItemLoader {
     private static ItemMap itemTypes = new ItemMap();
     private static ItemMap userItems = new ItemMap();
 
+    // category -> {type -> the shared record equal to it}
+    private static final ConcurrentHashMap<String, ConcurrentHashMap<ItemTypeData, ItemTypeData>> interned =
+      new ConcurrentHashMap<>();
+
+    /**
+     * Get the shared record equal to {@code type}, so that items of the same
+     * type read from a map share a single record rather than each holding
+     * their own. Safe to call from any thread.
+     *
+     * @return the shared record, which must not be changed
+     */
+    public static ItemTypeData intern(ItemTypeData type) {
+      String category = type.category == null ? "" : type.category;
+      ItemTypeData existing = interned
+        .computeIfAbsent(category, (c) -> new ConcurrentHashMap<>())
+        .putIfAbsent(type, type);
+      return existing == null ? type : existing;
+    }
+
     private static boolean validName(String name){
       return !(name == null || name.isEmpty() || name.isBlank());
     }
@@ -94,36 +112,53 @@ public class ItemLoader {
 
 
 
+  /**
+   * Where the catalog of built in items is cached between runs, see {@link ItemCatalog}
+   */
+  private static final String CATALOG_CACHE = "cache/item_catalog.json";
+
   public static void LoadAllObjects() {
-    loadTypes("objects", LoadedObjects.itemTypes);
+    loadTypes("objects", LoadedObjects.itemTypes, Optional.of(new File(FileUtils.getAppDataDir(), CATALOG_CACHE)));
   }
 
   public static void LoadUserObjects(String objectDir) {
-    loadTypes(objectDir, LoadedObjects.userItems);
+    registerUserObjects(readUserObjects(objectDir));
+  }
+
+  /**
+   * Read the definitions of the user objects in {@code objectDir}, which
+   * touches nothing shared, so may be called off the render thread
+   */
+  public static ItemCatalog readUserObjects(String objectDir) {
+    return ItemCatalog.load(objectDir, Optional.empty());
   }
 
-  private static void loadTypes(String objectFolder, LoadedObjects.ItemMap itemMap) {
-    for (String category : FileUtils.getFolders(objectFolder)) {
+  /**
+   * Create the user item types read by {@link ItemLoader#readUserObjects},
+   * must be called on the render thread
+   */
+  public static void registerUserObjects(ItemCatalog catalog) {
+    registerTypes(catalog, LoadedObjects.userItems);
+  }
+
+  private static void loadTypes(String objectFolder, LoadedObjects.ItemMap itemMap, Optional<File> cacheFile) {
+    registerTypes(ItemCatalog.load(objectFolder, cacheFile), itemMap);
+  }
 
+  private static void registerTypes(ItemCatalog catalog, LoadedObjects.ItemMap itemMap) {
+    catalog.definitions.forEach((category, definitions) -> {
       if (!itemMap.containsKey(category)){
         itemMap.put(category, new HashMap<>());
       }
 
-      for (String filename : FileUtils.getFiles(objectFolder + "/" + category)) {
-        JsonValue object;
-        try {
-          FileReader fileReader = new FileReader(objectFolder + "/" + category + "/" + filename);
-          JsonReader reader = new JsonReader();
-          object = reader.parse(fileReader);
-        } catch (Exception e) {
-          Notifier.error(String.format("Failed to load item from %s", filename));
-          continue;
-        }
-        ItemTypeData data = new ItemTypeData();
-        data.read(new Json(), object);
-        data.category = category;
+      for (JsonValue object : definitions) {
+        ItemTypeData data = ItemTypeData.fromJson(object, category);
         itemMap.get(category).put(data.name, data);
       }
+    });
+
+    for (String filename : catalog.failed) {
+      Notifier.error(String.format("Failed to load item from %s", filename));
     }
   }
 
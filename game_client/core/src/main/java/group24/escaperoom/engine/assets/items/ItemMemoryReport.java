@@ -0,0 +1,67 @@
+package group24.escaperoom.engine.assets.items;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+
+import group24.escaperoom.game.entities.Item;
+
+/**
+ * Counts how many type records and texture regions items share, and ESTIMATES
+ * the heap they take from those counts, as shared now and as they would take
+ * if every item held its own. Nothing is measured: only the counts are exact.
+ *
+ * The sizes per object are assumed constants, shallow sizes for a 64 bit JVM
+ * with compressed references, excluding strings, property parameters and
+ * textures which are shared either way. Use a heap dump to measure.
+ */
+public class ItemMemoryReport {
+  // assumed: ItemTypeData with its Size and (empty) property parameter map
+  private static final int ESTIMATED_TYPE_BYTES = 40 + 24 + 48;
+  // assumed: AtlasRegion and the IntVector2 origin each item used to keep
+  private static final int ESTIMATED_REGION_BYTES = 88;
+  private static final int ESTIMATED_ORIGIN_BYTES = 24;
+
+  public final int items;
+  public final int typeRecords;
+  public final int textureRegions;
+
+  private ItemMemoryReport(int items, int typeRecords, int textureRegions) {
+    this.items = items;
+    this.typeRecords = typeRecords;
+    this.textureRegions = textureRegions;
+  }
+
+  public static ItemMemoryReport of(Collection<Item> items) {
+    IdentityHashMap<Object, Boolean> types = new IdentityHashMap<>();
+    IdentityHashMap<Object, Boolean> regions = new IdentityHashMap<>();
+    for (Item item : items) {
+      types.put(item.getType(), true);
+      regions.put(item.getTexture(), true);
+    }
+    return new ItemMemoryReport(items.size(), types.size(), regions.size());
+  }
+
+  /**
+   * @return estimated bytes per item, as shared, from the counts and the assumed sizes
+   */
+  public float estimatedBytesPerItem() {
+    if (items == 0) return 0;
+    return (typeRecords * (float) ESTIMATED_TYPE_BYTES + textureRegions * (float) ESTIMATED_REGION_BYTES) / items;
+  }
+
+  /**
+   * @return estimated bytes per item if no item shared its type record nor
+   *         texture region, which is only the assumed sizes added up
+   */
+  public float estimatedUnsharedBytesPerItem() {
+    return items == 0 ? 0 : ESTIMATED_TYPE_BYTES + ESTIMATED_REGION_BYTES + ESTIMATED_ORIGIN_BYTES;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+      "%d items share %d type records and %d texture regions: estimated %.0f bytes per item (estimated %.0f unshared, not measured)",
+      items, typeRecords, textureRegions, estimatedBytesPerItem(), estimatedUnsharedBytesPerItem()
+    );
+  }
+}
@@ -2,13 +2,16 @@ package group24.escaperoom.engine.assets.items;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.util.List;
 
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonWriter;
 
+import group24.escaperoom.engine.assets.ImageStore;
 import group24.escaperoom.engine.assets.maps.MapMetadata;
 import group24.escaperoom.engine.assets.utils.FileUtils;
 import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.entities.properties.ViewableProperty;
 
 public class ItemSaver {
 
@@ -48,7 +51,7 @@ public class ItemSaver {
       return false;
     }
 
-    return true;
+    return ImageStore.instance().save(metadata.locations.mapContentPath, ViewableProperty.imagesOf(List.of(item)));
   }
 
 }
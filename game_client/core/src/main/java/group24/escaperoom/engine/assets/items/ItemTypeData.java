@@ -1,9 +1,13 @@
 package group24.escaperoom.engine.assets.items;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 
 import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.Null;
 
 import group24.escaperoom.game.entities.properties.PropertyType;
 import group24.escaperoom.game.entities.Item;
@@ -11,43 +15,97 @@ import group24.escaperoom.engine.types.Size;
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonReader;
 
+/**
+ * Everything items of the same type share
+ *
+ * Type records are shared by every item of that type, either with the
+ * catalog of {@link ItemLoader.LoadedObjects} or, for items read from a map,
+ * through {@link ItemLoader.LoadedObjects#intern}, so they are immutable. A
+ * type is changed by making a changed copy with one of the {@code with}
+ * methods, see {@link Item#changeType}.
+ */
 public class ItemTypeData implements Serializable, Json.Serializable {
 
-  public String name, category;
-  public Size size;
-  public String texture;
-  public HashMap<PropertyType, JsonValue> propertyParameters = new HashMap<>();
-  public int renderPriority;
-
-  public ItemTypeData(String name, String category, Size size, String texture, int renderPriority,
-      HashMap<PropertyType, JsonValue> propertyParameters) {
-    init(name, category, size, texture, renderPriority, propertyParameters);
-  }
-
+  public final String name, category;
   /**
-   * Empty constructor for {@link Json.Serializable} compatability 
+   * Never changed, like the rest of the record, see {@link ItemTypeData#withSize}
    */
-  public ItemTypeData(){}
+  public final Size size;
+  public final String texture;
+  public final Map<PropertyType, JsonValue> propertyParameters;
+  public final int renderPriority;
 
-  private void init(String name, String category, Size size, String texture, int renderPriority,
-      HashMap<PropertyType, JsonValue> propertyParameters){
+  public ItemTypeData(String name, String category, Size size, String texture, int renderPriority,
+      @Null Map<PropertyType, JsonValue> propertyParameters) {
     this.name = name;
     this.category = category;
-    this.size = size;
+    this.size = size.copy();
     this.renderPriority = renderPriority;
     this.texture = texture;
-    if (propertyParameters != null) this.propertyParameters.putAll(propertyParameters);
+    this.propertyParameters = propertyParameters == null
+      ? Collections.emptyMap()
+      : Collections.unmodifiableMap(new HashMap<>(propertyParameters));
+  }
+
+  /**
+   * Read a type record as written by {@link ItemTypeData#write}, or as defined
+   * in an object file
+   *
+   * @param category the category of the type, which is not part of its definition
+   */
+  public static ItemTypeData fromJson(JsonValue jsonData, String category) {
+    String name = jsonData.getString("name");
+    JsonValue sz = jsonData.get("size");
+    Size size = new Size(sz.getInt("width"), sz.getInt("height"));
+
+    HashMap<PropertyType, JsonValue> validProperties = new HashMap<>();
+
+    JsonValue properties = jsonData.get("properties");
+    JsonValue propertyValues = jsonData.get("property_values");
+
+    // assume we have no prop vals
+    properties.forEach((prop) -> {
+      validProperties.put(PropertyType.fromString(prop.toString()), new JsonReader().parse("{}"));
+    });
+
+    if (propertyValues != null) {
+      properties.forEach((prop) -> {
+        JsonValue params = propertyValues.get(prop.toString());
+        if (params != null) {
+          validProperties.put(PropertyType.fromString(prop.toString()), params);
+        }
+      });
+    }
+
+    String texture = jsonData.getString("texture");
+    int render_priority = jsonData.getInt("render_priority", 1);
+    String texture_id = texture.substring(0, texture.lastIndexOf(".png"));
+
+    return new ItemTypeData(name, category, size, texture_id, render_priority, validProperties);
+  }
+
+  public ItemTypeData withName(String name) {
+    return new ItemTypeData(name, category, size, texture, renderPriority, propertyParameters);
+  }
+
+  public ItemTypeData withCategory(String category) {
+    return new ItemTypeData(name, category, size, texture, renderPriority, propertyParameters);
+  }
+
+  public ItemTypeData withSize(Size size) {
+    return new ItemTypeData(name, category, size, texture, renderPriority, propertyParameters);
+  }
+
+  public ItemTypeData withTexture(String texture) {
+    return new ItemTypeData(name, category, size, texture, renderPriority, propertyParameters);
   }
 
-  public ItemTypeData copy(){
-    return new ItemTypeData(
-      new String(name),
-      new String(category),
-      size.copy(),
-      new String(texture),
-      renderPriority,
-      propertyParameters == null ? new HashMap<>() : new HashMap<>(propertyParameters)
-    );
+  public ItemTypeData withRenderPriority(int renderPriority) {
+    return new ItemTypeData(name, category, size, texture, renderPriority, propertyParameters);
+  }
+
+  public ItemTypeData withPropertyParameters(Map<PropertyType, JsonValue> propertyParameters) {
+    return new ItemTypeData(name, category, size, texture, renderPriority, propertyParameters);
   }
 
   @Override
@@ -74,6 +132,11 @@ public class ItemTypeData implements Serializable, Json.Serializable {
     return false;
   }
 
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, size, texture, renderPriority, propertyParameters);
+  }
+
 
   @Override
   public void write(Json json) {
@@ -101,35 +164,11 @@ public class ItemTypeData implements Serializable, Json.Serializable {
     json.writeValue("render_priority", renderPriority);
   }
 
+  /**
+   * Records are immutable, read them with {@link ItemTypeData#fromJson} instead
+   */
   @Override
   public void read(Json json, JsonValue jsonData) {
-    String name = jsonData.getString("name");
-    JsonValue sz = jsonData.get("size");
-    Size size = new Size(sz.getInt("width"), sz.getInt("height"));
-
-    HashMap<PropertyType, JsonValue> validProperties = new HashMap<>();
-
-    JsonValue properties = jsonData.get("properties");
-    JsonValue propertyValues = jsonData.get("property_values");
-
-    // assume we have no prop vals
-    properties.forEach((prop) -> {
-      validProperties.put(PropertyType.fromString(prop.toString()), new JsonReader().parse("{}"));
-    });
-
-    if (propertyValues != null) {
-      properties.forEach((prop) -> {
-        JsonValue params = propertyValues.get(prop.toString());
-        if (params != null) {
-          validProperties.put(PropertyType.fromString(prop.toString()), params);
-        }
-      });
-    }
-
-    String texture = jsonData.getString("texture");
-    int render_priority = jsonData.getInt("render_priority", 1);
-    String texture_id = texture.substring(0, texture.lastIndexOf(".png"));
-
-    init(name, category, size, texture_id, render_priority, validProperties);
+    throw new UnsupportedOperationException("type records are immutable, use ItemTypeData.fromJson");
   }
 }
@@ -0,0 +1,371 @@
+package group24.escaperoom.engine.assets.maps;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.UBJsonReader;
+import com.badlogic.gdx.utils.UBJsonWriter;
+
+import group24.escaperoom.engine.assets.items.ItemLoader.LoadedObjects;
+import group24.escaperoom.engine.assets.items.ItemTypeData;
+import group24.escaperoom.engine.types.Size;
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.world.Grid;
+
+/**
+ * Compact binary encoding of a map, stored next to its mapdata.json.
+ *
+ * The binary file is a transcoding of the json, which remains the
+ * interchange format (uploads, downloads and older clients), so it can always
+ * be rebuilt from the json and is only trusted when it is not older than it.
+ *
+ * Layout, all values big endian:
+ *
+ * <pre>
+ * header   magic, version, width, height
+ * strings  count, then (byte length, UTF-8 bytes) for each string
+ * items    count, then one fixed width record per item
+ * tiles    count, then one fixed width record per non empty tile
+ * blobs    byte length, then each item's properties encoded as UBJSON
+ * </pre>
+ *
+ * Item names, categories and textures are stored once in the string table and
+ * referenced by index, and only the property blobs are ever parsed.
+ */
+public class BinaryMapFormat {
+  private static Logger log = Logger.getLogger(BinaryMapFormat.class.getName());
+
+  private static final int MAGIC = 0x45524d42; // "ERMB"
+
+  /**
+   * Increment whenever the layout changes, older files are then ignored and
+   * rebuilt from the json.
+   */
+  public static final int VERSION = 1;
+
+  private static final int STACK_SLOTS = 5;
+  private static final int ITEM_RECORD_INTS = 13;
+  private static final int TILE_RECORD_INTS = 4 + STACK_SLOTS;
+
+  private static final int FLAG_CONTAINED = 1;
+  private static final int FLAG_FLIPPED = 1 << 1;
+  private static final int FLAG_MIRROR_H = 1 << 2;
+  private static final int FLAG_MIRROR_V = 1 << 3;
+
+  /**
+   * @return whether {@code binary} exists and is at least as new as {@code json}
+   */
+  public static boolean isCurrent(File binary, File json) {
+    return binary.exists() && binary.lastModified() >= json.lastModified();
+  }
+
+  //----------------------------------------------------------------------------
+  // WRITING
+  //----------------------------------------------------------------------------
+
+  /**
+   * Transcode a map, as written by {@link Grid#write(Json)}, to {@code file}
+   *
+   * The file is replaced atomically, so a failed write never leaves a partial map behind.
+   *
+   * @return whether the file was written
+   */
+  public static boolean write(JsonValue map, File file) {
+    try {
+      byte[] bytes = encode(map);
+
+      File tmp = new File(file.getAbsolutePath() + ".tmp");
+      try (FileOutputStream fout = new FileOutputStream(tmp)) {
+        fout.write(bytes);
+      }
+      Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      return true;
+    } catch (Exception e) {
+      log.warning(String.format("Failed to write binary map %s", file.getAbsolutePath()));
+      e.printStackTrace();
+      return false;
+    }
+  }
+
+  private static byte[] encode(JsonValue map) throws IOException {
+    Array<String> strings = new Array<>();
+    HashMap<String, Integer> stringIndex = new HashMap<>();
+
+    ByteArrayOutputStream itemBytes = new ByteArrayOutputStream();
+    DataOutputStream items = new DataOutputStream(itemBytes);
+    ByteArrayOutputStream blobBytes = new ByteArrayOutputStream();
+    UBJsonWriter blobs = new UBJsonWriter(blobBytes);
+
+    JsonValue itemsJson = map.get("items");
+    for (JsonValue item : itemsJson) {
+      int flags = 0;
+      if (item.getBoolean("is_contained", false)) flags |= FLAG_CONTAINED;
+      if (item.getBoolean("flipped", false)) flags |= FLAG_FLIPPED;
+      if (item.getBoolean("mirror_h", false)) flags |= FLAG_MIRROR_H;
+      if (item.getBoolean("mirror_v", false)) flags |= FLAG_MIRROR_V;
+
+      int blobStart = blobBytes.size();
+      blobs.value(item.get("properties"));
+      blobs.flush();
+
+      items.writeInt(item.getInt("id"));
+      items.writeInt(intern(item.getString("item_name"), strings, stringIndex));
+      items.writeInt(intern(item.getString("type_category"), strings, stringIndex));
+      items.writeInt(intern(item.getString("texture"), strings, stringIndex));
+      items.writeInt(item.getInt("width"));
+      items.writeInt(item.getInt("height"));
+      items.writeInt(item.getInt("x"));
+      items.writeInt(item.getInt("y"));
+      items.writeInt(item.getInt("rotation"));
+      items.writeInt(item.getInt("render_priority"));
+      items.writeInt(flags);
+      items.writeInt(blobStart);
+      items.writeInt(blobBytes.size() - blobStart);
+    }
+
+    ByteArrayOutputStream tileBytes = new ByteArrayOutputStream();
+    DataOutputStream tiles = new DataOutputStream(tileBytes);
+    JsonValue tilesJson = map.get("tiles");
+    for (JsonValue tile : tilesJson) {
+      int[] ids = new int[STACK_SLOTS];
+      int count = 0;
+      for (JsonValue entry : tile.get("items")) {
+        int index = entry.getInt("index");
+        if (index >= STACK_SLOTS) {
+          throw new IOException("Tile stack is larger than " + STACK_SLOTS);
+        }
+        ids[index] = entry.getInt("id");
+        count = Math.max(count, index + 1);
+      }
+
+      tiles.writeInt(tile.getInt("x"));
+      tiles.writeInt(tile.getInt("y"));
+      tiles.writeInt(tile.getBoolean("occupied") ? 1 : 0);
+      tiles.writeInt(count);
+      for (int id : ids) {
+        tiles.writeInt(id);
+      }
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(map.getInt("width"));
+    data.writeInt(map.getInt("height"));
+
+    data.writeInt(strings.size);
+    for (String s : strings) {
+      byte[] b = s.getBytes(StandardCharsets.UTF_8);
+      data.writeInt(b.length);
+      data.write(b);
+    }
+
+    data.writeInt(itemsJson.size);
+    items.flush();
+    itemBytes.writeTo(data);
+
+    data.writeInt(tilesJson.size);
+    tiles.flush();
+    tileBytes.writeTo(data);
+
+    data.writeInt(blobBytes.size());
+    blobBytes.writeTo(data);
+
+    data.flush();
+    return out.toByteArray();
+  }
+
+  private static int intern(String s, Array<String> strings, HashMap<String, Integer> stringIndex) {
+    Integer index = stringIndex.get(s);
+    if (index == null) {
+      index = strings.size;
+      strings.add(s);
+      stringIndex.put(s, index);
+    }
+    return index;
+  }
+
+  //----------------------------------------------------------------------------
+  // READING
+  //----------------------------------------------------------------------------
+
+  /**
+   * Load a map from a binary file through a memory mapping of the file
+   *
+   * @return the map, or empty if the file is missing, of another version or corrupt
+   */
+  public static Optional<Grid> read(File file) {
+    return map(file).flatMap((buf) -> read(buf, file));
+  }
+
+  /**
+   * Map a binary file into memory without decoding it, which touches nothing
+   * shared, so may be called off the render thread
+   *
+   * @return the contents of the file, or empty if it cannot be read
+   */
+  public static Optional<ByteBuffer> map(File file) {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return Optional.of(buf);
+    } catch (Exception e) {
+      log.warning(String.format("Failed to read binary map %s", file.getAbsolutePath()));
+      e.printStackTrace();
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Decode a map returned by {@link BinaryMapFormat#map}, creating its items,
+   * so must be called on the render thread
+   *
+   * @param file the file {@code buf} was mapped from, for logging
+   * @return the map, or empty if the file is of another version or corrupt
+   */
+  public static Optional<Grid> read(ByteBuffer buf, File file) {
+    try {
+      return decode(buf);
+    } catch (Exception e) {
+      log.warning(String.format("Failed to read binary map %s", file.getAbsolutePath()));
+      e.printStackTrace();
+      return Optional.empty();
+    }
+  }
+
+  private static Optional<Grid> decode(ByteBuffer buf) throws IOException {
+    if (buf.getInt() != MAGIC) {
+      throw new IOException("Not a binary map");
+    }
+    int version = buf.getInt();
+    if (version != VERSION) {
+      log.info(String.format("Ignoring binary map of version %d", version));
+      return Optional.empty();
+    }
+
+    int width = buf.getInt();
+    int height = buf.getInt();
+
+    String[] strings = new String[buf.getInt()];
+    for (int i = 0; i < strings.length; i++) {
+      byte[] b = new byte[buf.getInt()];
+      buf.get(b);
+      strings[i] = new String(b, StandardCharsets.UTF_8);
+    }
+
+    // properties are read last, but the blobs come after the tiles
+    int itemCount = buf.getInt();
+    int itemsStart = buf.position();
+    buf.position(itemsStart + itemCount * ITEM_RECORD_INTS * Integer.BYTES);
+
+    int tileCount = buf.getInt();
+    int tilesStart = buf.position();
+    buf.position(tilesStart + tileCount * TILE_RECORD_INTS * Integer.BYTES);
+
+    int blobLength = buf.getInt();
+    int blobsStart = buf.position();
+    if (blobsStart + blobLength != buf.limit()) {
+      throw new IOException("Truncated binary map");
+    }
+
+    Grid grid = new Grid();
+    grid.startLoading(width, height);
+
+    Json json = new Json();
+    UBJsonReader ubjson = new UBJsonReader();
+    ubjson.oldFormat = false;
+
+    buf.position(itemsStart);
+    for (int i = 0; i < itemCount; i++) {
+      int id = buf.getInt();
+      int name = buf.getInt();
+      int category = buf.getInt();
+      int texture = buf.getInt();
+      int w = buf.getInt();
+      int h = buf.getInt();
+      int x = buf.getInt();
+      int y = buf.getInt();
+      int rotation = buf.getInt();
+      int renderPriority = buf.getInt();
+      int flags = buf.getInt();
+      int blobOffset = buf.getInt();
+      int blobSize = buf.getInt();
+
+      ItemTypeData type = LoadedObjects.intern(new ItemTypeData(strings[name], strings[category], new Size(w, h),
+          strings[texture], renderPriority, null));
+
+      Item item = new Item();
+      item.initialize(type, id, x, y, rotation,
+          (flags & FLAG_CONTAINED) != 0,
+          (flags & FLAG_FLIPPED) != 0,
+          (flags & FLAG_MIRROR_H) != 0,
+          (flags & FLAG_MIRROR_V) != 0);
+
+      ByteBuffer blob = buf.duplicate();
+      blob.position(blobsStart + blobOffset);
+      blob.limit(blobsStart + blobOffset + blobSize);
+      item.readProperties(json, ubjson.parse(new BufferInputStream(blob)));
+
+      grid.loadItem(item);
+    }
+
+    buf.position(tilesStart);
+    int[] ids = new int[STACK_SLOTS];
+    for (int i = 0; i < tileCount; i++) {
+      int x = buf.getInt();
+      int y = buf.getInt();
+      boolean occupied = buf.getInt() != 0;
+      int count = buf.getInt();
+      for (int k = 0; k < STACK_SLOTS; k++) {
+        ids[k] = buf.getInt();
+      }
+      grid.loadTile(x, y, occupied, ids, count);
+    }
+
+    grid.finishLoading();
+    return Optional.of(grid);
+  }
+
+  /**
+   * Reads a region of a buffer without copying it
+   */
+  private static class BufferInputStream extends InputStream {
+    private final ByteBuffer buf;
+
+    BufferInputStream(ByteBuffer buf) {
+      this.buf = buf;
+    }
+
+    @Override
+    public int read() {
+      return buf.hasRemaining() ? buf.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) return 0;
+      if (!buf.hasRemaining()) return -1;
+
+      len = Math.min(len, buf.remaining());
+      buf.get(b, off, len);
+      return len;
+    }
+  }
+}
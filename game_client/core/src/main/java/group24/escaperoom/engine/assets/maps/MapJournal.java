@@ -0,0 +1,314 @@
+package group24.escaperoom.engine.assets.maps;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Logger;
+
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter.OutputType;
+
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.world.Grid;
+import group24.escaperoom.screens.MapScreen;
+
+/**
+ * An append-only journal of the items of a map changed since the map file
+ * was last written, kept next to the map file.
+ *
+ * Each record is a line holding either the json of an item
+ * ({@code {"put": {...}}}) or the id of an item which is gone
+ * ({@code {"remove": id}}), so replaying records is idempotent and only the
+ * last record of each item matters.
+ *
+ * Records are written by a background thread, which commits all records
+ * appended within a short window with a single write and sync. Compacting
+ * writes the whole map and then empties the journal, in order with the
+ * appended records, so a crash at any point leaves a map file and journal
+ * which replay to the last committed state.
+ */
+public class MapJournal implements AutoCloseable {
+  private static Logger log = Logger.getLogger(MapJournal.class.getName());
+  public static final String JOURNAL_FILE = "mapdata.journal";
+
+  // only used on the render thread
+  private static final Json json = new Json();
+  static {
+    json.setOutputType(OutputType.json);
+  }
+
+  // records appended within this long of each other share one sync
+  private static final long COMMIT_WINDOW_MILLIS = 200;
+
+  private interface Task {}
+  private record Append(String records) implements Task {}
+  private record Compact(MapSaver.Snapshot snapshot, CompletableFuture<Boolean> done) implements Task {}
+  private record Stop() implements Task {}
+
+  private final File file;
+  private final FileChannel channel;
+  private final LinkedBlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+  private final Thread thread;
+  private boolean closed = false;
+
+  private MapJournal(File file, FileChannel channel) {
+    this.file = file;
+    this.channel = channel;
+    // not a daemon, so that records still queued are written if the game exits without closing it
+    this.thread = new Thread(this::run, "map-journal");
+  }
+
+  /**
+   * @return the journal file of the map described by {@code metadata}
+   */
+  public static File fileOf(MapMetadata metadata) {
+    return new File(metadata.locations.mapContentPath, JOURNAL_FILE);
+  }
+
+  /**
+   * Start appending to the journal of the map described by {@code metadata}
+   *
+   * @return the journal, empty if it cannot be written
+   */
+  public static Optional<MapJournal> open(MapMetadata metadata) {
+    File file = fileOf(metadata);
+    try {
+      FileChannel channel = FileChannel.open(file.toPath(),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+      MapJournal journal = new MapJournal(file, channel);
+      journal.thread.start();
+      return Optional.of(journal);
+    } catch (IOException e) {
+      log.warning("Failed to open map journal " + file.getAbsolutePath());
+      return Optional.empty();
+    }
+  }
+
+  //----------------------------------------------------------------------------
+  // RECORDS
+  //----------------------------------------------------------------------------
+
+  /**
+   * @return the record of the current state of {@code item}, must be called on the render thread
+   */
+  public static String put(Item item) {
+    return "{\"put\":" + json.toJson(item) + "}";
+  }
+
+  /**
+   * @return the record of the item with {@code id} being gone
+   */
+  public static String remove(int id) {
+    return "{\"remove\":" + id + "}";
+  }
+
+  /**
+   * Queue {@code records} to be committed, must be called on the render thread
+   */
+  public void append(List<String> records) {
+    if (closed || records.isEmpty()) return;
+    queue.add(new Append(String.join("\n", records) + "\n"));
+  }
+
+  /**
+   * Queue writing {@code snapshot}, after every record appended so far,
+   * and then emptying the journal
+   *
+   * @return completed with whether the map was written, on the journal thread
+   */
+  public CompletableFuture<Boolean> compact(MapSaver.Snapshot snapshot) {
+    if (closed) return CompletableFuture.completedFuture(snapshot.write());
+
+    CompletableFuture<Boolean> done = new CompletableFuture<>();
+    queue.add(new Compact(snapshot, done));
+    return done;
+  }
+
+  /**
+   * Stop appending, waiting for every queued task to be done
+   */
+  @Override
+  public void close() {
+    if (closed) return;
+    closed = true;
+    queue.add(new Stop());
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  //----------------------------------------------------------------------------
+  // WRITER
+  //----------------------------------------------------------------------------
+
+  private void run() {
+    ArrayList<Task> batch = new ArrayList<>();
+    try {
+      while (true) {
+        Task first = queue.take();
+        batch.add(first);
+        if (first instanceof Append) Thread.sleep(COMMIT_WINDOW_MILLIS);
+        queue.drainTo(batch);
+
+        if (!process(batch)) return;
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      process(batch);
+      stop();
+    }
+  }
+
+  /**
+   * @return whether to keep running
+   */
+  private boolean process(List<Task> batch) {
+    StringBuilder pending = new StringBuilder();
+    for (Task task : batch) {
+      if (task instanceof Append) {
+        pending.append(((Append) task).records());
+
+      } else if (task instanceof Compact) {
+        commit(pending);
+        Compact compact = (Compact) task;
+        boolean written = compact.snapshot().write();
+        if (written) truncate();
+        compact.done().complete(written);
+
+      } else if (task instanceof Stop) {
+        commit(pending);
+        stop();
+        return false;
+      }
+    }
+    commit(pending);
+    return true;
+  }
+
+  private void commit(StringBuilder pending) {
+    if (pending.length() == 0) return;
+
+    ByteBuffer bytes = ByteBuffer.wrap(pending.toString().getBytes(StandardCharsets.UTF_8));
+    pending.setLength(0);
+    try {
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+      channel.force(false);
+    } catch (IOException e) {
+      log.warning("Failed to write map journal " + file.getAbsolutePath());
+    }
+  }
+
+  private void truncate() {
+    try {
+      channel.truncate(0);
+      channel.force(false);
+    } catch (IOException e) {
+      // the journal is replayed onto the new map file, which does no harm
+      log.warning("Failed to empty map journal " + file.getAbsolutePath());
+    }
+  }
+
+  private void stop() {
+    if (!channel.isOpen()) return;
+    try {
+      boolean empty = channel.size() == 0;
+      channel.close();
+      if (empty) Files.deleteIfExists(file.toPath());
+    } catch (IOException e) {
+      log.warning("Failed to close map journal " + file.getAbsolutePath());
+    }
+  }
+
+  //----------------------------------------------------------------------------
+  // RECOVERY
+  //----------------------------------------------------------------------------
+
+  /**
+   * Apply the journal of the map described by {@code metadata} to its loaded
+   * {@code grid}, when the map is opened for editing, on the render thread
+   *
+   * @return the number of records applied
+   */
+  public static int replay(Grid grid, MapMetadata metadata) {
+    File file = fileOf(metadata);
+    if (!file.exists()) return 0;
+
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      log.warning("Failed to read map journal " + file.getAbsolutePath());
+      return 0;
+    }
+
+    JsonReader reader = new JsonReader();
+    int applied = 0;
+    for (String line : lines) {
+      if (line.isBlank()) continue;
+
+      JsonValue record;
+      try {
+        record = reader.parse(line);
+      } catch (Exception e) {
+        // the last record may have been cut off by a crash
+        log.warning("Skipping unreadable record in map journal " + file.getAbsolutePath());
+        continue;
+      }
+
+      if (record.has("remove")) {
+        removeFrom(grid, record.getInt("remove"));
+        applied++;
+      } else if (record.has("put")) {
+        try {
+          Item item = new Item();
+          item.read(json, record.get("put"));
+          putInto(grid, item);
+          applied++;
+        } catch (Exception e) {
+          log.warning("Skipping item in map journal which could not be read: " + e.getMessage());
+        }
+      }
+    }
+
+    grid.applyCallbacks();
+    if (applied > 0) {
+      log.info(String.format("Recovered %d unsaved changes of %s", applied, metadata.name));
+    }
+    return applied;
+  }
+
+  private static void removeFrom(Grid grid, int id) {
+    grid.getItemByID(id).ifPresent((old) -> {
+      grid.removeItem(old);
+      // contained items are kept by removeItem
+      grid.items.remove(id);
+    });
+  }
+
+  private static void putInto(Grid grid, Item item) {
+    removeFrom(grid, item.getID());
+
+    if (item.isContained()) {
+      grid.loadItem(item);
+    } else if (MapScreen.canPlace(item, item.getPosition(), grid)) {
+      grid.placeItem(item);
+    } else {
+      log.warning(String.format("Dropping %s (%d) from map journal, it no longer fits", item.getItemName(), item.getID()));
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package group24.escaperoom.engine.assets.maps;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Null;
+
+/**
+ * A map being loaded by {@link MapLoader#loadMapAsync}
+ *
+ * The load can be cancelled at any time, it then stops at the start of its
+ * next stage and completes with an empty result.
+ */
+public class MapLoadTask {
+
+  /**
+   * Notified on the render thread whenever a load enters a new stage
+   */
+  @FunctionalInterface
+  public interface ProgressListener {
+    /**
+     * @param stage    a short description of what is being loaded
+     * @param progress overall progress, from 0 to 1
+     */
+    void onProgress(String stage, float progress);
+  }
+
+  /**
+   * Thrown by a stage to stop the load, either because it was cancelled or
+   * because the stage failed (in which case it has already been logged)
+   */
+  static class Aborted extends RuntimeException {
+    Aborted() {
+      super(null, null, false, false);
+    }
+  }
+
+  private final ProgressListener listener;
+  private volatile boolean cancelled = false;
+  CompletableFuture<Optional<MapData>> future;
+
+  MapLoadTask(@Null ProgressListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Request the load to stop
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * @return completes, never exceptionally, with the loaded map or empty if
+   *         the load failed or was cancelled
+   */
+  public CompletableFuture<Optional<MapData>> getFuture() {
+    return future;
+  }
+
+  /**
+   * Enter a new stage
+   *
+   * @throws Aborted if the load was cancelled
+   */
+  void checkpoint(String stage, float progress) {
+    if (cancelled) {
+      throw new Aborted();
+    }
+    if (listener != null) {
+      Gdx.app.postRunnable(() -> listener.onProgress(stage, progress));
+    }
+  }
+}
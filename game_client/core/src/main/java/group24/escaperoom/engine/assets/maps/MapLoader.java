@@ -3,21 +3,31 @@ package group24.escaperoom.engine.assets.maps;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.Null;
 
 import com.badlogic.gdx.utils.JsonReader;
 
 import group24.escaperoom.engine.assets.AssetManager;
+import group24.escaperoom.engine.assets.ImageStore;
 import group24.escaperoom.engine.assets.UserAtlasBuilder;
+import group24.escaperoom.engine.assets.items.ItemCatalog;
 import group24.escaperoom.engine.assets.items.ItemLoader;
 import group24.escaperoom.engine.assets.items.ItemLoader.LoadedObjects;
+import group24.escaperoom.engine.assets.items.ItemMemoryReport;
 import group24.escaperoom.engine.assets.maps.MapMetadata.MapLocation;
 import group24.escaperoom.engine.assets.utils.FileUtils;
 import group24.escaperoom.game.world.Grid;
@@ -70,29 +80,188 @@ public class MapLoader {
 
     if (!tryLoadObjects(data)) return Optional.empty();
 
+    return tryLoadGrid(data, create).map(MapLoader::reportMemory);
+  }
+
+  private static MapData reportMemory(MapData map) {
+    if (log.isLoggable(Level.FINE)) {
+      log.fine(String.format("%s: %s", map.getMetadata().name, ItemMemoryReport.of(map.getGrid().items.values())));
+    }
+    return map;
+  }
+
+  /**
+   * Load a map without blocking the render thread
+   *
+   * Only file I/O and parsing (packing the user atlas, reading the user objects
+   * and the map file) happen on worker threads. Everything shared with the
+   * render thread, i.e. uploading textures, creating item types and building
+   * the grid and its items, happens on the render thread. Must be called from
+   * the render thread.
+   *
+   * @param listener notified of the progress of the load, on the render thread
+   */
+  public static MapLoadTask loadMapAsync(MapMetadata data, boolean create, @Null MapLoadTask.ProgressListener listener){
+    MapLoadTask task = new MapLoadTask(listener);
+
+    // disposes of the previous user atlas, so this has to happen here
+    LoadedObjects.clearUserItems();
+    AssetManager.instance().invalidateTextureCache();
+
+    task.future = CompletableFuture.supplyAsync(() -> {
+      task.checkpoint("Packing textures", 0f);
+      return data.textureDirectory.map((dir) -> tryPackAtlas(dir).orElseThrow(MapLoadTask.Aborted::new));
+    }).thenCompose((atlasPath) -> onRenderThread(() -> {
+      task.checkpoint("Uploading textures", 0.3f);
+      atlasPath.ifPresent((path) -> {
+        TextureAtlas atlas = tryLoadAtlas(path, true).orElseThrow(MapLoadTask.Aborted::new);
+        AssetManager.instance().registerUserAtlas(atlas);
+      });
+      return null;
+    })).thenApplyAsync((v) -> {
+      task.checkpoint("Reading objects", 0.4f);
+      return data.objectDirectory.map((dir) -> tryReadObjects(dir).orElseThrow(MapLoadTask.Aborted::new));
+    }).thenCompose((objects) -> onRenderThread(() -> {
+      task.checkpoint("Loading objects", 0.5f);
+      objects.ifPresent(ItemLoader::registerUserObjects);
+      return null;
+    })).thenApplyAsync((v) -> {
+      task.checkpoint("Reading map", 0.6f);
+      return readMap(data, create).orElseThrow(MapLoadTask.Aborted::new);
+    }).thenCompose((source) -> onRenderThread(() -> {
+      task.checkpoint("Building map", 0.8f);
+      Optional<MapData> map = buildMap(data, source).map(MapLoader::reportMemory);
+
+      task.checkpoint("Done", 1f);
+      return map;
+    })).exceptionally((e) -> {
+      Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+      if (!(cause instanceof MapLoadTask.Aborted)) {
+        log.severe(String.format("Error loading map %s", data.name));
+        cause.printStackTrace();
+      }
+      return Optional.empty();
+    });
+
+    return task;
+  }
+
+  private static <T> CompletableFuture<T> onRenderThread(Supplier<T> stage){
+    CompletableFuture<T> future = new CompletableFuture<>();
+    Gdx.app.postRunnable(() -> {
+      try {
+        future.complete(stage.get());
+      } catch (Exception e) {
+        future.completeExceptionally(e);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * A map file read from disk, but not yet built into a {@link Grid}
+   */
+  private static class MapSource {
+    /**
+     * The mapped binary file, or null if the map is read from json
+     */
+    final @Null ByteBuffer binary;
+    /**
+     * The parsed json, or null if the map is read from its binary file
+     */
+    final @Null JsonValue json;
+
+    MapSource(@Null ByteBuffer binary, @Null JsonValue json) {
+      this.binary = binary;
+      this.json = json;
+    }
+
+    /**
+     * @return whether there is no map file yet, so a new map is to be created
+     */
+    boolean isNew() {
+      return binary == null && json == null;
+    }
+  }
+
+  /**
+   * Read the grid of a map whose textures and objects are already loaded
+   */
+  private static Optional<MapData> tryLoadGrid(MapMetadata data, boolean create){
+    return readMap(data, create).flatMap((source) -> buildMap(data, source));
+  }
+
+  /**
+   * Read the file of a map, which only does file I/O and parsing, so may be
+   * called off the render thread
+   */
+  private static Optional<MapSource> readMap(MapMetadata data, boolean create){
     File mapDataPath = new File(data.locations.mapContentPath);
     if (!mapDataPath.exists()){
       if (create){
-        Grid newGrid = new Grid(AbstractScreen.WORLD_WIDTH, AbstractScreen.WORLD_HEIGHT);
-        if (!MapSaver.saveMap(newGrid, data)){
-          log.warning(String.format("Failed to save new map %s", data.name));
-        }
-        return Optional.of(new MapData(newGrid, data));
-
+        return Optional.of(new MapSource(null, null));
       } else {
         log.warning(String.format("Cannot load map %s, file does not exist", mapDataPath.getAbsolutePath()));
         return Optional.empty();
       }
-
     }
 
-    Grid grid = new Grid();
     File mainFile = new File(data.locations.mapMainFilePath);
+    File binaryFile = new File(data.locations.mapBinaryPath);
+    if (BinaryMapFormat.isCurrent(binaryFile, mainFile)) {
+      Optional<ByteBuffer> binary = BinaryMapFormat.map(binaryFile);
+      if (binary.isPresent()) {
+        return Optional.of(new MapSource(binary.get(), null));
+      }
+      log.warning(String.format("Falling back to map json for %s", data.name));
+    }
+
+    return readJson(data).map((json) -> new MapSource(null, json));
+  }
+
+  private static Optional<JsonValue> readJson(MapMetadata data){
     try {
-      String jsonStr = Files.readString(mainFile.toPath());
-      JsonReader reader = new JsonReader();
+      String jsonStr = Files.readString(new File(data.locations.mapMainFilePath).toPath());
+      JsonValue mapJson = new JsonReader().parse(jsonStr);
+
+      // maps which were downloaded or saved by an older version only have json
+      BinaryMapFormat.write(mapJson, new File(data.locations.mapBinaryPath));
+      return Optional.of(mapJson);
+    } catch (Exception e) {
+      log.severe(String.format("Error loading map json"));
+      e.printStackTrace();
+
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Build the grid of a map read by {@link MapLoader#readMap}, creating its
+   * items, so must be called on the render thread
+   */
+  private static Optional<MapData> buildMap(MapMetadata data, MapSource source){
+    ImageStore.instance().setMapContent(data.locations.mapContentPath);
+
+    if (source.isNew()){
+      Grid newGrid = new Grid(AbstractScreen.WORLD_WIDTH, AbstractScreen.WORLD_HEIGHT);
+      if (!MapSaver.saveMap(newGrid, data)){
+        log.warning(String.format("Failed to save new map %s", data.name));
+      }
+      return Optional.of(new MapData(newGrid, data));
+    }
 
-      grid.read(new Json(), reader.parse(jsonStr));
+    if (source.binary != null) {
+      Optional<Grid> grid = BinaryMapFormat.read(source.binary, new File(data.locations.mapBinaryPath));
+      if (grid.isPresent()) {
+        return Optional.of(new MapData(grid.get(), data));
+      }
+      log.warning(String.format("Falling back to map json for %s", data.name));
+      return readJson(data).flatMap((json) -> buildMap(data, new MapSource(null, json)));
+    }
+
+    Grid grid = new Grid();
+    try {
+      grid.read(new Json(), source.json);
     } catch (Exception e) {
       log.severe(String.format("Error loading map json"));
       e.printStackTrace();
@@ -140,7 +309,29 @@ public class MapLoader {
   }
 
 
+  /**
+   * Read the user objects of a map without creating them, see {@link ItemLoader#readUserObjects}
+   */
+  private static Optional<ItemCatalog> tryReadObjects(String objectDir){
+    try {
+      return Optional.of(ItemLoader.readUserObjects(objectDir));
+    } catch (Exception e){
+      e.printStackTrace();
+      log.severe("Failed to load user objects");
+      return Optional.empty();
+    }
+  }
+
   private static Optional<TextureAtlas> tryBuildAtlas(String textureDirPath, boolean unloadPrevious) {
+    return tryPackAtlas(textureDirPath).flatMap((atlasPath) -> tryLoadAtlas(atlasPath, unloadPrevious));
+  }
+
+  /**
+   * Pack the user textures into an atlas if needed, does not touch the GL context
+   *
+   * @return the path of the atlas
+   */
+  private static Optional<String> tryPackAtlas(String textureDirPath) {
     File textureDir = new File(textureDirPath);
     if (!textureDir.exists()) {
       log.warning(String.format("Failed to build atlas, texture directory (%s) does not exist ", textureDirPath));
@@ -153,8 +344,13 @@ public class MapLoader {
       return Optional.empty();
     }
 
-    String atlasPath = path.get();
+    return path;
+  }
 
+  /**
+   * Load a packed atlas, uploading its textures, so must be called on the render thread
+   */
+  private static Optional<TextureAtlas> tryLoadAtlas(String atlasPath, boolean unloadPrevious) {
     if (!unloadPrevious && AssetManager.instance().isLoaded(atlasPath)){
       return Optional.of(AssetManager.instance().get(atlasPath));
     }
@@ -44,6 +44,10 @@ public class MapMetadata implements Json.Serializable {
     public String mapBasePath;
     public String mapContentPath;
     public String mapMainFilePath;
+    /**
+     * Binary copy of the main file, kept outside of the content folder so it is never uploaded
+     */
+    public String mapBinaryPath;
     public String mapMetadataPath;
     public String mapThumbnailPath;
     public boolean isDownloaded;
@@ -57,6 +61,7 @@ public class MapMetadata implements Json.Serializable {
 
       this.mapContentPath = mapBasePath + "/content";
       this.mapMainFilePath = mapBasePath + "/content/mapdata.json";
+      this.mapBinaryPath = mapBasePath + "/mapdata.bin";
       this.mapMetadataPath = mapBasePath + "/metadata.json";
       this.mapThumbnailPath = mapBasePath + "/thumbnail.png";
     }
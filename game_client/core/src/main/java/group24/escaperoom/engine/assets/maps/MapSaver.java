@@ -2,36 +2,24 @@ package group24.escaperoom.engine.assets.maps;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Optional;
 import java.util.logging.Logger;
 
 import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonWriter;
 
+import group24.escaperoom.engine.assets.ImageStore;
 import group24.escaperoom.engine.assets.utils.FileUtils;
+import group24.escaperoom.game.entities.properties.ViewableProperty;
 import group24.escaperoom.game.world.Grid;
 
 public class MapSaver {
   private static Logger log = Logger.getLogger(MapSaver.class.getName());
 
-  private static boolean tryCreatePath(File file){
-    if (!file.exists()){
-      boolean created = true;
-      try {
-        // create the file
-        created = file.createNewFile();
-      } catch (Exception e) {
-        log.warning("Unable to create file " + file.getAbsolutePath());
-        e.printStackTrace();
-        created = false;
-      }
-      // if it didnt error but didnt create exit here.
-      if (!created) {
-        return false;
-      }
-    }
-    return true;
-  }
-
   public static boolean updateMetadata(MapMetadata metadata){
     // create the map folder if it doesn't exist
     File mapDir = new File(metadata.locations.mapBasePath);
@@ -64,48 +52,94 @@ public class MapSaver {
   }
 
   /**
-   * Returns {@code true} if saved and {@code false} if unable to be
+   * Everything needed to write a map, read from its {@link Grid} so that the
+   * files can be written off the render thread
    */
-  public static boolean saveMap(Grid grid, MapMetadata metadata) {
+  public static class Snapshot {
+    private final String json;
+    private final HashSet<String> images;
+    private final MapMetadata metadata;
+
+    private Snapshot(String json, HashSet<String> images, MapMetadata metadata) {
+      this.json = json;
+      this.images = images;
+      this.metadata = metadata;
+    }
+
+    /**
+     * Write the map file, its images and its binary copy. The map file is
+     * replaced atomically, so a crash while saving leaves the previous map.
+     *
+     * May be called from any thread.
+     *
+     * @return whether the map file was written
+     */
+    public boolean write() {
+      File map = new File(metadata.locations.mapMainFilePath);
+      synchronized (MapSaver.class) {
+        try {
+          File tmp = new File(map.getAbsolutePath() + ".tmp");
+          try (FileOutputStream fout = new FileOutputStream(tmp)) {
+            fout.write(json.getBytes());
+          }
+          Files.move(tmp.toPath(), map.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+          log.warning("Failed to write map file " + map.getAbsolutePath());
+          e.printStackTrace();
+          return false;
+        }
+      }
+
+      if (!ImageStore.instance().saveMap(metadata.locations.mapContentPath, images)) {
+        log.warning(String.format("Failed to save some images of %s", metadata.name));
+      }
+
+      // the json is still the source of truth, a missing binary just means a slower load
+      if (!BinaryMapFormat.write(new JsonReader().parse(json), new File(metadata.locations.mapBinaryPath))) {
+        log.warning(String.format("Failed to save binary map for %s", metadata.name));
+      }
+
+      return true;
+    }
+  }
+
+  /**
+   * Create the folders of a map, save its metadata and read what is needed to write the rest
+   *
+   * @return the snapshot to write, empty if the map cannot be saved
+   */
+  public static Optional<Snapshot> snapshot(Grid grid, MapMetadata metadata) {
     // create the app data directory if it doesn't exist
     File mapDir = new File(FileUtils.getAppDataDir());
     if (!FileUtils.tryCreateFolder(mapDir)){
-      return false;
+      return Optional.empty();
     }
 
     // create this maps folder if it doesn't exist
     File dir = new File(metadata.locations.mapBasePath);
     if (!FileUtils.tryCreateFolder(dir)){
-      return false;
+      return Optional.empty();
     }
 
     // create this maps content folder if it doesn't exist
     dir = new File(metadata.locations.mapContentPath);
     if (!FileUtils.tryCreateFolder(dir)){
-      return false;
-    }
-
-    File map = new File(metadata.locations.mapMainFilePath);
-    if (!tryCreatePath(map)){
-      return false;
+      return Optional.empty();
     }
 
     if (!saveMetadata(metadata)){
-      return false;
+      return Optional.empty();
     }
 
-    // write the map to the map file
-    try {
-      FileOutputStream fout = new FileOutputStream(map);
-      Json j = new Json();
-      j.setOutputType(JsonWriter.OutputType.json);
-      fout.write(j.toJson(grid).getBytes());
-      fout.close();
-    } catch (Exception e) {
-      e.printStackTrace(); 
-      return false;
-    }
+    Json j = new Json();
+    j.setOutputType(JsonWriter.OutputType.json);
+    return Optional.of(new Snapshot(j.toJson(grid), ViewableProperty.imagesOf(grid.items.values()), metadata));
+  }
 
-    return true;
+  /**
+   * Returns {@code true} if saved and {@code false} if unable to be
+   */
+  public static boolean saveMap(Grid grid, MapMetadata metadata) {
+    return snapshot(grid, metadata).map(Snapshot::write).orElse(false);
   }
 }
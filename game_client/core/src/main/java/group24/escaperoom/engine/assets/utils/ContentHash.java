@@ -0,0 +1,42 @@
+package group24.escaperoom.engine.assets.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Hashes identifying contents, whatever their file name or modification time
+ */
+public class ContentHash {
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  /**
+   * @return the hex SHA-1 of {@code bytes}
+   */
+  public static String of(byte[] bytes) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-1");
+    } catch (NoSuchAlgorithmException e) {
+      // every JVM is required to provide SHA-1
+      throw new IllegalStateException(e);
+    }
+
+    byte[] hash = digest.digest(bytes);
+    char[] out = new char[hash.length * 2];
+    for (int i = 0; i < hash.length; i++) {
+      out[2 * i] = HEX[(hash[i] >> 4) & 0xf];
+      out[2 * i + 1] = HEX[hash[i] & 0xf];
+    }
+    return new String(out);
+  }
+
+  /**
+   * @return the hex SHA-1 of the contents of {@code file}
+   */
+  public static String of(File file) throws IOException {
+    return of(Files.readAllBytes(file.toPath()));
+  }
+}
@@ -84,6 +84,9 @@ public class ControlsManager {
   private static InputGroupMap activeMappings = new InputGroupMap();
   private static BoundInputs register = new BoundInputs(); 
   private static BoundInputs pregister = new BoundInputs();
+  // the same actions keyed on input rather than binding, see ControlsManager#perform
+  private static HashMap<Input, HashMap<InputType, Array<InputAction>>> actionsByInput = new HashMap<>();
+  private static HashMap<Input, HashMap<InputType, Array<InputAction>>> pactionsByInput = new HashMap<>();
   private static Stack<InputOverride> overrides = new Stack<>();
   private static Array<InputPair> processedInputs = new Array<>();
   private static boolean keyboardEnabled = true;
@@ -129,6 +132,7 @@ public class ControlsManager {
    */
   public static void registerPermanentInput(Input input, InputType type, InputAction action) {
     registerPermanentMapping(input);
+    registerByInput(input, type, action, pactionsByInput);
     for (InputBinding bind : input.getBinds()) {
       registerNewInput(new BoundInput(input, bind), type, action, pregister);
     }
@@ -142,6 +146,7 @@ public class ControlsManager {
    */
   public static void registerInput(Input input, InputType type, InputAction action) {
     registerMapping(input);
+    registerByInput(input, type, action, actionsByInput);
     for (InputBinding bind : input.getBinds()) {
       registerNewInput(new BoundInput(input, bind), type, action, register);
     }
@@ -152,6 +157,7 @@ public class ControlsManager {
    */
   public static void clearRegisteredInputs() {
     register.clear();
+    actionsByInput.clear();
     activeMappings.clear();
     overrides.clear();
   }
@@ -186,6 +192,32 @@ public class ControlsManager {
     }
   }
 
+  private static void registerByInput(Input input, InputType type, InputAction action,
+      HashMap<Input, HashMap<InputType, Array<InputAction>>> store) {
+    store.computeIfAbsent(input, (i) -> new HashMap<>())
+      .computeIfAbsent(type, (t) -> new Array<>())
+      .add(action);
+  }
+
+  /**
+   * Perform the actions registered for {@code input}, as if it were {@code type}
+   * by the player, without going through any device.
+   *
+   * Used to script the player's inputs, e.g. in a {@link group24.escaperoom.game.state.GameSimulation}.
+   * Permanent actions are performed first, keyboard enablement and overrides are ignored.
+   */
+  public static void perform(Input input, InputType type) {
+    performIn(pactionsByInput, input, type);
+    performIn(actionsByInput, input, type);
+  }
+
+  private static void performIn(HashMap<Input, HashMap<InputType, Array<InputAction>>> store, Input input, InputType type) {
+    HashMap<InputType, Array<InputAction>> actions = store.get(input);
+    if (actions == null || actions.get(type) == null) return;
+
+    actions.get(type).forEach(InputAction::perform);
+  }
+
   public static void processInputs() {
     // clear processed tracker
     processedInputs.clear();
@@ -203,6 +235,27 @@ public class ControlsManager {
     });
   }
 
+  /**
+   * Perform the held actions of only {@code inputs}, e.g. to sample movement
+   * once per game tick rather than once per frame.
+   *
+   * Keyboard enablement applies as in {@link ControlsManager#processInputs},
+   * inputs an override handles are skipped, as the override already had them
+   * this frame.
+   */
+  public static void processHeld(Set<Input> inputs) {
+    register.forEach((input, actions) -> {
+      if (!inputs.contains(input.input)) return;
+      if (!keyboardEnabled && input.binding.getPair().method == InputMethod.KEYBOARD) return;
+      if (!overrides.isEmpty() && overrides.peek().getOverriddenInputs().contains(input.input)) return;
+
+      Array<InputAction> held = actions.get(InputType.HELD);
+      if (held != null && Keyboard.isHeld(input.binding) != null) {
+        held.forEach(InputAction::perform);
+      }
+    });
+  }
+
   private static boolean processOverride(BoundInput bindingKey){
     if (overrides.isEmpty()) return false;
 
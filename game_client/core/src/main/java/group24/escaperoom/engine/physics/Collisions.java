@@ -11,34 +11,55 @@ public class Collisions {
         return (DeltaX * DeltaX + DeltaY * DeltaY) < (c.radius * c.radius);
     }
 
+    /**
+     * @see Collisions#collides(Circle, Rectangle)
+     */
+    public static boolean collides(Circle c, float x, float y, float width, float height) {
+        float DeltaX = c.x - Math.max(x, Math.min(c.x, x + width));
+        float DeltaY = c.y - Math.max(y, Math.min(c.y, y + height));
+        return (DeltaX * DeltaX + DeltaY * DeltaY) < (c.radius * c.radius);
+    }
+
     public static Vector2 getNearestPoint(Rectangle target, Vector2 origin) {
+        return getNearestPoint(target, origin, new Vector2());
+    }
+
+    /**
+     * @see Collisions#getNearestPoint(Rectangle, Vector2)
+     *
+     * @param out set to the nearest point, and returned
+     */
+    public static Vector2 getNearestPoint(Rectangle target, Vector2 origin, Vector2 out) {
         if (target.contains(origin)) {
-            Vector2 _void = new Vector2();
-            Vector2 pos = target.getCenter(_void);
-            Vector2 bounds = target.getSize(_void).scl(.5f);
+            float right = target.x + target.width;
+            float left = target.x;
+            float top = target.y + target.height;
+            float bottom = target.y;
 
-            Vector2 deltaToPositiveBounds = pos.add(bounds).sub(origin);
-            Vector2 deltaToNegativeBounds = pos.sub(bounds).sub(origin).scl(-1);
+            float deltaToRight = right - origin.x;
+            float deltaToLeft = origin.x - left;
+            float deltaToTop = top - origin.y;
+            float deltaToBottom = origin.y - bottom;
 
-            float smallestX = Math.min(deltaToPositiveBounds.x, deltaToNegativeBounds.x);
-            float smallestY = Math.min(deltaToPositiveBounds.y, deltaToNegativeBounds.y);
+            float smallestX = Math.min(deltaToRight, deltaToLeft);
+            float smallestY = Math.min(deltaToTop, deltaToBottom);
 
             float smallestDistance = Math.min(smallestX, smallestY);
 
-            if (smallestDistance == deltaToPositiveBounds.x){
-                return new Vector2(pos.x + bounds.x, origin.y);
+            if (smallestDistance == deltaToRight){
+                return out.set(right, origin.y);
 
-            } else if (smallestDistance == deltaToNegativeBounds.x){
-                return new Vector2(pos.x - bounds.x, origin.y);
+            } else if (smallestDistance == deltaToLeft){
+                return out.set(left, origin.y);
 
-            } else if (smallestDistance == deltaToPositiveBounds.y){
-                return new Vector2(origin.x, pos.y + bounds.y);
+            } else if (smallestDistance == deltaToTop){
+                return out.set(origin.x, top);
 
             } else {
-                return new Vector2(origin.x, pos.y - bounds.y);
+                return out.set(origin.x, bottom);
             }
         } else {
-            return new Vector2(
+            return out.set(
                     clamp(origin.x, target.getX(), target.getX() + target.getWidth()),
                     clamp(origin.y, target.getY(), target.getY() + target.getHeight())
                 );
@@ -20,6 +20,13 @@ public interface Drawable {
    */
   public Vector2 position();
 
+  /**
+   * @return the y coordinate this Drawable is sorted by, without allocating
+   */
+  default public float sortY() {
+    return position().y;
+  }
+
 
   /**
    * @return the tile depth of this Drawable
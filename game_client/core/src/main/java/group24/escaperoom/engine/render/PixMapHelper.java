@@ -5,7 +5,77 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.TextureData;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
 public class PixMapHelper {
+  private static final int MAX_STAMPS = 32;
+
+  private static class StampKey {
+    final Texture texture;
+    final int x, y, width, height, scale;
+    final boolean flipY;
+
+    StampKey(AtlasRegion region, int scale) {
+      this.texture = region.getTexture();
+      this.x = region.getRegionX();
+      this.y = region.getRegionY();
+      this.width = region.getRegionWidth();
+      this.height = region.getRegionHeight();
+      this.flipY = region.isFlipY();
+      this.scale = scale;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof StampKey)) return false;
+      StampKey k = (StampKey) other;
+      return texture == k.texture && x == k.x && y == k.y && width == k.width && height == k.height
+        && flipY == k.flipY && scale == k.scale;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(System.identityHashCode(texture), x, y, width, height, flipY, scale);
+    }
+  }
+
+  // least recently used stamps are disposed of once there are more than MAX_STAMPS
+  private static final LinkedHashMap<StampKey, Pixmap> stamps = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<StampKey, Pixmap> eldest) {
+      if (size() <= MAX_STAMPS) return false;
+      eldest.getValue().dispose();
+      return true;
+    }
+  };
+
+  /**
+   * Get the pixels of {@code region} scaled by {@code scale}, cached so that
+   * the atlas page is only read once per region rather than once per use.
+   *
+   * The stamp is owned by the cache, it must not be disposed of nor drawn on,
+   * and should be fetched again rather than kept.
+   */
+  public static Pixmap stamp(AtlasRegion region, int scale) {
+    StampKey key = new StampKey(region, scale);
+    Pixmap stamp = stamps.get(key);
+    if (stamp != null) return stamp;
+
+    if (scale == 1) {
+      stamp = fromTextureRegion(region, 1);
+    } else {
+      // scale the unscaled stamp, rather than reading the page again
+      Pixmap base = stamp(region, 1);
+      stamp = new Pixmap(base.getWidth() * scale, base.getHeight() * scale, base.getFormat());
+      stamp.setBlending(Pixmap.Blending.None);
+      stamp.drawPixmap(base, 0, 0, base.getWidth(), base.getHeight(), 0, 0, stamp.getWidth(), stamp.getHeight());
+      stamp.setBlending(Pixmap.Blending.SourceOver);
+    }
+    stamps.put(key, stamp);
+    return stamp;
+  }
 
   // https://stackoverflow.com/a/56654438
   public static Pixmap fromTextureRegion(AtlasRegion region, int scale) {
@@ -36,6 +106,11 @@ public class PixMapHelper {
           0, 0, ret.getWidth(), ret.getHeight());
     }
 
+    // the page is read from disk again by the next prepare
+    if (textureData.disposePixmap()) {
+      texturePixmap.dispose();
+    }
+
     return ret;
   }
 }
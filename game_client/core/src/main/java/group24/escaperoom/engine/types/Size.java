@@ -27,6 +27,11 @@ public class Size implements Serializable {
     return false;
   }
 
+  @Override
+  public int hashCode() {
+    return 31 * width + height;
+  }
+
   @Override
   public String toString() {
     return String.format("[w: %d, h: %d]", width, height);
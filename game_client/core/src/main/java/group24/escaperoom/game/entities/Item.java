@@ -1,8 +1,9 @@
 package group24.escaperoom.game.entities;
 
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 import java.util.logging.Logger;
 
 import com.badlogic.gdx.graphics.Color;
@@ -19,6 +20,7 @@ import com.badlogic.gdx.utils.Null;
 
 import group24.escaperoom.editor.tools.TiledBrush;
 import group24.escaperoom.engine.assets.AssetManager;
+import group24.escaperoom.engine.assets.items.ItemLoader.LoadedObjects;
 import group24.escaperoom.engine.assets.items.ItemTypeData;
 import group24.escaperoom.engine.render.Drawable;
 import group24.escaperoom.engine.types.IntVector2;
@@ -27,19 +29,18 @@ import group24.escaperoom.game.entities.conditions.ItemContainsItem;
 import group24.escaperoom.game.entities.player.Player;
 import group24.escaperoom.game.entities.player.PlayerAction;
 import group24.escaperoom.game.entities.properties.AnimatedProperty;
-import group24.escaperoom.game.entities.properties.ConnectorRelay;
-import group24.escaperoom.game.entities.properties.ConnectorSource;
+import group24.escaperoom.game.entities.properties.ConditionallyActive;
 import group24.escaperoom.game.entities.properties.ContainsItemProperty;
 import group24.escaperoom.game.entities.properties.PropertyType;
 import group24.escaperoom.game.entities.properties.SpinnableProperty;
 import group24.escaperoom.game.entities.properties.Stylable;
 import group24.escaperoom.game.entities.properties.TiledBrushable;
+import group24.escaperoom.game.entities.properties.base.Connectable;
 import group24.escaperoom.game.entities.properties.base.ItemProperty;
 import group24.escaperoom.game.entities.properties.util.PropertyMap;
 import group24.escaperoom.game.entities.properties.values.ItemPropertyValue;
 import group24.escaperoom.game.state.GameContext;
 import group24.escaperoom.game.world.Grid;
-import group24.escaperoom.screens.GameScreen;
 import group24.escaperoom.screens.LevelEditor;
 import group24.escaperoom.screens.MapScreen;
 import group24.escaperoom.ui.notifications.Notifier;
@@ -58,6 +59,11 @@ public class Item implements Json.Serializable, Drawable {
    */
   Optional<BlockingParams> blockRegion = Optional.empty();
 
+  /**
+   * Reused rectangle returned by {@link Item#getBlockingRect()}
+   */
+  private final Rectangle blockingRect = new Rectangle();
+
   /**
    * A static variable marking the id to be assigned to the next instantiated item
    */
@@ -68,13 +74,19 @@ public class Item implements Json.Serializable, Drawable {
    */
   static AtlasRegion selectHighlight;
 
+  /**
+   * The texture region of items whose texture is not set yet
+   */
+  static AtlasRegion placeholder;
+
   /**
    * Whether or not this item has player focus
    */
   boolean playerFocus;
 
   /**
-   * A class decribing this items type data
+   * A class decribing this items type data, which may be shared with other
+   * items and is only ever replaced, see {@link Item#changeType}
    */
   ItemTypeData objectTypeData;
 
@@ -90,6 +102,13 @@ public class Item implements Json.Serializable, Drawable {
 
   public int id; // Item ID
   AtlasRegion texture; // Item Texture
+
+  /**
+   * Whether {@link Item#texture} is this item's own region, otherwise it is
+   * the region shared by every item with the same texture (as returned by the
+   * {@link AssetManager}) and is copied before being adjusted
+   */
+  private boolean ownsTexture = false;
   public IntVector2 position = new IntVector2(0, 0); // Position in world units
   /**
    * Logical rotation of this item.
@@ -163,10 +182,10 @@ public class Item implements Json.Serializable, Drawable {
    * The origin of this items {@link AtlasRegion} in the underlying
    * {@link Texture}
    */
-  IntVector2 textureOrigin;
+  int textureOriginX, textureOriginY;
 
   /**
-   * A hashmap of all this item's properties, keyed on {@link PropertyType}
+   * All of this item's properties, keyed on {@link PropertyType}
    */
   PropertyMap propertyMap = new PropertyMap();
 
@@ -201,7 +220,10 @@ public class Item implements Json.Serializable, Drawable {
     if (selectHighlight == null) {
       selectHighlight = AssetManager.instance().getRegion("selection_outline");
     }
-    texture = AssetManager.instance().getRegion("placeholder");
+    if (placeholder == null) {
+      placeholder = AssetManager.instance().getRegion("placeholder");
+    }
+    texture = placeholder;
     id = nextID++;
   }
 
@@ -223,7 +245,7 @@ public class Item implements Json.Serializable, Drawable {
 
     renderPriority = objectTypeData.renderPriority;
 
-    setTexture(new AtlasRegion(AssetManager.instance().getRegion(this.objectTypeData.texture)));
+    setTexture(AssetManager.instance().getRegion(this.objectTypeData.texture));
 
     // add all properties to this item
     objectTypeData.propertyParameters.forEach((PropertyType prop, JsonValue propParams) -> {
@@ -303,34 +325,61 @@ public class Item implements Json.Serializable, Drawable {
     int render_priority = jsonData.getInt("render_priority");
     String texture = jsonData.getString("texture");
 
-    // Build the ObjectTypeData
-    this.objectTypeData = new ItemTypeData(item_name, typeCategory, new Size(width, height), texture, render_priority,
-        null);
+    initialize(
+      LoadedObjects.intern(new ItemTypeData(item_name, typeCategory, new Size(width, height), texture, render_priority, null)),
+      jsonData.getInt("id"),
+      jsonData.getInt("x"),
+      jsonData.getInt("y"),
+      jsonData.getInt("rotation"),
+      jsonData.getBoolean("is_contained", false),
+      jsonData.getBoolean("flipped"),
+      jsonData.getBoolean("mirror_h", false),
+      jsonData.getBoolean("mirror_v", false)
+    );
+    readProperties(json, jsonData.get("properties"));
+  }
 
+  /**
+   * Initialize every field of this item other than its properties
+   *
+   * @see Item#read(Json, JsonValue)
+   */
+  public void initialize(ItemTypeData typeData, int id, int x, int y, int rotation,
+                         boolean contained, boolean flipped, boolean mirrorH, boolean mirrorV) {
+    // Build the ObjectTypeData
+    this.objectTypeData = typeData;
 
     // Set the ID
-    id = jsonData.getInt("id");
+    this.id = id;
 
     // Increment our nextID if needed
     if (id >= nextID) Item.nextID = id + 1;
 
     // Intialize all data fields
-    setTexture(new AtlasRegion(AssetManager.instance().getRegion(objectTypeData.texture)));
-    setRotation(jsonData.getInt("rotation"));
+    setTexture(AssetManager.instance().getRegion(objectTypeData.texture));
+    setRotation(rotation);
     itemSize = objectTypeData.size.copy();
-    contained = jsonData.getBoolean("is_contained", false);
-    mirrorH = jsonData.getBoolean("mirror_h", false);
-    mirrorV = jsonData.getBoolean("mirror_v", false);
+    this.contained = contained;
+    this.mirrorH = mirrorH;
+    this.mirrorV = mirrorV;
     occupiedSize = objectTypeData.size.copy();
-    flipped = jsonData.getBoolean("flipped");
+    this.flipped = flipped;
     if (flipped){
       flip();
-      flipped = true;
+      this.flipped = true;
     }
     renderPriority = objectTypeData.renderPriority;
-    position.x = jsonData.getInt("x");
-    position.y = jsonData.getInt("y");
-    propertyMap.readWrapper(this, json, jsonData.get("properties"));
+    position.x = x;
+    position.y = y;
+  }
+
+  /**
+   * Read this item's properties
+   *
+   * @param properties an array of properties as written by {@link Item#write(Json)}
+   */
+  public void readProperties(Json json, JsonValue properties) {
+    propertyMap.readWrapper(this, json, properties);
   }
 
 
@@ -349,17 +398,9 @@ public class Item implements Json.Serializable, Drawable {
    * @param delta amount of time since the last call
    */
   public void update(float delta) {
-    getProperty(PropertyType.Animated, AnimatedProperty.class).ifPresent((a) -> {
+    AnimatedProperty a = getPropertyOrNull(PropertyType.Animated, AnimatedProperty.class);
+    if (a != null) {
       a.maybeAdvance(delta);
-    });
-
-    if (map instanceof GameScreen) {
-      getProperty(PropertyType.ConnectorSource, ConnectorSource.class).ifPresent((csp) -> {
-        csp.propagate(new GameContext((GameScreen) map), new HashSet<>());
-      });
-      getProperty(PropertyType.ConnectorRelay, ConnectorRelay.class).ifPresent((csp) -> {
-        csp.propagate(new GameContext((GameScreen) map), new HashSet<>());
-      });
     }
   }
 
@@ -367,7 +408,7 @@ public class Item implements Json.Serializable, Drawable {
    * Force an item to reload its texture
    */
   public void reloadTexture() {
-    setTexture(new AtlasRegion(AssetManager.instance().getRegion(this.objectTypeData.texture)));
+    setTexture(AssetManager.instance().getRegion(this.objectTypeData.texture));
     for (ItemProperty<? extends ItemPropertyValue> p : getProperties()) {
       p.updateTexture();
     }
@@ -393,10 +434,24 @@ public class Item implements Json.Serializable, Drawable {
 
     int newID = i.getID();
 
-    // We are cloning an Item that was not deserialized
-    jsonData = new JsonReader().parse(new Json().toJson(this));
+    // Copy field by field exactly what a write followed by a read would,
     // this copies the id which is not what we want
-    i.read(new Json(), this.jsonData);
+    i.initialize(
+      LoadedObjects.intern(new ItemTypeData(objectTypeData.name, objectTypeData.category, itemSize.copy(),
+          objectTypeData.texture, objectTypeData.renderPriority, null)),
+      id,
+      position.x,
+      position.y,
+      getRotation(),
+      contained,
+      flipped,
+      mirrorH,
+      mirrorV
+    );
+    i.propertyMap.copyWrapper(i, propertyMap);
+
+    assert matchesJsonClone(i);
+
     if (preserveID) {
       nextID -= 1;
     } else {
@@ -405,6 +460,26 @@ public class Item implements Json.Serializable, Drawable {
     return i;
   }
 
+  /**
+   * Compare a clone against the json round trip {@link Item#clone(boolean)}
+   * is equivalent to, only called with assertions enabled
+   *
+   * @return true, mismatches are logged rather than failing the assertion
+   */
+  private boolean matchesJsonClone(Item clone) {
+    int savedNextID = nextID;
+    Item expected = new Item();
+    expected.read(new Json(), new JsonReader().parse(new Json().toJson(this)));
+    nextID = savedNextID;
+
+    String expectedJson = new Json().toJson(expected);
+    String actualJson = new Json().toJson(clone);
+    if (!expectedJson.equals(actualJson)) {
+      log.severe(String.format("Clone of %s differs from its json copy:\n%s\n%s", getItemName(), expectedJson, actualJson));
+    }
+    return true;
+  }
+
   /**
    * @return a copy of this item, respecting any property values 
    * that are non-copyable (like {@link ItemContainsItem})
@@ -446,6 +521,22 @@ public class Item implements Json.Serializable, Drawable {
     return actions;
   };
 
+  /**
+   * Equivalent to {@code !getPlayerActions(ctx).isEmpty()}, without building the actions
+   *
+   * @see group24.escaperoom.game.state.ActionAvailability for a cached version
+   */
+  public boolean hasPlayerActions(GameContext ctx) {
+    ConditionallyActive cap = getPropertyOrNull(PropertyType.ConditionallyActive, ConditionallyActive.class);
+    if (cap != null && !cap.isValid(ctx)) {
+      return false;
+    }
+    for (ItemProperty<? extends ItemPropertyValue> p : getProperties()) {
+      if (p.providesActions()) return true;
+    }
+    return false;
+  }
+
   /**
    * Set the region of the underlying texture for this item
    *
@@ -455,7 +546,11 @@ public class Item implements Json.Serializable, Drawable {
    * @param height new height
    */
   public void adjustTextureRegion(int x, int y, int width, int height) {
-    texture.setRegion(textureOrigin.x + x, textureOrigin.y + y, width, height);
+    if (!ownsTexture) {
+      texture = new AtlasRegion(texture);
+      ownsTexture = true;
+    }
+    texture.setRegion(textureOriginX + x, textureOriginY + y, width, height);
   }
 
   /**
@@ -494,6 +589,26 @@ public class Item implements Json.Serializable, Drawable {
    *                  this item will likely soon be replaced
    */
   public void remove(boolean temporary) {
+    if (map != null) {
+      removeUnrefreshed(temporary);
+      Connectable.Utils.maybeUpateSurroundingTileables(this, map);
+
+      // Update all the surronding tileables in the old position to reflect
+      // this new adjaceny
+      getProperty(PropertyType.TiledBrushable, TiledBrushable.class).ifPresent((tbp) -> {
+        TiledBrush.updateSurroundingTiles(getPosition().cpy(), map, this);
+      });
+    }
+  }
+
+  /**
+   * Remove this item from the map, leaving the textures of surrounding
+   * tileables as they are, for callers which refresh them once after many
+   * removals, see {@link group24.escaperoom.game.world.GridTransaction}
+   *
+   * @see Item#remove(boolean)
+   */
+  public void removeUnrefreshed(boolean temporary) {
     if (map != null) {
       if (!temporary && hasProperty(PropertyType.ContainsItemsProperty)) {
         getProperty(PropertyType.ContainsItemsProperty, ContainsItemProperty.class).ifPresent((cip) -> {
@@ -511,13 +626,7 @@ public class Item implements Json.Serializable, Drawable {
           });
         });
       }
-      map.removeItemFromGrid(this, temporary);
-
-      // Update all the surronding tileables in the old position to reflect
-      // this new adjaceny
-      getProperty(PropertyType.TiledBrushable, TiledBrushable.class).ifPresent((tbp) -> {
-        TiledBrush.updateSurroundingTiles(getPosition().cpy(), map, this);
-      });
+      map.removeItemFromGrid(this, temporary, false);
     }
   }
 
@@ -555,7 +664,15 @@ public class Item implements Json.Serializable, Drawable {
    * @return whether this item has a certain property
    */
   public boolean hasProperty(PropertyType type) {
-    return propertyMap.containsKey(type);
+    return propertyMap.has(type);
+  }
+
+  /**
+   * @param mask as built by {@link PropertyMap#maskOf}
+   * @return whether this item has any of the properties in {@code mask}
+   */
+  public boolean hasAnyProperty(long mask) {
+    return propertyMap.hasAny(mask);
   }
 
   public Collection<ItemProperty<? extends ItemPropertyValue>> getProperties() {
@@ -569,13 +686,18 @@ public class Item implements Json.Serializable, Drawable {
 
   public <T extends ItemPropertyValue, P extends ItemProperty<T>> Optional<P> getProperty(PropertyType type,
       Class<P> expectedClass) {
-    P prop;
-    try {
-      prop = expectedClass.cast(propertyMap.get(type));
-    } catch (Exception e) {
-      return Optional.empty();
-    }
-    return prop == null ? Optional.empty() : Optional.of(prop);
+    return Optional.ofNullable(propertyMap.getAs(type, expectedClass));
+  }
+
+  /**
+   * Same as {@link Item#getProperty(PropertyType, Class)} without the
+   * {@link Optional}, for code called every frame
+   *
+   * @return the property of type {@code type}, or null if this item does not
+   *         have one or it is not an instance of {@code expectedClass}
+   */
+  public @Null <P> P getPropertyOrNull(PropertyType type, Class<P> expectedClass) {
+    return propertyMap.getAs(type, expectedClass);
   }
 
   public Array<ItemProperty<? extends ItemPropertyValue>> getProperties(PropertyType... types) {
@@ -598,6 +720,7 @@ public class Item implements Json.Serializable, Drawable {
    */
   public void mirrorHorizontal(){
     this.mirrorH = !this.mirrorH;
+    if (map != null) map.itemChanged(this);
   }
 
   /**
@@ -606,7 +729,8 @@ public class Item implements Json.Serializable, Drawable {
    */
   public void setRenderPriority(int priority){
     renderPriority = priority;
-    objectTypeData.renderPriority = priority;
+    if (objectTypeData.renderPriority != priority) changeType((t) -> t.withRenderPriority(priority));
+    updateRenderOrder();
   }
 
   /**
@@ -618,7 +742,9 @@ public class Item implements Json.Serializable, Drawable {
    */
   public void setWidth(int width){
     itemSize.width = width;
-    objectTypeData.size.width = width;
+    if (objectTypeData.size.width != width) {
+      changeType((t) -> t.withSize(new Size(width, t.size.height)));
+    }
 
     if (flipped) occupiedSize.height = width;
     else occupiedSize.width = width;
@@ -633,7 +759,9 @@ public class Item implements Json.Serializable, Drawable {
    */
   public void setHeight(int height){
     itemSize.height = height;
-    objectTypeData.size.height = height;
+    if (objectTypeData.size.height != height) {
+      changeType((t) -> t.withSize(new Size(t.size.width, height)));
+    }
 
     if (flipped) occupiedSize.width = height;
     else occupiedSize.height = height;
@@ -644,7 +772,8 @@ public class Item implements Json.Serializable, Drawable {
    */
   public void increaseRenderPriotity(){
     this.renderPriority += 1;
-    this.objectTypeData.renderPriority += 1;
+    changeType((t) -> t.withRenderPriority(t.renderPriority + 1));
+    updateRenderOrder();
   }
 
   /**
@@ -652,7 +781,17 @@ public class Item implements Json.Serializable, Drawable {
    */
   public void decreaseRenderPriotity(){
     this.renderPriority = Math.max(0, this.renderPriority - 1);
-    this.objectTypeData.renderPriority = Math.max(0, this.renderPriority - 1);
+    changeType((t) -> t.withRenderPriority(Math.max(0, this.renderPriority - 1)));
+    updateRenderOrder();
+  }
+
+  /**
+   * Re-sort this item in the render order of the map it is placed on
+   */
+  private void updateRenderOrder() {
+    if (map != null && map.getGrid() != null) {
+      map.getGrid().getRenderQueue().update(this);
+    }
   }
 
   /**
@@ -660,6 +799,7 @@ public class Item implements Json.Serializable, Drawable {
    */
   public void mirrorVertical(){
     this.mirrorV = !this.mirrorV;
+    if (map != null) map.itemChanged(this);
   }
 
   private void preMove(){
@@ -748,9 +888,11 @@ public class Item implements Json.Serializable, Drawable {
    * @param region new region
    */
   public void setTexture(AtlasRegion region) {
-    textureOrigin = new IntVector2(region.getRegionX(), region.getRegionY());
+    textureOriginX = region.getRegionX();
+    textureOriginY = region.getRegionY();
     texture = region;
-    objectTypeData.texture = region.name;
+    ownsTexture = false;
+    if (!Objects.equals(objectTypeData.texture, region.name)) changeType((t) -> t.withTexture(region.name));
   }
 
   /**
@@ -857,6 +999,8 @@ public class Item implements Json.Serializable, Drawable {
    */
   public void setRotation(int degrees) {
     if (trySpin(degrees)) {
+      // spinning changes the item in place, without placing it again
+      if (map != null) map.itemChanged(this);
       return;
     }
     
@@ -925,10 +1069,10 @@ public class Item implements Json.Serializable, Drawable {
    *         and therefore was "spun"
    */
   private boolean trySpin(float degrees) {
-    if (!hasProperty(PropertyType.Spinable)){
+    SpinnableProperty sp = getPropertyOrNull(PropertyType.Spinable, SpinnableProperty.class);
+    if (sp == null){
       return false;
     }
-    SpinnableProperty sp = getProperty(PropertyType.Spinable, SpinnableProperty.class).get();
 
     // store our previous rotation
     int prevRotation = getRotation();
@@ -1016,6 +1160,22 @@ public class Item implements Json.Serializable, Drawable {
             bp.blockSize.y));
   }
 
+  /**
+   * Allocation free version of {@link Item#blockingRegion()}
+   *
+   * The returned rectangle is owned by this item and is only valid until the
+   * next call, it must not be modified or stored.
+   *
+   * @return the region where this object blocks player movement, or null
+   *         if it does not block the player
+   */
+  public @Null Rectangle getBlockingRect() {
+    if (blockRegion.isEmpty()) return null;
+
+    BlockingParams bp = blockRegion.get();
+    return blockingRect.set(getX() + bp.offsetX, getY() + bp.offsetY, bp.blockSize.x, bp.blockSize.y);
+  }
+
   /**
    * @return this item's texture 
    */
@@ -1046,12 +1206,22 @@ public class Item implements Json.Serializable, Drawable {
   }
 
   /**
-   * @return the {@link ItemTypeData} describing this item
+   * @return the {@link ItemTypeData} describing this item, which may be shared
+   *         with other items, see {@link Item#changeType}
    */
   public ItemTypeData getType() {
     return objectTypeData;
   }
 
+  /**
+   * Give this item the type {@code change} makes from its current one (e.g.
+   * with {@link ItemTypeData#withName}), which other items of the same type
+   * and the interned records never see
+   */
+  public void changeType(UnaryOperator<ItemTypeData> change) {
+    objectTypeData = change.apply(objectTypeData);
+  }
+
   /**
    * @return the occupied size of this item.
    *
@@ -1098,9 +1268,8 @@ public class Item implements Json.Serializable, Drawable {
    * @return the logical rotation of this item
    */
   public int getRotation() {
-    return getProperty(PropertyType.Spinable, SpinnableProperty.class)
-        .map((p) -> p.getSpinCount() * 90)
-        .orElse(rotation);
+    SpinnableProperty sp = getPropertyOrNull(PropertyType.Spinable, SpinnableProperty.class);
+    return sp == null ? rotation : sp.getSpinCount() * 90;
   }
 
   //---------------------------------------------------------------------------
@@ -1142,6 +1311,11 @@ public class Item implements Json.Serializable, Drawable {
     return getPosition().asVector2();
   }
 
+  @Override
+  public float sortY() {
+    return position.y;
+  }
+
   @Override
   public int getTileDepth() {
     return Grid.current().getTileDepthOf(this);
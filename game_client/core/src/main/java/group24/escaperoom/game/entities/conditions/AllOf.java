@@ -1,6 +1,7 @@
 package group24.escaperoom.game.entities.conditions;
 
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.verify.GameFacts;
 
 /**
  * A {@link Conditional} which is true only when all of its children are true
@@ -16,6 +17,16 @@ public class AllOf extends KaryConditional {
     return true;
 	}
 
+  @Override
+  public boolean evaluate(GameFacts facts) {
+    for (Conditional c : children){
+      if (!c.evaluate(facts)){
+        return false;
+      }
+    }
+    return true;
+  }
+
 	@Override
 	public ConditionalType getType() {
     return ConditionalType.AllOf;
@@ -8,6 +8,7 @@ import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonValue;
 
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.verify.GameFacts;
 import group24.escaperoom.screens.LevelEditor;
 
 /**
@@ -28,6 +29,11 @@ public class AlwaysActive extends Conditional{
     return true;
 	}
 
+  @Override
+  public boolean evaluate(GameFacts facts) {
+    return true;
+  }
+
 	@Override
 	public ConditionalType getType() {
     return ConditionalType.AlwaysActive;
@@ -1,6 +1,7 @@
 package group24.escaperoom.game.entities.conditions;
 
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.verify.GameFacts;
 
 /**
  * {@link Conditional} corresponding to logical and.
@@ -12,6 +13,11 @@ public class AndConditional extends BinaryConditional {
     return left.evaluate(ctx) && right.evaluate(ctx);
 	}
 
+  @Override
+  public boolean evaluate(GameFacts facts) {
+    return left.evaluate(facts) && right.evaluate(facts);
+  }
+
 	@Override
 	public ConditionalType getType() {
     return ConditionalType.AndConditional;
@@ -1,5 +1,6 @@
 package group24.escaperoom.game.entities.conditions;
 
+import java.util.EnumSet;
 import java.util.Optional;
 import java.util.logging.Logger;
 
@@ -82,6 +83,21 @@ public abstract class BinaryConditional extends Conditional {
     right = readCond(jsonData.get("right"));
 	}
 
+  @Override
+  public EnumSet<Dependency> getDependencies() {
+    EnumSet<Dependency> dependencies = left.getDependencies();
+    dependencies.addAll(right.getDependencies());
+    return dependencies;
+  }
+
+  @Override
+  public Conditional clone() {
+    BinaryConditional c = (BinaryConditional) super.clone();
+    c.left = left.clone();
+    c.right = right.clone();
+    return c;
+  }
+
   @Override
   public Array<Conditional> getChildren(){
     return Array.with(left, right);
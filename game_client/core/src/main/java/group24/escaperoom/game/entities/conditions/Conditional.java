@@ -1,11 +1,11 @@
 package group24.escaperoom.game.entities.conditions;
 
+import java.util.EnumSet;
 import java.util.Optional;
 
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Json;
-import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
 
 import group24.escaperoom.editor.ui.ConditionalUI;
@@ -13,12 +13,41 @@ import group24.escaperoom.editor.ui.ConfigurationMenu.HandlesMenuClose;
 import group24.escaperoom.editor.ui.Menu;
 import group24.escaperoom.editor.ui.Menu.MenuEntry;
 import group24.escaperoom.game.entities.properties.values.ItemPropertyValue;
+import group24.escaperoom.game.state.GameEvent.EventType;
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.verify.GameFacts;
 import group24.escaperoom.screens.LevelEditor;
 import group24.escaperoom.ui.SimpleUI;
 
 abstract public class Conditional implements Json.Serializable, ItemPropertyValue {
 
+  /**
+   * Game state a {@link Conditional} may read when it is evaluated
+   */
+  public enum Dependency {
+    /**
+     * The region occupied by the player
+     */
+    PlayerPosition,
+    /**
+     * The contents of the player's inventory
+     */
+    Inventory,
+    /**
+     * Whether connectors are powered
+     */
+    Power,
+    /**
+     * Any state announced by an {@link EventType#ItemStateChange}
+     * (toggles, locks, container contents)
+     */
+    ItemState,
+    /**
+     * Which items are placed on the grid, and where
+     */
+    Placement,
+  }
+
   /**
    * @param ctx the {@link GameContext} which should be used to evaluate this {@link Conditional}
    *
@@ -26,6 +55,19 @@ abstract public class Conditional implements Json.Serializable, ItemPropertyValu
    */
   abstract public boolean evaluate(GameContext ctx);
 
+  /**
+   * Evaluate this {@link Conditional} against facts about a game which is not
+   * being played, such as the states explored when verifying a map.
+   *
+   * By default the conditional cannot be decided from facts alone, and
+   * {@link GameFacts#assume} decides it
+   *
+   * @return whether or not this {@link Conditional} is {@code true} given {@code facts}
+   */
+  public boolean evaluate(GameFacts facts) {
+    return facts.assume(this);
+  }
+
   /**
    * @return the type of this conditional
    */
@@ -36,6 +78,18 @@ abstract public class Conditional implements Json.Serializable, ItemPropertyValu
    */
   abstract public String getName();
 
+  /**
+   * The result of {@link Conditional#evaluate} (and of {@link Conditional#poll})
+   * may only change after one of these dependencies changed.
+   *
+   * By default assumes the conditional reads no game state
+   *
+   * @return the game state this conditional reads
+   */
+  public EnumSet<Dependency> getDependencies() {
+    return EnumSet.noneOf(Dependency.class);
+  }
+
   /**
    * @return whether or not this {@link Conditional} requires polling
    */
@@ -65,11 +119,16 @@ abstract public class Conditional implements Json.Serializable, ItemPropertyValu
     return Optional.of(0);
   }
 
+  /**
+   * Copy this conditional as if it was written to json and read back.
+   *
+   * Conditionals which write state must override this, copying that state
+   * onto {@code super.clone()}
+   *
+   * @return a copy of this conditional
+   */
   public Conditional clone() {
-    JsonValue jsonData = new JsonReader().parse(new Json().toJson(this));
-    Conditional c = this.getType().getConditional();
-    c.read(new Json(), jsonData);
-    return c;
+    return this.getType().getConditional();
   }
 
   /**
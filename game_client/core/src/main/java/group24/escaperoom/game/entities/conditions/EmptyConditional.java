@@ -7,6 +7,7 @@ import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonValue;
 
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.verify.GameFacts;
 import group24.escaperoom.screens.LevelEditor;
 
 public class EmptyConditional extends Conditional {
@@ -29,6 +30,11 @@ public class EmptyConditional extends Conditional {
     return false;
 	}
 
+  @Override
+  public boolean evaluate(GameFacts facts) {
+    return false;
+  }
+
 	@Override
 	public ConditionalType getType() {
     return ConditionalType.EmptyConditional;
@@ -1,5 +1,6 @@
 package group24.escaperoom.game.entities.conditions;
 
+import java.util.EnumSet;
 import java.util.Optional;
 import java.util.Set;
 
@@ -21,6 +22,7 @@ import group24.escaperoom.game.entities.properties.ContainsItemProperty;
 import group24.escaperoom.game.entities.properties.PropertyType;
 import group24.escaperoom.game.entities.properties.values.ContainedItem;
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.verify.GameFacts;
 import group24.escaperoom.game.world.Grid;
 import group24.escaperoom.screens.LevelEditor;
 import group24.escaperoom.ui.ItemSelectUI;
@@ -47,6 +49,18 @@ public class ItemContainsItem extends Conditional {
         }).orElse(false);
   }
 
+  @Override
+  public boolean evaluate(GameFacts facts) {
+    if (container.getItem() == null || contained.getItem() == null) return false;
+
+    return facts.isContained(container.getItem(), contained.getItem());
+  }
+
+  @Override
+  public EnumSet<Dependency> getDependencies() {
+    return EnumSet.of(Dependency.ItemState, Dependency.Inventory);
+  }
+
   @Override
   public ConditionalType getType() {
     return ConditionalType.ItemContainsItem;
@@ -76,8 +90,22 @@ public class ItemContainsItem extends Conditional {
 
   @Override
   public void read(Json json, JsonValue jsonData) {
-    int containerID = jsonData.getInt("container_id", -1);
-    int containedID = jsonData.getInt("contained_id", -1);
+    resolveOnCompletion(jsonData.getInt("container_id", -1), jsonData.getInt("contained_id", -1));
+  }
+
+  /**
+   * Copies the references to the items
+   */
+  @Override
+  public Conditional clone() {
+    removeStaleItems();
+    ItemContainsItem c = (ItemContainsItem) super.clone();
+    c.container = container.clone();
+    c.contained = contained.clone();
+    return c;
+  }
+
+  private void resolveOnCompletion(int containerID, int containedID) {
     Grid.onMapCompletion.add((grid) -> {
       if (containerID != -1){
         this.container = new SelectedItem(grid.items.get(containerID));
@@ -1,5 +1,6 @@
 package group24.escaperoom.game.entities.conditions;
 
+import java.util.EnumSet;
 import java.util.Optional;
 import java.util.logging.Logger;
 
@@ -14,6 +15,7 @@ import group24.escaperoom.editor.ui.ConfigurationMenu.HandlesMenuClose;
 import group24.escaperoom.game.entities.Item;
 import group24.escaperoom.game.entities.properties.PropertyType;
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.verify.GameFacts;
 import group24.escaperoom.game.world.Grid;
 import group24.escaperoom.screens.LevelEditor;
 import group24.escaperoom.ui.ItemSelectUI;
@@ -34,6 +36,17 @@ public class ItemInArea extends Conditional {
     json.writeValue("item_id", item.getItem() == null ? -1 : item.getItem().getID());
 	}
 
+  /**
+   * Copies the reference to the item
+   */
+  @Override
+  public Conditional clone() {
+    ItemInArea c = (ItemInArea) super.clone();
+    c.targetRegion = new Rectangle((int) targetRegion.x, (int) targetRegion.y, (int) targetRegion.width, (int) targetRegion.height);
+    c.item = item.clone();
+    return c;
+  }
+
 	@Override
 	public void read(Json json, JsonValue jsonData) {
     int x = jsonData.getInt("x", 0);
@@ -42,23 +55,36 @@ public class ItemInArea extends Conditional {
     int height = jsonData.getInt("height", 0);
     this.targetRegion = new Rectangle(x, y, width, height);
 
-    int i = jsonData.getInt("item_id", -1);
+    resolveOnCompletion(jsonData.getInt("item_id", -1));
+	}
+
+  private void resolveOnCompletion(int i) {
     Grid.onMapCompletion.add((grid) -> {
       if (i != -1){
         this.item = new SelectedItem(grid.items.get(i));
       }
       return null;
     });
-	}
+  }
 
 	@Override
 	public boolean evaluate(GameContext ctx) {
-    if (item.getItem() != null && ctx.map.itemIsPlaced(item.getItem())) {
+    if (item.getItem() != null && ctx.itemIsPlaced(item.getItem())) {
       return targetRegion.overlaps(item.getItem().getOccupiedRegion());
     }
     return false;
 	}
 
+  @Override
+  public boolean evaluate(GameFacts facts) {
+    return item.getItem() != null && facts.canBeIn(item.getItem(), targetRegion);
+  }
+
+  @Override
+  public EnumSet<Dependency> getDependencies() {
+    return EnumSet.of(Dependency.Placement);
+  }
+
 	@Override
 	public ConditionalType getType() {
     return ConditionalType.ItemInArea;
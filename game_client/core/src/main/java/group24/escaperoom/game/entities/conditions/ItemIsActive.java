@@ -1,5 +1,6 @@
 package group24.escaperoom.game.entities.conditions;
 
+import java.util.EnumSet;
 import java.util.logging.Logger;
 
 import com.badlogic.gdx.utils.Array;
@@ -9,6 +10,7 @@ import group24.escaperoom.game.entities.Item;
 import group24.escaperoom.game.entities.properties.ConditionallyActive;
 import group24.escaperoom.game.entities.properties.PropertyType;
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.verify.GameFacts;
 import group24.escaperoom.screens.MapScreen;
 
 public class ItemIsActive extends RequiresItems {
@@ -49,6 +51,22 @@ public class ItemIsActive extends RequiresItems {
     return true;
   }
 
+  @Override
+  public boolean evaluate(GameFacts facts) {
+    for (RequiredItem ri : items) {
+      if (!facts.isActive(ri.getItem())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public EnumSet<Dependency> getDependencies() {
+    // the conditions of the required items may themselves depend on anything
+    return EnumSet.allOf(Dependency.class);
+  }
+
   @Override
   public ConditionalType getType() {
     return ConditionalType.ItemIsActive;
@@ -1,11 +1,14 @@
 package group24.escaperoom.game.entities.conditions;
 
+import java.util.EnumSet;
+
 import com.badlogic.gdx.utils.Array;
 
 import group24.escaperoom.editor.ui.RequiredItemEntry.RequiredItem;
 import group24.escaperoom.game.entities.Item;
 import group24.escaperoom.game.entities.properties.PropertyType;
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.verify.GameFacts;
 import group24.escaperoom.screens.MapScreen;
 import group24.escaperoom.game.entities.properties.ConnectorSink;
 
@@ -38,6 +41,21 @@ public class ItemsArePowered extends RequiresItems {
     return true;
 	}
 
+  @Override
+  public boolean evaluate(GameFacts facts) {
+    for (RequiredItem i : items) {
+      if (!i.getRequired().matches(facts.isPowered(i.getItem()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public EnumSet<Dependency> getDependencies() {
+    return EnumSet.of(Dependency.Power);
+  }
+
 	@Override
 	public ConditionalType getType() {
     return ConditionalType.ItemsArePowered;
@@ -1,5 +1,6 @@
 package group24.escaperoom.game.entities.conditions;
 
+import java.util.EnumSet;
 import java.util.logging.Logger;
 
 import com.badlogic.gdx.utils.Array;
@@ -9,6 +10,7 @@ import group24.escaperoom.game.entities.Item;
 import group24.escaperoom.game.entities.properties.PropertyType;
 import group24.escaperoom.game.entities.properties.Toggleable;
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.verify.GameFacts;
 import group24.escaperoom.screens.MapScreen;
 
 public class ItemsAreToggled extends RequiresItems {
@@ -26,6 +28,21 @@ public class ItemsAreToggled extends RequiresItems {
     return true;
   }
 
+  @Override
+  public boolean evaluate(GameFacts facts) {
+    for (RequiredItem i : items) {
+      if (!i.getRequired().matches(facts.isToggled(i.getItem()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public EnumSet<Dependency> getDependencies() {
+    return EnumSet.of(Dependency.ItemState);
+  }
+
   @Override
   public ConditionalType getType() {
     return ConditionalType.ItemsAreToggled;
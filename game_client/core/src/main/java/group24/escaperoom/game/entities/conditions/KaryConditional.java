@@ -1,5 +1,6 @@
 package group24.escaperoom.game.entities.conditions;
 
+import java.util.EnumSet;
 import java.util.Optional;
 
 import com.badlogic.gdx.scenes.scene2d.Actor;
@@ -55,6 +56,24 @@ public abstract class KaryConditional extends Conditional {
     }
 	}
 
+  @Override
+  public EnumSet<Dependency> getDependencies() {
+    EnumSet<Dependency> dependencies = EnumSet.noneOf(Dependency.class);
+    for (Conditional c : children) {
+      dependencies.addAll(c.getDependencies());
+    }
+    return dependencies;
+  }
+
+  @Override
+  public Conditional clone() {
+    KaryConditional c = (KaryConditional) super.clone();
+    for (Conditional child : children) {
+      c.children.add(child.clone());
+    }
+    return c;
+  }
+
   private Conditional readCond(JsonValue data) {
     String type = data.getString("type");
     ConditionalType t = ConditionalType.valueOf(type);
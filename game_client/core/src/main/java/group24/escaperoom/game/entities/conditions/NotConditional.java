@@ -1,5 +1,6 @@
 package group24.escaperoom.game.entities.conditions;
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.verify.GameFacts;
 
 public class NotConditional extends UnaryConditional {
   @Override
@@ -7,6 +8,11 @@ public class NotConditional extends UnaryConditional {
     return !child.evaluate(ctx);
   }
 
+  @Override
+  public boolean evaluate(GameFacts facts) {
+    return !child.evaluate(facts);
+  }
+
   @Override
   public ConditionalType getType() {
     return ConditionalType.NotConditional;
@@ -1,6 +1,7 @@
 package group24.escaperoom.game.entities.conditions;
 
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.verify.GameFacts;
 
 public class OrConditional extends BinaryConditional {
 
@@ -9,6 +10,11 @@ public class OrConditional extends BinaryConditional {
     return left.evaluate(ctx) || right.evaluate(ctx);
 	}
 
+  @Override
+  public boolean evaluate(GameFacts facts) {
+    return left.evaluate(facts) || right.evaluate(facts);
+  }
+
 	@Override
 	public ConditionalType getType() {
     return ConditionalType.OrConditional;
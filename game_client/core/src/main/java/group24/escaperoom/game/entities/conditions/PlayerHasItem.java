@@ -1,5 +1,6 @@
 package group24.escaperoom.game.entities.conditions;
 
+import java.util.EnumSet;
 import java.util.Optional;
 import java.util.logging.Logger;
 
@@ -11,6 +12,7 @@ import com.badlogic.gdx.utils.JsonValue;
 import group24.escaperoom.game.entities.Item;
 import group24.escaperoom.game.entities.properties.PropertyType;
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.verify.GameFacts;
 import group24.escaperoom.game.world.Grid;
 import group24.escaperoom.screens.LevelEditor;
 import group24.escaperoom.ui.ItemSelectUI;
@@ -28,6 +30,11 @@ public class PlayerHasItem extends Conditional {
     return false;
   }
 
+  @Override
+  public boolean evaluate(GameFacts facts) {
+    return item.getItem() != null && facts.hasItem(item.getItem());
+  }
+
   @Override
   public void write(Json json) {
     json.writeValue("item_id", item.getItem() == null ? -1 : item.getItem().getID());
@@ -35,7 +42,20 @@ public class PlayerHasItem extends Conditional {
 
   @Override
   public void read(Json json, JsonValue jsonData) {
-    int i = jsonData.getInt("item_id", -1);
+    resolveOnCompletion(jsonData.getInt("item_id", -1));
+  }
+
+  /**
+   * Copies the reference to the item
+   */
+  @Override
+  public Conditional clone() {
+    PlayerHasItem c = (PlayerHasItem) super.clone();
+    c.item = item.clone();
+    return c;
+  }
+
+  private void resolveOnCompletion(int i) {
     Grid.onMapCompletion.add((grid) -> {
       if (i != -1) {
         this.item = new SelectedItem(grid.items.get(i));
@@ -56,6 +76,11 @@ public class PlayerHasItem extends Conditional {
     return Optional.of(new ItemSelectUI(potentialItems, this.item, "No obtainable items currently on the grid", editor));
   }
 
+  @Override
+  public EnumSet<Dependency> getDependencies() {
+    return EnumSet.of(Dependency.Inventory);
+  }
+
   @Override
   public ConditionalType getType() {
     return ConditionalType.PlayerHasItem;
@@ -1,5 +1,6 @@
 package group24.escaperoom.game.entities.conditions;
 
+import java.util.EnumSet;
 import java.util.Optional;
 
 import com.badlogic.gdx.math.Rectangle;
@@ -9,6 +10,7 @@ import com.badlogic.gdx.utils.JsonValue;
 
 import group24.escaperoom.editor.ui.AreaUI;
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.verify.GameFacts;
 import group24.escaperoom.screens.LevelEditor;
 
 public class PlayerInTiles extends Conditional {
@@ -23,6 +25,13 @@ public class PlayerInTiles extends Conditional {
     json.writeValue("height", targetRegion.height);
   }
 
+  @Override
+  public Conditional clone() {
+    PlayerInTiles c = (PlayerInTiles) super.clone();
+    c.targetRegion = new Rectangle((int) targetRegion.x, (int) targetRegion.y, (int) targetRegion.width, (int) targetRegion.height);
+    return c;
+  }
+
   @Override
   public void read(Json json, JsonValue jsonData) {
     int x = jsonData.getInt("x", 0);
@@ -38,11 +47,21 @@ public class PlayerInTiles extends Conditional {
     return ctx.player.getOccupiedRegion().overlaps(this.targetRegion);
   }
 
+  @Override
+  public boolean evaluate(GameFacts facts) {
+    return facts.canReach(this.targetRegion);
+  }
+
   @Override
   public Optional<Actor> getEditorConfiguration(LevelEditor editor) {
     return Optional.of(new AreaUI(editor, this.targetRegion));
   }
 
+  @Override
+  public EnumSet<Dependency> getDependencies() {
+    return EnumSet.of(Dependency.PlayerPosition);
+  }
+
   @Override
   public ConditionalType getType() {
     return ConditionalType.PlayerInRegion;
@@ -74,15 +74,34 @@ public abstract class RequiresItems extends Conditional {
   public void read(Json json, JsonValue jsonData) {
     JsonValue items = jsonData.get("items");
 
-    Grid.onMapCompletion.add((grid) -> {
+    Array<Integer> ids = new Array<>();
+    Array<ItemRequired> required = new Array<>();
+    if (items != null) {
+      items.forEach((tij) -> {
+        ids.add(tij.getInt("id"));
+        required.add(ItemRequired.valueOf(tij.getString("required")));
+      });
+    }
+    resolveOnCompletion(ids, required);
+  }
+
+  /**
+   * Copies the references to the items
+   */
+  @Override
+  public Conditional clone() {
+    removeStaleItems();
+    RequiresItems c = (RequiresItems) super.clone();
+    c.items = new Array<>(items.size);
+    items.forEach((i) -> c.items.add(new RequiredItem(i.getItem(), i.getRequired())));
+    return c;
+  }
 
-      if (items != null) {
-        items.forEach((tij) -> {
-          Item item = grid.items.get(tij.getInt("id"));
-          ItemRequired typeRequired = ItemRequired.valueOf(tij.getString("required"));
-          RequiredItem ti = new RequiredItem(item, typeRequired);
-          this.items.add(ti);
-        });
+  private void resolveOnCompletion(Array<Integer> ids, Array<ItemRequired> required) {
+    Grid.onMapCompletion.add((grid) -> {
+      for (int i = 0; i < ids.size; i++) {
+        Item item = grid.items.get(ids.get(i));
+        this.items.add(new RequiredItem(item, required.get(i)));
       }
       return null;
     });
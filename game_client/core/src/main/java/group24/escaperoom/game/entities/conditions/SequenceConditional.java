@@ -57,23 +57,33 @@ public class SequenceConditional extends KaryConditional {
     }
   }
 
+  /**
+   * Step the sequence until it stops changing, so a single poll after a
+   * change of its dependencies reaches the same state as polling repeatedly
+   */
   @Override
   public boolean poll(GameContext ctx){
-    // poll all our children 
-    children.forEach((c) -> c.poll(ctx));
+    int lastStage;
+    State lastState;
+    do {
+      // poll all our children 
+      children.forEach((c) -> c.poll(ctx));
 
-    switch (state){
-		case Completed:
-      return false;
-		case NeedsReset:
-      tryReset(ctx);
-			break;
-		case Progressing:
-      progress(ctx);
-			break;
-    }
+      lastStage = nextStage;
+      lastState = state;
+      switch (state){
+      case Completed:
+        return false;
+      case NeedsReset:
+        tryReset(ctx);
+        break;
+      case Progressing:
+        progress(ctx);
+        break;
+      }
+    } while (lastStage != nextStage || lastState != state);
 
-    return true;
+    return state != State.Completed;
   }
 
   @Override
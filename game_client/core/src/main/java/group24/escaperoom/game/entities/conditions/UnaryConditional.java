@@ -1,5 +1,6 @@
 package group24.escaperoom.game.entities.conditions;
 
+import java.util.EnumSet;
 import java.util.Optional;
 
 import com.badlogic.gdx.scenes.scene2d.Actor;
@@ -41,6 +42,18 @@ abstract public class UnaryConditional extends Conditional {
     this.child = c;
 	}
 
+  @Override
+  public EnumSet<Dependency> getDependencies() {
+    return child.getDependencies();
+  }
+
+  @Override
+  public Conditional clone() {
+    UnaryConditional c = (UnaryConditional) super.clone();
+    c.child = child.clone();
+    return c;
+  }
+
   @Override 
   public void setChildren(Conditional ... conds){
     if (conds.length > 0){
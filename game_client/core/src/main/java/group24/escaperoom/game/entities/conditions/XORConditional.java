@@ -1,6 +1,7 @@
 package group24.escaperoom.game.entities.conditions;
 
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.verify.GameFacts;
 
 public class XORConditional extends BinaryConditional {
 
@@ -11,6 +12,11 @@ public class XORConditional extends BinaryConditional {
     return (left || right) && !(left && right);
 	}
 
+  @Override
+  public boolean evaluate(GameFacts facts) {
+    return left.evaluate(facts) ^ right.evaluate(facts);
+  }
+
 	@Override
 	public ConditionalType getType() {
     return ConditionalType.XORConditional;
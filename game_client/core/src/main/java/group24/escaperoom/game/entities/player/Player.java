@@ -1,5 +1,7 @@
 package group24.escaperoom.game.entities.player;
 
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Optional;
 
@@ -12,6 +14,7 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectFloatMap;
 
 import group24.escaperoom.screens.GameScreen;
 import group24.escaperoom.services.GameStatistics;
@@ -23,10 +26,13 @@ import group24.escaperoom.engine.physics.Collisions;
 import group24.escaperoom.engine.render.Drawable;
 import group24.escaperoom.game.entities.properties.InteractableProperty;
 import group24.escaperoom.game.entities.properties.PropertyType;
+import group24.escaperoom.game.state.ActionAvailability;
 import group24.escaperoom.game.state.GameContext;
-import group24.escaperoom.game.state.GameEventBus;
 import group24.escaperoom.game.state.GameEvent.EventType;
+import group24.escaperoom.game.state.GameEventBus;
+import group24.escaperoom.game.state.GameView;
 import group24.escaperoom.game.ui.PlayerInventoryDialog;
+import group24.escaperoom.game.world.Grid;
 import group24.escaperoom.game.entities.Item;
 
 public class Player extends Actor implements Drawable {
@@ -40,11 +46,22 @@ public class Player extends Actor implements Drawable {
   public int renderPriority = 5;
   int originX;
   int prevX = -1;
-  GameScreen gameScreen;
+  GameView view;
   int prevFrameX = -1;
 
+  /**
+   * The inputs moving the player, sampled on every tick by {@link GameScreen}
+   */
+  public static final EnumSet<Input> MOVEMENT_INPUTS = EnumSet.of(Input.MOVE_UP, Input.MOVE_DOWN, Input.MOVE_LEFT, Input.MOVE_RIGHT);
+
+  /**
+   * Only for the ui of the game, which only exists when it is played on a screen
+   *
+   * @return the screen the player plays on
+   */
   public GameScreen getGameScreen() {
-    return gameScreen;
+    assert view instanceof GameScreen : "the player is not on a screen";
+    return (GameScreen) view;
   }
 
   public Direction getDirection() {
@@ -69,15 +86,26 @@ public class Player extends Actor implements Drawable {
   private PlayerDetails details;
   private int width = 2;
   private int height = 2;
-  private static final float INTERACT_RANGE = 2f;
+  public static final float INTERACT_RANGE = 2f;
   private Array<Item> inventory;
   private HashSet<Integer> inventoryIDs = new HashSet<>();
+  private int inventoryVersion = 0;
   private Array<Item> focusCanidates = new Array<>();
   private Optional<Integer> focusedItem = Optional.empty();
-  private Actor room;
   private boolean inventoryOpen = false;
   private Optional<PlayerInventoryDialog> dialog = Optional.empty();
 
+  // Scratch objects reused by Player#move and Player#findInteractables every frame
+  private final Circle queryCircle = new Circle();
+  private final Rectangle moveHitbox = new Rectangle();
+  private final Array<Item> nearbyItems = new Array<>();
+  private final Vector2 nearestPoint = new Vector2();
+  private final Vector2 center = new Vector2();
+  private final ObjectFloatMap<Item> candidateDistance = new ObjectFloatMap<>();
+  private final Comparator<Item> byCandidateDistance =
+    (a, b) -> Float.compare(candidateDistance.get(a, 0), candidateDistance.get(b, 0));
+  private GameContext interactContext;
+
   public void setDetails(PlayerDetails details) {
     this.details = details;
   }
@@ -88,18 +116,11 @@ public class Player extends Actor implements Drawable {
     setHeight(height);
   }
   public void setTexture(AtlasRegion texture) {
-    this.texture = texture;
+    // animating changes the region, which may be shared with items
+    this.texture = new AtlasRegion(texture);
     this.originX = texture.getRegionX();
   }
 
-  @Override
-  public void act(float delta) {
-    super.act(delta);
-    move(delta);
-
-    findInteractables();
-  }
-
   @Override
   public void setPosition(float x, float y) {
     super.setPosition(x, y);
@@ -111,18 +132,19 @@ public class Player extends Actor implements Drawable {
     stats.player = this.stats;
   }
 
-  public Player(int x, int y, GameScreen game) {
+  /**
+   * @param view   what the game is played on
+   * @param events the scope the player listens to game events through
+   */
+  public Player(int x, int y, GameView view, GameEventBus.Scope events) {
     startPos = new Vector2(x, y);
 
     inventory = new Array<>();
     velocity = new Vector2(0, 0);
 
-    gameScreen = game;
+    this.view = view;
 
-    GameEventBus.get().addListener(
-      (ev) -> addItemToInventory(ev.source), 
-      (ev) -> ev.type == EventType.ItemObtained
-    );
+    events.addListener(EventType.ItemObtained, (ev) -> addItemToInventory(ev.source));
 
     setPosition(x, y);
     setWidth(width);
@@ -153,18 +175,17 @@ public class Player extends Actor implements Drawable {
   //-----------------------------------------------------------------------------------------
   // INVENTORY 
   //-----------------------------------------------------------------------------------------
-  public void findInteractables() {
-    final class Canidate {
-      Item i;
-      float dst;
-
-      Canidate(Item i, float dst) {
-        this.i = i;
-        this.dst = dst;
-      }
-    }
-    Array<Canidate> candiates = new Array<>();
-
+  /**
+   * Find the items in range which offer an action, and update which one is focused
+   *
+   * Called by {@link group24.escaperoom.game.state.GameWorld#tick} once the
+   * player has moved and conditions were updated. Only asks whether items
+   * offer actions, which is cached by {@code availability}, the actions
+   * themselves are built once the player interacts.
+   *
+   * @param ctx the context the player interacts in
+   */
+  public void findInteractables(GameContext ctx, ActionAvailability availability) {
     // store the previously focused item, if there is one.
     Optional<Item> currItem = getFocusedItem();
 
@@ -174,23 +195,21 @@ public class Player extends Actor implements Drawable {
     focusCanidates.clear();
 
     // find all candiate items
-    GameContext ctx = new GameContext(gameScreen, this);
-    Vector2 center = getCenter();
-    for (Item item : gameScreen.itemsNear(this.getCenter(), INTERACT_RANGE)) {
-        if (item.hasProperty(PropertyType.Interactable)) {
-          Vector2 point = Collisions.getNearestPoint(item.getOccupiedRegion(), getCenter());
-          float dst = point.dst2(center);
-
-          Array<PlayerAction> actions = item.getPlayerActions(ctx);
-          if (!actions.isEmpty()) {
-            candiates.add(new Canidate(item, dst));
-          }
+    interactContext = ctx;
+    center.set(getX(Align.center), getY(Align.center));
+    candidateDistance.clear();
+    nearbyItems.clear();
+    queryCircle.set(center.x, center.y, INTERACT_RANGE);
+    for (Item item : ctx.grid.getSpatialIndex().query(queryCircle, nearbyItems)) {
+        if (item.hasProperty(PropertyType.Interactable) && availability.hasActions(item, ctx)) {
+          Collisions.getNearestPoint(item.getOccupiedRegion(), center, nearestPoint);
+          candidateDistance.put(item, nearestPoint.dst2(center));
+          focusCanidates.add(item);
         }
     }
 
-    // sort our canidates by distance to player and add all items to focusCanidates
-    candiates.sort((a, b) -> Float.compare(a.dst, b.dst));
-    candiates.forEach((c) -> focusCanidates.add(c.i));
+    // sort our canidates by distance to player
+    focusCanidates.sort(byCandidateDistance);
 
     // early return for no canidates
     if (focusCanidates.isEmpty()) {
@@ -231,7 +250,7 @@ public class Player extends Actor implements Drawable {
       inventoryOpen = true;
       PlayerInventoryDialog d = new PlayerInventoryDialog(this);
       this.dialog = Optional.of(d);
-      d.show(getGameScreen().getUIStage());
+      view.show(d);
     }
   }
 
@@ -243,9 +262,17 @@ public class Player extends Actor implements Drawable {
     return inventoryIDs;
   }
 
+  /**
+   * @return a number which changes whenever the inventory changes
+   */
+  public int getInventoryVersion(){
+    return inventoryVersion;
+  }
+
   public void removeItemFromInventory(Item i) {
     inventory.removeValue(i, false);
     inventoryIDs.remove(i.getID());
+    inventoryVersion++;
     if (inventoryOpen) {
       dialog.ifPresent((d) -> d.inventoryChanged());
     }
@@ -259,6 +286,7 @@ public class Player extends Actor implements Drawable {
 
     inventory.add(i);
     inventoryIDs.add(i.getID());
+    inventoryVersion++;
 
     i.setContained(true);
 
@@ -313,7 +341,7 @@ public class Player extends Actor implements Drawable {
     ControlsManager.registerInput(Input.INTERACT,        InputType.PRESSED, () -> {
       focusedItem.ifPresent((i) -> {
         focusCanidates.get(i).getProperty(PropertyType.Interactable, InteractableProperty.class)
-          .ifPresent((prop) -> prop.interact(new GameContext(gameScreen, this)));
+          .ifPresent((prop) -> prop.interact(interactContext));
       });
     });
     ControlsManager.registerInput(Input.CHANGE_INTERACT_FOCUS, InputType.PRESSED, () -> {
@@ -377,38 +405,36 @@ public class Player extends Actor implements Drawable {
   }
 
   /**
-   * Stage in {@link Player#act} where we try to move
-   *
+   * Stage of {@link group24.escaperoom.game.state.GameWorld#tick} where we
+   * try to move, within the bounds of {@code grid}
    */
-  private void move(float delta) {
-    if (room == null) room = gameScreen.getRoot().findActor("room");
-
+  public void move(Grid grid, float delta) {
     float newX = MathUtils.clamp(
       getX() + velocity.x * delta,
-      room.getX(),
-      room.getX() + room.getWidth() - getWidth()
+      0,
+      grid.getWidth() - getWidth()
     );
     float newY = MathUtils.clamp(
       getY() + velocity.y * delta,
-      room.getY(),
-      room.getY() + room.getHeight() - getHeight()
+      0,
+      grid.getHeight() - getHeight()
     );
 
     boolean canMove = true;
-    Rectangle newPostition = new Rectangle(
+    Rectangle newPostition = moveHitbox.set(
       newX + details.hitboxInfo.xOffset,
       newY + details.hitboxInfo.yOffset,
       details.hitboxInfo.width,
       details.hitboxInfo.height
     );
 
-    for (Item item : getGameScreen().itemsNear(new Circle(newX, newY, 3))) {
-      Optional<Rectangle> blockRegion = item.blockingRegion();
-      if (blockRegion.isPresent()) {
-        if (blockRegion.get().overlaps(newPostition)) {
-          canMove = false;
-          break;
-        }
+    nearbyItems.clear();
+    queryCircle.set(newX, newY, 3);
+    for (Item item : grid.getSpatialIndex().query(queryCircle, nearbyItems)) {
+      Rectangle blockRegion = item.getBlockingRect();
+      if (blockRegion != null && blockRegion.overlaps(newPostition)) {
+        canMove = false;
+        break;
       }
     }
 
@@ -417,7 +443,12 @@ public class Player extends Actor implements Drawable {
       lastPosition.set(getX(), getY());
       setPosition(newX, newY);
     }
+  }
 
+  /**
+   * Forget the movement input of the last tick, before the next one is sampled
+   */
+  public void clearMovement() {
     velocity.setZero();
     movementProcessed = false;
   }
@@ -444,6 +475,11 @@ public class Player extends Actor implements Drawable {
     return getPosition();
   }
 
+  @Override
+  public float sortY() {
+    return getY();
+  }
+
   @Override
   public int getTileDepth() {
     return Integer.MAX_VALUE;
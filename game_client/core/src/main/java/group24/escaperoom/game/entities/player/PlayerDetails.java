@@ -93,6 +93,24 @@ public class PlayerDetails implements Serializable {
     }
   }
 
+  /**
+   * @return a copy of these details which shares no state with them
+   */
+  public PlayerDetails copy() {
+    PlayerDetails d = new PlayerDetails();
+    d.speed = speed;
+    d.hitboxInfo = new HitboxInfo(hitboxInfo.xOffset, hitboxInfo.yOffset, hitboxInfo.width, hitboxInfo.height);
+    d.textureInfo = new TextureInfo(
+      textureInfo.idleFrames,
+      textureInfo.idleFrameDelayMS,
+      textureInfo.movementFrames,
+      textureInfo.moveFrameDelayMS,
+      textureInfo.frameWidth,
+      textureInfo.frameHeight
+    );
+    return d;
+  }
+
   /**
    * Empty constructor for {@link Json.Serializable} compatability 
    */
@@ -106,6 +106,21 @@ public class AnimatedProperty extends PhantomProperty {
     return new AnimatedProperty(newOwner, numFrames, frameLength, width, height);
 	}
 
+  @Override
+  public AnimatedProperty deepCopy(Item newOwner) {
+    AnimatedProperty p = emptyCopy(newOwner);
+    p.numFrames = numFrames;
+    p.frameLength = frameLength;
+    p.width = width;
+    p.height = height;
+    p.textureOffsetPerFrame = width;
+    PropertyMap.onMapCompletion.add((Void) -> {
+      newOwner.adjustTextureRegion(0, 0, p.width, p.height);
+      return null;
+    });
+    return p;
+  }
+
   @Override
   public void updateTexture() {
     owner.adjustTextureRegion(frameN * this.textureOffsetPerFrame, 0, this.width, this.height);
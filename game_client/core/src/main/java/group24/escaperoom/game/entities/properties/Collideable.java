@@ -99,6 +99,18 @@ public class Collideable extends PhantomProperty {
     json.writeValue("whole_item", wholeItem);
   }
 
+  @Override
+  public Collideable deepCopy(Item newOwner) {
+    Collideable p = emptyCopy(newOwner);
+    p.dx = dx;
+    p.dy = dy;
+    p.width = width;
+    p.height = height;
+    p.wholeItem = wholeItem;
+    p.updateBlockingRegion();
+    return p;
+  }
+
   @Override
   public void read(Json json, JsonValue jsonData) {
     dx = jsonData.getFloat("xoffset", 0);
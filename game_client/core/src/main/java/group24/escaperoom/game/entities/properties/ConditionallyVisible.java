@@ -28,30 +28,35 @@ public class ConditionallyVisible extends ConditionalProperty {
     return true;
   }
 
+  /**
+   * Re-evaluate the condition, placing or removing the owner only when its
+   * visibility actually changes
+   */
   public boolean poll(GameContext ctx) {
     condition.poll(ctx);
 
     boolean valid = isValid(ctx);
+    boolean placed = ctx.itemIsPlaced(owner);
 
     // handle if the player is conditionally visible
     if (owner.hasProperty(PropertyType.Player) && owner.map instanceof SinglePlayerGame) {
       SinglePlayerGame game = (SinglePlayerGame) owner.map;
 
       if (valid && owner.id != game.playerId) {  // TODO: mostly works, but not if multiple players are visible.
-        ctx.map.placeItem(owner);
+        if (!placed) ctx.view.placeItem(owner);
         game.loadPlayer();
         return false;
       } else {
-        owner.remove(false);
+        if (placed) ctx.view.removeItem(owner);
         return true;
       }
     }
 
     if (valid && !owner.isContained()){
-      ctx.map.placeItem(owner);
+      if (!placed) ctx.view.placeItem(owner);
       return false;
     } else {
-      owner.remove(false);
+      if (placed) ctx.view.removeItem(owner);
       return true;
     }
   }
@@ -1,6 +1,5 @@
 package group24.escaperoom.game.entities.properties;
 
-import java.util.HashSet;
 import java.util.Optional;
 
 import com.badlogic.gdx.graphics.Color;
@@ -14,6 +13,7 @@ import group24.escaperoom.game.entities.properties.base.Connectable;
 import group24.escaperoom.game.entities.properties.base.PhantomProperty;
 import group24.escaperoom.game.entities.properties.base.PropertyDescription;
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.entities.Item;
 
 public class Connector extends PhantomProperty implements Connectable {
   private static final PropertyDescription description = new PropertyDescription(
@@ -44,33 +44,30 @@ public class Connector extends PhantomProperty implements Connectable {
   }
 
   @Override
-  public void propagate(GameContext ctx, HashSet<Integer> seen) {
-    if (seen.contains(owner.getID())) return;
-    seen.add(owner.getID());
-
-    IntVector2 position = owner.getPosition();
-    IntVector2 pos;
+  public IntVector2[] signalOutputs() {
+    return Connectable.orthogonalSignalDirections;
+  }
 
-    for (int yoff = 1; yoff >= -1; yoff--) {
-      for (int xoff = -1; xoff <= 1; xoff++) {
-        if (Math.abs(xoff) == Math.abs(yoff))
-          continue;
+  @Override
+  public boolean acceptsSignalFrom(IntVector2 pos) {
+    return true;
+  }
 
-        pos = position.cpy();
-        pos.x += xoff;
-        pos.y += yoff;
+  @Override
+  public boolean isPassThrough() {
+    return true;
+  }
 
-        Connectable.Utils.connectableAt(pos, ctx.map, type)
-            .ifPresent(ci -> ci.connectable.acceptSignalFrom(this, position, ctx, seen));
-      }
-    }
+  @Override
+  public long evaluate(boolean[] inputs, long now) {
+    connected = inputs[0];
+    updateColor();
+    return -1;
   }
 
   @Override
   public void setActive(boolean connected, GameContext ctx) {
-
     this.connected = connected;
-    propagate(ctx, new HashSet<>());
   }
 
   public boolean isConnected() {
@@ -97,6 +94,13 @@ public class Connector extends PhantomProperty implements Connectable {
     this.type = ConnectorType.valueOf(jsonData.getString("type"));
   }
 
+  @Override
+  public Connector deepCopy(Item newOwner) {
+    Connector p = emptyCopy(newOwner);
+    p.type = type;
+    return p;
+  }
+
   protected void updateColor() {
     if (connected) {
       owner.setColor(connectedColor);
@@ -105,15 +109,6 @@ public class Connector extends PhantomProperty implements Connectable {
     }
   }
 
-  @Override
-  public void acceptSignalFrom(Connectable source, IntVector2 position, GameContext ctx, HashSet<Integer> seen) {
-    if (source.getConnectorType() != this.type)
-      return;
-    this.connected = source.isConnected();
-    updateColor();
-    propagate(ctx, seen); // continues flow
-  }
-
   @Override
   public Optional<PropertyConfiguration> getCustomItemConfigurationMenu() {
     PropertyConfiguration config = new PropertyConfiguration();
@@ -1,11 +1,7 @@
 package group24.escaperoom.game.entities.properties;
 
-import java.util.HashSet;
-
 import group24.escaperoom.engine.types.IntVector2;
-import group24.escaperoom.game.entities.properties.base.Connectable;
 import group24.escaperoom.game.entities.properties.base.PropertyDescription;
-import group24.escaperoom.game.state.GameContext;
 
 public class ConnectorBridge extends Connector {
   private static final PropertyDescription description = new PropertyDescription(
@@ -56,8 +52,7 @@ public class ConnectorBridge extends Connector {
   }
 
   @Override
-  public void acceptSignalFrom(Connectable source, IntVector2 pos, GameContext ctx, HashSet<Integer> seen) {
-
+  public boolean acceptsSignalFrom(IntVector2 pos) {
     IntVector2 position = owner.getPosition();
 
     IntVector2 input = input((int)owner.getRotation());
@@ -66,28 +61,18 @@ public class ConnectorBridge extends Connector {
     cpy.x += input.x;
     cpy.y += input.y;
 
-    if (cpy.equals(pos)) {
-      connected = source.isConnected();
-      updateColor();
-      propagate(ctx, seen);
-      return;
-    }
+    return cpy.equals(pos);
   }
 
-  public void propagate(GameContext ctx, HashSet<Integer> seen) {
-    if (seen.contains(owner.getID())) return;
-    seen.add(owner.getID());
-
-    IntVector2 position = owner.getPosition();
-    IntVector2 pos;
-    IntVector2 output = output((int)owner.getRotation());
-    pos = position.cpy();
-
-    pos.y += output.y;
-    pos.x += output.x;
+  @Override
+  public IntVector2[] signalOutputs() {
+    IntVector2[] ret = { output((int)owner.getRotation()) };
+    return ret;
+  }
 
-    Connectable.Utils.connectableAt(pos, ctx.map, type)
-      .ifPresent(ci -> ci.connectable.acceptSignalFrom(this, position, ctx, seen));
+  @Override
+  public boolean isPassThrough() {
+    return false;
   }
 
   @Override
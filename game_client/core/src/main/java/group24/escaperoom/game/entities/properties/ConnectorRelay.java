@@ -1,6 +1,5 @@
 package group24.escaperoom.game.entities.properties;
 
-import java.util.HashSet;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -15,15 +14,14 @@ import group24.escaperoom.editor.ui.Menu.MenuEntry;
 import group24.escaperoom.editor.ui.PropertyConfiguration;
 import group24.escaperoom.editor.ui.PropertyConfiguration.Select;
 import group24.escaperoom.engine.types.IntVector2;
-import group24.escaperoom.game.entities.properties.base.Connectable;
 import group24.escaperoom.game.entities.properties.base.PropertyDescription;
 import group24.escaperoom.game.entities.properties.values.PhantomPropertyValue;
 import group24.escaperoom.game.entities.properties.values.StringItemPropertyValue;
-import group24.escaperoom.game.state.GameContext;
 import group24.escaperoom.screens.LevelEditor;
 import group24.escaperoom.ui.SimpleUI;
 import group24.escaperoom.ui.widgets.G24Label;
 import group24.escaperoom.ui.widgets.G24NumberInput;
+import group24.escaperoom.game.entities.Item;
 
 public class ConnectorRelay extends Connector {
   private static final PropertyDescription description = new PropertyDescription(
@@ -60,6 +58,17 @@ public class ConnectorRelay extends Connector {
     int number = 500;
     Object state = null;
 
+    /**
+     * The current game time, in milliseconds
+     */
+    long now = 0L;
+
+    /**
+     * Set by time dependent relay types to the game time at which they
+     * next need to be updated, -1 when no update is needed
+     */
+    long wakeAt = -1L;
+
     @Override
     public String getValue() {
       return Integer.toString(this.number);
@@ -94,18 +103,18 @@ public class ConnectorRelay extends Connector {
       }
 
       TimerState ts = (TimerState) ctx.state;
-      long now = System.currentTimeMillis();
 
       if (ts.last < 0L) {
-        ts.last = now;
+        ts.last = ctx.now;
         ctx.output = false;
       }
 
-      if (now - ts.last >= ts.period) {
+      if (ctx.now - ts.last >= ts.period) {
         ctx.output = !ctx.output;
-        ts.last = now;
+        ts.last = ctx.now;
       }
 
+      ctx.wakeAt = ts.last + ts.period;
       return ctx;
     }),
     Nand((ctx) -> {
@@ -122,7 +131,7 @@ public class ConnectorRelay extends Connector {
     }),
     Buffer((ctx) -> {
       final class TimerState {
-        Long time = -1L;
+        long time = -1L;
         int state; // 0 => green 1 => green persisting 2 => red
       }
 
@@ -138,13 +147,16 @@ public class ConnectorRelay extends Connector {
       } else {
         switch (ts.state) {
           case 0:
-            ts.time = System.currentTimeMillis();
+            ts.time = ctx.now;
             ts.state = 1;
+            ctx.wakeAt = ts.time + ctx.number + 1;
             break;
           case 1:
-            if (System.currentTimeMillis() > ts.time + ctx.number) {
+            if (ctx.now > ts.time + ctx.number) {
               ctx.output = false;
               ts.state = 2;
+            } else {
+              ctx.wakeAt = ts.time + ctx.number + 1;
             }
             break;
           case 2:
@@ -156,7 +168,7 @@ public class ConnectorRelay extends Connector {
     }),
     Filter((ctx) -> {
       final class TimerState {
-        Long time = -1L;
+        long time = -1L;
         int state = 0; // 0 == red, 1 == green waiting, 2 == green
       }
 
@@ -168,14 +180,17 @@ public class ConnectorRelay extends Connector {
       if (ctx.input1) {
         switch (ts.state) {
           case 0:
-            ts.time = System.currentTimeMillis();
+            ts.time = ctx.now;
             ts.state = 1;
+            ctx.wakeAt = ts.time + ctx.number + 1;
             break;
           case 1:
-            if (System.currentTimeMillis() > ts.time + ctx.number) {
+            if (ctx.now > ts.time + ctx.number) {
               ts.time = -1L;
               ts.state = 2;
               ctx.output = true;
+            } else {
+              ctx.wakeAt = ts.time + ctx.number + 1;
             }
             break;
           case 2:
@@ -284,24 +299,48 @@ public class ConnectorRelay extends Connector {
   private RelayContext rlyCtx = new RelayContext();
 
   @Override
-  public void propagate(GameContext ctx, HashSet<Integer> seen) {
-    updateInputs(ctx);
-    // in case we don't have inputs, apply
+  public long evaluate(boolean[] inputs, long now) {
+    rlyCtx.input1 = inputs[0];
+    rlyCtx.input2 = inputs.length > 1 && inputs[1];
+    rlyCtx.now = now;
+    rlyCtx.wakeAt = -1L;
     rlyCtx = relayType.update(this.rlyCtx);
     connected = rlyCtx.output;
     updateColor();
-    IntVector2 position = owner.getPosition();
-    IntVector2 pos;
-
-    Direction outputDirs = relayType.output().adjust((int) owner.getRotation());
-    pos = position.cpy();
-    pos.x += outputDirs.offsetX;
-    pos.y += outputDirs.offsetY;
-    Connectable.Utils.connectableAt(pos, ctx.map, type).ifPresent((i) -> {
-      if (!seen.contains(i.item.getID())) {
-        i.connectable.acceptSignalFrom(this, position, ctx, seen);
-      }
-    });
+    return rlyCtx.wakeAt;
+  }
+
+  @Override
+  public IntVector2[] signalOutputs() {
+    Direction d = relayType.output().adjust((int) owner.getRotation());
+    IntVector2[] ret = { new IntVector2(d.offsetX, d.offsetY) };
+    return ret;
+  }
+
+  @Override
+  public IntVector2[] signalInputs() {
+    Direction d = relayType.input1().adjust((int) owner.getRotation());
+    IntVector2 input1 = new IntVector2(d.offsetX, d.offsetY);
+    Optional<Direction> oD = relayType.input2().map((dir) -> dir.adjust((int) owner.getRotation()));
+
+    if (oD.isPresent()) {
+      IntVector2[] ret = { input1, new IntVector2(oD.get().offsetX, oD.get().offsetY) };
+      return ret;
+    } else {
+      IntVector2[] ret = { input1 };
+      return ret;
+    }
+  }
+
+  @Override
+  public boolean acceptsSignalFrom(IntVector2 pos) {
+    // inputs are read directly, see signalInputs
+    return false;
+  }
+
+  @Override
+  public boolean isPassThrough() {
+    return false;
   }
 
   @Override
@@ -334,76 +373,6 @@ public class ConnectorRelay extends Connector {
     return connected;
   }
 
-  public void updateInputs(GameContext ctx) {
-    IntVector2 position = owner.getPosition();
-
-    Direction input1Dir = relayType.input1().adjust((int) owner.getRotation());
-    IntVector2 cpy = position.cpy();
-
-    cpy.x += input1Dir.offsetX;
-    cpy.y += input1Dir.offsetY;
-
-    Connectable.Utils.connectableAt(cpy, ctx.map, getConnectorType()).ifPresent((c) -> {
-      rlyCtx.input1 = c.connectable.isConnected();
-    });
-
-    relayType.input2().ifPresent((i2) -> {
-      Direction input2 = i2.adjust((int) owner.getRotation());
-      IntVector2 cpy2 = position.cpy();
-
-      cpy2.x += input2.offsetX;
-      cpy2.y += input2.offsetY;
-
-      Connectable.Utils.connectableAt(cpy2, ctx.map, getConnectorType()).ifPresent((c) -> {
-        rlyCtx.input2 = c.connectable.isConnected();
-      });
-    });
-  }
-
-  @Override
-  public void acceptSignalFrom(Connectable source, IntVector2 pos, GameContext ctx, HashSet<Integer> seen) {
-
-    IntVector2 position = owner.getPosition();
-
-    Direction input1Dir = relayType.input1().adjust((int) owner.getRotation());
-    IntVector2 cpy = position.cpy();
-
-    cpy.x += input1Dir.offsetX;
-    cpy.y += input1Dir.offsetY;
-
-    if (cpy.equals(pos)) {
-      rlyCtx.input1 = source.isConnected();
-      rlyCtx = relayType.update(this.rlyCtx);
-
-      connected = rlyCtx.output;
-      updateColor();
-      propagate(ctx, seen);
-      return;
-    }
-
-    relayType.input2().ifPresent((i2) -> {
-      Direction input2 = i2.adjust((int) owner.getRotation());
-      IntVector2 cpy2 = position.cpy();
-
-      cpy2.x += input2.offsetX;
-      cpy2.y += input2.offsetY;
-      if (cpy2.equals(pos)) {
-        rlyCtx.input2 = source.isConnected();
-        rlyCtx = relayType.update(rlyCtx);
-        connected = rlyCtx.output;
-
-        updateColor();
-        propagate(ctx, seen);
-      }
-    });
-  }
-
-  @Override
-  public void setActive(boolean connected, GameContext ctx) {
-    this.connected = connected;
-    propagate(ctx, new HashSet<>());
-  }
-
   @Override
   public String getDisplayName() {
     return "Relay (" + type.name() + "): " + relayType.name();
@@ -452,6 +421,14 @@ public class ConnectorRelay extends Connector {
     this.rlyCtx.number = jsonData.getInt("delay", 500);
   }
 
+  @Override
+  public ConnectorRelay deepCopy(Item newOwner) {
+    ConnectorRelay p = (ConnectorRelay) super.deepCopy(newOwner);
+    p.relayType = relayType;
+    p.rlyCtx.number = rlyCtx.number;
+    return p;
+  }
+
   @Override
   public PhantomPropertyValue getCurrentValue() {
     return rlyCtx;
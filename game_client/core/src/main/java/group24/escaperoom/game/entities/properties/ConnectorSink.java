@@ -1,11 +1,8 @@
 package group24.escaperoom.game.entities.properties;
 
-import java.util.HashSet;
-
 import group24.escaperoom.engine.types.IntVector2;
 import group24.escaperoom.game.entities.properties.base.Connectable;
 import group24.escaperoom.game.entities.properties.base.PropertyDescription;
-import group24.escaperoom.game.state.GameContext;
 
 public class ConnectorSink extends Connector {
 
@@ -22,21 +19,14 @@ public class ConnectorSink extends Connector {
   }
 
 	@Override
-	public void propagate(GameContext ctx, HashSet<Integer> seen) {
+	public IntVector2[] signalOutputs() {
     // Sinks do not propagate
+    return Connectable.noSignalDirections;
 	}
 
 	@Override
-	public void acceptSignalFrom(Connectable source, IntVector2 pos, GameContext ctx, HashSet<Integer> seen) {
-    if (source.getConnectorType() != this.type)
-      return;
-    this.connected = source.isConnected();
-    updateColor();
-	}
-
-	@Override
-	public void setActive(boolean connected, GameContext ctx) {
-    this.connected = connected;
+	public boolean isPassThrough() {
+    return false;
 	}
 
 	@Override
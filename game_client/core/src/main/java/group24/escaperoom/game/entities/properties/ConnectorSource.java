@@ -1,6 +1,5 @@
 package group24.escaperoom.game.entities.properties;
 
-import java.util.HashSet;
 import java.util.Optional;
 
 import com.badlogic.gdx.utils.Json;
@@ -8,9 +7,9 @@ import com.badlogic.gdx.utils.JsonValue;
 
 import group24.escaperoom.editor.ui.PropertyConfiguration;
 import group24.escaperoom.engine.types.IntVector2;
-import group24.escaperoom.game.entities.properties.base.Connectable;
 import group24.escaperoom.game.entities.properties.base.PropertyDescription;
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.entities.Item;
 
 public class ConnectorSource extends Connector {
   boolean alwaysOn = true;
@@ -32,46 +31,35 @@ public class ConnectorSource extends Connector {
     return PropertyType.ConnectorSource;
   }
 
+  /**
+   * @return whether this source propagates a signal even when its owner is not toggled
+   */
+  public boolean isAlwaysOn() {
+    return alwaysOn;
+  }
+
   @Override
   public String getDisplayName() {
     return "ConnectorSource";
   }
 
   @Override
-  public void propagate(GameContext ctx, HashSet<Integer> seen) {
-    if (seen.contains(owner.getID()))
-      return;
-    seen.add(owner.getID());
-
-    IntVector2 position = owner.getPosition();
-    IntVector2 pos;
-
-    for (int yoff = 1; yoff >= -1; yoff--) {
-      for (int xoff = -1; xoff <= 1; xoff++) {
-        if (Math.abs(xoff) == Math.abs(yoff))
-          continue;
-
-        pos = position.cpy();
-        pos.x += xoff;
-        pos.y += yoff;
-
-        Connectable.Utils.connectableAt(pos, ctx.map, type).ifPresent((i) -> {
-          i.connectable.acceptSignalFrom(this, position, ctx, seen);
-        });
-      }
-    }
+  public boolean isPassThrough() {
+    return false;
+  }
+
+  @Override
+  public long evaluate(boolean[] inputs, long now) {
+    // Sources only change through setActive
+    updateColor();
+    return -1;
   }
 
   @Override
   public void setActive(boolean connected, GameContext ctx) {
-    if (connected != this.connected) {
-      this.connected = connected;
-      propagate(ctx, new HashSet<>());
-    }
-    if (alwaysOn){
-      this.connected = true;
-      updateColor();
-    }
+    this.connected = alwaysOn || connected;
+    updateColor();
+    ctx.world.getCircuit().markChanged(this);
   }
 
   @Override
@@ -80,8 +68,9 @@ public class ConnectorSource extends Connector {
   }
 
   @Override
-  public void acceptSignalFrom(Connectable source, IntVector2 position, GameContext ctx, HashSet<Integer> seen) {
+  public boolean acceptsSignalFrom(IntVector2 pos) {
     // Sources do not accept signals
+    return false;
   }
 
   @Override
@@ -103,6 +92,17 @@ public class ConnectorSource extends Connector {
     return Optional.of(config);
   }
 
+  @Override
+  public ConnectorSource deepCopy(Item newOwner) {
+    ConnectorSource p = (ConnectorSource) super.deepCopy(newOwner);
+    p.alwaysOn = alwaysOn;
+    if (alwaysOn) {
+      p.connected = true;
+      p.updateColor();
+    }
+    return p;
+  }
+
   @Override
   public void read(Json json, JsonValue jsonData) {
     super.read(json, jsonData);
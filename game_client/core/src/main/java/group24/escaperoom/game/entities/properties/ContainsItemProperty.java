@@ -172,6 +172,15 @@ public class ContainsItemProperty
     return prop;
   }
 
+  /**
+   * Contained items are only resolved when a map is loaded, which a copy never
+   * is, so a copy is always empty (see {@link ContainsItemProperty#cloneProperty})
+   */
+  @Override
+  public ContainsItemProperty deepCopy(Item newOwner) {
+    return cloneProperty(newOwner);
+  }
+
   @Override
   public void write(Json json) {
     json.writeArrayStart("contained");
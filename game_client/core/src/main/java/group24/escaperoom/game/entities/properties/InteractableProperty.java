@@ -42,10 +42,10 @@ public class InteractableProperty extends PhantomProperty {
     } else if (actions.size == 1){
       ctx.player.stats.actionsPerformed += 1;
       actions.first().act(ctx).getDialog().ifPresent((dialog) ->{
-        dialog.show(ctx.map.getUIStage());
+        ctx.view.show(dialog);
       });
     } else {
-      new ActionDialog(owner, ctx.player).show(ctx.map.getUIStage());
+      ctx.view.show(new ActionDialog(owner, ctx.player));
     }
   }
 }
@@ -94,6 +94,24 @@ public class LockedProperty extends ItemProperty<LockingMethod> {
     return ret;
   }
 
+  @Override
+  public LockedProperty deepCopy(Item newOwner) {
+    LockedProperty p = emptyCopy(newOwner);
+    availableMethods.values().forEach((m) -> p.availableMethods.put(m.getType(), m.deepCopy()));
+
+    // as in read, the current method is the available method of the same type
+    p.currentMethod = p.availableMethods.get(currentMethod.getType());
+    if (p.currentMethod == null) {
+      p.currentMethod = getEmptyLockMethod(currentMethod.getType());
+    }
+
+    PropertyMap.onMapCompletion.add((Void a) ->{
+      p.currentMethod.onAttach(newOwner);
+      return null;
+    });
+    return p;
+  }
+
   @Override
   public void write(Json json) {
     json.writeObjectStart("default");
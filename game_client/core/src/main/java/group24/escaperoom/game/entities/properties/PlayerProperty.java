@@ -14,6 +14,7 @@ import group24.escaperoom.game.entities.properties.base.PhantomProperty;
 import group24.escaperoom.game.entities.properties.base.PropertyDescription;
 import group24.escaperoom.ui.widgets.G24NumberInput.IntInput;
 import group24.escaperoom.ui.widgets.G24NumberInput.FloatInput;
+import group24.escaperoom.game.entities.Item;
 
 public class PlayerProperty extends PhantomProperty {
 
@@ -86,6 +87,14 @@ public class PlayerProperty extends PhantomProperty {
     updateTexture();
   }
 
+  @Override
+  public PlayerProperty deepCopy(Item newOwner) {
+    PlayerProperty p = emptyCopy(newOwner);
+    p.details = details.copy();
+    p.updateTexture();
+    return p;
+  }
+
   @Override
   public void updateTexture() {
     owner.adjustTextureRegion(0, 0, details.textureInfo.frameWidth, details.textureInfo.frameHeight);
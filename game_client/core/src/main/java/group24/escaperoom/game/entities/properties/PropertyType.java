@@ -1,4 +1,5 @@
 package group24.escaperoom.game.entities.properties;
+import java.util.HashMap;
 import java.util.logging.Logger;
 
 import group24.escaperoom.game.entities.properties.base.ItemProperty;
@@ -72,11 +73,17 @@ public enum PropertyType {
       throw new UnsupportedOperationException("Cannot build property with unhandled type");
     }
   }
-  public static PropertyType fromString(String s){
+  private static final HashMap<String, PropertyType> byJsonName = new HashMap<>();
+  static {
     for (PropertyType t : PropertyType.values()){
-      if (t.jsonName.equals(s)){
-        return t;
-      }
+      byJsonName.put(t.jsonName, t);
+    }
+  }
+
+  public static PropertyType fromString(String s){
+    PropertyType t = byJsonName.get(s);
+    if (t != null){
+      return t;
     }
     log.warning("Parsed Invalid Property: " + s);
     return InvalidProperty;
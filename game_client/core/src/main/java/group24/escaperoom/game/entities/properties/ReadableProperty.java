@@ -22,6 +22,7 @@ import group24.escaperoom.screens.LevelEditor;
 import group24.escaperoom.ui.SimpleUI;
 import group24.escaperoom.ui.widgets.G24Label;
 import group24.escaperoom.ui.widgets.G24TextInput;
+import group24.escaperoom.game.entities.Item;
 
 public class ReadableProperty extends ItemProperty<ReadableContents> {
 
@@ -158,6 +159,15 @@ public class ReadableProperty extends ItemProperty<ReadableContents> {
     json.writeValue("contents", contents.getValue());
     json.writeValue("action_name", actionName);
   }
+  @Override
+  public ReadableProperty deepCopy(Item newOwner) {
+    ReadableProperty p = emptyCopy(newOwner);
+    p.title = title == null ? "Hidden Info" : title;
+    p.contents = new ReadableContents(contents.getValue() == null ? "<nothing here>" : contents.getValue());
+    p.actionName = actionName == null ? "Inspect" : actionName;
+    return p;
+  }
+
   @Override
   public void read(Json json, JsonValue jsonData) {
     title = jsonData.getString("title", "Hidden Info");
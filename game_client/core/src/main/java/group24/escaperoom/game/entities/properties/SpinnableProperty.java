@@ -145,6 +145,25 @@ public class SpinnableProperty extends PhantomProperty {
     json.writeValue("pixel_height", height);
   }
 
+  @Override
+  public SpinnableProperty deepCopy(Item newOwner) {
+    SpinnableProperty p = emptyCopy(newOwner);
+    p.spinCount = spinCount;
+    p.width = width;
+    p.height = height;
+    p.symmetric = (width == height);
+    p.offset = Math.max(width, height);
+
+    PropertyMap.onMapCompletion.add((Void) -> {
+      p.updateTexture();
+      if (newOwner.flipped){
+        p.updateSize();
+      }
+      return null;
+    });
+    return p;
+  }
+
   @Override
   public void read(Json json, JsonValue jsonData) {
     spinCount = jsonData.getInt("spin_count", 0);
@@ -10,6 +10,7 @@ import group24.escaperoom.game.entities.player.PlayerAction;
 import group24.escaperoom.game.entities.properties.base.ItemProperty;
 import group24.escaperoom.game.entities.properties.base.PropertyDescription;
 import group24.escaperoom.game.entities.properties.values.Style;
+import group24.escaperoom.game.entities.Item;
 
 public class Stylable extends ItemProperty<Style> {
   private Array<Style> availableStyles = new Array<>();
@@ -41,6 +42,17 @@ public class Stylable extends ItemProperty<Style> {
     json.writeValue("current", currentStyle);
   }
 
+  @Override
+  public Stylable deepCopy(Item newOwner) {
+    if (currentStyle == null) buildDefaultStyle();
+
+    Stylable p = emptyCopy(newOwner);
+    availableStyles.forEach((s) -> p.availableStyles.add(s.copy()));
+    p.currentStyle = currentStyle.copy();
+    p.currentStyle.apply(newOwner);
+    return p;
+  }
+
   @Override
   public void read(Json json, JsonValue jsonData) {
     JsonValue available = jsonData.get("available");
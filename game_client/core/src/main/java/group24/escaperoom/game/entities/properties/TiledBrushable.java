@@ -246,6 +246,19 @@ public class TiledBrushable extends Brushable {
     owner.adjustTextureRegion(offset.width, offset.height, 16, 16);
   }
 
+  @Override
+  public TiledBrushable deepCopy(Item newOwner) {
+    TiledBrushable p = emptyCopy(newOwner);
+    p.inner = inner;
+    p.rotation = rotation;
+    newOwner.setRotation(rotation);
+    PropertyMap.onMapCompletion.add((Void) -> {
+      p.updateTexture();
+      return null;
+    });
+    return p;
+  }
+
   @Override
   public void read(Json json, JsonValue data) {
     inner = TileType.valueOf(data.getString("orientation", TileType.BLOCK_BL.name()));
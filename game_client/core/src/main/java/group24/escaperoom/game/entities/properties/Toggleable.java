@@ -132,6 +132,21 @@ public class Toggleable extends PhantomProperty {
     });
   }
 
+  @Override
+  public Toggleable deepCopy(Item newOwner) {
+    Toggleable p = emptyCopy(newOwner);
+    p.toggleVerb = toggleVerb == null ? "clicked..." : toggleVerb;
+    p.isToggled = isToggled;
+
+    p.width = AnimatedProperty.PIXELS_PER_WORLD_UNIT * newOwner.getWidth();
+    p.height = AnimatedProperty.PIXELS_PER_WORLD_UNIT * newOwner.getHeight();
+    PropertyMap.onMapCompletion.add((Void) -> {
+      p.updateTexture();
+      return null;
+    });
+    return p;
+  }
+
   @Override
   public void updateTexture() {
     if (isToggled) {
@@ -1,9 +1,11 @@
 package group24.escaperoom.game.entities.properties;
 
-import java.io.ByteArrayOutputStream;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.logging.Logger;
 
 import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.PixmapIO;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.badlogic.gdx.utils.Array;
@@ -15,12 +17,14 @@ import group24.escaperoom.editor.ui.ConfigurationMenu;
 import group24.escaperoom.editor.ui.DrawingPane;
 import group24.escaperoom.editor.ui.DrawingUI;
 import group24.escaperoom.editor.ui.Menu.MenuEntry;
+import group24.escaperoom.engine.assets.ImageStore;
 import group24.escaperoom.game.entities.player.PlayerAction;
 import group24.escaperoom.game.entities.properties.base.ItemProperty;
 import group24.escaperoom.game.entities.properties.base.PropertyDescription;
 import group24.escaperoom.game.entities.properties.values.ImageValue;
 import group24.escaperoom.game.state.GameContext;
 import group24.escaperoom.game.ui.GameDialog;
+import group24.escaperoom.game.entities.Item;
 
 public class ViewableProperty extends ItemProperty<ImageValue> {
 
@@ -35,37 +39,107 @@ public class ViewableProperty extends ItemProperty<ImageValue> {
     return description;
   }
 
+  private static Logger log = Logger.getLogger(ViewableProperty.class.getName());
+
   ImageValue value;
 
+  /**
+   * The shared image {@code value} shows, empty while this item has its own
+   * copy, i.e. while it is being drawn on
+   */
+  private Optional<ImageStore.Handle> image = Optional.empty();
+  private boolean drawing = false;
+
+  /**
+   * @return the hash of the image in the {@link ImageStore}
+   */
+  public String getImageHash() {
+    return image.map((h) -> h.hash).orElseGet(() -> ImageStore.instance().put(value.inner));
+  }
+
+  /**
+   * @return the size of the pixels of the image this item shows
+   */
+  public long imageBytes() {
+    if (value == null || value.inner == null) return 0;
+    return (long) value.inner.getWidth() * value.inner.getHeight() * 4;
+  }
+
+  /**
+   * @return the hashes of the images shown by {@code items}
+   */
+  public static HashSet<String> imagesOf(Collection<Item> items) {
+    HashSet<String> hashes = new HashSet<>();
+    for (Item item : items) {
+      ViewableProperty p = item.getPropertyOrNull(PropertyType.Viewable, ViewableProperty.class);
+      if (p != null) hashes.add(p.getImageHash());
+    }
+    return hashes;
+  }
+
+  private void useImage(ImageStore.Handle handle) {
+    image = Optional.of(handle);
+    value = new ImageValue();
+    value.inner = handle.pixmap;
+  }
+
+  /**
+   * Share the image of this item once it is no longer being drawn on
+   */
+  private void shareImage() {
+    if (drawing || image.isPresent()) return;
+    useImage(ImageStore.instance().share(value.inner, this));
+  }
+
+  private static Pixmap copyOf(Pixmap pixmap) {
+    Pixmap copy = new Pixmap(pixmap.getWidth(), pixmap.getHeight(), Pixmap.Format.RGBA8888);
+    copy.setBlending(Pixmap.Blending.None);
+    copy.drawPixmap(pixmap, 0, 0);
+    copy.setBlending(Pixmap.Blending.SourceOver);
+    return copy;
+  }
+
   @Override
   public void write(Json json) {
-    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-    PixmapIO.PNG png = new PixmapIO.PNG();
-    png.setFlipY(false);
-    try {
-      png.write(baos, value.inner);
-      baos.close();
-    } catch (Exception e) {
-      System.out.println("failed to write pixmap");
-    }
-    char[] encoded = Base64Coder.encode(baos.toByteArray());
-    json.writeValue("data", new String(encoded));
+    json.writeValue("image", getImageHash());
   }
 
   @Override
   public void read(Json json, JsonValue jsonData) {
-    value = new ImageValue();
+    String hash = jsonData.getString("image", null);
+
+    // maps saved by older versions embed the image
     String base64 = jsonData.getString("data", "");
-    if (!base64.isEmpty()) {
-      byte[] pngBytes = Base64Coder.decode(base64);
-      value.inner = new Pixmap(pngBytes, 0, pngBytes.length);
+    if (hash == null && !base64.isEmpty()) {
+      hash = ImageStore.instance().put(Base64Coder.decode(base64));
+    }
+
+    Optional<ImageStore.Handle> handle = hash == null ? Optional.empty() : ImageStore.instance().acquire(hash, this);
+    if (handle.isPresent()) {
+      useImage(handle.get());
     } else {
+      if (hash != null) log.warning("Missing image " + hash);
+      image = Optional.empty();
+      value = new ImageValue();
       value.inner = new Pixmap(200, 200, Pixmap.Format.RGBA8888);
       value.inner.setColor(DrawingPane.canvasColor);
       value.inner.fill();
     }
   }
 
+  @Override
+  public ViewableProperty deepCopy(Item newOwner) {
+    ViewableProperty p = emptyCopy(newOwner);
+    shareImage();
+    if (image.isPresent()) {
+      p.useImage(image.get().acquire(p));
+    } else {
+      p.value = new ImageValue();
+      p.value.inner = copyOf(value.inner);
+    }
+    return p;
+  }
+
   @Override
   public Class<ImageValue> getValueClass() {
     return ImageValue.class;
@@ -88,6 +162,8 @@ public class ViewableProperty extends ItemProperty<ImageValue> {
 
   @Override
   public void set(ImageValue value) {
+    image.ifPresent(ImageStore.Handle::release);
+    image = Optional.empty();
     this.value = value;
   }
 
@@ -99,7 +175,23 @@ public class ViewableProperty extends ItemProperty<ImageValue> {
 
   @Override
   public ConfigurationMenu<DrawingUI> getPopOut(MenuEntry parent) {
-    return new ConfigurationMenu<DrawingUI>(parent, new DrawingUI(value.inner, parent.getScreen()), "Draw pane", parent.getScreen());
+    // the shared image must not be drawn on, so draw on a copy until the pane is closed
+    image.ifPresent((h) -> {
+      value.inner = copyOf(h.pixmap);
+      h.release();
+    });
+    image = Optional.empty();
+    drawing = true;
+
+    DrawingUI ui = new DrawingUI(value.inner, parent.getScreen()) {
+      @Override
+      public void handle() {
+        super.handle();
+        drawing = false;
+        shareImage();
+      }
+    };
+    return new ConfigurationMenu<DrawingUI>(parent, ui, "Draw pane", parent.getScreen());
   }
 
   @Override
@@ -116,8 +208,8 @@ public class ViewableProperty extends ItemProperty<ImageValue> {
 
     @Override
     public ActionResult act(GameContext ctx) {
-      Texture texture = new Texture(value.inner);
-      texture.draw(value.inner, 0, 0);
+      shareImage();
+      Texture texture = image.map(ImageStore.Handle::getTexture).orElseGet(() -> new Texture(value.inner));
       return new ActionResult().showsDialog(new GameDialog(new Image(texture), ctx.player, "Viewing" + owner.getItemName()));
     }
 
@@ -6,6 +6,7 @@ import com.badlogic.gdx.utils.JsonValue;
 
 import group24.escaperoom.game.entities.player.PlayerAction;
 import group24.escaperoom.game.entities.properties.values.BooleanValue;
+import group24.escaperoom.game.entities.Item;
 
 /**
  * A base class for properties which are true or false
@@ -61,4 +62,10 @@ public abstract class BooleanProperty extends ItemProperty<BooleanValue> {
     return currentValue;
   }
 
+  @Override
+  public BooleanProperty deepCopy(Item newOwner) {
+    BooleanProperty p = emptyCopy(newOwner);
+    p.currentValue = currentValue;
+    return p;
+  }
 }
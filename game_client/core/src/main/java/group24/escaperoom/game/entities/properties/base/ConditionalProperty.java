@@ -14,6 +14,7 @@ import group24.escaperoom.game.entities.conditions.ConditionalType;
 import group24.escaperoom.game.entities.conditions.EmptyConditional;
 import group24.escaperoom.game.entities.player.PlayerAction;
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.entities.Item;
 
 public abstract class ConditionalProperty extends ItemProperty<Conditional> {
   protected Conditional condition;
@@ -38,6 +39,15 @@ public abstract class ConditionalProperty extends ItemProperty<Conditional> {
     json.writeObjectEnd();
   }
 
+  @Override
+  public ConditionalProperty deepCopy(Item newOwner) {
+    if (condition == null) condition = new AlwaysActive();
+
+    ConditionalProperty p = emptyCopy(newOwner);
+    p.condition = condition.clone();
+    return p;
+  }
+
   @Override
   public void read(Json json, JsonValue jsonData) {
     JsonValue condition = jsonData.get("condition");
@@ -1,22 +1,18 @@
 package group24.escaperoom.game.entities.properties.base;
 
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Optional;
 
 import group24.escaperoom.editor.tools.TiledBrush;
 import group24.escaperoom.engine.types.IntVector2;
 import group24.escaperoom.game.entities.Item;
-import group24.escaperoom.game.entities.properties.Connector;
 import group24.escaperoom.game.entities.properties.Connector.ConnectorType;
-import group24.escaperoom.game.entities.properties.ConnectorBridge;
-import group24.escaperoom.game.entities.properties.ConnectorRelay;
-import group24.escaperoom.game.entities.properties.ConnectorSink;
-import group24.escaperoom.game.entities.properties.ConnectorSource;
 import group24.escaperoom.game.entities.properties.PropertyType;
 import group24.escaperoom.game.entities.properties.TiledBrushable;
-import group24.escaperoom.game.entities.properties.values.ItemPropertyValue;
+import group24.escaperoom.game.entities.properties.util.PropertyMap;
+import group24.escaperoom.game.state.CircuitGraph;
 import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.world.Grid;
 import group24.escaperoom.screens.GameScreen;
 import group24.escaperoom.screens.MapScreen;
 
@@ -44,49 +40,33 @@ public interface Connectable {
       return Optional.empty();
     }
 
-    private static <T extends ItemPropertyValue, P extends ItemProperty<T>> Optional<ConnectableItem> tryGet(Item i,
-        PropertyType propertyType, Class<P> expectedClass, ConnectorType connectorType) {
-      try {
-        Optional<Connectable> oC = i.getProperty(propertyType, expectedClass).map((c) -> (Connectable) c);
-        if (oC.isPresent() && oC.get().getConnectorType() == connectorType) {
-          return Optional.of(new ConnectableItem(i, oC.get()));
-        }
-      } catch (ClassCastException cce) {
-      }
-      return Optional.empty();
-    }
+    /**
+     * The property types which are {@link Connectable}, in the order they are matched
+     */
+    private static final PropertyType[] CONNECTABLE_TYPES = {
+      PropertyType.Connector,
+      PropertyType.ConnectorSource,
+      PropertyType.ConnectorRelay,
+      PropertyType.ConnectorSink,
+      PropertyType.ConnectorBridge,
+    };
+    private static final long CONNECTABLE_MASK = PropertyMap.maskOf(CONNECTABLE_TYPES);
 
     /**
      * @param i             An item to inspect
      * @param connectorType the type of connector we are interested in
      */
     public static Optional<ConnectableItem> matches(Item i, ConnectorType connectorType) {
-
-      Optional<ConnectableItem> oCI = Optional.empty();
-
-      oCI = tryGet(i, PropertyType.Connector, Connector.class, connectorType);
-      if (oCI.isPresent()) {
-        return oCI;
-      }
-
-      oCI = tryGet(i, PropertyType.ConnectorSource, ConnectorSource.class, connectorType);
-      if (oCI.isPresent()) {
-        return oCI;
-      }
-
-      oCI = tryGet(i, PropertyType.ConnectorRelay, ConnectorRelay.class, connectorType);
-      if (oCI.isPresent()) {
-        return oCI;
-      }
-
-      oCI = tryGet(i, PropertyType.ConnectorSink, ConnectorSink.class, connectorType);
-      if (oCI.isPresent()) {
-        return oCI;
+      // most items are not connectable at all
+      if (!i.hasAnyProperty(CONNECTABLE_MASK)) {
+        return Optional.empty();
       }
 
-      oCI = tryGet(i, PropertyType.ConnectorBridge, ConnectorBridge.class, connectorType);
-      if (oCI.isPresent()) {
-        return oCI;
+      for (PropertyType type : CONNECTABLE_TYPES) {
+        Connectable c = i.getPropertyOrNull(type, Connectable.class);
+        if (c != null && c.getConnectorType() == connectorType) {
+          return Optional.of(new ConnectableItem(i, c));
+        }
       }
 
       return Optional.empty();
@@ -98,8 +78,17 @@ public interface Connectable {
      * @param type   the type of connector we are interested in finding
      */
     public static Optional<ConnectableItem> connectableAt(IntVector2 pos, MapScreen screen, ConnectorType type) {
+      return connectableAt(pos, screen.getGrid(), type);
+    }
+
+    /**
+     * @param pos  A position to inspect
+     * @param grid the grid to look in
+     * @param type the type of connector we are interested in finding
+     */
+    public static Optional<ConnectableItem> connectableAt(IntVector2 pos, Grid grid, ConnectorType type) {
 
-      return screen.getItemsAt(pos.x, pos.y).flatMap((items) -> {
+      return grid.getAt(pos.x, pos.y).map((t) -> t.getContainedItems()).flatMap((items) -> {
 
         for (int i = 0; i < items.length; i++) {
           Optional<ConnectableItem> oCI = matches(items[i], type);
@@ -169,14 +158,13 @@ public interface Connectable {
       new IntVector2(-1, -1), new IntVector2(0, -1), new IntVector2(1, -1), 
   };
 
-  /**
-   * Potentially propagate the the connectors current siganl
-   * 
-   * @param seen is IDs of all {@code Connectable} items which have already
-   *             propagated
-   */
-  public void propagate(GameContext ctx, HashSet<Integer> seen);
+  public static final IntVector2[] orthogonalSignalDirections = {
+      new IntVector2(0, 1),
+      new IntVector2(-1, 0), new IntVector2(1, 0),
+      new IntVector2(0, -1),
+  };
 
+  public static final IntVector2[] noSignalDirections = {};
 
   /**
    * By default, connectable items connect visually to 8 directions. 
@@ -192,18 +180,55 @@ public interface Connectable {
   }
 
   /**
-   * Called when this {@code Connectable} receives a signal from another.
-   * 
-   * @param source the Connectable sending the signal
-   * @param pos    the source's position
-   * @param seen   A set of already visited IDs
+   * Offsets, relative to this item's position, of the tiles this
+   * {@code Connectable} sends its signal to.
+   */
+  public IntVector2[] signalOutputs();
+
+  /**
+   * Offsets, relative to this item's position, of the tiles whose
+   * {@code Connectable} is read directly as an input.
+   *
+   * Connectables which instead combine every signal sent to them return no
+   * inputs, this is the default.
+   */
+  default public IntVector2[] signalInputs() {
+    return noSignalDirections;
+  }
+
+  /**
+   * @param pos the position of a {@code Connectable} sending a signal to this one
+   * @return whether or not the signal is accepted
+   */
+  public boolean acceptsSignalFrom(IntVector2 pos);
+
+  /**
+   * Pass through connectables (i.e. wires) take on the signal of the network
+   * they are part of, rather than combining the signals sent to them.
+   */
+  default public boolean isPassThrough() {
+    return false;
+  }
+
+  /**
+   * Update this {@code Connectable} from its inputs.
+   *
+   * Called by the {@link CircuitGraph} only when some input may have changed or
+   * when a previously requested wake up time has been reached.
+   *
+   * @param inputs if {@link #signalInputs()} is not empty, the signal read at
+   *               each input, otherwise a single value which is true if any
+   *               {@code Connectable} sending a signal to this one is active
+   * @param now    the current game time in milliseconds
+   * @return the game time at which this should next be evaluated even if its
+   *         inputs do not change, or -1 if it only depends on its inputs
    */
-  public void acceptSignalFrom(Connectable source, IntVector2 pos, GameContext ctx, HashSet<Integer> seen);
+  public long evaluate(boolean[] inputs, long now);
 
   /**
    * Set the {@code Connectable} to be {@code connected}
    *
-   * This may or may not propagate the signal
+   * This may or may not change the signal it sends
    */
   public void setActive(boolean connected, GameContext ctx);
 
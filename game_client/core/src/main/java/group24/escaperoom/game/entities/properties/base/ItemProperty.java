@@ -14,6 +14,7 @@ import group24.escaperoom.game.entities.Item;
 import group24.escaperoom.game.entities.player.PlayerAction;
 import group24.escaperoom.game.entities.properties.ConditionallyActive;
 import group24.escaperoom.game.entities.properties.PropertyType;
+import group24.escaperoom.game.entities.properties.util.PropertyMap;
 import group24.escaperoom.game.entities.properties.values.BooleanValue;
 import group24.escaperoom.game.entities.properties.values.ItemPropertyValue;
 import group24.escaperoom.game.state.GameContext;
@@ -216,6 +217,14 @@ public abstract class ItemProperty<T extends ItemPropertyValue> implements Json.
    */
   abstract protected Array<PlayerAction> getAvailableActions();
 
+  /**
+   * @return whether this property offers the player any action when its owner is active,
+   *         which only depends on the configuration of the property
+   */
+  public boolean providesActions() {
+    return !getAvailableActions().isEmpty();
+  }
+
   public Array<PlayerAction> getActions(GameContext ctx) {
     if (owner == null) {
       throw new IllegalStateException();
@@ -234,12 +243,43 @@ public abstract class ItemProperty<T extends ItemPropertyValue> implements Json.
    * for a new item
    */
   public ItemProperty<? extends ItemPropertyValue> cloneProperty(Item newOwner) {
+    return deepCopy(newOwner);
+  }
+
+  /**
+   * Copy this property to a new owner, with the same result as writing it to
+   * json and reading it back (including anything registered on
+   * {@link PropertyMap#onMapCompletion}), but without the round trip.
+   *
+   * Defaults to the round trip itself, see {@link ItemProperty#jsonCopy}
+   *
+   * @param newOwner the owner of the copy
+   * @return the copy
+   */
+  public ItemProperty<? extends ItemPropertyValue> deepCopy(Item newOwner) {
+    return jsonCopy(newOwner);
+  }
+
+  /**
+   * Copy this property to a new owner by writing it to json and reading it back
+   */
+  public final ItemProperty<? extends ItemPropertyValue> jsonCopy(Item newOwner) {
     ItemProperty<? extends ItemPropertyValue> p = this.getType().getEmptyProperty();
     p.owner = newOwner;
     p.read(new Json(), new JsonReader().parse(new Json().toJson(this)));
     return p;
   }
 
+  /**
+   * @return a new property of the same type as this one, in its default state
+   */
+  @SuppressWarnings("unchecked")
+  protected <P extends ItemProperty<? extends ItemPropertyValue>> P emptyCopy(Item newOwner) {
+    P p = (P) this.getType().getEmptyProperty();
+    p.owner = newOwner;
+    return p;
+  }
+
   /**
    * Updates the owner's texture based on the property. Properties which do not
    * change the texture should not override this function.
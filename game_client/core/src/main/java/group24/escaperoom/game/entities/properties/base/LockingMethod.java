@@ -105,6 +105,16 @@ abstract public class LockingMethod implements Json.Serializable, ItemPropertyVa
 
   abstract protected LockingMethod getEmptyMethod();
 
+  /**
+   * @return an ownerless copy of this method, as if it was written to json and read back
+   */
+  public LockingMethod deepCopy() {
+    LockingMethod m = this.getEmptyMethod();
+    m.isLocked = this.isLocked;
+    m.isBarrier = this.isBarrier;
+    return m;
+  }
+
   public LockingMethod clone(Item newOwner) {
     LockingMethod p = this.getEmptyMethod();
     p.owner = Optional.of(newOwner);
@@ -8,6 +8,7 @@ import group24.escaperoom.game.entities.properties.values.PhantomPropertyValue;
 
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonValue;
+import group24.escaperoom.game.entities.Item;
 
 /**
  * A {@code PhantomProperty} is to be used as a marker object to represent simple object behavior.
@@ -44,4 +45,13 @@ public abstract class PhantomProperty extends ItemProperty<PhantomPropertyValue>
 
   @Override
   public void read(Json json, JsonValue jsonData) { }
+
+  /**
+   * Phantom properties have no state of their own, subclasses which write any
+   * must override this as well
+   */
+  @Override
+  public PhantomProperty deepCopy(Item newOwner) {
+    return emptyCopy(newOwner);
+  }
 }
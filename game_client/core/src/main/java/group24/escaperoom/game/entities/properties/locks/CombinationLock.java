@@ -195,6 +195,13 @@ public class CombinationLock extends LockingMethod implements StringItemProperty
     this.combination = data.getString("combo", "1234");
   }
 
+  @Override
+  public LockingMethod deepCopy() {
+    CombinationLock m = (CombinationLock) super.deepCopy();
+    m.combination = combination == null ? "1234" : combination;
+    return m;
+  }
+
   @Override
   public LockingMethodType getType() {
     return LockingMethodType.CombinationLock;
@@ -30,6 +30,17 @@ public class KeyLock extends LockingMethod {
 
   private Array<SelectedItem> selectedItems = new Array<>();
 
+  /**
+   * @return the items which can lock and unlock this lock
+   */
+  public Array<Item> getKeys() {
+    Array<Item> keys = new Array<>(selectedItems.size);
+    selectedItems.forEach((si) -> {
+      if (si != null && si.getItem() != null) keys.add(si.getItem());
+    });
+    return keys;
+  }
+
   private Optional<Item> holdsKey(GameContext ctx){
     for (Item i : ctx.player.getInventory()) {
       if (selectedItems.contains(new SelectedItem(i), false)){
@@ -200,6 +211,18 @@ public class KeyLock extends LockingMethod {
     }
   }
 
+  /**
+   * Copies the references to the keys
+   */
+  @Override
+  public LockingMethod deepCopy() {
+    KeyLock m = (KeyLock) super.deepCopy();
+    selectedItems.forEach((si) -> {
+      if (si != null && si.getItem() != null) m.selectedItems.add(si.clone());
+    });
+    return m;
+  }
+
   @Override
   protected PlayerAction maybeGetLockAction() {
     return new TryLock();
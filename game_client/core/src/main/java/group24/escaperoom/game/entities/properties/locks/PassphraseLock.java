@@ -204,6 +204,14 @@ public class PassphraseLock extends LockingMethod implements StringItemPropertyV
     this.caseSensitive = data.getBoolean("case_sensitive", false);
   }
 
+  @Override
+  public LockingMethod deepCopy() {
+    PassphraseLock m = (PassphraseLock) super.deepCopy();
+    m.passphrase = passphrase == null ? "a12b" : passphrase;
+    m.caseSensitive = caseSensitive;
+    return m;
+  }
+
   @Override
   public LockingMethodType getType() {
     return LockingMethodType.PassphraseLock;
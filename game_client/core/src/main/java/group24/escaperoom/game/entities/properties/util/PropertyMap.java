@@ -1,7 +1,8 @@
 package group24.escaperoom.game.entities.properties.util;
 
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.function.Function;
 
 import com.badlogic.gdx.utils.Json;
@@ -12,9 +13,25 @@ import group24.escaperoom.game.entities.properties.PropertyType;
 import group24.escaperoom.game.entities.properties.base.ItemProperty;
 import group24.escaperoom.game.entities.properties.values.ItemPropertyValue;
 
+/**
+ * The properties of an item, keyed on {@link PropertyType}
+ *
+ * Properties are stored in an array indexed by the ordinal of their type, and
+ * the types present are also kept as a bitmask so that checking for one or
+ * several properties does not touch the map at all.
+ */
+public class PropertyMap extends EnumMap<PropertyType, ItemProperty<? extends ItemPropertyValue>> implements Json.Serializable{
+  static {
+    assert PropertyType.values().length <= Long.SIZE : "PropertyMap presence mask is a long";
+  }
 
-public class PropertyMap extends HashMap<PropertyType, ItemProperty<? extends ItemPropertyValue>> implements Json.Serializable{
   Item owner;
+
+  /**
+   * Bit {@code t.ordinal()} is set iff a property of type {@code t} is in this map
+   */
+  private long presence = 0;
+
   // Some properties may be dependent on other properties (i.e. they may need to know what other properies a given item has).
   // They can register functions here that get called when the map is built
   public static HashSet<Function<Void, Void>> onMapCompletion = new HashSet<>();
@@ -47,6 +64,86 @@ public class PropertyMap extends HashMap<PropertyType, ItemProperty<? extends It
     });
 	}
 
+  /**
+   * Fill this map with copies of the properties of {@code source},
+   * equivalent to reading back what {@code source} writes
+   */
+  public void copyWrapper(Item owner, PropertyMap source){
+    this.owner = owner;
+    source.forEach((PropertyType type, ItemProperty<? extends ItemPropertyValue> property) -> {
+      this.put(type, property.deepCopy(owner));
+    });
+    applyCallbacks();
+  }
+
+  public PropertyMap() {
+    super(PropertyType.class);
+  }
+
+  /**
+   * @return the mask with the bit of each of {@code types} set, to be used with {@link PropertyMap#hasAny(long)}
+   */
+  public static long maskOf(PropertyType... types) {
+    long mask = 0;
+    for (PropertyType type : types) {
+      mask |= 1L << type.ordinal();
+    }
+    return mask;
+  }
+
+  /**
+   * @return whether a property of type {@code type} is in this map
+   */
+  public boolean has(PropertyType type) {
+    return (presence & (1L << type.ordinal())) != 0;
+  }
+
+  /**
+   * @param mask as built by {@link PropertyMap#maskOf}
+   * @return whether a property of any of the types in {@code mask} is in this map
+   */
+  public boolean hasAny(long mask) {
+    return (presence & mask) != 0;
+  }
+
+  /**
+   * @return the property of type {@code type} if it is an instance of {@code expectedClass}, otherwise null
+   */
+  public <P> P getAs(PropertyType type, Class<P> expectedClass) {
+    if (!has(type)) return null;
+
+    ItemProperty<? extends ItemPropertyValue> prop = get(type);
+    return expectedClass.isInstance(prop) ? expectedClass.cast(prop) : null;
+  }
+
+  @Override
+  public ItemProperty<? extends ItemPropertyValue> put(PropertyType type, ItemProperty<? extends ItemPropertyValue> property) {
+    ItemProperty<? extends ItemPropertyValue> previous = super.put(type, property);
+    presence |= 1L << type.ordinal();
+    return previous;
+  }
+
+  @Override
+  public void putAll(Map<? extends PropertyType, ? extends ItemProperty<? extends ItemPropertyValue>> m) {
+    // EnumMap copies other EnumMaps without going through put
+    m.forEach(this::put);
+  }
+
+  @Override
+  public ItemProperty<? extends ItemPropertyValue> remove(Object key) {
+    ItemProperty<? extends ItemPropertyValue> previous = super.remove(key);
+    if (key instanceof PropertyType) {
+      presence &= ~(1L << ((PropertyType) key).ordinal());
+    }
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+    presence = 0;
+  }
+
   static public void applyCallbacks() {
     onMapCompletion.forEach((f) -> f.apply(null));
     onMapCompletion.clear();
@@ -46,11 +46,22 @@ public class Style implements ItemPropertyValue, Json.Serializable {
   @Override
   public void read(Json json, JsonValue jsonData) {
     this.name = jsonData.getString("name", "");
-    this.texture = jsonData.getString("texture", "");
-    int pngInd = this.texture.lastIndexOf(".png");
+    this.texture = stripExtension(jsonData.getString("texture", ""));
+  }
+
+  /**
+   * @return a copy of this style, as if it was written to json and read back
+   */
+  public Style copy() {
+    return new Style(name == null ? "" : name, stripExtension(texture == null ? "" : texture));
+  }
+
+  private static String stripExtension(String texture) {
+    int pngInd = texture.lastIndexOf(".png");
     if (pngInd != -1){
-      this.texture = this.texture.substring(0, pngInd);
+      return texture.substring(0, pngInd);
     }
+    return texture;
   }
 
   public AtlasRegion getTexture() {
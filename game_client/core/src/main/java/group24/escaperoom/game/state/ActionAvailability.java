@@ -0,0 +1,76 @@
+package group24.escaperoom.game.state;
+
+import java.util.EnumSet;
+
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.entities.conditions.Conditional.Dependency;
+import group24.escaperoom.game.entities.properties.ConditionallyActive;
+import group24.escaperoom.game.entities.properties.PropertyType;
+
+/**
+ * Caches whether items currently offer the player any action.
+ *
+ * Which actions an item offers only depends on its properties, except for
+ * {@link ConditionallyActive} items whose condition may come true or false
+ * as the game goes. Each entry remembers the {@link Dependency dependencies}
+ * of that condition and is dropped when any of them changes, as reported by
+ * the {@link ConditionEvaluator}.
+ */
+public class ActionAvailability {
+
+  private static class Entry {
+    final boolean available;
+    final EnumSet<Dependency> dependencies;
+
+    Entry(boolean available, EnumSet<Dependency> dependencies) {
+      this.available = available;
+      this.dependencies = dependencies;
+    }
+  }
+
+  private static final EnumSet<Dependency> NONE = EnumSet.noneOf(Dependency.class);
+
+  private final IdentityMap<Item, Entry> cache = new IdentityMap<>();
+
+  /**
+   * @return whether {@code item} offers the player any action, i.e. {@link Item#hasPlayerActions}
+   */
+  public boolean hasActions(Item item, GameContext ctx) {
+    Entry e = cache.get(item);
+    if (e == null) {
+      ConditionallyActive cap = item.getPropertyOrNull(PropertyType.ConditionallyActive, ConditionallyActive.class);
+      EnumSet<Dependency> dependencies = cap == null ? NONE : cap.getCurrentValue().getDependencies();
+      e = new Entry(item.hasPlayerActions(ctx), dependencies);
+      cache.put(item, e);
+    }
+    return e.available;
+  }
+
+  /**
+   * Drop every entry which depends on any of {@code changes}
+   */
+  public void invalidate(EnumSet<Dependency> changes) {
+    if (changes.isEmpty()) return;
+
+    ObjectMap.Entries<Item, Entry> entries = cache.entries();
+    while (entries.hasNext()) {
+      if (ConditionEvaluator.containsAny(changes, entries.next().value.dependencies)) {
+        entries.remove();
+      }
+    }
+  }
+
+  /**
+   * Drop the entry of {@code item}, e.g. because its properties changed
+   */
+  public void invalidate(Item item) {
+    cache.remove(item);
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+}
@@ -0,0 +1,328 @@
+package group24.escaperoom.game.state;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import group24.escaperoom.engine.types.IntVector2;
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.entities.properties.base.Connectable;
+import group24.escaperoom.game.entities.properties.base.Connectable.ConnectableItem;
+import group24.escaperoom.game.world.Grid;
+
+/**
+ * Compiled signal network of every placed {@link Connectable} on a map.
+ *
+ * Each connected network of pass through connectables (wires) is collapsed into
+ * a single node, and the nodes each connectable sends its signal to or reads
+ * its inputs from are resolved once when the graph is compiled. The graph is
+ * recompiled whenever a connectable is placed or removed.
+ *
+ * Signals are pushed: a node is only evaluated when one of its inputs changes
+ * or when it asked to be woken up (e.g. clock, buffer and filter relays), and
+ * only nodes whose output actually changed notify their dependents. An idle
+ * circuit does no work at all.
+ */
+public class CircuitGraph implements Grid.GridListener {
+  private static final int WHEEL_SLOTS = 256;
+  private static final long WHEEL_TICK_MILLIS = 16;
+
+  /**
+   * One or more connectables which always share the same signal
+   */
+  private static class Node extends TimerWheel.Timer {
+    final Array<ConnectableItem> members = new Array<>(false, 1);
+
+    /**
+     * Nodes sending their signal to this one
+     */
+    final Array<Node> drivers = new Array<>(false, 2);
+
+    /**
+     * Nodes which must be evaluated when the output of this one changes
+     */
+    final Array<Node> dependents = new Array<>(false, 2);
+
+    /**
+     * Nodes read directly as inputs, null unless the member has
+     * {@link Connectable#signalInputs()}. Entries are null where there is
+     * nothing to read.
+     */
+    Node[] inputs;
+    boolean[] values;
+
+    boolean output;
+    boolean queued, deferred;
+    int evaluatedTick = -1;
+  }
+
+  private final Grid grid;
+  private final Array<Node> nodes = new Array<>(false, 16);
+  private final ObjectMap<Connectable, Node> nodeOf = new ObjectMap<>();
+  private final TimerWheel<Node> wheel = new TimerWheel<>(WHEEL_SLOTS, WHEEL_TICK_MILLIS, 0L);
+
+  private final Array<Node> queue = new Array<>(true, 16);
+  private final Array<Node> deferred = new Array<>(false, 4);
+  private final Array<Node> expired = new Array<>(false, 4);
+
+  private boolean dirty = true;
+  private int tick = 0;
+  private int signalVersion = 0;
+
+  /**
+   * @param grid the grid this graph is built from
+   */
+  public CircuitGraph(Grid grid) {
+    this.grid = grid;
+  }
+
+  /**
+   * Evaluate every node whose inputs changed or whose wake up time has been
+   * reached since the last update.
+   *
+   * Nodes which read their inputs directly (relays) are evaluated at most once
+   * per update, so feedback loops advance one step per update rather than
+   * looping forever.
+   *
+   * @param now the current game time in milliseconds
+   */
+  public void update(long now) {
+    if (dirty) {
+      compile();
+    }
+
+    tick++;
+
+    wheel.advance(now, expired);
+    for (int i = 0; i < expired.size; i++) {
+      enqueue(expired.get(i));
+    }
+    expired.clear();
+
+    for (int i = 0; i < deferred.size; i++) {
+      Node n = deferred.get(i);
+      n.deferred = false;
+      enqueue(n);
+    }
+    deferred.clear();
+
+    for (int i = 0; i < queue.size; i++) {
+      Node n = queue.get(i);
+      n.queued = false;
+
+      if (n.inputs != null) {
+        if (n.evaluatedTick == tick) {
+          if (!n.deferred) {
+            n.deferred = true;
+            deferred.add(n);
+          }
+          continue;
+        }
+        n.evaluatedTick = tick;
+      }
+
+      evaluate(n, now);
+    }
+    queue.clear();
+  }
+
+  /**
+   * Notify the graph that the signal of {@code connectable} was changed
+   * outside of the graph (e.g. a source was toggled)
+   */
+  public void markChanged(Connectable connectable) {
+    if (dirty) return;
+
+    Node n = nodeOf.get(connectable);
+    if (n != null) {
+      enqueue(n);
+    }
+  }
+
+  /**
+   * @return a number which changes whenever the signal of any connectable
+   *         may have changed
+   */
+  public int getSignalVersion() {
+    return signalVersion;
+  }
+
+  /**
+   * Force the graph to be recompiled on the next update
+   */
+  public void invalidate() {
+    dirty = true;
+  }
+
+  @Override
+  public void itemPlaced(Item item) {
+    if (!dirty && Connectable.Utils.isConnectable(item).isPresent()) {
+      dirty = true;
+    }
+  }
+
+  @Override
+  public void itemRemoved(Item item) {
+    if (!dirty && Connectable.Utils.isConnectable(item).isPresent()) {
+      dirty = true;
+    }
+  }
+
+  //----------------------------------------------------------------------------
+  // EVALUATION
+  //----------------------------------------------------------------------------
+
+  private void enqueue(Node n) {
+    if (n.queued) return;
+    n.queued = true;
+    queue.add(n);
+  }
+
+  private void evaluate(Node n, long now) {
+    boolean[] values = n.values;
+    if (n.inputs != null) {
+      for (int k = 0; k < n.inputs.length; k++) {
+        values[k] = n.inputs[k] != null && n.inputs[k].output;
+      }
+    } else {
+      boolean active = false;
+      for (int i = 0; i < n.drivers.size && !active; i++) {
+        active = n.drivers.get(i).output;
+      }
+      values[0] = active;
+    }
+
+    long wakeAt = -1L;
+    for (int i = 0; i < n.members.size; i++) {
+      long w = n.members.get(i).connectable.evaluate(values, now);
+      if (w >= 0) {
+        wakeAt = w;
+      }
+    }
+
+    if (wakeAt >= 0) {
+      wheel.schedule(n, wakeAt);
+    } else {
+      wheel.cancel(n);
+    }
+
+    boolean output = n.members.first().connectable.isConnected();
+    if (output != n.output) {
+      n.output = output;
+      signalVersion++;
+      for (int i = 0; i < n.dependents.size; i++) {
+        enqueue(n.dependents.get(i));
+      }
+    }
+  }
+
+  //----------------------------------------------------------------------------
+  // COMPILATION
+  //----------------------------------------------------------------------------
+
+  private void compile() {
+    dirty = false;
+    signalVersion++;
+    wheel.clear();
+    nodes.clear();
+    nodeOf.clear();
+    queue.clear();
+    deferred.clear();
+
+    Array<ConnectableItem> connectables = new Array<>();
+    for (Item item : grid.placedItems.values()) {
+      Connectable.Utils.isConnectable(item).ifPresent((ci) -> {
+        Node n = new Node();
+        n.members.add(ci);
+        n.output = ci.connectable.isConnected();
+        nodes.add(n);
+        nodeOf.put(ci.connectable, n);
+        connectables.add(ci);
+      });
+    }
+
+    // collapse networks of pass through connectables
+    for (ConnectableItem ci : connectables) {
+      if (!ci.connectable.isPassThrough()) continue;
+
+      for (IntVector2 offset : ci.connectable.signalOutputs()) {
+        ConnectableItem target = connectableAt(ci, offset);
+        if (target != null && target.connectable.isPassThrough() && nodeOf.containsKey(target.connectable)) {
+          merge(nodeOf.get(ci.connectable), nodeOf.get(target.connectable));
+        }
+      }
+    }
+
+    for (ConnectableItem ci : connectables) {
+      Node from = nodeOf.get(ci.connectable);
+      IntVector2 position = ci.item.getPosition();
+
+      for (IntVector2 offset : ci.connectable.signalOutputs()) {
+        ConnectableItem target = connectableAt(ci, offset);
+        if (target == null) continue;
+
+        Node to = nodeOf.get(target.connectable);
+        if (to == null || to == from || !target.connectable.acceptsSignalFrom(position)) continue;
+
+        if (!to.drivers.contains(from, true)) {
+          to.drivers.add(from);
+          from.dependents.add(to);
+        }
+      }
+
+      IntVector2[] inputs = ci.connectable.signalInputs();
+      if (inputs.length == 0) continue;
+
+      from.inputs = new Node[inputs.length];
+      for (int k = 0; k < inputs.length; k++) {
+        ConnectableItem source = connectableAt(ci, inputs[k]);
+        if (source == null) continue;
+
+        Node in = nodeOf.get(source.connectable);
+        from.inputs[k] = in;
+        if (in != null && in != from && !in.dependents.contains(from, true)) {
+          in.dependents.add(from);
+        }
+      }
+    }
+
+    // evaluate everything once, nodes combining signals first so relays see
+    // their settled inputs
+    for (Node n : nodes) {
+      n.values = new boolean[n.inputs != null ? n.inputs.length : 1];
+      if (n.inputs == null) enqueue(n);
+    }
+    for (Node n : nodes) {
+      if (n.inputs != null) enqueue(n);
+    }
+  }
+
+  private ConnectableItem connectableAt(ConnectableItem from, IntVector2 offset) {
+    IntVector2 pos = from.item.getPosition().cpy();
+    pos.x += offset.x;
+    pos.y += offset.y;
+
+    ConnectableItem ci = Connectable.Utils
+      .connectableAt(pos, grid, from.connectable.getConnectorType())
+      .orElse(null);
+
+    if (ci == null || ci.connectable == from.connectable) return null;
+    return ci;
+  }
+
+  private void merge(Node a, Node b) {
+    if (a == b) return;
+
+    if (a.members.size < b.members.size) {
+      Node tmp = a;
+      a = b;
+      b = tmp;
+    }
+
+    for (ConnectableItem ci : b.members) {
+      a.members.add(ci);
+      nodeOf.put(ci.connectable, a);
+    }
+    a.output |= b.output;
+    nodes.removeValue(b, true);
+  }
+}
@@ -0,0 +1,176 @@
+package group24.escaperoom.game.state;
+
+import java.util.EnumSet;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.entities.conditions.Conditional;
+import group24.escaperoom.game.entities.conditions.Conditional.Dependency;
+import group24.escaperoom.game.entities.properties.ConditionallyActive;
+import group24.escaperoom.game.entities.properties.ConditionallyVisible;
+import group24.escaperoom.game.entities.properties.PropertyType;
+import group24.escaperoom.game.state.GameEvent.EventType;
+import group24.escaperoom.game.state.GameEventBus.GameEventListener;
+import group24.escaperoom.game.world.Grid;
+
+/**
+ * Polls the conditions of {@link ConditionallyVisible} and stateful
+ * {@link ConditionallyActive} items only when the game state they read changes.
+ *
+ * Each tracked condition declares its {@link Conditional#getDependencies()}.
+ * Changes are collected as they happen (game events, grid changes) or detected
+ * once per update from cheap version counters (player region, inventory,
+ * circuit signals), and only the conditions depending on something which
+ * changed are polled.
+ */
+public class ConditionEvaluator implements Grid.GridListener {
+
+  private static class Tracked {
+    final Item item;
+    final EnumSet<Dependency> dependencies;
+
+    Tracked(Item item, EnumSet<Dependency> dependencies) {
+      this.item = item;
+      this.dependencies = dependencies;
+    }
+  }
+
+  private final Array<Tracked> tracked = new Array<>(true, 16);
+
+  /**
+   * Dependencies which changed since the last update, everything is
+   * considered changed before the first one
+   */
+  private final EnumSet<Dependency> changed = EnumSet.allOf(Dependency.class);
+
+  /**
+   * Dependencies which changed as of the last update
+   */
+  private final EnumSet<Dependency> lastChanges = EnumSet.noneOf(Dependency.class);
+
+  private final Rectangle playerRegion = new Rectangle();
+  private int inventoryVersion = -1;
+  private int signalVersion = -1;
+
+  private final GameEventListener eventListener = (ev) -> {
+    if (ev.type == EventType.ItemStateChange) {
+      changed.add(Dependency.ItemState);
+    } else if (ev.type == EventType.ItemObtained) {
+      changed.add(Dependency.Inventory);
+    }
+  };
+
+  private final GameEventBus.Scope events;
+
+  /**
+   * @param events the scope in which to listen to game events
+   */
+  public ConditionEvaluator(GameEventBus.Scope events) {
+    this.events = events;
+    events.addQueuedListener(eventListener);
+  }
+
+  /**
+   * Start tracking {@code item} if it has a condition which must be polled,
+   * otherwise do nothing
+   */
+  public void track(Item item) {
+    item.getProperty(PropertyType.ConditionallyVisible, ConditionallyVisible.class).ifPresentOrElse(
+      (cvp) -> tracked.add(new Tracked(item, cvp.getCurrentValue().getDependencies())),
+      () -> item.getProperty(PropertyType.ConditionallyActive, ConditionallyActive.class).ifPresent((cap) -> {
+        if (cap.requiresPoll()) tracked.add(new Tracked(item, cap.getCurrentValue().getDependencies()));
+      })
+    );
+  }
+
+  /**
+   * Poll every tracked condition whose dependencies changed since the last update
+   */
+  public void update(GameContext ctx) {
+    detectChanges(ctx);
+    lastChanges.clear();
+    if (changed.isEmpty()) return;
+
+    // polling may itself change what is placed, which is picked up next update
+    lastChanges.addAll(changed);
+    changed.clear();
+
+    for (int i = 0; i < tracked.size; i++) {
+      Tracked t = tracked.get(i);
+      if (!containsAny(lastChanges, t.dependencies)) continue;
+
+      boolean stillNeeded = t.item.getProperty(PropertyType.ConditionallyActive, ConditionallyActive.class)
+        .map((cap) -> cap.poll(ctx))
+        .orElse(false);
+
+      boolean visible = t.item.getProperty(PropertyType.ConditionallyVisible, ConditionallyVisible.class)
+        .map((cvp) -> {
+          cvp.poll(ctx);
+          return true;
+        })
+        .orElse(false);
+
+      if (!stillNeeded && !visible) {
+        tracked.removeIndex(i--);
+      }
+    }
+  }
+
+  /**
+   * @return the dependencies which changed as of the last {@link ConditionEvaluator#update},
+   *         valid until the next one
+   */
+  public EnumSet<Dependency> getLastChanges() {
+    return lastChanges;
+  }
+
+  /**
+   * @return whether any of {@code dependencies} is in {@code changes}
+   */
+  public static boolean containsAny(EnumSet<Dependency> changes, EnumSet<Dependency> dependencies) {
+    for (Dependency d : dependencies) {
+      if (changes.contains(d)) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Stop listening to game events
+   */
+  public void dispose() {
+    events.removeListener(eventListener);
+  }
+
+  @Override
+  public void itemPlaced(Item item) {
+    changed.add(Dependency.Placement);
+  }
+
+  @Override
+  public void itemRemoved(Item item) {
+    changed.add(Dependency.Placement);
+  }
+
+  private void detectChanges(GameContext ctx) {
+    if (ctx.player != null) {
+      Rectangle region = ctx.player.getOccupiedRegion();
+      if (!region.equals(playerRegion)) {
+        playerRegion.set(region);
+        changed.add(Dependency.PlayerPosition);
+      }
+
+      if (ctx.player.getInventoryVersion() != inventoryVersion) {
+        inventoryVersion = ctx.player.getInventoryVersion();
+        changed.add(Dependency.Inventory);
+      }
+    }
+
+    CircuitGraph circuit = ctx.world.getCircuit();
+    if (circuit != null && circuit.getSignalVersion() != signalVersion) {
+      signalVersion = circuit.getSignalVersion();
+      changed.add(Dependency.Power);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package group24.escaperoom.game.state;
+
+/**
+ * Source of wall clock time for the game (e.g. to time a run for its
+ * {@link group24.escaperoom.services.GameStatistics})
+ *
+ * Game logic itself runs on game time, which only advances with
+ * {@link GameWorld#tick}, so a simulated run
+ * provides a clock derived from its ticks instead.
+ */
+@FunctionalInterface
+public interface GameClock {
+  GameClock SYSTEM = System::currentTimeMillis;
+
+  /**
+   * @return the current time, in milliseconds
+   */
+  long millis();
+}
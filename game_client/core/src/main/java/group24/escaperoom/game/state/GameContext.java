@@ -1,22 +1,29 @@
 package group24.escaperoom.game.state;
 
+import group24.escaperoom.game.entities.Item;
 import group24.escaperoom.game.entities.player.Player;
 import group24.escaperoom.game.world.Grid;
-import group24.escaperoom.screens.GameScreen;
 
+/**
+ * Everything game logic (conditions, actions, properties) acts on
+ */
 public class GameContext {
   public final Grid grid;
-  public final GameScreen map;
+  public final GameWorld world;
+  public final GameView view;
   public final Player player;
-  public GameContext (GameScreen map){
-    this.grid = map.getGrid();
-    this.map = map;
-    this.player = GameScreen.player;
+
+  public GameContext (GameWorld world){
+    this.grid = world.getGrid();
+    this.world = world;
+    this.view = world.getView();
+    this.player = world.getPlayer();
   }
 
-  public GameContext (GameScreen map, Player player){
-    this.grid = map.getGrid();
-    this.map = map;
-    this.player = player;
+  /**
+   * @return whether {@code item} is placed on the grid
+   */
+  public boolean itemIsPlaced(Item item){
+    return grid.placedItems.containsKey(item.getID());
   }
 }
@@ -1,21 +1,36 @@
 package group24.escaperoom.game.state;
 
 import com.badlogic.gdx.utils.Null;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Pool.Poolable;
 
 import group24.escaperoom.game.entities.Item;
 
-public class GameEvent {
+/**
+ * Something which happened in game, see {@link GameEventBus}
+ *
+ * Events are pooled: they are obtained through a {@link GameEvent.Builder}
+ * and recycled by the bus once delivered.
+ */
+public class GameEvent implements Poolable {
 
   public enum EventType {
     ItemObtained,
     ItemStateChange;
   }
 
-  public final GameContext ctx;
-  public final EventType type;
-  public final @Null Item source;
-  public final @Null Item target;
-  public final @Null String message;
+  private static final Pool<GameEvent> pool = new Pool<>() {
+    @Override
+    protected GameEvent newObject() {
+      return new GameEvent();
+    }
+  };
+
+  public GameContext ctx;
+  public EventType type;
+  public @Null Item source;
+  public @Null Item target;
+  public @Null String message;
 
   @Override
   public String toString() {
@@ -32,12 +47,19 @@ public class GameEvent {
   }
 
 
-  private GameEvent(EventType type, GameContext ctx, @Null Item source, @Null Item target, @Null String message){
-    this.type = type;
-    this.ctx = ctx;
-    this.source = source;
-    this.target = target;
-    this.message = message;
+  private GameEvent() {}
+
+  static void free(GameEvent event) {
+    pool.free(event);
+  }
+
+  @Override
+  public void reset() {
+    ctx = null;
+    type = null;
+    source = null;
+    target = null;
+    message = null;
   }
 
   public static class Builder {
@@ -68,7 +90,13 @@ public class GameEvent {
     }
 
     public GameEvent build(){
-      return new GameEvent(type, ctx, source, target, message);
+      GameEvent ev = pool.obtain();
+      ev.type = type;
+      ev.ctx = ctx;
+      ev.source = source;
+      ev.target = target;
+      ev.message = message;
+      return ev;
     }
 
   }
@@ -1,50 +1,232 @@
 package group24.escaperoom.game.state;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.EnumMap;
 
+import com.badlogic.gdx.utils.Array;
+
+import group24.escaperoom.game.state.GameEvent.EventType;
+
+/**
+ * Delivers {@link GameEvent}s to the listeners registered for their {@link EventType}
+ *
+ * Listeners are either
+ * - immediate: called from within {@link GameEventBus#post}, for listeners
+ *   whose state must be up to date as soon as the event happened (e.g. the
+ *   player's inventory)
+ * - queued: called once the frame's events are flushed with
+ *   {@link GameEventBus#flush}, so a cascade of events (a toggle powering a
+ *   connector satisfying a condition) is handled in one batch
+ *
+ * Listener arrays are copy-on-write, so listeners may add or remove listeners
+ * (including themselves) while an event is being delivered.
+ *
+ * Events are pooled and recycled once delivered, listeners must not keep a
+ * reference to them.
+ */
 public class GameEventBus {
   private static final GameEventBus inst = new GameEventBus();
-  private final HashMap<GameEventListener, GameEventFilter> listeners  = new HashMap<>();
-  private final HashSet<GameEventListener> toRemove = new HashSet<>();
+  private static final GameEventListener[] NONE = new GameEventListener[0];
+
+  private final EnumMap<EventType, GameEventListener[]> immediate = new EnumMap<>(EventType.class);
+  private final EnumMap<EventType, GameEventListener[]> queued = new EnumMap<>(EventType.class);
+  private final Array<GameEvent> queue = new Array<>(true, 16);
+  private boolean flushing = false;
 
   public static GameEventBus get() { return inst; }
 
+  private GameEventBus() {
+    for (EventType type : EventType.values()) {
+      immediate.put(type, NONE);
+      queued.put(type, NONE);
+    }
+  }
+
+  /**
+   * Register {@code listener} for every type of event
+   */
   public void addListener(GameEventListener listener){
-    listeners.put(listener, null);
-  } 
+    for (EventType type : EventType.values()) {
+      addListener(type, listener);
+    }
+  }
+
+  /**
+   * Register {@code listener} for events of {@code type}, delivered as soon as they are posted
+   */
+  public void addListener(EventType type, GameEventListener listener){
+    immediate.put(type, with(immediate.get(type), listener));
+  }
 
-  public void addListener(GameEventListener listener, GameEventFilter filter){
-    listeners.put(listener, filter);
-  } 
+  /**
+   * Register {@code listener} for every type of event, delivered when events are flushed
+   */
+  public void addQueuedListener(GameEventListener listener){
+    for (EventType type : EventType.values()) {
+      addQueuedListener(type, listener);
+    }
+  }
+
+  /**
+   * Register {@code listener} for events of {@code type}, delivered when events are flushed
+   */
+  public void addQueuedListener(EventType type, GameEventListener listener){
+    queued.put(type, with(queued.get(type), listener));
+  }
 
+  /**
+   * Unregister {@code listener} from every type of event
+   */
   public void removeListener(GameEventListener listener){
-    // A handler may try and remove itself from our map 
-    // -> to avoid concurrent modification, store here and remove later
-    toRemove.add(listener);
-  } 
+    for (EventType type : EventType.values()) {
+      immediate.put(type, without(immediate.get(type), listener));
+      queued.put(type, without(queued.get(type), listener));
+    }
+  }
 
+  /**
+   * Deliver {@code event} to its immediate listeners, and queue it for its
+   * queued listeners. The event is recycled once delivered to all of them.
+   */
   public void post(GameEvent event){
-    toRemove.forEach((l) -> listeners.remove(l));
-    for (Map.Entry<GameEventListener, GameEventFilter> pair : listeners.entrySet()){
-      GameEventListener listener = pair.getKey();
-      GameEventFilter filter = pair.getValue();
+    GameEventListener[] now = immediate.get(event.type);
+    for (int i = 0; i < now.length; i++) {
+      now[i].handle(event);
+    }
+
+    if (queued.get(event.type).length > 0) {
+      queue.add(event);
+    } else {
+      GameEvent.free(event);
+    }
+  }
+
+  /**
+   * Deliver every queued event to the queued listeners, including any events
+   * posted while doing so
+   */
+  public void flush(){
+    if (flushing) return;
+    flushing = true;
 
-      if (filter == null || filter.applies(event)){
-        listener.handle(event);
+    // events may be queued while flushing
+    for (int i = 0; i < queue.size; i++) {
+      GameEvent event = queue.get(i);
+      GameEventListener[] later = queued.get(event.type);
+      for (int k = 0; k < later.length; k++) {
+        later[k].handle(event);
       }
     }
+
+    for (int i = 0; i < queue.size; i++) {
+      GameEvent.free(queue.get(i));
+    }
+    queue.clear();
+    flushing = false;
   }
 
-  @FunctionalInterface
-  public interface GameEventListener {
-    void handle(GameEvent event);
+  /**
+   * Drop any queued events without delivering them
+   */
+  public void clearQueue(){
+    for (int i = 0; i < queue.size; i++) {
+      GameEvent.free(queue.get(i));
+    }
+    queue.clear();
   }
 
-  @FunctionalInterface
-  public interface GameEventFilter {
-    public boolean applies(GameEvent event);
+  /**
+   * @return a new {@link Scope} of this bus
+   */
+  public Scope scope(){
+    return new Scope();
   }
 
+  private static GameEventListener[] with(GameEventListener[] listeners, GameEventListener listener){
+    for (GameEventListener l : listeners) {
+      if (l == listener) return listeners;
+    }
+    GameEventListener[] copy = new GameEventListener[listeners.length + 1];
+    System.arraycopy(listeners, 0, copy, 0, listeners.length);
+    copy[listeners.length] = listener;
+    return copy;
+  }
+
+  private static GameEventListener[] without(GameEventListener[] listeners, GameEventListener listener){
+    for (int i = 0; i < listeners.length; i++) {
+      if (listeners[i] != listener) continue;
+      if (listeners.length == 1) return NONE;
+
+      GameEventListener[] copy = new GameEventListener[listeners.length - 1];
+      System.arraycopy(listeners, 0, copy, 0, i);
+      System.arraycopy(listeners, i + 1, copy, i, listeners.length - i - 1);
+      return copy;
+    }
+    return listeners;
+  }
+
+  /**
+   * Registers listeners on the bus for the lifetime of their owner (e.g. a
+   * {@link group24.escaperoom.screens.GameScreen}), every listener still
+   * registered through a scope is removed when it is closed
+   */
+  public class Scope {
+    private final Array<GameEventListener> registered = new Array<>();
+
+    private Scope() {}
+
+    /**
+     * @see GameEventBus#addListener(GameEventListener)
+     */
+    public void addListener(GameEventListener listener){
+      GameEventBus.this.addListener(listener);
+      registered.add(listener);
+    }
+
+    /**
+     * @see GameEventBus#addListener(EventType, GameEventListener)
+     */
+    public void addListener(EventType type, GameEventListener listener){
+      GameEventBus.this.addListener(type, listener);
+      registered.add(listener);
+    }
+
+    /**
+     * @see GameEventBus#addQueuedListener(GameEventListener)
+     */
+    public void addQueuedListener(GameEventListener listener){
+      GameEventBus.this.addQueuedListener(listener);
+      registered.add(listener);
+    }
+
+    /**
+     * @see GameEventBus#addQueuedListener(EventType, GameEventListener)
+     */
+    public void addQueuedListener(EventType type, GameEventListener listener){
+      GameEventBus.this.addQueuedListener(type, listener);
+      registered.add(listener);
+    }
+
+    /**
+     * @see GameEventBus#removeListener(GameEventListener)
+     */
+    public void removeListener(GameEventListener listener){
+      GameEventBus.this.removeListener(listener);
+      registered.removeValue(listener, true);
+    }
+
+    /**
+     * Remove every listener registered through this scope
+     */
+    public void close(){
+      for (GameEventListener listener : registered) {
+        GameEventBus.this.removeListener(listener);
+      }
+      registered.clear();
+    }
+  }
+
+  @FunctionalInterface
+  public interface GameEventListener {
+    void handle(GameEvent event);
+  }
 }
@@ -0,0 +1,163 @@
+package group24.escaperoom.game.state;
+
+import java.util.function.Predicate;
+
+import com.badlogic.gdx.scenes.scene2d.ui.Dialog;
+import com.badlogic.gdx.utils.Array;
+
+import group24.escaperoom.engine.control.ControlsManager;
+import group24.escaperoom.engine.control.ControlsManager.InputType;
+import group24.escaperoom.engine.control.input.Input;
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.world.Grid;
+import group24.escaperoom.screens.GameScreen;
+
+/**
+ * Runs a {@link GameWorld} tick after tick, as fast as possible, with the
+ * player's inputs given by an {@link InputScript}
+ *
+ * Only {@link GameWorld#tick} is called, never anything drawing, and the clock
+ * of the world is replaced by one following game time. Running the same script
+ * on the same map therefore always plays the same game, whatever the machine,
+ * which is what verifying a map or benchmarking its logic needs.
+ *
+ * The world can be the one of a {@link GameScreen}, whose screen should then
+ * not also be acted on, or one played on a {@link Headless} view, which needs
+ * no screen. Items still look up their textures when created, so a headless
+ * application must be running for a grid to be loaded.
+ */
+public class GameSimulation {
+
+  /**
+   * A view presenting nothing, which only changes the grid
+   */
+  public static class Headless implements GameView {
+    private final Grid grid;
+
+    public Headless(Grid grid) {
+      this.grid = grid;
+    }
+
+    @Override
+    public boolean placeItem(Item item) {
+      return grid.placeItem(item);
+    }
+
+    @Override
+    public void removeItem(Item item) {
+      grid.removeItem(item);
+    }
+
+    @Override
+    public void show(Dialog dialog) { }
+  }
+
+  /**
+   * Which inputs the player gives on which ticks
+   */
+  public static class InputScript {
+    private static class Step {
+      final Input input;
+      final InputType type;
+      final long from, to;
+
+      Step(Input input, InputType type, long from, long to) {
+        this.input = input;
+        this.type = type;
+        this.from = from;
+        this.to = to;
+      }
+    }
+
+    private final Array<Step> steps = new Array<>();
+
+    /**
+     * Hold {@code input} on every tick from {@code fromTick} (inclusive) to {@code toTick} (exclusive)
+     */
+    public InputScript hold(Input input, long fromTick, long toTick) {
+      steps.add(new Step(input, InputType.HELD, fromTick, toTick));
+      return this;
+    }
+
+    /**
+     * Press {@code input} once, before tick {@code tick}
+     */
+    public InputScript press(Input input, long tick) {
+      steps.add(new Step(input, InputType.PRESSED, tick, tick + 1));
+      return this;
+    }
+
+    void apply(long tick) {
+      for (Step step : steps) {
+        if (tick >= step.from && tick < step.to) {
+          ControlsManager.perform(step.input, step.type);
+        }
+      }
+    }
+  }
+
+  private static final InputScript NO_INPUT = new InputScript();
+
+  private final GameWorld world;
+  private long ticks = 0;
+
+  /**
+   * @param world       the world of a game, whose player's binds are registered
+   * @param startMillis the time the game is considered started at
+   */
+  public GameSimulation(GameWorld world, long startMillis) {
+    this.world = world;
+    world.setClock(() -> startMillis + world.getGameTimeMillis());
+  }
+
+  public GameSimulation(GameWorld world) {
+    this(world, 0L);
+  }
+
+  /**
+   * @return the number of ticks run so far
+   */
+  public long getTicks() {
+    return ticks;
+  }
+
+  /**
+   * Run a single tick, after giving the inputs {@code script} has for it
+   */
+  public void step(InputScript script) {
+    // scripts count ticks from the start of the simulation, not of the world
+    world.tick((worldTick) -> script.apply(ticks));
+    ticks++;
+  }
+
+  /**
+   * Run {@code count} ticks
+   */
+  public void run(long count, InputScript script) {
+    for (long i = 0; i < count; i++) {
+      step(script);
+    }
+  }
+
+  /**
+   * Run {@code count} ticks without any input
+   */
+  public void run(long count) {
+    run(count, NO_INPUT);
+  }
+
+  /**
+   * Run ticks until {@code done} holds for the world, checked after each tick
+   *
+   * @return whether {@code done} held within {@code maxTicks} ticks
+   */
+  public boolean runUntil(Predicate<GameWorld> done, long maxTicks, InputScript script) {
+    for (long i = 0; i < maxTicks; i++) {
+      step(script);
+      if (done.test(world)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,32 @@
+package group24.escaperoom.game.state;
+
+import com.badlogic.gdx.scenes.scene2d.ui.Dialog;
+
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.screens.GameScreen;
+
+/**
+ * Where a {@link GameWorld} is played: what the game logic asks of whatever
+ * presents it, beyond the world itself.
+ *
+ * A {@link GameScreen} keeps the look of the map up to date and shows dialogs,
+ * while a {@link GameSimulation.Headless} view only changes the grid.
+ */
+public interface GameView {
+  /**
+   * Place {@code item} on the grid of the world, at its position
+   *
+   * @return whether it could be placed
+   */
+  boolean placeItem(Item item);
+
+  /**
+   * Remove {@code item} from the grid of the world
+   */
+  void removeItem(Item item);
+
+  /**
+   * Show {@code dialog} to the player, e.g. the result of an action
+   */
+  void show(Dialog dialog);
+}
@@ -0,0 +1,173 @@
+package group24.escaperoom.game.state;
+
+import com.badlogic.gdx.utils.Array;
+
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.entities.player.Player;
+import group24.escaperoom.game.world.Grid;
+import group24.escaperoom.screens.GameScreen;
+
+/**
+ * The logic of a game being played on a {@link Grid}: the player, the
+ * conditions, the circuit and the game time, all of which only advance with
+ * {@link GameWorld#tick}.
+ *
+ * A {@link GameScreen} ticks its world as frames are rendered, while a
+ * {@link GameSimulation} ticks one as fast as possible. The world holds no
+ * presentation state (camera, fog, textures), only what it is played on is
+ * reached, through its {@link GameView}.
+ */
+public class GameWorld {
+  /**
+   * Gives the inputs of the player at the start of every tick
+   */
+  @FunctionalInterface
+  public interface InputSource {
+    /**
+     * Perform the inputs given for tick {@code tick}, e.g. through
+     * {@link group24.escaperoom.engine.control.ControlsManager#perform}
+     */
+    void sample(long tick);
+  }
+
+  /**
+   * Game logic runs in fixed ticks of this many per second of game time,
+   * however fast frames are rendered
+   */
+  public static final int TICKS_PER_SECOND = 60;
+  public static final float TICK_SECONDS = 1f / TICKS_PER_SECOND;
+
+  private final Grid grid;
+  private final Player player;
+  private final GameView view;
+  private final GameContext context;
+  private final CircuitGraph circuit;
+  private final ConditionEvaluator conditions;
+  /**
+   * Whether nearby items offer any action, kept in step with {@link GameWorld#conditions}
+   */
+  private final ActionAvailability actionAvailability = new ActionAvailability();
+  /**
+   * Ticks run since this world was created
+   */
+  private long tickCount = 0;
+  private GameClock clock = GameClock.SYSTEM;
+  private long startTime;
+
+  /**
+   * @param grid      the grid the game is played on, loaded
+   * @param player    the player of the game
+   * @param view      what the game is played on
+   * @param events    the scope conditions listen to game events through
+   * @param pollItems the items whose conditions must be polled
+   */
+  public GameWorld(Grid grid, Player player, GameView view, GameEventBus.Scope events, Array<Item> pollItems) {
+    this.grid = grid;
+    this.player = player;
+    this.view = view;
+    this.context = new GameContext(this);
+
+    circuit = new CircuitGraph(grid);
+    grid.addListener(circuit);
+
+    conditions = new ConditionEvaluator(events);
+    for (Item item : pollItems) {
+      conditions.track(item);
+    }
+    grid.addListener(conditions);
+
+    startTime = clock.millis();
+  }
+
+  /**
+   * Advance the game logic by {@link GameWorld#TICK_SECONDS} of game time
+   *
+   * Everything which changes the state of the game happens here or in
+   * response to input, never while drawing, so the same inputs on the same
+   * ticks always produce the same game (see {@link GameSimulation}).
+   *
+   * @param input gives the inputs of this tick, the movement of the player
+   *              only lasts for the tick it is given in
+   */
+  public void tick(InputSource input) {
+    player.clearMovement();
+    input.sample(tickCount);
+
+    // deliver what happened since the last tick (e.g. in response to input)
+    // before anything reacts to it
+    GameEventBus.get().flush();
+
+    player.move(grid, TICK_SECONDS);
+    conditions.update(context);
+    actionAvailability.invalidate(conditions.getLastChanges());
+    // after the conditions, so focus reflects where the player moved this tick
+    player.findInteractables(context, actionAvailability);
+
+    tickCount++;
+    circuit.update(getGameTimeMillis());
+  }
+
+  /**
+   * Replace the clock this game is timed with, restarting its timing
+   */
+  public void setClock(GameClock clock) {
+    this.clock = clock;
+    startTime = clock.millis();
+  }
+
+  /**
+   * @return the time since the game started, by its clock
+   */
+  public long getRunMillis() {
+    return clock.millis() - startTime;
+  }
+
+  /**
+   * @return the game time, in milliseconds, which only advances with {@link GameWorld#tick}
+   */
+  public long getGameTimeMillis() {
+    return tickCount * 1000 / TICKS_PER_SECOND;
+  }
+
+  public Grid getGrid() {
+    return grid;
+  }
+
+  public Player getPlayer() {
+    return player;
+  }
+
+  public GameView getView() {
+    return view;
+  }
+
+  /**
+   * @return the context game logic in this world acts on
+   */
+  public GameContext getContext() {
+    return context;
+  }
+
+  /**
+   * @return which items currently offer the player actions
+   */
+  public ActionAvailability getActionAvailability() {
+    return actionAvailability;
+  }
+
+  /**
+   * @return the signal network of this world
+   */
+  public CircuitGraph getCircuit() {
+    return circuit;
+  }
+
+  /**
+   * Stop listening to the grid
+   */
+  public void dispose() {
+    grid.removeListener(circuit);
+    grid.removeListener(conditions);
+    conditions.dispose();
+  }
+}
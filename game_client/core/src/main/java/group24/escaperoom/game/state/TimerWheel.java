@@ -0,0 +1,136 @@
+package group24.escaperoom.game.state;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A hashed timing wheel.
+ *
+ * Time is split into ticks of {@code tickMillis}, and each timer is stored in the
+ * slot for the first tick starting at or after its deadline. Advancing the wheel
+ * only visits the slots of the ticks that have passed, so the cost of an idle wheel
+ * does not depend on the number of scheduled timers.
+ */
+public class TimerWheel<T extends TimerWheel.Timer> {
+
+  /**
+   * Something that can be scheduled on a {@link TimerWheel}.
+   *
+   * A timer can be scheduled on at most one wheel at a time.
+   */
+  public static class Timer {
+    long deadline = -1;
+    int slot = -1;
+
+    public boolean isScheduled() {
+      return slot >= 0;
+    }
+
+    public long getDeadline() {
+      return deadline;
+    }
+  }
+
+  private final Array<T>[] slots;
+  private final long tickMillis;
+  private long currentTick;
+  private int scheduled = 0;
+
+  /**
+   * @param slotCount number of slots in the wheel
+   * @param tickMillis the duration of a single slot
+   * @param now the current time in milliseconds
+   */
+  @SuppressWarnings("unchecked")
+  public TimerWheel(int slotCount, long tickMillis, long now) {
+    this.tickMillis = tickMillis;
+    this.currentTick = now / tickMillis;
+    slots = new Array[slotCount];
+    for (int i = 0; i < slotCount; i++) {
+      slots[i] = new Array<>(false, 4);
+    }
+  }
+
+  /**
+   * Schedule {@code timer} to expire at {@code deadline}, replacing any
+   * existing deadline it had.
+   */
+  public void schedule(T timer, long deadline) {
+    if (timer.isScheduled()) {
+      if (timer.deadline == deadline) return;
+      cancel(timer);
+    }
+
+    // rounding up means every timer in the slot of a tick that has passed is due,
+    // rather than some of them waiting for the wheel to come round again
+    long tick = Math.floorDiv(deadline + tickMillis - 1, tickMillis);
+    // deadlines that have already passed expire on the next advance
+    tick = Math.max(tick, currentTick + 1);
+    int slot = (int) (tick % slots.length);
+    assert tick * tickMillis >= deadline : "timer scheduled before its deadline tick";
+
+    timer.deadline = deadline;
+    timer.slot = slot;
+    slots[slot].add(timer);
+    scheduled++;
+  }
+
+  /**
+   * Remove {@code timer} from this wheel if it is scheduled
+   */
+  public void cancel(T timer) {
+    if (!timer.isScheduled()) return;
+
+    slots[timer.slot].removeValue(timer, true);
+    timer.slot = -1;
+    timer.deadline = -1;
+    scheduled--;
+  }
+
+  /**
+   * Advance the wheel to {@code now}, adding every expired timer to {@code expired}
+   */
+  public void advance(long now, Array<T> expired) {
+    long nowTick = now / tickMillis;
+    if (nowTick <= currentTick) return;
+
+    if (scheduled > 0) {
+      long ticks = Math.min(nowTick - currentTick, slots.length);
+      for (long t = 1; t <= ticks; t++) {
+        Array<T> slot = slots[(int) ((currentTick + t) % slots.length)];
+        for (int i = slot.size - 1; i >= 0; i--) {
+          T timer = slot.get(i);
+          if (timer.deadline <= now) {
+            slot.removeIndex(i);
+            timer.slot = -1;
+            timer.deadline = -1;
+            scheduled--;
+            expired.add(timer);
+          }
+        }
+      }
+    }
+
+    currentTick = nowTick;
+  }
+
+  /**
+   * Remove every timer from this wheel
+   */
+  public void clear() {
+    for (Array<T> slot : slots) {
+      for (T timer : slot) {
+        timer.slot = -1;
+        timer.deadline = -1;
+      }
+      slot.clear();
+    }
+    scheduled = 0;
+  }
+
+  /**
+   * @return the number of scheduled timers
+   */
+  public int size() {
+    return scheduled;
+  }
+}
@@ -45,7 +45,7 @@ public class ActionDialog extends GameDialog {
         @Override
         public void changed(ChangeEvent event, Actor actor) {
 
-          GameContext ctx = new GameContext(player.getGameScreen(), player);
+          GameContext ctx = player.getGameScreen().getWorld().getContext();
 
           if (isChecked() && action.isValid(ctx)) {
             player.stats.actionsPerformed += 1;
@@ -78,7 +78,7 @@ public class ActionDialog extends GameDialog {
         add(new G24Label("No available actions for " + item.getItemName()));
       } else {
         for (PlayerAction action : actions) {
-          if (action.isValid(new GameContext(player.getGameScreen()))) {
+          if (action.isValid(player.getGameScreen().getWorld().getContext())) {
             ActionButton b = new ActionButton(action.getActionName(), action, item, player);
             buttons.put(action, b);
             add(b);
@@ -97,7 +97,7 @@ public class ActionDialog extends GameDialog {
     super(player, "Actions for " + item.getItemName() + "...");
     this.item = item;
     setModal(false);
-    GameContext ctx = new GameContext(player.getGameScreen(), player);
+    GameContext ctx = player.getGameScreen().getWorld().getContext();
     actions = item.getPlayerActions(ctx);
     getContentTable().add(new ActionButtonGroup());
   }
@@ -106,7 +106,7 @@ public class ActionDialog extends GameDialog {
   public void act(float delta){
     super.act(delta);
     buttons.forEach((PlayerAction a, ActionButton b) -> {
-      if (!a.isValid(new GameContext(player.getGameScreen()))){
+      if (!a.isValid(player.getGameScreen().getWorld().getContext())){
         b.setDisabled(true);
       }
     });
@@ -16,9 +16,9 @@ public class ActionLog extends ScrollPane {
   private Table inner;
 
   /**
-   * 
+   * @param events the scope in which to listen to game events
    */
-  public ActionLog() {
+  public ActionLog(GameEventBus.Scope events) {
     super(null, AbstractScreen.skin);
     setStyle(AbstractScreen.skin.get("transparent", ScrollPaneStyle.class));
     inner = new Table();
@@ -29,7 +29,7 @@ public class ActionLog extends ScrollPane {
     setActor(inner);
     this.pack();
 
-    GameEventBus.get().addListener((ev) -> {
+    events.addQueuedListener((ev) -> {
       String message = ev.toString();
       if (!message.isEmpty()){
         emit(message);
@@ -13,7 +13,6 @@ import group24.escaperoom.engine.control.CursorManager;
 import group24.escaperoom.engine.control.CursorManager.CursorType;
 import group24.escaperoom.game.entities.properties.ContainsItemProperty;
 import group24.escaperoom.game.entities.properties.values.ContainedItem;
-import group24.escaperoom.game.state.GameEventBus;
 import group24.escaperoom.game.state.GameEvent.EventType;
 import group24.escaperoom.game.state.GameEventBus.GameEventListener;
 import group24.escaperoom.game.entities.Item;
@@ -71,7 +70,7 @@ public class ContainerItemSlot extends InteractableItemSlot {
         }
       };
     }
-    GameEventBus.get().addListener(listener, (ev) -> ev.type == EventType.ItemObtained);
+    actingPlayer.getGameScreen().getEvents().addListener(EventType.ItemObtained, listener);
     actingPlayer.getGameScreen().getDragAndDrop().addSource(source);
     actingPlayer.getGameScreen().getDragAndDrop().removeTarget(target);
     prop.addValue(new ContainedItem(i, prop.getOwner()));
@@ -86,7 +85,7 @@ public class ContainerItemSlot extends InteractableItemSlot {
     }
     actingPlayer.getGameScreen().getDragAndDrop().addTarget(target);
     prop.removeItem(removed);
-    GameEventBus.get().removeListener(listener);
+    actingPlayer.getGameScreen().getEvents().removeListener(listener);
     return removed;
   }
 
@@ -135,7 +134,7 @@ public class ContainerItemSlot extends InteractableItemSlot {
         removeItemFromSlot();
       }
     };
-    GameEventBus.get().addListener(listener, (ev) -> ev.type == EventType.ItemObtained);
+    actingPlayer.getGameScreen().getEvents().addListener(EventType.ItemObtained, listener);
     actingPlayer.getGameScreen()
       .getDragAndDrop()
       .addSource(source);
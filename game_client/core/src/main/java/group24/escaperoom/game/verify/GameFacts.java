@@ -0,0 +1,56 @@
+package group24.escaperoom.game.verify;
+
+import com.badlogic.gdx.math.Rectangle;
+
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.entities.conditions.Conditional;
+
+/**
+ * What a {@link Conditional} may ask about a game which is not being played,
+ * e.g. a state explored by the {@link SolvabilityVerifier}
+ *
+ * @see Conditional#evaluate(GameFacts)
+ */
+public interface GameFacts {
+  /**
+   * @return whether the player holds {@code item}
+   */
+  boolean hasItem(Item item);
+
+  /**
+   * @return whether {@code item}, which is {@link group24.escaperoom.game.entities.properties.Toggleable}, is toggled
+   */
+  boolean isToggled(Item item);
+
+  /**
+   * @return whether {@code item}, which is a {@link group24.escaperoom.game.entities.properties.ConnectorSink}, is powered
+   */
+  boolean isPowered(Item item);
+
+  /**
+   * @return whether the condition of {@code item}, which is
+   *         {@link group24.escaperoom.game.entities.properties.ConditionallyActive}, holds
+   */
+  boolean isActive(Item item);
+
+  /**
+   * @return whether {@code item} is still inside {@code container}
+   */
+  boolean isContained(Item container, Item item);
+
+  /**
+   * @return whether the player can walk into {@code region}
+   */
+  boolean canReach(Rectangle region);
+
+  /**
+   * @return whether {@code item} is, or can be placed, within {@code region}
+   */
+  boolean canBeIn(Item item, Rectangle region);
+
+  /**
+   * Decide a condition which cannot be evaluated from these facts alone
+   * (e.g. one depending on the history of the game)
+   */
+  boolean assume(Conditional condition);
+}
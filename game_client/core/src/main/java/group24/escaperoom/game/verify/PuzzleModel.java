@@ -0,0 +1,582 @@
+package group24.escaperoom.game.verify;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.Null;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import group24.escaperoom.engine.physics.Collisions;
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.entities.player.Player;
+import group24.escaperoom.game.entities.player.PlayerDetails.HitboxInfo;
+import group24.escaperoom.game.entities.properties.ConnectorSink;
+import group24.escaperoom.game.entities.properties.ConnectorSource;
+import group24.escaperoom.game.entities.properties.ContainsItemProperty;
+import group24.escaperoom.game.entities.properties.FragileProperty;
+import group24.escaperoom.game.entities.properties.LockedProperty;
+import group24.escaperoom.game.entities.properties.PlayerProperty;
+import group24.escaperoom.game.entities.properties.PropertyType;
+import group24.escaperoom.game.entities.properties.Toggleable;
+import group24.escaperoom.game.entities.properties.base.Connectable;
+import group24.escaperoom.game.entities.properties.base.Connectable.ConnectableItem;
+import group24.escaperoom.game.entities.properties.locks.KeyLock;
+import group24.escaperoom.game.entities.properties.locks.LockingMethodType;
+import group24.escaperoom.game.entities.properties.values.ContainedItem;
+import group24.escaperoom.game.world.Grid;
+
+/**
+ * What the {@link SolvabilityVerifier} knows of a map: which items the player
+ * can take, toggle and unlock, where they must stand to interact with them,
+ * and what blocks their way.
+ *
+ * Built once from a {@link Grid} which is not being played, and only read
+ * afterwards, so it can be shared by every thread of a search.
+ *
+ * The player stands on whole tiles, a position being the tile of their lower
+ * left corner. The bits of a {@link PuzzleState} are laid out as: which
+ * takeable items are held, which are gone from where they were, which
+ * toggleable items are toggled, which fragile toggleables are broken, and
+ * which locks are unlocked.
+ */
+class PuzzleModel {
+
+  /**
+   * An item the player may interact with, and what interacting may do
+   */
+  static class Interactable {
+    final Item item;
+
+    /**
+     * Positions from which the player can reach {@link Interactable#item}
+     */
+    final int[] zone;
+
+    int takeable = -1;
+    int toggle = -1;
+    int lock = -1;
+    @Null ContainsItemProperty container;
+    boolean completesLevel;
+
+    Interactable(Item item, int[] zone) {
+      this.item = item;
+      this.zone = zone;
+    }
+  }
+
+  final Grid grid;
+
+  final int playerWidth, playerHeight;
+  final Rectangle hitbox;
+
+  /**
+   * Positions span {@code [0, posWidth) x [0, posHeight)}
+   */
+  final int posWidth, posHeight;
+  final int start;
+
+  final Array<Item> takeables = new Array<>();
+  final ObjectIntMap<Item> takeableIndex = new ObjectIntMap<>();
+
+  /**
+   * For each takeable item, the item containing it at the start, if any
+   */
+  final Array<Item> containers = new Array<>();
+
+  final Array<Item> toggleables = new Array<>();
+  final ObjectIntMap<Item> toggleIndex = new ObjectIntMap<>();
+  private final IntArray fragileToggles = new IntArray();
+
+  final Array<Item> locks = new Array<>();
+  final ObjectIntMap<Item> lockIndex = new ObjectIntMap<>();
+  final Array<LockingMethodType> lockTypes = new Array<>();
+
+  /**
+   * For each lock, the takeable indices of the keys opening it, when it is a {@link KeyLock}
+   */
+  final Array<int[]> lockKeys = new Array<>();
+
+  final Array<Interactable> interactables = new Array<>();
+
+  final int heldOffset, goneOffset, toggledOffset, brokenOffset, unlockedOffset, bitCount;
+
+  private final boolean[] staticBlocked;
+
+  /**
+   * For each position, the bits which must all be set for the player to
+   * stand there (e.g. the lock of a barrier is unlocked), or null
+   */
+  private final int[][] clearedBy;
+
+  /**
+   * Every bit of {@link PuzzleModel#clearedBy}, which are all the state a region depends on
+   */
+  private final int[] blockerBits;
+
+  /**
+   * How many combinations of blockers keep their regions memoised, each holding
+   * a label per position
+   */
+  static final int MAX_MEMOISED_REGIONS = 1024;
+
+  private final ConcurrentHashMap<PuzzleState, int[]> regions = new ConcurrentHashMap<>();
+
+  /**
+   * For each sink, the index of its power network
+   */
+  private final ObjectIntMap<Item> sinkNetwork = new ObjectIntMap<>();
+  private final Array<Boolean> networkAlwaysOn = new Array<>();
+  private final Array<IntArray> networkToggles = new Array<>();
+
+  final Array<String> warnings = new Array<>();
+
+  PuzzleModel(Grid grid) {
+    this.grid = grid;
+
+    Item playerItem = null;
+    for (Item item : grid.items.values()) {
+      if (item.hasProperty(PropertyType.Player)) {
+        playerItem = item;
+        break;
+      }
+    }
+
+    if (playerItem == null) {
+      warnings.add("The map has no player, assuming one starts in the lower left corner");
+      playerWidth = 2;
+      playerHeight = 2;
+      hitbox = new Rectangle(0, 0, playerWidth, playerHeight);
+    } else {
+      playerWidth = playerItem.getWidth();
+      playerHeight = playerItem.getHeight();
+      HitboxInfo info = playerItem.getPropertyOrNull(PropertyType.Player, PlayerProperty.class).getDetails().hitboxInfo;
+      hitbox = new Rectangle(
+        info.xOffset,
+        info.yOffset,
+        Math.min(info.width, playerWidth),
+        Math.min(info.height, playerHeight)
+      );
+    }
+
+    posWidth = Math.max(1, grid.getWidth() - playerWidth + 1);
+    posHeight = Math.max(1, grid.getHeight() - playerHeight + 1);
+    start = playerItem == null ? 0 : position(playerItem.getX(), playerItem.getY());
+
+    Array<Item> mapItems = new Array<>();
+    for (Item item : grid.items.values()) {
+      if (item.hasProperty(PropertyType.Player)) continue;
+
+      boolean onMap = grid.placedItems.containsKey(item.getID()) || item.hasProperty(PropertyType.ConditionallyVisible);
+      if (onMap && !item.isContained()) mapItems.add(item);
+
+      if (item.hasProperty(PropertyType.Obtainable)) addTakeable(item, null);
+
+      ContainsItemProperty container = container(item);
+      if (container != null) {
+        for (ContainedItem ci : container.getCurrentValues()) {
+          if (ci.getItem() != null) addTakeable(ci.getItem(), item);
+        }
+      }
+
+      if (item.hasProperty(PropertyType.Toggleable)) {
+        toggleIndex.put(item, toggleables.size);
+        FragileProperty fp = item.getPropertyOrNull(PropertyType.Fragile, FragileProperty.class);
+        if (fp != null && fp.isTrue()) fragileToggles.add(toggleables.size);
+        toggleables.add(item);
+      }
+
+      LockedProperty lp = item.getPropertyOrNull(PropertyType.LockedProperty, LockedProperty.class);
+      if (lp != null) {
+        lockIndex.put(item, locks.size);
+        locks.add(item);
+        lockTypes.add(lp.getCurrentValue().getType());
+      }
+    }
+
+    heldOffset = 0;
+    goneOffset = takeables.size;
+    toggledOffset = 2 * takeables.size;
+    brokenOffset = toggledOffset + toggleables.size;
+    unlockedOffset = brokenOffset + toggleables.size;
+    bitCount = unlockedOffset + locks.size;
+
+    for (Item lockItem : locks) {
+      LockedProperty lp = lockItem.getPropertyOrNull(PropertyType.LockedProperty, LockedProperty.class);
+      if (lp.getCurrentValue() instanceof KeyLock) {
+        IntArray keys = new IntArray();
+        for (Item key : ((KeyLock) lp.getCurrentValue()).getKeys()) {
+          int k = takeableIndex.get(key, -1);
+          if (k >= 0) keys.add(k);
+        }
+        lockKeys.add(keys.toArray());
+      } else {
+        lockKeys.add(null);
+      }
+    }
+
+    staticBlocked = new boolean[posWidth * posHeight];
+    clearedBy = new int[posWidth * posHeight][];
+    IntArray bits = new IntArray();
+    for (Item item : mapItems) {
+      int clearBit = -1;
+      int lock = lockIndex.get(item, -1);
+      int takeable = takeableIndex.get(item, -1);
+      if (lock >= 0 && item.hasProperty(PropertyType.Barrier)) {
+        clearBit = unlockedOffset + lock;
+      } else if (takeable >= 0) {
+        clearBit = goneOffset + takeable;
+      } else if (item.hasProperty(PropertyType.ConditionallyVisible)) {
+        // whether it is there depends on where the player is, assume it never is in the way
+        continue;
+      }
+
+      Rectangle blocking = item.getBlockingRect();
+      if (blocking == null) continue;
+
+      block(new Rectangle(blocking), clearBit);
+      if (clearBit >= 0 && !bits.contains(clearBit)) bits.add(clearBit);
+    }
+    blockerBits = bits.toArray();
+
+    for (Item item : mapItems) {
+      if (item.hasProperty(PropertyType.Interactable)) {
+        Interactable in = new Interactable(item, zoneOf(item.getOccupiedRegion()));
+        in.takeable = item.hasProperty(PropertyType.Obtainable) ? takeableIndex.get(item, -1) : -1;
+        in.toggle = toggleIndex.get(item, -1);
+        in.lock = lockIndex.get(item, -1);
+        in.container = container(item);
+        in.completesLevel = item.hasProperty(PropertyType.CompletesLevel);
+        interactables.add(in);
+      }
+    }
+
+    buildPowerNetworks();
+  }
+
+  private @Null ContainsItemProperty container(Item item) {
+    ContainsItemProperty container = item.getPropertyOrNull(PropertyType.ContainsItemsProperty, ContainsItemProperty.class);
+    if (container != null) return container;
+    return item.getPropertyOrNull(PropertyType.CoveringProperty, ContainsItemProperty.class);
+  }
+
+  private void addTakeable(Item item, @Null Item container) {
+    int i = takeableIndex.get(item, -1);
+    if (i >= 0) {
+      if (container != null) containers.set(i, container);
+      return;
+    }
+    takeableIndex.put(item, takeables.size);
+    takeables.add(item);
+    containers.add(container);
+  }
+
+  int position(int x, int y) {
+    return MathUtils.clamp(y, 0, posHeight - 1) * posWidth + MathUtils.clamp(x, 0, posWidth - 1);
+  }
+
+  /**
+   * Mark every position where the player's hitbox overlaps {@code blocking}
+   *
+   * @param clearBit the bit which must be set for it not to block, or -1 if it always blocks
+   */
+  private void block(Rectangle blocking, int clearBit) {
+    // hitbox at x overlaps when x + hx < bx + bw and x + hx + hw > bx
+    int minX = Math.max(0, (int) Math.floor(blocking.x - hitbox.x - hitbox.width) + 1);
+    int maxX = Math.min(posWidth - 1, (int) Math.ceil(blocking.x + blocking.width - hitbox.x) - 1);
+    int minY = Math.max(0, (int) Math.floor(blocking.y - hitbox.y - hitbox.height) + 1);
+    int maxY = Math.min(posHeight - 1, (int) Math.ceil(blocking.y + blocking.height - hitbox.y) - 1);
+
+    Rectangle moved = new Rectangle(0, 0, hitbox.width, hitbox.height);
+    for (int y = minY; y <= maxY; y++) {
+      for (int x = minX; x <= maxX; x++) {
+        if (!moved.setPosition(x + hitbox.x, y + hitbox.y).overlaps(blocking)) continue;
+
+        int p = y * posWidth + x;
+        if (clearBit < 0) {
+          staticBlocked[p] = true;
+        } else {
+          int[] bits = clearedBy[p];
+          if (bits == null) {
+            clearedBy[p] = new int[] { clearBit };
+          } else {
+            int[] grown = Arrays.copyOf(bits, bits.length + 1);
+            grown[bits.length] = clearBit;
+            clearedBy[p] = grown;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the positions from which the player can interact with an item occupying {@code region}
+   */
+  private int[] zoneOf(Rectangle region) {
+    float range = Player.INTERACT_RANGE;
+    int minX = Math.max(0, (int) Math.floor(region.x - range - playerWidth / 2f));
+    int maxX = Math.min(posWidth - 1, (int) Math.ceil(region.x + region.width + range - playerWidth / 2f));
+    int minY = Math.max(0, (int) Math.floor(region.y - range - playerHeight / 2f));
+    int maxY = Math.min(posHeight - 1, (int) Math.ceil(region.y + region.height + range - playerHeight / 2f));
+
+    IntArray zone = new IntArray();
+    Circle reach = new Circle(0, 0, range);
+    for (int y = minY; y <= maxY; y++) {
+      for (int x = minX; x <= maxX; x++) {
+        reach.setPosition(x + playerWidth / 2f, y + playerHeight / 2f);
+        if (Collisions.collides(reach, region)) zone.add(y * posWidth + x);
+      }
+    }
+    return zone.toArray();
+  }
+
+  /**
+   * Group connectables into networks of touching connectables of the same
+   * type, a sink being powered when any source of its network is active.
+   *
+   * This ignores what relays do to signals, treating them as wires.
+   */
+  private void buildPowerNetworks() {
+    Array<ConnectableItem> connectables = new Array<>();
+    for (Item item : grid.placedItems.values()) {
+      Connectable.Utils.isConnectable(item).ifPresent(connectables::add);
+    }
+    if (connectables.isEmpty()) return;
+
+    int width = grid.getWidth();
+    IntArray[] atTile = new IntArray[width * grid.getHeight()];
+    int[] parent = new int[connectables.size];
+    boolean relays = false;
+    for (int i = 0; i < connectables.size; i++) {
+      parent[i] = i;
+      Item item = connectables.get(i).item;
+      if (item.hasProperty(PropertyType.ConnectorRelay)) relays = true;
+
+      for (int y = Math.max(0, item.getY()); y < Math.min(grid.getHeight(), item.getY() + item.getHeight()); y++) {
+        for (int x = Math.max(0, item.getX()); x < Math.min(width, item.getX() + item.getWidth()); x++) {
+          if (atTile[y * width + x] == null) atTile[y * width + x] = new IntArray(2);
+          atTile[y * width + x].add(i);
+        }
+      }
+    }
+    if (relays) warnings.add("Relays are treated as wires");
+
+    for (int t = 0; t < atTile.length; t++) {
+      if (atTile[t] == null) continue;
+      int x = t % width;
+      unionAll(connectables, parent, atTile[t], atTile[t]);
+      if (x + 1 < width) unionAll(connectables, parent, atTile[t], atTile[t + 1]);
+      if (t + width < atTile.length) unionAll(connectables, parent, atTile[t], atTile[t + width]);
+    }
+
+    ObjectIntMap<Integer> networkOfRoot = new ObjectIntMap<>();
+    for (int i = 0; i < connectables.size; i++) {
+      int root = find(parent, i);
+      int network = networkOfRoot.get(root, -1);
+      if (network < 0) {
+        network = networkAlwaysOn.size;
+        networkOfRoot.put(root, network);
+        networkAlwaysOn.add(false);
+        networkToggles.add(new IntArray(1));
+      }
+
+      Item item = connectables.get(i).item;
+      if (item.hasProperty(PropertyType.ConnectorSink)) {
+        sinkNetwork.put(item, network);
+      }
+
+      ConnectorSource source = item.getPropertyOrNull(PropertyType.ConnectorSource, ConnectorSource.class);
+      if (source != null) {
+        int toggle = toggleIndex.get(item, -1);
+        if (source.isAlwaysOn() || (toggle < 0 && source.isConnected())) {
+          networkAlwaysOn.set(network, true);
+        } else if (toggle >= 0) {
+          networkToggles.get(network).add(toggledOffset + toggle);
+        }
+      }
+    }
+  }
+
+  private void unionAll(Array<ConnectableItem> connectables, int[] parent, IntArray a, IntArray b) {
+    for (int i = 0; i < a.size; i++) {
+      for (int j = 0; j < b.size; j++) {
+        ConnectableItem ca = connectables.get(a.get(i));
+        ConnectableItem cb = connectables.get(b.get(j));
+        if (ca.connectable.getConnectorType() == cb.connectable.getConnectorType()) {
+          parent[find(parent, a.get(i))] = find(parent, b.get(j));
+        }
+      }
+    }
+  }
+
+  private static int find(int[] parent, int i) {
+    while (parent[i] != i) {
+      parent[i] = parent[parent[i]];
+      i = parent[i];
+    }
+    return i;
+  }
+
+  /**
+   * @return whether {@code sink}, which is a {@link ConnectorSink}, is powered in {@code state}
+   */
+  boolean isPowered(Item sink, PuzzleState state) {
+    int network = sinkNetwork.get(sink, -1);
+    if (network < 0) return false;
+    if (networkAlwaysOn.get(network)) return true;
+
+    IntArray toggles = networkToggles.get(network);
+    for (int i = 0; i < toggles.size; i++) {
+      if (state.get(toggles.get(i))) return true;
+    }
+    return false;
+  }
+
+  boolean isFragileToggle(int toggle) {
+    return fragileToggles.contains(toggle);
+  }
+
+  /**
+   * @return the state of the map as it was built
+   */
+  PuzzleState initialState() {
+    long[] bits = new long[Math.max(1, (bitCount + 63) / 64)];
+    for (int i = 0; i < toggleables.size; i++) {
+      Item item = toggleables.get(i);
+      PuzzleState.set(bits, toggledOffset + i, item.getPropertyOrNull(PropertyType.Toggleable, Toggleable.class).isToggled());
+      FragileProperty fp = item.getPropertyOrNull(PropertyType.Fragile, FragileProperty.class);
+      PuzzleState.set(bits, brokenOffset + i, fp != null && fp.isBroken());
+    }
+    for (int i = 0; i < locks.size; i++) {
+      LockedProperty lp = locks.get(i).getPropertyOrNull(PropertyType.LockedProperty, LockedProperty.class);
+      PuzzleState.set(bits, unlockedOffset + i, !lp.isLocked());
+    }
+    return withBits(bits, start);
+  }
+
+  /**
+   * @return the state with {@code bits}, where the player stands in the region
+   *         containing {@code anchor}
+   */
+  PuzzleState withBits(long[] bits, int anchor) {
+    int[] labels = regionsOf((b) -> (bits[b >>> 6] & (1L << b)) != 0);
+    int label = labels[anchor];
+    return new PuzzleState(bits, label < 0 ? anchor : label);
+  }
+
+  /**
+   * @return for each position the smallest position of its region, or -1 where
+   *         the player cannot stand
+   */
+  int[] regionsOf(PuzzleState state) {
+    return regionsOf(state::get);
+  }
+
+  /**
+   * @param isSet which bits of the state are set
+   */
+  private int[] regionsOf(IntPredicate isSet) {
+    // regions only depend on the bits of blockers, flood fill once per combination
+    long[] config = new long[blockerBits.length / 64 + 1];
+    for (int i = 0; i < blockerBits.length; i++) {
+      PuzzleState.set(config, i, isSet.test(blockerBits[i]));
+    }
+    PuzzleState key = new PuzzleState(config, 0);
+    int[] labels = regions.get(key);
+    if (labels != null) return labels;
+
+    labels = floodFill(isSet);
+    // searches tend to stay among few combinations at a time, start over rather than track use
+    if (regions.size() >= MAX_MEMOISED_REGIONS) regions.clear();
+    int[] raced = regions.putIfAbsent(key, labels);
+    return raced == null ? labels : raced;
+  }
+
+  /**
+   * Forget the memoised regions, once a search is done with them
+   */
+  void clearRegions() {
+    regions.clear();
+  }
+
+  /**
+   * @return how many combinations of blockers have their regions memoised
+   */
+  int memoisedRegions() {
+    return regions.size();
+  }
+
+  private int[] floodFill(IntPredicate isSet) {
+    int n = posWidth * posHeight;
+    int[] labels = new int[n];
+    Arrays.fill(labels, -1);
+
+    IntArray stack = new IntArray();
+    for (int p = 0; p < n; p++) {
+      if (labels[p] >= 0 || !walkable(p, isSet)) continue;
+
+      labels[p] = p;
+      stack.add(p);
+      while (stack.notEmpty()) {
+        int q = stack.pop();
+        int x = q % posWidth;
+        if (x > 0) visit(q - 1, p, labels, stack, isSet);
+        if (x + 1 < posWidth) visit(q + 1, p, labels, stack, isSet);
+        if (q >= posWidth) visit(q - posWidth, p, labels, stack, isSet);
+        if (q + posWidth < n) visit(q + posWidth, p, labels, stack, isSet);
+      }
+    }
+    return labels;
+  }
+
+  private void visit(int q, int label, int[] labels, IntArray stack, IntPredicate isSet) {
+    if (labels[q] >= 0 || !walkable(q, isSet)) return;
+    labels[q] = label;
+    stack.add(q);
+  }
+
+  private boolean walkable(int p, IntPredicate isSet) {
+    if (staticBlocked[p]) return false;
+    int[] cleared = clearedBy[p];
+    if (cleared == null) return true;
+    for (int b : cleared) {
+      if (!isSet.test(b)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * @return whether the player can stand in the region {@code anchor} of
+   *         {@code labels} while overlapping {@code target}
+   */
+  boolean canReach(int[] labels, int anchor, Rectangle target) {
+    int minX = Math.max(0, (int) Math.floor(target.x - playerWidth) + 1);
+    int maxX = Math.min(posWidth - 1, (int) Math.ceil(target.x + target.width) - 1);
+    int minY = Math.max(0, (int) Math.floor(target.y - playerHeight) + 1);
+    int maxY = Math.min(posHeight - 1, (int) Math.ceil(target.y + target.height) - 1);
+
+    Rectangle player = new Rectangle(0, 0, playerWidth, playerHeight);
+    for (int y = minY; y <= maxY; y++) {
+      for (int x = minX; x <= maxX; x++) {
+        int p = y * posWidth + x;
+        if ((labels[p] == anchor || p == anchor) && player.setPosition(x, y).overlaps(target)) return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return whether any position of {@code zone} is in the region {@code anchor} of {@code labels}
+   */
+  static boolean inReach(int[] labels, int anchor, int[] zone) {
+    for (int p : zone) {
+      if (labels[p] == anchor || p == anchor) return true;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,56 @@
+package group24.escaperoom.game.verify;
+
+import java.util.Arrays;
+
+/**
+ * One abstract state of a game, as explored by the {@link SolvabilityVerifier}
+ *
+ * Everything the player can change is a bit (see {@link PuzzleModel} for the
+ * layout), and where the player is only matters up to which region they can
+ * walk in, represented by the smallest position of that region. States are
+ * immutable, and compared by value.
+ */
+final class PuzzleState {
+  private final long[] bits;
+  final int anchor;
+  private final int hash;
+
+  PuzzleState(long[] bits, int anchor) {
+    this.bits = bits;
+    this.anchor = anchor;
+    this.hash = 31 * Arrays.hashCode(bits) + anchor;
+  }
+
+  boolean get(int bit) {
+    return (bits[bit >>> 6] & (1L << bit)) != 0;
+  }
+
+  /**
+   * @return a copy of the bits of this state, to be changed into a successor
+   */
+  long[] copyBits() {
+    return bits.clone();
+  }
+
+  static void set(long[] bits, int bit, boolean value) {
+    if (value) {
+      bits[bit >>> 6] |= 1L << bit;
+    } else {
+      bits[bit >>> 6] &= ~(1L << bit);
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) return true;
+    if (!(obj instanceof PuzzleState)) return false;
+
+    PuzzleState other = (PuzzleState) obj;
+    return hash == other.hash && anchor == other.anchor && Arrays.equals(bits, other.bits);
+  }
+}
@@ -0,0 +1,413 @@
+package group24.escaperoom.game.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Null;
+
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.entities.conditions.Conditional;
+import group24.escaperoom.game.entities.properties.ConditionallyActive;
+import group24.escaperoom.game.entities.properties.ConditionallyVisible;
+import group24.escaperoom.game.entities.properties.FragileProperty;
+import group24.escaperoom.game.entities.properties.PropertyType;
+import group24.escaperoom.game.entities.properties.locks.LockingMethodType;
+import group24.escaperoom.game.verify.PuzzleModel.Interactable;
+import group24.escaperoom.game.world.Grid;
+
+/**
+ * Decides whether a map can be completed, without playing it.
+ *
+ * The map is abstracted into a {@link PuzzleModel}: the player only takes,
+ * toggles, unlocks and opens items, and where they stand only matters up to
+ * which region they can walk in. Abstract states are explored breadth first,
+ * expanding each level of the search in parallel, so the first solution found
+ * uses as few interactions as possible.
+ *
+ * The abstraction errs on the side of finding solutions, every approximation
+ * made is reported with the {@link Result}:
+ * <ul>
+ * <li> combinations and passphrases are assumed known to the player
+ * <li> relays are treated as wires
+ * <li> conditions depending on the history of the game are assumed to hold
+ * <li> conditionally visible items never block the player
+ * </ul>
+ */
+public class SolvabilityVerifier {
+
+  public enum Outcome {
+    /**
+     * A solution was found
+     */
+    Solvable,
+    /**
+     * Every reachable state was explored without completing the level
+     */
+    Unsolvable,
+    /**
+     * The search gave up before exploring every reachable state
+     */
+    Unknown,
+  }
+
+  /**
+   * One interaction of a solution
+   */
+  public static class Step {
+    public final String action;
+    public final Item item;
+
+    Step(String action, Item item) {
+      this.action = action;
+      this.item = item;
+    }
+
+    @Override
+    public String toString() {
+      return action + " " + item.getItemName();
+    }
+  }
+
+  public static class Result {
+    public final Outcome outcome;
+
+    /**
+     * The interactions of a shortest solution, empty unless {@link Outcome#Solvable}
+     */
+    public final Array<Step> solution;
+
+    public final int statesExplored;
+
+    /**
+     * What was assumed to reach the outcome, and what was approximated
+     */
+    public final Array<String> assumptions;
+
+    Result(Outcome outcome, Array<Step> solution, int statesExplored, Array<String> assumptions) {
+      this.outcome = outcome;
+      this.solution = solution;
+      this.statesExplored = statesExplored;
+      this.assumptions = assumptions;
+    }
+  }
+
+  /**
+   * How a state was first reached
+   */
+  private static class Visit {
+    final @Null PuzzleState parent;
+    final @Null Step step;
+
+    Visit(@Null PuzzleState parent, @Null Step step) {
+      this.parent = parent;
+      this.step = step;
+    }
+  }
+
+  private static final int DEFAULT_MAX_STATES = 1 << 20;
+
+  /**
+   * How deep conditions may refer to each other (e.g. through {@link ConditionallyActive}
+   * items) before the rest is assumed
+   */
+  private static final int MAX_CONDITION_DEPTH = 16;
+
+  private final PuzzleModel model;
+  private final int maxStates;
+  private final int parallelism;
+
+  private final ConcurrentHashMap<PuzzleState, Visit> visited = new ConcurrentHashMap<>();
+  private final Set<String> assumptions = ConcurrentHashMap.newKeySet();
+
+  /**
+   * @param grid        the map to verify, which must not be played nor edited while verifying
+   * @param maxStates   how many states to explore before giving up
+   * @param parallelism how many threads expand states
+   */
+  public SolvabilityVerifier(Grid grid, int maxStates, int parallelism) {
+    this.model = new PuzzleModel(grid);
+    this.maxStates = maxStates;
+    this.parallelism = Math.max(1, parallelism);
+  }
+
+  public SolvabilityVerifier(Grid grid) {
+    this(grid, DEFAULT_MAX_STATES, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Search for a solution, this may take a while on large maps and is best
+   * run off the render thread
+   */
+  public Result verify() {
+    visited.clear();
+    assumptions.clear();
+    model.warnings.forEach(assumptions::add);
+
+    PuzzleState start = model.initialState();
+    visited.put(start, new Visit(null, null));
+
+    AtomicReference<Visit> goal = new AtomicReference<>();
+    List<PuzzleState> frontier = List.of(start);
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+    try {
+      while (!frontier.isEmpty()) {
+        List<PuzzleState> level = frontier;
+        frontier = pool.submit(() -> level.parallelStream()
+          .flatMap((s) -> expand(s, goal).stream())
+          .collect(Collectors.toList())
+        ).get();
+
+        if (goal.get() != null) {
+          return result(Outcome.Solvable, path(goal.get()));
+        }
+
+        if (visited.size() >= maxStates) {
+          return result(Outcome.Unknown, new Array<>());
+        }
+      }
+      return result(Outcome.Unsolvable, new Array<>());
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return result(Outcome.Unknown, new Array<>());
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to verify map", e.getCause());
+    } finally {
+      pool.shutdownNow();
+      model.clearRegions();
+    }
+  }
+
+  /**
+   * Verify {@code grid} off the render thread
+   *
+   * @param grid a map which is not played nor edited until the result is complete
+   */
+  public static CompletableFuture<Result> verifyAsync(Grid grid) {
+    return CompletableFuture
+      .supplyAsync(() -> new SolvabilityVerifier(grid).verify())
+      .exceptionally((e) -> new Result(Outcome.Unknown, new Array<>(), 0, Array.with("Verifying failed: " + e.getMessage())));
+  }
+
+  /**
+   * @return how many region labellings are still memoised, none once a search is done
+   */
+  int memoisedRegions() {
+    return model.memoisedRegions();
+  }
+
+  private Result result(Outcome outcome, Array<Step> solution) {
+    Array<String> assumed = new Array<>();
+    new TreeSet<>(assumptions).forEach(assumed::add);
+    return new Result(outcome, solution, visited.size(), assumed);
+  }
+
+  private Array<Step> path(Visit last) {
+    Array<Step> steps = new Array<>();
+    for (Visit v = last; v != null && v.step != null; v = v.parent == null ? null : visited.get(v.parent)) {
+      steps.add(v.step);
+    }
+    steps.reverse();
+    return steps;
+  }
+
+  /**
+   * @return the successors of {@code state} which were not visited yet
+   */
+  private List<PuzzleState> expand(PuzzleState state, AtomicReference<Visit> goal) {
+    List<PuzzleState> next = new ArrayList<>();
+    if (goal.get() != null) return next;
+
+    int[] labels = model.regionsOf(state);
+    StateFacts facts = new StateFacts(state, labels);
+
+    for (Interactable in : model.interactables) {
+      Item item = in.item;
+      if (!PuzzleModel.inReach(labels, state.anchor, in.zone)) continue;
+      if (!facts.isPresent(item) || !facts.isActive(item)) continue;
+
+      if (in.completesLevel) {
+        goal.compareAndSet(null, new Visit(state, new Step("Complete level at", item)));
+        return next;
+      }
+
+      if (in.takeable >= 0) {
+        long[] bits = state.copyBits();
+        PuzzleState.set(bits, model.heldOffset + in.takeable, true);
+        PuzzleState.set(bits, model.goneOffset + in.takeable, true);
+        offer(next, state, bits, new Step("Pick up", item));
+      }
+
+      if (in.toggle >= 0 && !state.get(model.brokenOffset + in.toggle)) {
+        long[] bits = state.copyBits();
+        PuzzleState.set(bits, model.toggledOffset + in.toggle, !state.get(model.toggledOffset + in.toggle));
+        if (model.isFragileToggle(in.toggle)) PuzzleState.set(bits, model.brokenOffset + in.toggle, true);
+        offer(next, state, bits, new Step("Toggle", item));
+      }
+
+      boolean unlocked = in.lock < 0 || state.get(model.unlockedOffset + in.lock);
+      if (!unlocked) {
+        expandUnlock(next, state, in);
+      }
+
+      if (in.container != null && (unlocked || in.container.getType() == PropertyType.CoveringProperty)) {
+        for (int t = 0; t < model.takeables.size; t++) {
+          if (model.containers.get(t) != item || state.get(model.goneOffset + t)) continue;
+
+          long[] bits = state.copyBits();
+          PuzzleState.set(bits, model.heldOffset + t, true);
+          PuzzleState.set(bits, model.goneOffset + t, true);
+          offer(next, state, bits, new Step("Take " + model.takeables.get(t).getItemName() + " from", item));
+        }
+      }
+    }
+    return next;
+  }
+
+  private void expandUnlock(List<PuzzleState> next, PuzzleState state, Interactable in) {
+    LockingMethodType type = model.lockTypes.get(in.lock);
+    int unlockBit = model.unlockedOffset + in.lock;
+
+    switch (type) {
+      case KeyLock:
+        int[] keys = model.lockKeys.get(in.lock);
+        for (int k : keys) {
+          if (!state.get(model.heldOffset + k)) continue;
+
+          long[] bits = state.copyBits();
+          PuzzleState.set(bits, unlockBit, true);
+          FragileProperty fp = model.takeables.get(k).getPropertyOrNull(PropertyType.Fragile, FragileProperty.class);
+          if (fp != null && fp.isTrue()) PuzzleState.set(bits, model.heldOffset + k, false);
+          offer(next, state, bits, new Step("Unlock with " + model.takeables.get(k).getItemName(), in.item));
+        }
+        break;
+
+      case PowerLock:
+        if (model.isPowered(in.item, state)) {
+          long[] bits = state.copyBits();
+          PuzzleState.set(bits, unlockBit, true);
+          offer(next, state, bits, new Step("Unlock", in.item));
+        }
+        break;
+
+      default:
+        if (type != LockingMethodType.TrivialLock) {
+          assumptions.add(type.name() + " solutions are assumed known");
+        }
+        long[] bits = state.copyBits();
+        PuzzleState.set(bits, unlockBit, true);
+        offer(next, state, bits, new Step("Unlock", in.item));
+    }
+  }
+
+  private void offer(List<PuzzleState> next, PuzzleState parent, long[] bits, Step step) {
+    PuzzleState successor = model.withBits(bits, parent.anchor);
+    if (visited.putIfAbsent(successor, new Visit(parent, step)) == null) {
+      next.add(successor);
+    }
+  }
+
+  /**
+   * Answers conditions from one state of the search
+   */
+  private class StateFacts implements GameFacts {
+    private final PuzzleState state;
+    private final int[] labels;
+    private int depth = 0;
+
+    StateFacts(PuzzleState state, int[] labels) {
+      this.state = state;
+      this.labels = labels;
+    }
+
+    /**
+     * @return whether {@code item} is on the map
+     */
+    boolean isPresent(Item item) {
+      int t = model.takeableIndex.get(item, -1);
+      if (t >= 0 && state.get(model.goneOffset + t)) return false;
+
+      ConditionallyVisible cvp = item.getPropertyOrNull(PropertyType.ConditionallyVisible, ConditionallyVisible.class);
+      return cvp == null || holds(cvp.getCurrentValue());
+    }
+
+    private boolean holds(Conditional condition) {
+      if (depth >= MAX_CONDITION_DEPTH) return assume(condition);
+
+      depth++;
+      try {
+        return condition.evaluate(this);
+      } finally {
+        depth--;
+      }
+    }
+
+    @Override
+    public boolean hasItem(Item item) {
+      int t = model.takeableIndex.get(item, -1);
+      return t >= 0 && state.get(model.heldOffset + t);
+    }
+
+    @Override
+    public boolean isToggled(Item item) {
+      int t = model.toggleIndex.get(item, -1);
+      return t >= 0 && state.get(model.toggledOffset + t);
+    }
+
+    @Override
+    public boolean isPowered(Item item) {
+      return model.isPowered(item, state);
+    }
+
+    @Override
+    public boolean isActive(Item item) {
+      ConditionallyActive cap = item.getPropertyOrNull(PropertyType.ConditionallyActive, ConditionallyActive.class);
+      return cap == null || holds(cap.getCurrentValue());
+    }
+
+    @Override
+    public boolean isContained(Item container, Item item) {
+      int t = model.takeableIndex.get(item, -1);
+      if (t < 0) return false;
+
+      if (model.containers.get(t) == container && !state.get(model.goneOffset + t)) return true;
+
+      if (state.get(model.heldOffset + t)) {
+        assumptions.add("Held items are assumed to be placeable back in containers");
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public boolean canReach(Rectangle region) {
+      return model.canReach(labels, state.anchor, region);
+    }
+
+    @Override
+    public boolean canBeIn(Item item, Rectangle region) {
+      if (hasItem(item)) {
+        assumptions.add("Held items are assumed to be placeable anywhere the player can reach");
+        return canReach(region);
+      }
+      return isPresent(item) && item.getOccupiedRegion().overlaps(region);
+    }
+
+    @Override
+    public boolean assume(Conditional condition) {
+      assumptions.add(condition.getType() + " conditions are assumed to hold");
+      return true;
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package group24.escaperoom.game.world;
+
+/**
+ * Revealed state of every tile on the map along with the {@link FowTile}s
+ * drawn over unrevealed tiles.
+ *
+ * Revealed state is stored as a packed bitset. Revealing or hiding a tile only
+ * grows a dirty rectangle; fog tile orientations are recomputed for that
+ * rectangle on {@link FogOfWar#flush()}.
+ */
+public class FogOfWar {
+  private final int width, height;
+  private final int wordsPerRow;
+
+  /**
+   * Packed bitmap, one bit per tile, set when the tile has been revealed
+   */
+  private final long[] revealed;
+  private final FowTile[][] tiles;
+
+  /**
+   * Inclusive bounds of the region whose fog tiles need updating.
+   * Empty when {@code dirtyMinX > dirtyMaxX}
+   */
+  private int dirtyMinX, dirtyMinY, dirtyMaxX, dirtyMaxY;
+
+  /**
+   * Inclusive bounds of every revealed tile.
+   * Empty when {@code revealedMinX > revealedMaxX}
+   */
+  private int revealedMinX, revealedMinY, revealedMaxX, revealedMaxY;
+
+  public FogOfWar(int width, int height) {
+    this.width = width;
+    this.height = height;
+    this.wordsPerRow = (width + 63) >>> 6;
+    this.revealed = new long[wordsPerRow * height];
+
+    // every tile starts out unrevealed, which is the default FowTile orientation
+    tiles = new FowTile[height][width];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        tiles[y][x] = new FowTile();
+      }
+    }
+
+    clearDirty();
+    clearRevealedBounds();
+  }
+
+  /**
+   * @return whether the tile at {@code x, y} is revealed
+   */
+  public boolean isRevealed(int x, int y) {
+    if (x < 0 || x >= width || y < 0 || y >= height) return false;
+    return (revealed[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+  }
+
+  /**
+   * @return the fog tile drawn over {@code x, y} while it is unrevealed
+   */
+  public FowTile getTile(int x, int y) {
+    return tiles[y][x];
+  }
+
+  /**
+   * Reveal the tile at {@code x, y}
+   */
+  public void reveal(int x, int y) {
+    if (x < 0 || x >= width || y < 0 || y >= height || isRevealed(x, y)) return;
+
+    revealed[y * wordsPerRow + (x >>> 6)] |= (1L << x);
+
+    revealedMinX = Math.min(revealedMinX, x);
+    revealedMinY = Math.min(revealedMinY, y);
+    revealedMaxX = Math.max(revealedMaxX, x);
+    revealedMaxY = Math.max(revealedMaxY, y);
+
+    markDirty(x - 1, y - 1, x + 1, y + 1);
+  }
+
+  /**
+   * Hide every revealed tile
+   *
+   * This only touches the bounding box of currently revealed tiles
+   */
+  public void hideAll() {
+    if (revealedMinX > revealedMaxX) return;
+
+    for (int y = revealedMinY; y <= revealedMaxY; y++) {
+      int row = y * wordsPerRow;
+      for (int w = revealedMinX >>> 6; w <= revealedMaxX >>> 6; w++) {
+        revealed[row + w] = 0;
+      }
+    }
+
+    markDirty(revealedMinX - 1, revealedMinY - 1, revealedMaxX + 1, revealedMaxY + 1);
+    clearRevealedBounds();
+  }
+
+  /**
+   * Recompute the orientation of every unrevealed fog tile in the dirty region
+   */
+  public void flush() {
+    if (dirtyMinX > dirtyMaxX) return;
+
+    for (int y = dirtyMinY; y <= dirtyMaxY; y++) {
+      for (int x = dirtyMinX; x <= dirtyMaxX; x++) {
+        if (!isRevealed(x, y)) {
+          tiles[y][x].setOrientation(FowTile.orientationFor(getAdjacencies(x, y)));
+        }
+      }
+    }
+
+    clearDirty();
+  }
+
+  /**
+   * @return the 8-neighbour adjacency mask of {@code x, y}
+   *
+   * @see FowTile#orientationFor(int)
+   */
+  private int getAdjacencies(int x, int y) {
+    int adjacencies = 0;
+    int bit = 7;
+    for (int yoff = 1; yoff >= -1; yoff--) {
+      for (int xoff = -1; xoff <= 1; xoff++) {
+        if (xoff == 0 && yoff == 0) continue;
+
+        // neighbours off the grid count as unrevealed
+        if (!isRevealed(x + xoff, y + yoff)) {
+          adjacencies |= 1 << bit;
+        }
+        bit--;
+      }
+    }
+    return adjacencies;
+  }
+
+  private void markDirty(int minX, int minY, int maxX, int maxY) {
+    dirtyMinX = Math.max(0, Math.min(dirtyMinX, minX));
+    dirtyMinY = Math.max(0, Math.min(dirtyMinY, minY));
+    dirtyMaxX = Math.min(width - 1, Math.max(dirtyMaxX, maxX));
+    dirtyMaxY = Math.min(height - 1, Math.max(dirtyMaxY, maxY));
+  }
+
+  private void clearDirty() {
+    dirtyMinX = dirtyMinY = Integer.MAX_VALUE;
+    dirtyMaxX = dirtyMaxY = Integer.MIN_VALUE;
+  }
+
+  private void clearRevealedBounds() {
+    revealedMinX = revealedMinY = Integer.MAX_VALUE;
+    revealedMaxX = revealedMaxY = Integer.MIN_VALUE;
+  }
+}
@@ -4,12 +4,11 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Optional;
-import java.util.TreeSet;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonValue;
 
@@ -65,12 +64,6 @@ public class Grid implements Json.Serializable {
     }
   }
 
-  public TreeSet<Drawable> getDrawables() {
-    return placedItems.values().stream()
-        .map(i -> (Drawable) i)
-        .collect(Collectors.toCollection(() -> new TreeSet<>(new DrawableComparator())));
-  }
-
 
 
   /**
@@ -85,12 +78,47 @@ public class Grid implements Json.Serializable {
   public static HashSet<Function<Grid, Void>> onMapCompletion = new HashSet<>();
 
 
+  /**
+   * Listener notified whenever an item is placed on or removed from a {@link Grid}
+   */
+  public interface GridListener {
+    /**
+     * Called after {@code item} has been placed on the grid
+     */
+    void itemPlaced(Item item);
+
+    /**
+     * Called after {@code item} has been removed from the grid
+     */
+    void itemRemoved(Item item);
+  }
+
+  private final Array<GridListener> listeners = new Array<>();
+
+  public void addListener(GridListener listener) {
+    if (!listeners.contains(listener, true)) listeners.add(listener);
+  }
+
+  public void removeListener(GridListener listener) {
+    listeners.removeValue(listener, true);
+  }
+
   /**
    * Inner array holding all tiles
    */
   Tile[][] inner;
   int width, height;
 
+  /**
+   * Broad-phase index of all placed items
+   */
+  SpatialIndex spatialIndex;
+
+  /**
+   * Draw order of all placed items
+   */
+  RenderQueue renderQueue = new RenderQueue(this);
+
   static Grid instance;
 
   /**
@@ -116,7 +144,7 @@ public class Grid implements Json.Serializable {
     /**
      * Maximum number of items allowed on any given Tile
      */
-    private final static int MAX_STACK = 5;
+    final static int MAX_STACK = 5;
     /**
      * Position of this Tile on the Grid
      */
@@ -290,6 +318,7 @@ public class Grid implements Json.Serializable {
     this.width = w;
     this.height = h;
     this.inner = newEmptyInner(width, height);
+    this.spatialIndex = new SpatialIndex(width, height);
     Grid.instance = this;
   }
 
@@ -311,6 +340,20 @@ public class Grid implements Json.Serializable {
     return this.height;
   }
 
+  /**
+   * @return the broad-phase index of all placed items
+   */
+  public SpatialIndex getSpatialIndex() {
+    return spatialIndex;
+  }
+
+  /**
+   * @return the draw order of all placed items
+   */
+  public RenderQueue getRenderQueue() {
+    return renderQueue;
+  }
+
   /**
    * @return whether or not a placed item on the grid fufills {@code predicate}
    */
@@ -393,6 +436,12 @@ public class Grid implements Json.Serializable {
         inner[bY + y][bX + x].addItem(item);
       }
     }
+    spatialIndex.insert(item);
+    renderQueue.insert(item);
+
+    for (int i = 0; i < listeners.size; i++) {
+      listeners.get(i).itemPlaced(item);
+    }
     return true;
   }
 
@@ -431,14 +480,12 @@ public class Grid implements Json.Serializable {
     }
 
     Tile t = inner[y][x];
-    Item[] items = t.getContainedItems();
-
-    for (int i = 0; i < items.length; i++) {
-      if (items[i] == null)
+    for (int i = 0; i < t.stacksize; i++) {
+      if (t.items[i] == null)
         return -1;
 
-      if (items[i].getID() == item.getID()) {
-        return items.length - i - 1;
+      if (t.items[i].getID() == item.getID()) {
+        return t.stacksize - i - 1;
       }
     }
     return -1;
@@ -452,7 +499,7 @@ public class Grid implements Json.Serializable {
    *           may need to occur on item removal
    */
   public void removeItem(Item item) {
-    placedItems.remove(item.getID());
+    boolean wasPlaced = placedItems.remove(item.getID()) != null;
 
     if (!item.isContained()){
       items.remove(item.getID());
@@ -465,6 +512,14 @@ public class Grid implements Json.Serializable {
         inner[bY + y][bX + x].remove(item);
       }
     }
+    spatialIndex.remove(item);
+    renderQueue.remove(item);
+
+    if (wasPlaced) {
+      for (int i = 0; i < listeners.size; i++) {
+        listeners.get(i).itemRemoved(item);
+      }
+    }
   }
 
   @Override
@@ -492,9 +547,7 @@ public class Grid implements Json.Serializable {
 
   @Override
   public void read(Json json, JsonValue jsonData) {
-    instance = this;
-    width = jsonData.getInt("width");
-    height = jsonData.getInt("height");
+    startLoading(jsonData.getInt("width"), jsonData.getInt("height"));
 
     JsonValue itemJson = jsonData.get("items");
     itemJson.forEach((itemData) -> {
@@ -503,8 +556,6 @@ public class Grid implements Json.Serializable {
       items.put(itemData.getInt("id"), i);
     });
 
-    this.inner = newEmptyInner(width, height);
-
     JsonValue tiles = jsonData.get("tiles");
     tiles.forEach((tileData) -> {
       Tile tile = new Tile();
@@ -512,7 +563,83 @@ public class Grid implements Json.Serializable {
       inner[tile.y][tile.x] = tile;
     });
 
+    finishLoading();
+  }
+
+  /**
+   * Begin initializing this grid from a saved map
+   *
+   * Followed by any number of calls to {@link Grid#loadItem} and
+   * {@link Grid#loadTile}, then {@link Grid#finishLoading}
+   */
+  public void startLoading(int width, int height) {
+    instance = this;
+    this.width = width;
+    this.height = height;
+    this.inner = newEmptyInner(width, height);
+  }
+
+  /**
+   * Add a loaded item to this grid, without placing it
+   */
+  public void loadItem(Item item) {
+    items.put(item.getID(), item);
+  }
+
+  /**
+   * Restore the stack of a loaded tile
+   *
+   * @param ids the ids of the items on the tile, bottom to top, all of which
+   *            must have been loaded already
+   */
+  public void loadTile(int x, int y, boolean occupied, int[] ids, int count) {
+    Tile tile = inner[y][x];
+    for (int i = 0; i < count; i++) {
+      Item item = items.get(ids[i]);
+      if (item == null) {
+        throw new IllegalStateException("Item ID: " + ids[i] + " could not be found in the item map");
+      }
+      placedItems.put(item.getID(), item);
+      tile.items[i] = item;
+    }
+    tile.stacksize = count;
+    tile.occupied = occupied;
+  }
+
+  /**
+   * Build the indices of a loaded grid and run any deferred map completion callbacks
+   */
+  public void finishLoading() {
+    spatialIndex = new SpatialIndex(width, height);
+    placedItems.values().forEach((i) -> spatialIndex.insert(i));
+    renderQueue.clear();
+    placedItems.values().forEach((i) -> renderQueue.insert(i));
+
+    applyCallbacks();
+  }
+
+  /**
+   * Run the deferred map completion callbacks of items read into this grid,
+   * for items read after it finished loading
+   */
+  public void applyCallbacks() {
     onMapCompletion.forEach((f) -> f.apply(this));
     onMapCompletion.clear();
   }
+
+  /**
+   * Run {@code read}, then immediately run the map completion callbacks it
+   * registered against this grid, e.g. for properties copied through json.
+   * Callbacks registered before are left pending.
+   */
+  public void readNow(Runnable read) {
+    HashSet<Function<Grid, Void>> pending = new HashSet<>(onMapCompletion);
+    onMapCompletion.clear();
+    try {
+      read.run();
+      applyCallbacks();
+    } finally {
+      onMapCompletion.addAll(pending);
+    }
+  }
 }
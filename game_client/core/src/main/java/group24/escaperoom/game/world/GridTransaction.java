@@ -0,0 +1,245 @@
+package group24.escaperoom.game.world;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Null;
+
+import group24.escaperoom.editor.tools.TiledBrush;
+import group24.escaperoom.engine.types.IntVector2;
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.entities.properties.PropertyType;
+import group24.escaperoom.game.world.Grid.Tile;
+import group24.escaperoom.screens.MapScreen;
+
+/**
+ * Many placements, moves and removals applied to the {@link Grid} of a map at once.
+ *
+ * Changes are staged, then validated against a shadow of the occupancy of the
+ * tiles they touch, without changing any tile. Committing applies every change
+ * (lifting all items which leave their tiles before placing any, so items may
+ * swap or overlap their old positions) and then refreshes the textures of
+ * tileables around the changed tiles once, rather than after every item.
+ */
+public class GridTransaction {
+
+  private static class Change {
+    final Item item;
+    /**
+     * Position of the item before the transaction, null if it was not placed
+     */
+    final @Null IntVector2 from;
+    /**
+     * Position of the item after the transaction, null if it is removed
+     */
+    @Null IntVector2 to;
+
+    Change(Item item, @Null IntVector2 from, @Null IntVector2 to) {
+      this.item = item;
+      this.from = from;
+      this.to = to;
+    }
+
+    boolean isNoop() {
+      return from == null ? to == null : from.equals(to);
+    }
+  }
+
+  private final MapScreen screen;
+  private final Grid grid;
+  private final Array<Change> changes = new Array<>();
+  private final IdentityHashMap<Item, Change> changeOf = new IdentityHashMap<>();
+
+  public GridTransaction(MapScreen screen) {
+    this.screen = screen;
+    this.grid = screen.getGrid();
+  }
+
+  private Change stage(Item item, @Null IntVector2 to) {
+    Change c = changeOf.get(item);
+    if (c == null) {
+      IntVector2 from = grid.placedItems.containsKey(item.getID()) ? item.getPosition().cpy() : null;
+      c = new Change(item, from, to);
+      changeOf.put(item, c);
+      changes.add(c);
+    } else {
+      c.to = to;
+    }
+    return c;
+  }
+
+  /**
+   * Stage placing {@code item} at ({@code x}, {@code y}), moving it there if it is already placed
+   */
+  public GridTransaction place(Item item, int x, int y) {
+    stage(item, new IntVector2(x, y));
+    return this;
+  }
+
+  /**
+   * @see GridTransaction#place
+   */
+  public GridTransaction move(Item item, int x, int y) {
+    return place(item, x, y);
+  }
+
+  /**
+   * Stage removing {@code item} from the grid
+   */
+  public GridTransaction remove(Item item) {
+    stage(item, null);
+    return this;
+  }
+
+  /**
+   * @return whether committing would change nothing
+   */
+  public boolean isEmpty() {
+    for (Change c : changes) {
+      if (!c.isNoop()) return false;
+    }
+    return true;
+  }
+
+  /**
+   * @return the transaction which undoes this one, once it is committed
+   */
+  public GridTransaction inverse() {
+    GridTransaction inverse = new GridTransaction(screen);
+    for (int i = changes.size - 1; i >= 0; i--) {
+      Change c = changes.get(i);
+      if (c.isNoop()) continue;
+      Change undo = new Change(c.item, c.to == null ? null : c.to.cpy(), c.from == null ? null : c.from.cpy());
+      inverse.changeOf.put(c.item, undo);
+      inverse.changes.add(undo);
+    }
+    return inverse;
+  }
+
+  private static long key(int x, int y) {
+    return ((long) x << 32) | (y & 0xffffffffL);
+  }
+
+  /**
+   * Validate every staged change against the tiles as they will be once the
+   * items leaving them are lifted, without changing any tile
+   *
+   * @return the items which could not be placed where they are staged
+   */
+  public Array<Item> findConflicts() {
+    // tile -> {items leaving it, items arriving on it}
+    HashMap<Long, int[]> shadow = new HashMap<>();
+    for (Change c : changes) {
+      if (c.isNoop() || c.from == null) continue;
+      for (int dy = 0; dy < c.item.getHeight(); dy++) {
+        for (int dx = 0; dx < c.item.getWidth(); dx++) {
+          shadow.computeIfAbsent(key(c.from.x + dx, c.from.y + dy), (k) -> new int[2])[0]++;
+        }
+      }
+    }
+
+    Array<Item> conflicts = new Array<>();
+    for (Change c : changes) {
+      if (c.isNoop() || c.to == null) continue;
+      for (int dy = 0; dy < c.item.getHeight(); dy++) {
+        for (int dx = 0; dx < c.item.getWidth(); dx++) {
+          shadow.computeIfAbsent(key(c.to.x + dx, c.to.y + dy), (k) -> new int[2])[1]++;
+        }
+      }
+    }
+
+    for (Change c : changes) {
+      if (c.isNoop() || c.to == null) continue;
+      if (!fits(c, shadow)) conflicts.add(c.item);
+    }
+    return conflicts;
+  }
+
+  private boolean fits(Change c, HashMap<Long, int[]> shadow) {
+    for (int dy = 0; dy < c.item.getHeight(); dy++) {
+      for (int dx = 0; dx < c.item.getWidth(); dx++) {
+        int x = c.to.x + dx;
+        int y = c.to.y + dy;
+        if (x < 0 || x >= grid.width || y < 0 || y >= grid.height) return false;
+
+        Tile tile = grid.inner[y][x];
+        int[] s = shadow.get(key(x, y));
+        int leaving = s[0], arriving = s[1];
+
+        // removing any item from a tile frees it, see Tile#remove
+        boolean occupied = leaving == 0 && tile.occupied;
+        if (occupied || tile.stacksize - leaving + arriving > Tile.MAX_STACK) return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return whether every staged change can be committed
+   */
+  public boolean canCommit() {
+    return findConflicts().isEmpty();
+  }
+
+  /**
+   * Apply every staged change, if they are all valid
+   *
+   * The transaction can be committed again, e.g. to redo it after its
+   * {@link GridTransaction#inverse} was committed.
+   *
+   * @return whether the changes were applied, nothing is changed otherwise
+   */
+  public boolean commit() {
+    if (!canCommit()) return false;
+
+    HashSet<Long> touched = new HashSet<>();
+
+    // lift everything first, so that items may take the place of others
+    for (Change c : changes) {
+      if (c.isNoop() || c.from == null) continue;
+      touch(touched, c.item, c.from);
+      c.item.removeUnrefreshed(c.to != null);
+    }
+
+    for (Change c : changes) {
+      if (c.isNoop() || c.to == null) continue;
+      c.item.setPosition(c.to.x, c.to.y);
+      screen.placeItem(c.item);
+      touch(touched, c.item, c.to);
+    }
+
+    refreshTileables(touched);
+    return true;
+  }
+
+  /**
+   * Mark the tiles of {@code item} at {@code at}, and those around them
+   */
+  private void touch(HashSet<Long> touched, Item item, IntVector2 at) {
+    for (int y = at.y - 1; y <= at.y + item.getHeight(); y++) {
+      for (int x = at.x - 1; x <= at.x + item.getWidth(); x++) {
+        touched.add(key(x, y));
+      }
+    }
+  }
+
+  /**
+   * Update each tileable on the touched tiles once, which covers both
+   * the adjacency of tiled brushes and the connections of connectables
+   */
+  private void refreshTileables(HashSet<Long> touched) {
+    IdentityHashMap<Item, Boolean> refreshed = new IdentityHashMap<>();
+    for (long k : touched) {
+      int x = (int) (k >> 32);
+      int y = (int) k;
+      grid.getAt(x, y).ifPresent((tile) -> {
+        for (Item i : tile.getContainedItems()) {
+          if (!i.hasProperty(PropertyType.TiledBrushable) || refreshed.put(i, true) != null) continue;
+          TiledBrush.updateTiles(i.getPosition().cpy(), screen, i, false);
+        }
+      });
+    }
+  }
+}
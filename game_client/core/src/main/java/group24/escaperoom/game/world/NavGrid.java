@@ -0,0 +1,517 @@
+package group24.escaperoom.game.world;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntSet;
+import com.badlogic.gdx.utils.Null;
+
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.entities.properties.PropertyType;
+
+/**
+ * Tile based pathfinding over a {@link Grid}.
+ *
+ * Which tiles block movement is kept as a count of blocking items per tile,
+ * updated as items are placed on or removed from the grid, and for barriers
+ * whose blocking changes in place (e.g. a lock opening) when
+ * {@link NavGrid#refreshBarriers} is called.
+ *
+ * Positions are the lower left tile of the walker's footprint, and a position
+ * is walkable when its whole footprint is free. Walkable positions are labelled
+ * with the connected region they belong to, so unreachable queries are answered
+ * without searching. Both are updated on the first query after walkability
+ * actually changed, only around the tiles which changed: the positions covering
+ * them are rechecked, and only the regions touching those are relabelled.
+ *
+ * Paths are found with A* over 8 neighbours, never cutting corners, and the
+ * most recent ones are kept in a small LRU cache so they can be asked for every
+ * frame. A change only drops the cached paths crossing it, and when positions
+ * become walkable, those within the regions around them (which may now have
+ * shorter paths).
+ */
+public class NavGrid implements Grid.GridListener {
+
+  /**
+   * A path between two positions, both included
+   */
+  public static class Path {
+    private final int[] positions;
+    private final int width;
+
+    private Path(int[] positions, int width) {
+      this.positions = positions;
+      this.width = width;
+    }
+
+    /**
+     * @return the number of positions along this path
+     */
+    public int size() {
+      return positions.length;
+    }
+
+    public int getX(int i) {
+      return positions[i] % width;
+    }
+
+    public int getY(int i) {
+      return positions[i] / width;
+    }
+  }
+
+  private static class CachedPath {
+    final int version;
+    final @Null Path path;
+
+    CachedPath(int version, @Null Path path) {
+      this.version = version;
+      this.path = path;
+    }
+  }
+
+  private static final int CACHE_SIZE = 64;
+  private static final int STRAIGHT_COST = 10, DIAGONAL_COST = 14;
+  private static final int[] DX = { 1, -1, 0, 0, 1, 1, -1, -1 };
+  private static final int[] DY = { 0, 0, 1, -1, 1, -1, 1, -1 };
+
+  private final int width, height;
+
+  /**
+   * Number of placed items blocking each tile, indexed by {@code y * width + x}
+   */
+  private final int[] blockers;
+
+  /**
+   * The tiles each placed item was counted as blocking, as {@code minX, minY, maxX, maxY} (exclusive)
+   */
+  private final IdentityMap<Item, int[]> counted = new IdentityMap<>();
+
+  /**
+   * Placed items which may start or stop blocking without being moved
+   */
+  private final Array<Item> barriers = new Array<>();
+
+  private int footprintWidth = 1, footprintHeight = 1;
+
+  /**
+   * Incremented whenever everything is rebuilt, invalidating every cached path
+   */
+  private int version = 0;
+  private boolean rebuildAll = true;
+
+  /**
+   * Bounds of the tiles whose blocking changed since regions were built, inclusive
+   */
+  private boolean dirty = false;
+  private int dirtyMinX, dirtyMinY, dirtyMaxX, dirtyMaxY;
+  private final IntSet affectedRegions = new IntSet();
+
+  private final boolean[] walkable;
+
+  /**
+   * Smallest position of the region of each walkable position, -1 elsewhere
+   */
+  private final int[] regions;
+
+  // A* scratch, reused across searches; entries are only valid for the current stamp
+  private final int[] stamps, cost, cameFrom;
+  private final boolean[] closed;
+  private int stamp = 0;
+  private int[] heapNodes = new int[256], heapScores = new int[256];
+  private int heapSize = 0;
+  private final IntArray stack = new IntArray();
+
+  private final LinkedHashMap<Long, CachedPath> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Long, CachedPath> eldest) {
+      return size() > CACHE_SIZE;
+    }
+  };
+
+  public NavGrid(Grid grid) {
+    this.width = grid.getWidth();
+    this.height = grid.getHeight();
+    int n = width * height;
+    this.blockers = new int[n];
+    this.walkable = new boolean[n];
+    this.regions = new int[n];
+    this.stamps = new int[n];
+    this.cost = new int[n];
+    this.cameFrom = new int[n];
+    this.closed = new boolean[n];
+
+    for (Item item : grid.placedItems.values()) {
+      itemPlaced(item);
+    }
+  }
+
+  /**
+   * Set the size, in tiles, of what walks the paths (e.g. the player's hitbox rounded up)
+   */
+  public void setFootprint(int width, int height) {
+    width = Math.max(1, width);
+    height = Math.max(1, height);
+    if (width == footprintWidth && height == footprintHeight) return;
+
+    footprintWidth = width;
+    footprintHeight = height;
+    rebuildAll = true;
+  }
+
+  /**
+   * Recount the tiles blocked by barriers, which should be called when the
+   * state of some item changes in a way that may change whether it blocks
+   * the player (e.g. a barrier is unlocked)
+   */
+  public void refreshBarriers() {
+    for (int i = 0; i < barriers.size; i++) {
+      Item item = barriers.get(i);
+      uncount(item);
+      count(item);
+    }
+  }
+
+  @Override
+  public void itemPlaced(Item item) {
+    if (item.hasProperty(PropertyType.Barrier)) barriers.add(item);
+    count(item);
+  }
+
+  @Override
+  public void itemRemoved(Item item) {
+    barriers.removeValue(item, true);
+    uncount(item);
+  }
+
+  private void count(Item item) {
+    Rectangle r = item.getBlockingRect();
+    if (r == null) return;
+
+    int[] bounds = {
+      Math.max(0, (int) Math.floor(r.x)),
+      Math.max(0, (int) Math.floor(r.y)),
+      Math.min(width, (int) Math.ceil(r.x + r.width)),
+      Math.min(height, (int) Math.ceil(r.y + r.height)),
+    };
+    counted.put(item, bounds);
+    add(bounds, 1);
+  }
+
+  private void uncount(Item item) {
+    int[] bounds = counted.remove(item);
+    if (bounds != null) add(bounds, -1);
+  }
+
+  private void add(int[] bounds, int delta) {
+    for (int y = bounds[1]; y < bounds[3]; y++) {
+      for (int x = bounds[0]; x < bounds[2]; x++) {
+        int t = y * width + x;
+        boolean wasFree = blockers[t] == 0;
+        blockers[t] += delta;
+        if (wasFree != (blockers[t] == 0)) markDirty(x, y);
+      }
+    }
+  }
+
+  private void markDirty(int x, int y) {
+    if (!dirty) {
+      dirty = true;
+      dirtyMinX = dirtyMaxX = x;
+      dirtyMinY = dirtyMaxY = y;
+      return;
+    }
+    dirtyMinX = Math.min(dirtyMinX, x);
+    dirtyMinY = Math.min(dirtyMinY, y);
+    dirtyMaxX = Math.max(dirtyMaxX, x);
+    dirtyMaxY = Math.max(dirtyMaxY, y);
+  }
+
+  //----------------------------------------------------------------------------
+  // REGIONS
+  //----------------------------------------------------------------------------
+
+  /**
+   * @return whether a walker can stand with the lower left of its footprint at {@code x, y}
+   */
+  public boolean isWalkable(int x, int y) {
+    ensureBuilt();
+    return inBounds(x, y) && walkable[y * width + x];
+  }
+
+  /**
+   * @return a label shared by every position reachable from {@code x, y}, or
+   *         -1 if nothing can stand there
+   */
+  public int regionOf(int x, int y) {
+    ensureBuilt();
+    return inBounds(x, y) ? regions[y * width + x] : -1;
+  }
+
+  /**
+   * @return whether there is any path between the two positions
+   */
+  public boolean isReachable(int fromX, int fromY, int toX, int toY) {
+    int region = regionOf(fromX, fromY);
+    return region >= 0 && region == regionOf(toX, toY);
+  }
+
+  private boolean inBounds(int x, int y) {
+    return x >= 0 && y >= 0 && x < width && y < height;
+  }
+
+  private void ensureBuilt() {
+    if (rebuildAll) {
+      rebuildAll = false;
+      dirty = false;
+      version++;
+
+      for (int y = 0; y < height; y++) {
+        for (int x = 0; x < width; x++) {
+          walkable[y * width + x] = footprintFree(x, y);
+        }
+      }
+      Arrays.fill(regions, -1);
+      labelUnlabelled();
+      return;
+    }
+
+    if (!dirty) return;
+    dirty = false;
+    rebuildAround(dirtyMinX, dirtyMinY, dirtyMaxX, dirtyMaxY);
+  }
+
+  /**
+   * Update walkability and regions after the tiles within the given bounds
+   * (inclusive) changed
+   */
+  private void rebuildAround(int minX, int minY, int maxX, int maxY) {
+    // the positions whose footprint covers a changed tile
+    int x0 = Math.max(0, minX - footprintWidth + 1), y0 = Math.max(0, minY - footprintHeight + 1);
+    int x1 = maxX, y1 = maxY;
+
+    boolean changed = false, freed = false;
+    for (int y = y0; y <= y1; y++) {
+      for (int x = x0; x <= x1; x++) {
+        int p = y * width + x;
+        boolean free = footprintFree(x, y);
+        if (free == walkable[p]) continue;
+
+        walkable[p] = free;
+        changed = true;
+        freed |= free;
+      }
+    }
+    if (!changed) return;
+
+    // steps to or past a changed position (diagonals check their corners) start within one of it
+    int ex0 = Math.max(0, x0 - 1), ey0 = Math.max(0, y0 - 1);
+    int ex1 = Math.min(width - 1, x1 + 1), ey1 = Math.min(height - 1, y1 + 1);
+
+    affectedRegions.clear();
+    for (int y = ey0; y <= ey1; y++) {
+      for (int x = ex0; x <= ex1; x++) {
+        int region = regions[y * width + x];
+        if (region >= 0) affectedRegions.add(region);
+      }
+    }
+
+    Iterator<CachedPath> cached = cache.values().iterator();
+    while (cached.hasNext()) {
+      Path path = cached.next().path;
+      if (path == null
+          || crosses(path, ex0, ey0, ex1, ey1)
+          || (freed && affectedRegions.contains(regions[path.positions[0]]))) {
+        cached.remove();
+      }
+    }
+
+    // no other region touches these, relabelling them alone keeps labels the smallest position
+    for (int p = 0; p < regions.length; p++) {
+      if (regions[p] >= 0 && affectedRegions.contains(regions[p])) regions[p] = -1;
+    }
+    labelUnlabelled();
+  }
+
+  /**
+   * @return whether {@code path} passes through the given bounds (inclusive)
+   */
+  private boolean crosses(Path path, int minX, int minY, int maxX, int maxY) {
+    for (int i = 0; i < path.size(); i++) {
+      int x = path.getX(i), y = path.getY(i);
+      if (x >= minX && x <= maxX && y >= minY && y <= maxY) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Flood fill every walkable position without a region, labelling each region
+   * with its smallest position
+   */
+  private void labelUnlabelled() {
+    for (int p = 0; p < regions.length; p++) {
+      if (!walkable[p] || regions[p] >= 0) continue;
+
+      regions[p] = p;
+      stack.add(p);
+      while (stack.notEmpty()) {
+        int q = stack.pop();
+        int x = q % width, y = q / width;
+        for (int d = 0; d < DX.length; d++) {
+          int next = neighbour(x, y, d);
+          if (next >= 0 && regions[next] < 0) {
+            regions[next] = p;
+            stack.add(next);
+          }
+        }
+      }
+    }
+  }
+
+  private boolean footprintFree(int x, int y) {
+    if (x + footprintWidth > width || y + footprintHeight > height) return false;
+
+    for (int fy = y; fy < y + footprintHeight; fy++) {
+      for (int fx = x; fx < x + footprintWidth; fx++) {
+        if (blockers[fy * width + fx] != 0) return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the walkable position in direction {@code d} of {@code x, y}, or -1
+   */
+  private int neighbour(int x, int y, int d) {
+    int nx = x + DX[d], ny = y + DY[d];
+    if (!inBounds(nx, ny) || !walkable[ny * width + nx]) return -1;
+
+    // diagonal steps may not cut corners
+    if (d >= 4 && (!walkable[y * width + nx] || !walkable[ny * width + x])) return -1;
+    return ny * width + nx;
+  }
+
+  //----------------------------------------------------------------------------
+  // PATHS
+  //----------------------------------------------------------------------------
+
+  /**
+   * Find a shortest path between two positions
+   *
+   * The returned path is shared with later callers and must not be changed.
+   *
+   * @return the path, or null if there is none
+   */
+  public @Null Path findPath(int fromX, int fromY, int toX, int toY) {
+    if (!isReachable(fromX, fromY, toX, toY)) return null;
+
+    int from = fromY * width + fromX, to = toY * width + toX;
+    long key = ((long) from << 32) | (to & 0xffffffffL);
+    CachedPath cached = cache.get(key);
+    if (cached != null && cached.version == version) return cached.path;
+
+    Path path = search(from, to);
+    cache.put(key, new CachedPath(version, path));
+    return path;
+  }
+
+  private @Null Path search(int from, int to) {
+    if (++stamp == 0) {
+      Arrays.fill(stamps, 0);
+      stamp = 1;
+    }
+    heapSize = 0;
+
+    int toX = to % width, toY = to / width;
+    open(from, 0, -1, toX, toY);
+
+    while (heapSize > 0) {
+      int p = pop();
+      if (closed[p]) continue;
+      closed[p] = true;
+      if (p == to) return buildPath(to);
+
+      int x = p % width, y = p / width;
+      for (int d = 0; d < DX.length; d++) {
+        int next = neighbour(x, y, d);
+        if (next < 0) continue;
+
+        int g = cost[p] + (d < 4 ? STRAIGHT_COST : DIAGONAL_COST);
+        if (stamps[next] != stamp || (!closed[next] && g < cost[next])) {
+          open(next, g, p, toX, toY);
+        }
+      }
+    }
+    return null;
+  }
+
+  private void open(int p, int g, int parent, int toX, int toY) {
+    if (stamps[p] != stamp) {
+      stamps[p] = stamp;
+      closed[p] = false;
+    }
+    cost[p] = g;
+    cameFrom[p] = parent;
+
+    int dx = Math.abs(p % width - toX), dy = Math.abs(p / width - toY);
+    int h = STRAIGHT_COST * (dx + dy) + (DIAGONAL_COST - 2 * STRAIGHT_COST) * Math.min(dx, dy);
+    push(p, g + h);
+  }
+
+  private Path buildPath(int to) {
+    int length = 0;
+    for (int p = to; p >= 0; p = cameFrom[p]) length++;
+
+    int[] positions = new int[length];
+    for (int p = to, i = length - 1; p >= 0; p = cameFrom[p], i--) {
+      positions[i] = p;
+    }
+    return new Path(positions, width);
+  }
+
+  // binary min heap of (score, node), stale entries are skipped once closed
+
+  private void push(int node, int score) {
+    if (heapSize == heapNodes.length) {
+      heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+      heapScores = Arrays.copyOf(heapScores, heapSize * 2);
+    }
+
+    int i = heapSize++;
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (heapScores[parent] <= score) break;
+      heapNodes[i] = heapNodes[parent];
+      heapScores[i] = heapScores[parent];
+      i = parent;
+    }
+    heapNodes[i] = node;
+    heapScores[i] = score;
+  }
+
+  private int pop() {
+    int top = heapNodes[0];
+    int node = heapNodes[--heapSize];
+    int score = heapScores[heapSize];
+
+    int i = 0;
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= heapSize) break;
+      if (child + 1 < heapSize && heapScores[child + 1] < heapScores[child]) child++;
+      if (heapScores[child] >= score) break;
+      heapNodes[i] = heapNodes[child];
+      heapScores[i] = heapScores[child];
+      i = child;
+    }
+    heapNodes[i] = node;
+    heapScores[i] = score;
+    return top;
+  }
+}
@@ -0,0 +1,240 @@
+package group24.escaperoom.game.world;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.Null;
+
+import group24.escaperoom.engine.render.Drawable;
+import group24.escaperoom.game.entities.Item;
+
+/**
+ * Persistent, sorted draw order of the placed items of a {@link Grid}
+ *
+ * Each item's sort key (render priority, y and tile depth) is computed when it
+ * is inserted and only recomputed when something on its base tile changes, so
+ * drawing is a single pass over an already sorted list.
+ *
+ * The order matches {@link Grid.DrawableComparator}
+ */
+public class RenderQueue {
+
+  /**
+   * A queued item along with its cached sort key
+   */
+  private static class Entry {
+    final Item item;
+    int priority, y, depth, hash;
+
+    Entry(Item item) {
+      this.item = item;
+      this.hash = item.hashCode();
+    }
+  }
+
+  private final Grid grid;
+  private final Array<Entry> entries = new Array<>(true, 64);
+  private final IntMap<Entry> byId = new IntMap<>();
+
+  public RenderQueue(Grid grid) {
+    this.grid = grid;
+  }
+
+  /**
+   * Add {@code item} in its sorted position
+   */
+  public void insert(Item item) {
+    if (byId.containsKey(item.getID())) remove(item);
+
+    Entry e = new Entry(item);
+    computeKey(e);
+    byId.put(item.getID(), e);
+    entries.insert(insertionPoint(e), e);
+
+    refreshStacks(item);
+  }
+
+  /**
+   * Remove {@code item} from the queue
+   */
+  public void remove(Item item) {
+    Entry e = byId.remove(item.getID());
+    if (e == null) return;
+
+    entries.removeValue(e, true);
+    refreshStacks(item);
+  }
+
+  /**
+   * Re-sort {@code item} if its sort key changed (e.g. its render priority
+   * was changed while placed)
+   */
+  public void update(Item item) {
+    Entry e = byId.get(item.getID());
+    if (e == null) return;
+
+    int priority = e.priority, y = e.y, depth = e.depth;
+    computeKey(e);
+    if (priority == e.priority && y == e.y && depth == e.depth) return;
+
+    entries.removeValue(e, true);
+    entries.insert(insertionPoint(e), e);
+  }
+
+  public void clear() {
+    entries.clear();
+    byId.clear();
+  }
+
+  /**
+   * Draw queued items in order
+   *
+   * @param extra       a drawable which is not part of the grid (e.g. the player),
+   *                    drawn in its sorted position among the items
+   * @param visible     if non-null, items entirely outside of this region are skipped
+   * @param minPriority items with a lower render priority are skipped
+   */
+  public void draw(Batch batch, @Null Drawable extra, @Null Rectangle visible, int minPriority) {
+    int priority = 0, depth = 0, hash = 0;
+    float y = 0;
+    boolean extraDrawn = extra == null;
+    if (extra != null) {
+      priority = extra.renderPriority();
+      y = extra.sortY();
+      depth = extra.getTileDepth();
+      hash = extra.hashCode();
+    }
+
+    for (int i = firstIndexAtOrAbove(minPriority); i < entries.size; i++) {
+      Entry e = entries.get(i);
+      if (!extraDrawn && compare(priority, y, depth, hash, e.priority, e.y, e.depth, e.hash) < 0) {
+        extra.draw(batch);
+        extraDrawn = true;
+      }
+      if (visible == null || overlaps(e.item, visible)) {
+        e.item.draw(batch);
+      }
+    }
+
+    if (!extraDrawn) {
+      extra.draw(batch);
+    }
+  }
+
+  /**
+   * Draw, in order, every queued item overlapping {@code bounds} with a render
+   * priority lower than {@code maxPriority}
+   */
+  public void drawBelow(Batch batch, Rectangle bounds, int maxPriority) {
+    for (int i = 0; i < entries.size; i++) {
+      Entry e = entries.get(i);
+      if (e.priority >= maxPriority) return;
+      if (overlaps(e.item, bounds)) {
+        e.item.draw(batch);
+      }
+    }
+  }
+
+  /**
+   * @return whether {@link #drawBelow} would draw anything
+   */
+  public boolean anyBelow(Rectangle bounds, int maxPriority) {
+    for (int i = 0; i < entries.size; i++) {
+      Entry e = entries.get(i);
+      if (e.priority >= maxPriority) return false;
+      if (overlaps(e.item, bounds)) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Items may be drawn slightly outside of the tiles they occupy
+   * (rotation, mirroring), so they are culled with a margin of one tile
+   */
+  private static boolean overlaps(Item item, Rectangle bounds) {
+    return item.getX() - 1 < bounds.x + bounds.width
+        && item.getX() + item.getWidth() + 1 > bounds.x
+        && item.getY() - 1 < bounds.y + bounds.height
+        && item.getY() + item.getHeight() + 1 > bounds.y;
+  }
+
+  /**
+   * @return the index of the first entry with a render priority of at least {@code priority}
+   */
+  private int firstIndexAtOrAbove(int priority) {
+    int lo = 0, hi = entries.size;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (entries.get(mid).priority < priority) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  /**
+   * Tile depth is relative to the rest of the stack, so any change to a tile
+   * can change the key of every item based on it
+   */
+  private void refreshStacks(Item changed) {
+    int minX = Math.max(0, changed.getX());
+    int minY = Math.max(0, changed.getY());
+    int maxX = Math.min(grid.width, changed.getX() + changed.getWidth());
+    int maxY = Math.min(grid.height, changed.getY() + changed.getHeight());
+
+    for (int y = minY; y < maxY; y++) {
+      for (int x = minX; x < maxX; x++) {
+        Grid.Tile t = grid.inner[y][x];
+        for (int i = 0; i < t.stacksize; i++) {
+          Item item = t.items[i];
+          if (item != changed && item.getX() == x && item.getY() == y) {
+            update(item);
+          }
+        }
+      }
+    }
+  }
+
+  private void computeKey(Entry e) {
+    e.priority = e.item.renderPriority();
+    e.y = e.item.getY();
+    e.depth = grid.getTileDepthOf(e.item);
+  }
+
+  /**
+   * @return the index after every entry ordered before or equal to {@code e}
+   */
+  private int insertionPoint(Entry e) {
+    int lo = 0, hi = entries.size;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      Entry m = entries.get(mid);
+      if (compare(m.priority, m.y, m.depth, m.hash, e.priority, e.y, e.depth, e.hash) <= 0) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  /**
+   * @see Grid.DrawableComparator
+   */
+  private static int compare(int priority1, float y1, int depth1, int hash1,
+                             int priority2, float y2, int depth2, int hash2) {
+    if (priority1 != priority2) {
+      return Integer.compare(priority1, priority2);
+    }
+    if (y1 != y2) {
+      return Float.compare(y2, y1);
+    }
+    if (depth1 != depth2) {
+      return Integer.compare(depth2, depth1);
+    }
+    return Integer.compare(hash1, hash2);
+  }
+}
@@ -0,0 +1,170 @@
+package group24.escaperoom.game.world;
+
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+
+import group24.escaperoom.engine.physics.Collisions;
+import group24.escaperoom.game.entities.Item;
+
+/**
+ * Uniform grid broad-phase index over the placed items of a {@link Grid}
+ *
+ * The grid is split into square cells of {@link SpatialIndex#CELL_SIZE} tiles, each
+ * holding every item whose occupied region overlaps it. Queries only visit the
+ * cells overlapping the query region, so their cost depends on local item density
+ * rather than the total number of placed items.
+ */
+public class SpatialIndex {
+  /**
+   * Width and height of a cell, in tiles
+   */
+  public static final int CELL_SIZE = 4;
+
+  /**
+   * An indexed item along with the cells it was inserted into
+   */
+  private static class Entry {
+    final Item item;
+    final int minCX, minCY, maxCX, maxCY;
+    int stamp;
+
+    Entry(Item item, int minCX, int minCY, int maxCX, int maxCY) {
+      this.item = item;
+      this.minCX = minCX;
+      this.minCY = minCY;
+      this.maxCX = maxCX;
+      this.maxCY = maxCY;
+    }
+  }
+
+  private final int cellsX, cellsY;
+  private final Array<Entry>[] cells;
+  private final IntMap<Entry> entries = new IntMap<>();
+
+  /**
+   * Incremented on every query, used so items spanning multiple cells are
+   * only reported once
+   */
+  private int stamp = 0;
+
+  @SuppressWarnings("unchecked")
+  public SpatialIndex(int width, int height) {
+    cellsX = Math.max(1, (width + CELL_SIZE - 1) / CELL_SIZE);
+    cellsY = Math.max(1, (height + CELL_SIZE - 1) / CELL_SIZE);
+    cells = new Array[cellsX * cellsY];
+    for (int i = 0; i < cells.length; i++) {
+      cells[i] = new Array<>(false, 4);
+    }
+  }
+
+  /**
+   * Add {@code item} at its current position
+   */
+  public void insert(Item item) {
+    if (entries.containsKey(item.getID())) remove(item);
+
+    Entry e = new Entry(
+      item,
+      cellX(item.getX()),
+      cellY(item.getY()),
+      cellX(item.getX() + item.getWidth() - 1),
+      cellY(item.getY() + item.getHeight() - 1)
+    );
+    entries.put(item.getID(), e);
+
+    for (int cy = e.minCY; cy <= e.maxCY; cy++) {
+      for (int cx = e.minCX; cx <= e.maxCX; cx++) {
+        cells[cy * cellsX + cx].add(e);
+      }
+    }
+  }
+
+  /**
+   * Remove {@code item} from the cells it was inserted into
+   */
+  public void remove(Item item) {
+    Entry e = entries.remove(item.getID());
+    if (e == null) return;
+
+    for (int cy = e.minCY; cy <= e.maxCY; cy++) {
+      for (int cx = e.minCX; cx <= e.maxCX; cx++) {
+        cells[cy * cellsX + cx].removeValue(e, true);
+      }
+    }
+  }
+
+  public void clear() {
+    entries.clear();
+    for (Array<Entry> cell : cells) {
+      cell.clear();
+    }
+  }
+
+  /**
+   * Add every item whose occupied region overlaps the given box to {@code out}
+   *
+   * @return {@code out}
+   */
+  public Array<Item> query(float minX, float minY, float maxX, float maxY, Array<Item> out) {
+    int s = ++stamp;
+    int minCX = cellX((int) Math.floor(minX)), maxCX = cellX((int) Math.floor(maxX));
+    int minCY = cellY((int) Math.floor(minY)), maxCY = cellY((int) Math.floor(maxY));
+
+    for (int cy = minCY; cy <= maxCY; cy++) {
+      for (int cx = minCX; cx <= maxCX; cx++) {
+        Array<Entry> cell = cells[cy * cellsX + cx];
+        for (int i = 0; i < cell.size; i++) {
+          Entry e = cell.get(i);
+          if (e.stamp == s) continue;
+          e.stamp = s;
+
+          Item item = e.item;
+          if (item.getX() < maxX && item.getX() + item.getWidth() > minX &&
+              item.getY() < maxY && item.getY() + item.getHeight() > minY) {
+            out.add(item);
+          }
+        }
+      }
+    }
+    return out;
+  }
+
+  /**
+   * Add every item whose occupied region collides with {@code circle} to {@code out}
+   *
+   * @return {@code out}
+   */
+  public Array<Item> query(Circle circle, Array<Item> out) {
+    int s = ++stamp;
+    int minCX = cellX((int) Math.floor(circle.x - circle.radius));
+    int maxCX = cellX((int) Math.floor(circle.x + circle.radius));
+    int minCY = cellY((int) Math.floor(circle.y - circle.radius));
+    int maxCY = cellY((int) Math.floor(circle.y + circle.radius));
+
+    for (int cy = minCY; cy <= maxCY; cy++) {
+      for (int cx = minCX; cx <= maxCX; cx++) {
+        Array<Entry> cell = cells[cy * cellsX + cx];
+        for (int i = 0; i < cell.size; i++) {
+          Entry e = cell.get(i);
+          if (e.stamp == s) continue;
+          e.stamp = s;
+
+          Item item = e.item;
+          if (Collisions.collides(circle, item.getX(), item.getY(), item.getWidth(), item.getHeight())) {
+            out.add(item);
+          }
+        }
+      }
+    }
+    return out;
+  }
+
+  private int cellX(int x) {
+    return Math.max(0, Math.min(cellsX - 1, Math.floorDiv(x, CELL_SIZE)));
+  }
+
+  private int cellY(int y) {
+    return Math.max(0, Math.min(cellsY - 1, Math.floorDiv(y, CELL_SIZE)));
+  }
+}
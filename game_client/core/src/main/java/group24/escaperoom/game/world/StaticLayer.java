@@ -0,0 +1,279 @@
+package group24.escaperoom.game.world;
+
+import java.util.EnumSet;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.entities.properties.PropertyType;
+import group24.escaperoom.game.entities.properties.base.ItemProperty;
+import group24.escaperoom.game.entities.properties.values.ItemPropertyValue;
+
+/**
+ * Pre-rendered chunks of the static items (floors, walls, ...) of a {@link Grid}
+ *
+ * Only items whose appearance cannot change while placed are considered static.
+ * Since items are drawn in render priority order, every item with a render
+ * priority below that of the lowest dynamic item (or the player) is always
+ * drawn underneath everything else, so those items can be drawn ahead of time
+ * into {@link FrameBuffer}s of {@link StaticLayer#CHUNK_TILES} square tiles.
+ *
+ * A chunk is only re-rendered after an item is placed on or removed from it,
+ * or when the whole layer is invalidated.
+ */
+public class StaticLayer implements Grid.GridListener, Disposable {
+  /**
+   * Width and height of a chunk, in tiles
+   */
+  public static final int CHUNK_TILES = 16;
+
+  /**
+   * Resolution of a single tile in the texture atlas
+   */
+  public static final int PIXELS_PER_TILE = 16;
+
+  /**
+   * Properties which do not change the appearance of their item in game
+   */
+  private static final EnumSet<PropertyType> STATIC_PROPERTIES = EnumSet.of(
+    PropertyType.Barrier,
+    PropertyType.Brushable,
+    PropertyType.Collideable,
+    PropertyType.Stylable,
+    PropertyType.TiledBrushable,
+    PropertyType.Unique
+  );
+
+  private final Grid grid;
+  private final int chunksX, chunksY;
+  private final FrameBuffer[] buffers;
+  private final TextureRegion[] regions;
+  private final boolean[] dirty;
+
+  /**
+   * Number of placed dynamic items at each render priority
+   */
+  private final IntIntMap dynamicPriorities = new IntIntMap();
+  private int lowestDynamicPriority = Integer.MAX_VALUE;
+
+  /**
+   * Items with a render priority below this value are in the layer
+   */
+  private int threshold = Integer.MIN_VALUE;
+
+  private final Matrix4 chunkProjection = new Matrix4();
+  private final Matrix4 savedProjection = new Matrix4();
+  private final Rectangle chunkBounds = new Rectangle();
+
+  public StaticLayer(Grid grid) {
+    this.grid = grid;
+    chunksX = Math.max(1, (grid.getWidth() + CHUNK_TILES - 1) / CHUNK_TILES);
+    chunksY = Math.max(1, (grid.getHeight() + CHUNK_TILES - 1) / CHUNK_TILES);
+    buffers = new FrameBuffer[chunksX * chunksY];
+    regions = new TextureRegion[chunksX * chunksY];
+    dirty = new boolean[chunksX * chunksY];
+
+    for (Item item : grid.placedItems.values()) {
+      if (!isStatic(item)) {
+        dynamicPriorities.getAndIncrement(item.renderPriority(), 0, 1);
+      }
+    }
+    lowestDynamicPriority = lowestDynamicPriority();
+    invalidate();
+  }
+
+  /**
+   * @return whether or not {@code item}'s appearance can change while it is placed
+   */
+  public static boolean isStatic(Item item) {
+    for (ItemProperty<? extends ItemPropertyValue> p : item.getProperties()) {
+      if (!STATIC_PROPERTIES.contains(p.getType())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return items with a render priority below this value are drawn by this layer
+   */
+  public int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Mark every chunk as needing to be re-rendered
+   */
+  public void invalidate() {
+    for (int i = 0; i < dirty.length; i++) {
+      dirty[i] = true;
+    }
+  }
+
+  /**
+   * Draw every chunk overlapping {@code visible}, re-rendering any that are stale.
+   *
+   * @param batch    a batch which has begun
+   * @param viewport the viewport the batch draws to, restored after rendering a chunk
+   * @param ceiling  only items with a render priority below this value may be in
+   *                 the layer (e.g. the player's render priority)
+   */
+  public void draw(Batch batch, Viewport viewport, Rectangle visible, int ceiling) {
+    int t = Math.min(lowestDynamicPriority, ceiling);
+    if (t != threshold) {
+      threshold = t;
+      invalidate();
+    }
+
+    int minCX = chunkX(visible.x), maxCX = chunkX(visible.x + visible.width);
+    int minCY = chunkY(visible.y), maxCY = chunkY(visible.y + visible.height);
+
+    boolean rendering = false;
+    for (int cy = minCY; cy <= maxCY; cy++) {
+      for (int cx = minCX; cx <= maxCX; cx++) {
+        int i = cy * chunksX + cx;
+        if (!dirty[i]) continue;
+
+        if (!rendering) {
+          rendering = true;
+          savedProjection.set(batch.getProjectionMatrix());
+          batch.end();
+        }
+        render(batch, viewport, cx, cy);
+      }
+    }
+
+    if (rendering) {
+      batch.setProjectionMatrix(savedProjection);
+      batch.begin();
+    }
+
+    // chunk contents are premultiplied, see render
+    batch.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+    for (int cy = minCY; cy <= maxCY; cy++) {
+      for (int cx = minCX; cx <= maxCX; cx++) {
+        TextureRegion region = regions[cy * chunksX + cx];
+        if (region != null) {
+          batch.draw(region, cx * CHUNK_TILES, cy * CHUNK_TILES, CHUNK_TILES, CHUNK_TILES);
+        }
+      }
+    }
+    batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+  }
+
+  @Override
+  public void itemPlaced(Item item) {
+    itemChanged(item, 1);
+  }
+
+  @Override
+  public void itemRemoved(Item item) {
+    itemChanged(item, -1);
+  }
+
+  @Override
+  public void dispose() {
+    for (int i = 0; i < buffers.length; i++) {
+      if (buffers[i] != null) {
+        buffers[i].dispose();
+        buffers[i] = null;
+        regions[i] = null;
+      }
+    }
+  }
+
+  private void itemChanged(Item item, int countChange) {
+    if (!isStatic(item)) {
+      dynamicPriorities.getAndIncrement(item.renderPriority(), 0, countChange);
+      if (dynamicPriorities.get(item.renderPriority(), 0) <= 0) {
+        dynamicPriorities.remove(item.renderPriority(), 0);
+      }
+      lowestDynamicPriority = lowestDynamicPriority();
+      return;
+    }
+
+    if (item.renderPriority() >= threshold) return;
+
+    // neighbouring tiled items may have changed texture as well
+    int minCX = chunkX(item.getX() - 1), maxCX = chunkX(item.getX() + item.getWidth());
+    int minCY = chunkY(item.getY() - 1), maxCY = chunkY(item.getY() + item.getHeight());
+    for (int cy = minCY; cy <= maxCY; cy++) {
+      for (int cx = minCX; cx <= maxCX; cx++) {
+        dirty[cy * chunksX + cx] = true;
+      }
+    }
+  }
+
+  private int lowestDynamicPriority() {
+    int lowest = Integer.MAX_VALUE;
+    IntIntMap.Keys keys = dynamicPriorities.keys();
+    while (keys.hasNext) {
+      lowest = Math.min(lowest, keys.next());
+    }
+    return lowest;
+  }
+
+  /**
+   * Render the static items of a chunk into its frame buffer.
+   *
+   * Colour is blended normally while alpha is accumulated, which leaves the
+   * buffer premultiplied so it composites correctly over the room.
+   */
+  private void render(Batch batch, Viewport viewport, int cx, int cy) {
+    int i = cy * chunksX + cx;
+    dirty[i] = false;
+    chunkBounds.set(cx * CHUNK_TILES, cy * CHUNK_TILES, CHUNK_TILES, CHUNK_TILES);
+
+    RenderQueue queue = grid.getRenderQueue();
+    if (!queue.anyBelow(chunkBounds, threshold)) {
+      if (buffers[i] != null) {
+        buffers[i].dispose();
+        buffers[i] = null;
+        regions[i] = null;
+      }
+      return;
+    }
+
+    if (buffers[i] == null) {
+      int size = CHUNK_TILES * PIXELS_PER_TILE;
+      buffers[i] = new FrameBuffer(Pixmap.Format.RGBA8888, size, size, false);
+      buffers[i].getColorBufferTexture().setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
+      regions[i] = new TextureRegion(buffers[i].getColorBufferTexture());
+      regions[i].flip(false, true);
+    }
+
+    buffers[i].begin();
+    Gdx.gl.glClearColor(0, 0, 0, 0);
+    Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+    chunkProjection.setToOrtho2D(chunkBounds.x, chunkBounds.y, CHUNK_TILES, CHUNK_TILES);
+    batch.setProjectionMatrix(chunkProjection);
+    batch.setBlendFunctionSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+    batch.begin();
+    queue.drawBelow(batch, chunkBounds, threshold);
+    batch.end();
+    batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+    // rather than the whole back buffer, which is not what the screen draws to
+    buffers[i].end(viewport.getScreenX(), viewport.getScreenY(), viewport.getScreenWidth(), viewport.getScreenHeight());
+  }
+
+  private int chunkX(float x) {
+    return Math.max(0, Math.min(chunksX - 1, (int) Math.floor(x / CHUNK_TILES)));
+  }
+
+  private int chunkY(float y) {
+    return Math.max(0, Math.min(chunksY - 1, (int) Math.floor(y / CHUNK_TILES)));
+  }
+}
@@ -0,0 +1,327 @@
+package group24.escaperoom.game.world;
+
+import java.util.Arrays;
+
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.entities.properties.LockedProperty;
+import group24.escaperoom.game.entities.properties.PropertyType;
+import group24.escaperoom.game.world.Grid.Tile;
+
+/**
+ * Incremental field of view for fog of war.
+ *
+ * Opacity of every tile is kept in a packed bitmap which is updated as items
+ * are placed on or removed from the {@link Grid}. The set of visible tiles is
+ * only recomputed (using symmetric shadowcasting) when the origin changes tile
+ * or the opacity of some tile actually changes.
+ *
+ * After the first computation no allocation occurs unless the row stack or
+ * visible list need to grow.
+ */
+public class VisibilityMap implements Grid.GridListener {
+
+  @FunctionalInterface
+  public interface TileVisitor {
+    void visit(int x, int y);
+  }
+
+  private final Grid grid;
+  private final int width, height, radius;
+  private final int wordsPerRow;
+
+  /**
+   * Packed bitmap, one bit per tile, set when the tile blocks sight
+   */
+  private final long[] opaque;
+
+  /**
+   * Packed bitmap, one bit per tile, set when the tile is visible from the origin
+   */
+  private final long[] visible;
+
+  /**
+   * Packed indices ({@code y * width + x}) of all visible tiles
+   */
+  private int[] visibleList = new int[256];
+  private int visibleCount = 0;
+
+  /**
+   * Pending rows of the shadowcast, stored as parallel arrays
+   */
+  private int[] rowDepth = new int[64];
+  private int[] rowStartNum = new int[64], rowStartDen = new int[64];
+  private int[] rowEndNum = new int[64], rowEndDen = new int[64];
+  private int rowCount = 0;
+
+  private int originX = Integer.MIN_VALUE, originY = Integer.MIN_VALUE;
+  private boolean opacityDirty = true;
+  private boolean fovDirty = true;
+
+  private static final int PREV_NONE = 0, PREV_FLOOR = 1, PREV_WALL = 2;
+
+  /**
+   * @param grid the grid to track
+   * @param radius maximum distance, in tiles, that can be seen
+   */
+  public VisibilityMap(Grid grid, int radius) {
+    this.grid = grid;
+    this.width = grid.getWidth();
+    this.height = grid.getHeight();
+    this.radius = radius;
+    this.wordsPerRow = (width + 63) >>> 6;
+    this.opaque = new long[wordsPerRow * height];
+    this.visible = new long[wordsPerRow * height];
+  }
+
+  /**
+   * @return whether or not {@code item} blocks the player's line of sight
+   */
+  public static boolean blocksSight(Item item) {
+    if (!item.hasProperty(PropertyType.Barrier)) {
+      return false;
+    }
+    LockedProperty lock = item.getPropertyOrNull(PropertyType.LockedProperty, LockedProperty.class);
+    return lock == null || lock.isLocked();
+  }
+
+  /**
+   * Mark the opacity of every tile as stale.
+   *
+   * This should be called when the state of some item changes in a way that
+   * may change whether it blocks sight (e.g. a barrier is unlocked)
+   */
+  public void invalidate() {
+    opacityDirty = true;
+  }
+
+  /**
+   * Recompute the field of view if the origin has moved or the opacity of any
+   * tile has changed since the last call.
+   *
+   * @return whether or not the visible set was recomputed
+   */
+  public boolean update(int x, int y) {
+    if (opacityDirty) {
+      rebuildOpacity();
+    }
+
+    if (!fovDirty && x == originX && y == originY) {
+      return false;
+    }
+
+    originX = x;
+    originY = y;
+    fovDirty = false;
+    compute();
+    return true;
+  }
+
+  /**
+   * @return whether the tile at {@code x, y} was visible at the last {@link VisibilityMap#update}
+   */
+  public boolean isVisible(int x, int y) {
+    return inBounds(x, y) && test(visible, x, y);
+  }
+
+  /**
+   * @return whether the tile at {@code x, y} blocks sight
+   */
+  public boolean isOpaque(int x, int y) {
+    return !inBounds(x, y) || test(opaque, x, y);
+  }
+
+  /**
+   * Call {@code visitor} for every currently visible tile
+   */
+  public void forEachVisible(TileVisitor visitor) {
+    for (int i = 0; i < visibleCount; i++) {
+      int ndx = visibleList[i];
+      visitor.visit(ndx % width, ndx / width);
+    }
+  }
+
+  @Override
+  public void itemPlaced(Item item) {
+    refreshRegion(item);
+  }
+
+  @Override
+  public void itemRemoved(Item item) {
+    refreshRegion(item);
+  }
+
+  //----------------------------------------------------------------------------
+  // OPACITY
+  //----------------------------------------------------------------------------
+
+  private void rebuildOpacity() {
+    opacityDirty = false;
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        refreshTile(x, y);
+      }
+    }
+  }
+
+  private void refreshRegion(Item item) {
+    if (opacityDirty) return;
+
+    int minX = Math.max(0, item.getX());
+    int minY = Math.max(0, item.getY());
+    int maxX = Math.min(width, item.getX() + item.getWidth());
+    int maxY = Math.min(height, item.getY() + item.getHeight());
+    for (int y = minY; y < maxY; y++) {
+      for (int x = minX; x < maxX; x++) {
+        refreshTile(x, y);
+      }
+    }
+  }
+
+  private void refreshTile(int x, int y) {
+    Tile t = grid.inner[y][x];
+    boolean blocks = false;
+    for (int i = 0; i < t.stacksize; i++) {
+      if (blocksSight(t.items[i])) {
+        blocks = true;
+        break;
+      }
+    }
+
+    if (blocks != test(opaque, x, y)) {
+      flip(opaque, x, y);
+      fovDirty = true;
+    }
+  }
+
+  //----------------------------------------------------------------------------
+  // SHADOWCASTING
+  //----------------------------------------------------------------------------
+
+  private void compute() {
+    for (int i = 0; i < visibleCount; i++) {
+      int ndx = visibleList[i];
+      flip(visible, ndx % width, ndx / width);
+    }
+    visibleCount = 0;
+
+    if (!inBounds(originX, originY) || test(opaque, originX, originY)) {
+      return;
+    }
+
+    markVisible(originX, originY);
+
+    for (int quadrant = 0; quadrant < 4; quadrant++) {
+      rowCount = 0;
+      pushRow(1, -1, 1, 1, 1);
+      while (rowCount > 0) {
+        rowCount--;
+        scanRow(quadrant, rowDepth[rowCount],
+                rowStartNum[rowCount], rowStartDen[rowCount],
+                rowEndNum[rowCount], rowEndDen[rowCount]);
+      }
+    }
+  }
+
+  /**
+   * Scan a single row of a quadrant, where slopes are the fractions
+   * {@code startNum / startDen} and {@code endNum / endDen}
+   */
+  private void scanRow(int quadrant, int depth, int startNum, int startDen, int endNum, int endDen) {
+    // round ties up / round ties down of depth * slope
+    int minCol = Math.floorDiv(2 * depth * startNum + startDen, 2 * startDen);
+    int maxCol = -Math.floorDiv(endDen - 2 * depth * endNum, 2 * endDen);
+
+    int prev = PREV_NONE;
+    for (int col = minCol; col <= maxCol; col++) {
+      int x = transformX(quadrant, depth, col);
+      int y = transformY(quadrant, depth, col);
+      boolean wall = isOpaque(x, y);
+
+      if (!wall &&
+          col * startDen >= depth * startNum &&
+          col * endDen <= depth * endNum &&
+          col * col + depth * depth <= radius * radius) {
+        markVisible(x, y);
+      }
+
+      if (prev == PREV_WALL && !wall) {
+        startNum = 2 * col - 1;
+        startDen = 2 * depth;
+      }
+      if (prev == PREV_FLOOR && wall && depth < radius) {
+        pushRow(depth + 1, startNum, startDen, 2 * col - 1, 2 * depth);
+      }
+      prev = wall ? PREV_WALL : PREV_FLOOR;
+    }
+
+    if (prev == PREV_FLOOR && depth < radius) {
+      pushRow(depth + 1, startNum, startDen, endNum, endDen);
+    }
+  }
+
+  private int transformX(int quadrant, int depth, int col) {
+    switch (quadrant) {
+      case 0:
+      case 1:
+        return originX + col;
+      case 2:
+        return originX + depth;
+      default:
+        return originX - depth;
+    }
+  }
+
+  private int transformY(int quadrant, int depth, int col) {
+    switch (quadrant) {
+      case 0:
+        return originY + depth;
+      case 1:
+        return originY - depth;
+      default:
+        return originY + col;
+    }
+  }
+
+  private void pushRow(int depth, int startNum, int startDen, int endNum, int endDen) {
+    if (rowCount == rowDepth.length) {
+      int size = rowDepth.length * 2;
+      rowDepth = Arrays.copyOf(rowDepth, size);
+      rowStartNum = Arrays.copyOf(rowStartNum, size);
+      rowStartDen = Arrays.copyOf(rowStartDen, size);
+      rowEndNum = Arrays.copyOf(rowEndNum, size);
+      rowEndDen = Arrays.copyOf(rowEndDen, size);
+    }
+    rowDepth[rowCount] = depth;
+    rowStartNum[rowCount] = startNum;
+    rowStartDen[rowCount] = startDen;
+    rowEndNum[rowCount] = endNum;
+    rowEndDen[rowCount] = endDen;
+    rowCount++;
+  }
+
+  private void markVisible(int x, int y) {
+    if (test(visible, x, y)) return;
+
+    flip(visible, x, y);
+    if (visibleCount == visibleList.length) {
+      visibleList = Arrays.copyOf(visibleList, visibleCount * 2);
+    }
+    visibleList[visibleCount++] = y * width + x;
+  }
+
+  //----------------------------------------------------------------------------
+  // BITMAP HELPERS
+  //----------------------------------------------------------------------------
+
+  private boolean inBounds(int x, int y) {
+    return x >= 0 && x < width && y >= 0 && y < height;
+  }
+
+  private boolean test(long[] bits, int x, int y) {
+    return (bits[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+  }
+
+  private void flip(long[] bits, int x, int y) {
+    bits[y * wordsPerRow + (x >>> 6)] ^= (1L << x);
+  }
+}
@@ -1,8 +1,6 @@
 package group24.escaperoom.screens;
 
-import java.util.Comparator;
 import java.util.Optional;
-import java.util.TreeSet;
 import java.util.logging.Logger;
 
 import com.badlogic.gdx.Gdx;
@@ -10,10 +8,10 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.Texture.TextureWrap;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Circle;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.ui.Dialog;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.utils.DragAndDrop;
@@ -28,23 +26,29 @@ import group24.escaperoom.engine.assets.maps.MapData;
 import group24.escaperoom.engine.control.ControlsManager;
 import group24.escaperoom.engine.control.ControlsManager.InputType;
 import group24.escaperoom.engine.control.input.Input;
-import group24.escaperoom.engine.physics.Collisions;
-import group24.escaperoom.engine.render.Drawable;
 import group24.escaperoom.engine.types.IntVector2;
 import group24.escaperoom.game.entities.Item;
 import group24.escaperoom.game.entities.player.Player;
-import group24.escaperoom.game.entities.properties.ConditionallyActive;
-import group24.escaperoom.game.entities.properties.ConditionallyVisible;
 import group24.escaperoom.game.entities.properties.InteractableProperty;
-import group24.escaperoom.game.entities.properties.LockedProperty;
 import group24.escaperoom.game.entities.properties.PropertyType;
 import group24.escaperoom.game.entities.properties.TiledBrushable;
 import group24.escaperoom.game.entities.properties.base.Connectable;
-import group24.escaperoom.game.state.GameContext;
+import group24.escaperoom.game.state.ActionAvailability;
+import group24.escaperoom.game.state.CircuitGraph;
+import group24.escaperoom.game.state.GameEventBus;
+import group24.escaperoom.game.state.GameEventBus.GameEventListener;
+import group24.escaperoom.game.state.GameEvent.EventType;
+import group24.escaperoom.game.state.GameView;
+import group24.escaperoom.game.state.GameWorld;
 import group24.escaperoom.game.ui.ActionLog;
 import group24.escaperoom.game.ui.GameSettingsDialog;
 import group24.escaperoom.game.ui.PlayerInventoryItemSlot.PlayerInventorySource;
-import group24.escaperoom.game.world.FowTile;
+import group24.escaperoom.game.world.FogOfWar;
+import group24.escaperoom.game.world.Grid;
+import group24.escaperoom.game.world.NavGrid;
+import group24.escaperoom.game.world.StaticLayer;
+import group24.escaperoom.game.world.VisibilityMap;
+import group24.escaperoom.game.world.VisibilityMap.TileVisitor;
 import group24.escaperoom.services.GameStatistics;
 import group24.escaperoom.ui.dnd.ItemPayload;
 import group24.escaperoom.ui.widgets.G24Dialog;
@@ -55,7 +59,7 @@ import group24.escaperoom.ui.widgets.G24Dialog;
  * Extension of {@link AbstractScreen} with game utilities
  *
  */
-public abstract class GameScreen extends MapScreen {
+public abstract class GameScreen extends MapScreen implements GameView {
 
   public enum GameType {
     Standard,
@@ -73,11 +77,53 @@ public abstract class GameScreen extends MapScreen {
   public static Player player;
   public int playerId = -1;
   protected ActionLog actionlog;
-  boolean[][] revealed;
-  FowTile[][] fowTiles;
+  FogOfWar fog;
+  VisibilityMap visibility;
+  private static final int SIGHT_RADIUS = 15;
+  private final TileVisitor revealVisitor = (x, y) -> {
+    fog.reveal(x, y);
+  };
+  StaticLayer staticLayer;
+  NavGrid navigation;
+  // Item state changes (e.g. unlocking a barrier) can change what blocks sight,
+  // what blocks the player and how items look
+  private final GameEventListener visibilityInvalidator = (ev) -> {
+    if (visibility != null) visibility.invalidate();
+    if (navigation != null) navigation.refreshBarriers();
+    if (staticLayer != null) staticLayer.invalidate();
+  };
+  /**
+   * The logic of the game, null until a grid is loaded
+   */
+  GameWorld world;
+  /**
+   * Every game event listener of this screen, removed when it is disposed
+   */
+  private final GameEventBus.Scope events = GameEventBus.get().scope();
+  /**
+   * At most this many ticks are run per frame, a slower frame slows the game
+   * down rather than making the next frame even slower
+   */
+  private static final int MAX_TICKS_PER_FRAME = 5;
+  /**
+   * Frame time not yet consumed by a tick, in seconds
+   */
+  private float tickAccumulator = 0;
+  /**
+   * Movement is sampled from the keyboard on every tick, other inputs once
+   * per frame
+   */
+  private static final GameWorld.InputSource sampleMovement = (tick) -> ControlsManager.processHeld(Player.MOVEMENT_INPUTS);
   protected Table rootTable;
   public GameStatistics stats = new GameStatistics();
-  private long startTime;
+
+  /**
+   * @return the scope through which anything living as long as this screen
+   *         should listen to game events
+   */
+  public GameEventBus.Scope getEvents() {
+    return events;
+  }
 
   public ActionLog getActionLog() {
     return actionlog;
@@ -91,30 +137,10 @@ public abstract class GameScreen extends MapScreen {
     return dragAndDrop;
   }
 
-  private void resetRevealed() {
-    for (int y = 0; y < gridSize.height; y++) {
-      for (int x = 0; x < gridSize.width; x++) {
-        if (revealed[y][x]){
-          revealed[y][x] = false;
-          fowTiles[y][x].updateTiles(revealed, new Vector2(x, y), true);
-        }
-      }
-    }
-  }
-
   public GameScreen(MapData mapdata) {
     super(mapdata);
 
-    revealed = new boolean[gridSize.height][gridSize.width];
-    fowTiles = new FowTile[gridSize.height][gridSize.width];
-
-    for (int y = 0; y < gridSize.height; y++) {
-      for (int x = 0; x < gridSize.width; x++) {
-        fowTiles[y][x] = new FowTile();
-      }
-    }
-    FowTile.fowTiles = fowTiles;
-    FowTile.gridSize = gridSize;
+    fog = new FogOfWar(gridSize.width, gridSize.height);
 
     AssetManager.instance().load("textures/game_tile.png", Texture.class);
     AssetManager.instance().finishLoading();
@@ -131,9 +157,7 @@ public abstract class GameScreen extends MapScreen {
     room.setSize(gridSize.width, gridSize.height);
     addActor(room);
 
-    startTime = System.currentTimeMillis();
-
-    player = new Player(gridSize.width / 2, gridSize.height / 2, this);
+    player = new Player(gridSize.width / 2, gridSize.height / 2, this, events);
     player.registerBinds();
 
     rootTable = new Table();
@@ -143,25 +167,89 @@ public abstract class GameScreen extends MapScreen {
     rootTable.defaults().pad(10);
     getUIStage().addActor(rootTable);
 
-    actionlog = new ActionLog();
+    actionlog = new ActionLog(events);
     rootTable.add(actionlog).left().bottom().size(300, 150);
     actionlog.emit("Game Started...");
 
     registerBinds();
 
-    // fog of war
-    for (int y = 0; y < gridSize.height; y++) {
-      for (int x = 0; x < gridSize.width; x++) {
-        revealed[y][x] = false;
-      }
+    dragAndDrop.addTarget(new GameMapTarget(roomProxy));
+
+    events.addQueuedListener(EventType.ItemStateChange, visibilityInvalidator);
+  }
+
+  @Override
+  public void loadGrid(Grid grid) {
+    super.loadGrid(grid);
+    if (grid == null) return;
+
+    visibility = new VisibilityMap(grid, SIGHT_RADIUS);
+    grid.addListener(visibility);
+
+    if (world != null) world.dispose();
+    world = new GameWorld(grid, player, this, events, pollItems);
+
+    staticLayer = new StaticLayer(grid);
+    grid.addListener(staticLayer);
+
+    navigation = new NavGrid(grid);
+    grid.addListener(navigation);
+  }
+
+  /**
+   * @return the logic of the game, null until a grid is loaded
+   */
+  public GameWorld getWorld() {
+    return world;
+  }
+
+  /**
+   * @return which items currently offer the player actions
+   */
+  public ActionAvailability getActionAvailability() {
+    return world.getActionAvailability();
+  }
+
+  /**
+   * @return the pathfinder of this map, null until a grid is loaded
+   */
+  public NavGrid getNavigation() {
+    return navigation;
+  }
+
+  /**
+   * @return the signal network of this map, null until a grid is loaded
+   */
+  public CircuitGraph getCircuit() {
+    return world == null ? null : world.getCircuit();
+  }
+
+  @Override
+  public void dispose() {
+    super.dispose();
+    events.close();
+    GameEventBus.get().clearQueue();
+    if (grid != null && visibility != null) grid.removeListener(visibility);
+    if (world != null) world.dispose();
+    if (grid != null && navigation != null) grid.removeListener(navigation);
+    if (staticLayer != null) {
+      if (grid != null) grid.removeListener(staticLayer);
+      staticLayer.dispose();
     }
+  }
 
-    dragAndDrop.addTarget(new GameMapTarget(roomProxy));
+  @Override
+  public void removeItem(Item item) {
+    item.remove(false);
+  }
+
+  @Override
+  public void show(Dialog dialog) {
+    dialog.show(getUIStage());
   }
 
   public void calculateStatistics(boolean completedSucessfully) {
-    long finishTime = System.currentTimeMillis();
-    stats.timeMilliseconds = finishTime - startTime;
+    stats.timeMilliseconds = world.getRunMillis();
     stats.completedSucessfully = completedSucessfully;
     player.calculateStatistics(stats);
   }
@@ -256,7 +344,7 @@ public abstract class GameScreen extends MapScreen {
       priorityItemAt((int)position.x, (int)position.y).ifPresent(pi -> {
         player.getFocusedItem().ifPresent((fi) -> fi.setFocus(false));
         pi.setFocus(true);
-        pi.getProperty(PropertyType.Interactable, InteractableProperty.class).get().interact(new GameContext(this, player));
+        pi.getProperty(PropertyType.Interactable, InteractableProperty.class).get().interact(world.getContext());
       });
 
     });
@@ -268,154 +356,64 @@ public abstract class GameScreen extends MapScreen {
 
   @Override
   public void act(float time) {
-    player.act(time);
-    GameContext ctx = new GameContext(this, player);
-    for (Item item : this.pollItems) {
-      item.getProperty(PropertyType.ConditionallyActive, ConditionallyActive.class).ifPresent((cap) -> {
-        if (!cap.poll(ctx))
-          pollItems.removeValue(item, false);
-      });
-      item.getProperty(PropertyType.ConditionallyVisible, ConditionallyVisible.class).ifPresent((cvp) -> {
-        cvp.poll(ctx);
-      });
+    tickAccumulator += time;
+    int ticks = 0;
+    while (world != null && tickAccumulator >= GameWorld.TICK_SECONDS && ticks < MAX_TICKS_PER_FRAME) {
+      world.tick(sampleMovement);
+      tickAccumulator -= GameWorld.TICK_SECONDS;
+      ticks++;
     }
-    super.act(time);
-
-    if (!metadata.gameSettings.persistentReveal){
-      resetRevealed();
+    if (ticks == MAX_TICKS_PER_FRAME) {
+      tickAccumulator = 0;
     }
 
+    super.act(time);
+
     Rectangle hitbox = player.getOccupiedRegion();
     reveal((int) (hitbox.x + hitbox.width / 2), (int) hitbox.y);
   }
 
+  /**
+   * Reveal all tiles visible from {@code x, y}
+   *
+   * The field of view is only recomputed when the origin tile changes or
+   * something blocking sight is placed, removed or changes state.
+   */
   public void reveal(int x, int y) {
-    if (y < 0 || x < 0 || y >= gridSize.height || x >= gridSize.width) {
+    if (visibility == null || !visibility.update(x, y)) {
       return;
     }
 
-    int numRays = 360;
-
-    for (float angle = 0; angle < numRays; angle++) {
-      float radians = MathUtils.degreesToRadians * angle;
-      float dx = MathUtils.cos(radians);
-      float dy = MathUtils.sin(radians);
-      castRay(x, y, dx, dy, 15);
-    }
-  }
-
-  private boolean shouldBlockRay(Item item){
-    if (item.hasProperty(PropertyType.Barrier)) {
-      if (item.hasProperty(PropertyType.LockedProperty)){
-        LockedProperty prop = item.getProperty(PropertyType.LockedProperty, LockedProperty.class).get();
-        if (!prop.isLocked()) return false;
-      }
-      return true;
-    }
-    return false;
-  }
-
-  private void castRay(int x, int y, float dx, float dy, int maxDistance) {
-    IntVector2 tl = new IntVector2(), 
-               tr = new IntVector2(),
-               bl = new IntVector2(),
-               br = new IntVector2();
-    TreeSet<IntVector2> tiles = new TreeSet<>(new Comparator<IntVector2>() {
-      @Override
-      public int compare(IntVector2 arg0, IntVector2 arg1) {
-        if (arg0.equals(arg1)) return 0;
-        if (arg0.x != arg1.x) return arg0.x - arg1.x;
-        return arg0.y - arg1.y;
-      }
-    });
-
-    // add 0.5 and floor to round up or down more equally
-    float newX = x + 0.5f;
-    float newY = y + 0.5f;
-
-    for (int i = 0; i < maxDistance; i++) {
-
-      int tileX = MathUtils.floor(newX);
-      int tileY = MathUtils.floor(newY);
-
-      if (tileY < 0 || tileX < 0 || tileY >= gridSize.height || tileX >= gridSize.width) {
-        break;
-      }
-
-      Optional<Item[]> oItems = getItemsAt(tileX, tileY);
-      if (oItems.isPresent()) {
-        for (Item item : oItems.get()) {
-          if (shouldBlockRay(item)){
-            return;
-          }
-        }
-      }
-
-      if (!revealed[tileY][tileX]) {
-        revealTile(tileX, tileY);
-      }
-
-      float tmpX = newX + dx;
-      float tmpY = newY + dy;
-      tl.set(newX, newY);
-      tr.set(newX, tmpY);
-      bl.set(tmpX, newY);
-      br.set(tmpX, tmpY);
-
-      tiles.clear();
-      tiles.add(tl);
-      tiles.add(tr);
-      tiles.add(bl);
-      tiles.add(br);
-
-      for (IntVector2 tile : tiles) {
-        Optional<Item[]> items = getItemsAt(tile);
-        if (items.isEmpty()) continue;
-
-        for (Item item : items.get()) {
-          if (shouldBlockRay(item)) return;
-        }
-      }
-
-      newX = tmpX;
-      newY = tmpY;
+    if (!metadata.gameSettings.persistentReveal){
+      fog.hideAll();
     }
-  }
-
-  private void revealTile(int x, int y) {
-    revealed[y][x] = true;
-    for (int dx = -1; dx <= 1; dx++) {
-      for (int dy = -1; dy <= 1; dy++) {
-        if (Math.abs(dx) == Math.abs(dy)) {
-          continue;
-        }
 
-        int cX = x + dx;
-        int cY = y + dy;
-
-        if (cX < 0 || cX >= gridSize.width || cY < 0 || cY >= gridSize.height) {
-          continue;
-        }
-        fowTiles[cY][cX].updateTiles(revealed, new Vector2(cX, cY), true);
-
-      }
-    }
+    visibility.forEachVisible(revealVisitor);
+    fog.flush();
   }
 
   @Override
-  public TreeSet<Drawable> getDrawables() {
-    TreeSet<Drawable> drawables = grid.getDrawables();
-    drawables.add(player);
-    return drawables;
+  protected void drawItems() {
+    int minPriority = Integer.MIN_VALUE;
+    if (staticLayer != null) {
+      staticLayer.draw(batch, getViewport(), visibleBounds, player.renderPriority());
+      minPriority = staticLayer.getThreshold();
+    }
+    grid.getRenderQueue().draw(batch, player, visibleBounds, minPriority);
   }
 
   @Override
   public void draw() {
     super.draw(false);
-    for (int y = 0; y < gridSize.height; y++) {
-      for (int x = 0; x < gridSize.width; x++) {
-        if (!revealed[y][x]) {
-          batch.draw(fowTiles[y][x].texture, x, y, 1, 1);
+
+    int minX = Math.max(0, (int) Math.floor(visibleBounds.x));
+    int minY = Math.max(0, (int) Math.floor(visibleBounds.y));
+    int maxX = Math.min(gridSize.width, (int) Math.ceil(visibleBounds.x + visibleBounds.width));
+    int maxY = Math.min(gridSize.height, (int) Math.ceil(visibleBounds.y + visibleBounds.height));
+    for (int y = minY; y < maxY; y++) {
+      for (int x = minX; x < maxX; x++) {
+        if (!fog.isRevealed(x, y)) {
+          batch.draw(fog.getTile(x, y).texture, x, y, 1, 1);
         }
       }
     }
@@ -438,7 +436,7 @@ public abstract class GameScreen extends MapScreen {
       // Ensure in bounds
       if (!gameCoords.contained(0, 0, gridSize.width - 1, gridSize.height - 1)) return false;
       // Ensure revealed
-      if (!revealed[(int) gameCoords.y][(int) gameCoords.x]) return false; 
+      if (!fog.isRevealed(gameCoords.x, gameCoords.y)) return false;
       // Ensure placement range
       if (player.getCenter().dst(gameCoords.asVector2()) > 4) return false;
       // Ensure PlayerInventorySource
@@ -498,14 +496,20 @@ public abstract class GameScreen extends MapScreen {
   }
 
 
+  /**
+   * @return all placed items whose occupied region collides with {@code circle}
+   */
   public Array<Item> itemsNear(Circle circle) {
-      Array<Item> ret = new Array<>();
-      for (Item item : grid.placedItems.values()) {
-          if (Collisions.collides(circle, item.getOccupiedRegion())) {
-              ret.add(item);
-          }
-      }
-      return ret;
+    return itemsNear(circle, new Array<>());
+  }
+
+  /**
+   * Add all placed items whose occupied region collides with {@code circle} to {@code out}
+   *
+   * @return {@code out}
+   */
+  public Array<Item> itemsNear(Circle circle, Array<Item> out) {
+    return grid.getSpatialIndex().query(circle, out);
   }
 
   public Array<Item> itemsNear(Vector2 center, float radius) {
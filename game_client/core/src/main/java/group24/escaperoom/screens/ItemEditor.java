@@ -422,7 +422,7 @@ public class ItemEditor extends AbstractScreen {
       propertyParams.put(prop.getType(), val);
     });
 
-    newItem.getType().propertyParameters = propertyParams;
+    newItem.changeType((t) -> t.withPropertyParameters(propertyParams));
   }
 
   public boolean modifyingItem(){
@@ -1,9 +1,13 @@
 package group24.escaperoom.screens;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 import java.util.logging.Logger;
 
@@ -19,6 +23,7 @@ import com.badlogic.gdx.utils.Array;
 
 import group24.escaperoom.editor.core.ActionHistory;
 import group24.escaperoom.editor.core.ActionHistory.EditorAction;
+import group24.escaperoom.editor.core.Autosave;
 import group24.escaperoom.editor.core.DragManager;
 import group24.escaperoom.editor.core.ToolManager;
 import group24.escaperoom.editor.core.ToolManager.ToolType;
@@ -39,10 +44,14 @@ import group24.escaperoom.editor.ui.GridView;
 import group24.escaperoom.editor.ui.ItemMenu;
 import group24.escaperoom.editor.ui.Menu;
 import group24.escaperoom.engine.BackManager;
+import group24.escaperoom.engine.assets.AssetManager;
+import group24.escaperoom.engine.assets.TextureWatcher;
 import group24.escaperoom.engine.assets.items.ItemLoader;
 import group24.escaperoom.engine.assets.maps.MapData;
+import group24.escaperoom.engine.assets.maps.MapJournal;
 import group24.escaperoom.engine.assets.maps.MapLoader;
 import group24.escaperoom.engine.assets.maps.MapMetadata;
+import group24.escaperoom.engine.assets.maps.MapSaver;
 import group24.escaperoom.engine.control.ControlsManager;
 import group24.escaperoom.engine.control.ControlsManager.InputType;
 import group24.escaperoom.engine.control.CursorManager;
@@ -74,6 +83,8 @@ public class LevelEditor extends MapScreen {
   private final HashSet<Drawable> overlayDrawables = new HashSet<>();
   private boolean dragging = false;
   private boolean panEnabled = true;
+  private Optional<TextureWatcher> textureWatcher = Optional.empty();
+  private Optional<Autosave> autosave = Optional.empty();
   ItemMenu itemMenu = null;
 
   public LevelEditor(MapData data) {
@@ -86,6 +97,8 @@ public class LevelEditor extends MapScreen {
     ui = new EditorUI(this, toolManager, dragManager, history, itemDrawer);
 
     setEditMode();
+    // edits made since the map was last written in full, e.g. before a crash
+    MapJournal.replay(data.getGrid(), data.getMetadata());
     loadGrid(data.getGrid());
     cameraManager.setPosition(gridSize.width / 2, gridSize.height / 2);
   }
@@ -185,6 +198,24 @@ public class LevelEditor extends MapScreen {
    */
   public void recordEditorAction(EditorAction action) {
     history.record(action);
+    autosave.ifPresent(Autosave::recorded);
+  }
+
+  /**
+   * Merge the {@link EditorAction}s recorded until {@link LevelEditor#endActionGroup},
+   * e.g. those of a single brush stroke
+   *
+   * @see ActionHistory#beginGroup
+   */
+  public void beginActionGroup() {
+    history.beginGroup();
+  }
+
+  /**
+   * @see ActionHistory#endGroup
+   */
+  public void endActionGroup() {
+    history.endGroup();
   }
 
   public Optional<Item> getSelectedItem(){
@@ -427,6 +458,76 @@ public class LevelEditor extends MapScreen {
     addUI(ui.getRoot());
   }
 
+  /**
+   * Swap changed user textures into the {@link AssetManager} and update only
+   * the items using them, leaving the rest of the editor as is
+   */
+  private void texturesChanged(Map<String, File> changed) {
+    Set<String> swapped = AssetManager.instance().repackUserTextures(changed);
+    if (swapped.isEmpty()) return;
+
+    grid.items.values().forEach(i -> {
+      if (swapped.contains(i.getType().texture)) i.reloadTexture();
+    });
+    for (Item i : getItemPrototypes()) {
+      if (swapped.contains(i.getType().texture)) i.reloadTexture();
+    }
+
+    Notifier.info("Reloaded " + swapped.size() + (swapped.size() == 1 ? " texture" : " textures"));
+  }
+
+  @Override
+  public void show() {
+    super.show();
+    if (textureWatcher.isEmpty()) {
+      textureWatcher = metadata.textureDirectory.flatMap((dir) -> TextureWatcher.watch(dir, this::texturesChanged));
+    }
+    if (autosave.isEmpty()) {
+      autosave = Autosave.start(this);
+    }
+  }
+
+  @Override
+  public void hide() {
+    super.hide();
+    textureWatcher.ifPresent(TextureWatcher::close);
+    textureWatcher = Optional.empty();
+    autosave.ifPresent(Autosave::stop);
+    autosave = Optional.empty();
+  }
+
+  @Override
+  public void act(float delta) {
+    super.act(delta);
+    autosave.ifPresent((a) -> a.update(delta));
+  }
+
+  /**
+   * Save the map, waiting for it to be written
+   *
+   * @return whether the map was saved
+   */
+  public boolean saveMap() {
+    return saveMapInBackground().join();
+  }
+
+  /**
+   * Save the map, writing it off the render thread if it is journaled
+   *
+   * @return completed with whether the map was saved
+   */
+  public CompletableFuture<Boolean> saveMapInBackground() {
+    return autosave
+      .map(Autosave::save)
+      .orElseGet(() -> CompletableFuture.completedFuture(MapSaver.saveMap(grid, metadata)));
+  }
+
+  @Override
+  public void dispose() {
+    super.dispose();
+    history.dispose();
+  }
+
   //---------------------------------------------------------------------------
   // Render Logic
   //---------------------------------------------------------------------------
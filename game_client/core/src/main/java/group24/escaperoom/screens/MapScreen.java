@@ -5,7 +5,6 @@ import java.io.FileOutputStream;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Optional;
-import java.util.TreeSet;
 import java.util.UUID;
 import java.util.function.Predicate;
 import java.util.logging.Logger;
@@ -32,7 +31,6 @@ import group24.escaperoom.editor.events.EditorEventBus;
 import group24.escaperoom.engine.assets.AssetManager;
 import group24.escaperoom.engine.assets.maps.MapData;
 import group24.escaperoom.engine.assets.maps.MapMetadata;
-import group24.escaperoom.engine.render.Drawable;
 import group24.escaperoom.engine.types.IntVector2;
 import group24.escaperoom.engine.types.Size;
 import group24.escaperoom.game.entities.Item;
@@ -42,6 +40,7 @@ import group24.escaperoom.game.entities.properties.base.Connectable;
 import group24.escaperoom.game.state.GameContext;
 import group24.escaperoom.game.world.Grid;
 import group24.escaperoom.game.world.Grid.Tile;
+import group24.escaperoom.game.world.GridTransaction;
 import group24.escaperoom.screens.utils.CamMan;
 
 public abstract class MapScreen extends AbstractScreen {
@@ -53,8 +52,15 @@ public abstract class MapScreen extends AbstractScreen {
   protected final Batch batch;
   protected MapMetadata metadata;
   protected Size gridSize;
+  /**
+   * Items whose condition must be polled, see {@link group24.escaperoom.game.state.GameWorld#tick}
+   */
   protected Array<Item> pollItems = new Array<>();
   protected CamMan cameraManager;
+  /**
+   * Region of the map visible to the camera, updated every draw
+   */
+  protected final Rectangle visibleBounds = new Rectangle();
 
   public MapMetadata getMetadata() {
     return metadata;
@@ -66,8 +72,18 @@ public abstract class MapScreen extends AbstractScreen {
    * @param temporary whether or not this is likely a temporary removal
    */
   public void removeItemFromGrid(Item item, boolean temporary) {
-    if (this instanceof GameScreen) {
-      GameContext ctx = new GameContext((GameScreen) this);
+    removeItemFromGrid(item, temporary, true);
+  }
+
+  /**
+   * Remove an item from the grid
+   *
+   * @param temporary whether or not this is likely a temporary removal
+   * @param refresh whether to update the textures of surrounding tileables, see {@link GridTransaction}
+   */
+  public void removeItemFromGrid(Item item, boolean temporary, boolean refresh) {
+    if (this instanceof GameScreen && ((GameScreen) this).getWorld() != null) {
+      GameContext ctx = ((GameScreen) this).getWorld().getContext();
       // Set false on removal of a connectable, this may or may not propage the signal
       Connectable.Utils.isConnectable(item).ifPresent((ci) -> {
         ci.connectable.setActive(false, ctx);
@@ -82,7 +98,7 @@ public abstract class MapScreen extends AbstractScreen {
     grid.removeItem(item);
 
     // Try and update textures
-    Connectable.Utils.maybeUpateSurroundingTileables(item, this);
+    if (refresh) Connectable.Utils.maybeUpateSurroundingTileables(item, this);
   }
 
   /**
@@ -298,29 +314,44 @@ public abstract class MapScreen extends AbstractScreen {
    */
   public boolean placeItem(Item item) {
     item.map = this;
-    return grid.placeItem(item);
+    if (!grid.placeItem(item)) return false;
+
+    if (this instanceof LevelEditor){
+      EditorEventBus.post(new EditorEvent(EventType.ItemPlaced, item));
+    }
+    return true;
+  }
+
+  /**
+   * Announce that {@code item} was changed in place, e.g. rotated or mirrored
+   */
+  public void itemChanged(Item item) {
+    if (this instanceof LevelEditor){
+      EditorEventBus.post(new EditorEvent(EventType.ItemChanged, item));
+    }
   }
 
   public Grid getGrid() {
     return grid;
   }
 
-  public TreeSet<Drawable> getDrawables() {
-    return grid.getDrawables();
+  /**
+   * Draw every placed item in render order
+   */
+  protected void drawItems() {
+    grid.getRenderQueue().draw(batch, null, visibleBounds, Integer.MIN_VALUE);
   }
 
   public void draw(boolean endBatch){
     Camera camera = getViewport().getCamera();
     camera.update();
+    cameraManager.getVisibleBounds(visibleBounds);
 
     batch.setProjectionMatrix(getCamera().combined);
     batch.begin();
     getRoot().draw(batch, 1); // clear the screen
 
-    TreeSet<Drawable> drawables = getDrawables();
-    for (Drawable i : drawables) {
-      i.draw(batch);
-    }
+    drawItems();
 
     if (endBatch) batch.end();
   }
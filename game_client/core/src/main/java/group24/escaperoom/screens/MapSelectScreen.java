@@ -1,8 +1,12 @@
 package group24.escaperoom.screens;
 
 import java.io.File;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.ui.Button;
 import com.badlogic.gdx.scenes.scene2d.ui.HorizontalGroup;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.badlogic.gdx.scenes.scene2d.ui.ImageButton;
@@ -15,6 +19,8 @@ import com.badlogic.gdx.utils.Scaling;
 
 import group24.escaperoom.engine.BackManager;
 import group24.escaperoom.engine.assets.AssetManager;
+import group24.escaperoom.engine.assets.maps.MapData;
+import group24.escaperoom.engine.assets.maps.MapLoadTask;
 import group24.escaperoom.engine.assets.maps.MapLoader;
 import group24.escaperoom.engine.assets.maps.MapManager;
 import group24.escaperoom.engine.assets.maps.MapMetadata;
@@ -22,6 +28,8 @@ import group24.escaperoom.engine.assets.maps.MapMetadata.MapLocation;
 import group24.escaperoom.engine.assets.maps.MapMetadata.MapStats;
 import group24.escaperoom.engine.assets.maps.MapSaver;
 import group24.escaperoom.engine.types.Size;
+import group24.escaperoom.game.verify.SolvabilityVerifier;
+import group24.escaperoom.game.verify.SolvabilityVerifier.Result;
 import group24.escaperoom.game.world.Grid;
 import group24.escaperoom.screens.utils.ScreenManager;
 import group24.escaperoom.services.MapDownloader;
@@ -122,6 +130,57 @@ public class MapSelectScreen extends MenuScreen {
       setActor(innerTable);
     }
 
+    /**
+     * Load this entry's map off the render thread, then show the screen built from it
+     *
+     * @param button unchecked again if the load fails or is cancelled
+     */
+    private void openMap(Button button, Function<MapData, AbstractScreen> toScreen) {
+      loadMap(button, (g) -> ScreenManager.instance().showScreen(toScreen.apply(g)));
+    }
+
+    /**
+     * Load this entry's map off the render thread, then hand it to {@code open}
+     * on the render thread
+     *
+     * @param button unchecked again if the load fails or is cancelled
+     */
+    private void loadMap(Button button, Consumer<MapData> open) {
+      G24Label status = new G24Label("Loading " + data.name, "bubble");
+      G24TextButton cancelButton = new G24TextButton("Cancel");
+
+      Table loading = new Table();
+      loading.setFillParent(true);
+      loading.add(status).row();
+      loading.add(cancelButton).padTop(20);
+
+      MapLoadTask task = MapLoader.loadMapAsync(data, settings.creation, (stage, progress) -> {
+        status.setText(String.format("%s (%d%%)", stage, (int) (progress * 100)));
+        status.pack();
+      });
+
+      cancelButton.addListener(new ChangeListener() {
+        @Override
+        public void changed(ChangeEvent event, Actor actor) {
+          task.cancel();
+          cancelButton.setDisabled(true);
+        }
+      });
+
+      waitFor(task.getFuture(), (Optional<MapData> map) -> {
+        map.ifPresentOrElse(
+          open,
+          () -> {
+            button.setChecked(false);
+            if (!task.isCancelled()) {
+              Notifier.error("Failed to load " + data.name);
+            }
+          }
+        );
+        return null;
+      }, loading);
+    }
+
     private class PlayButton extends ImageButton {
       PlayButton() {
         super(skin, "play");
@@ -129,9 +188,7 @@ public class MapSelectScreen extends MenuScreen {
           @Override
           public void changed(ChangeEvent event, Actor actor) {
             if (PlayButton.this.isChecked()) {
-              MapLoader.tryLoadMap(data, settings.creation).ifPresent((g) -> {
-                ScreenManager.instance().showScreen(new SinglePlayerGame(g, false));
-              });
+              openMap(PlayButton.this, (g) -> new SinglePlayerGame(g, false));
             }
           }
         });
@@ -322,9 +379,7 @@ public class MapSelectScreen extends MenuScreen {
           @Override
           public void changed(ChangeEvent event, Actor actor) {
             if (EditButton.this.isChecked()) {
-              MapLoader.tryLoadMap(data, settings.creation).ifPresent((g) -> {
-                ScreenManager.instance().showScreen(new LevelEditor(g));
-              });
+              openMap(EditButton.this, (g) -> new LevelEditor(g));
             }
           }
 
@@ -340,13 +395,33 @@ public class MapSelectScreen extends MenuScreen {
           @Override
           public void changed(ChangeEvent event, Actor actor) {
             if (VerifyButton.this.isChecked()) {
-              MapLoader.tryLoadMap(data, settings.creation).ifPresent((g) -> {
-                ScreenManager.instance().showScreen(new SinglePlayerGame(g, true));
-              });
+              loadMap(VerifyButton.this, VerifyButton.this::verify);
             }
           }
         });
       }
+
+      /**
+       * Check the map can be completed at all before it is played to verify it
+       */
+      private void verify(MapData map) {
+        waitFor(SolvabilityVerifier.verifyAsync(map.getGrid()), (Result result) -> {
+          switch (result.outcome) {
+            case Unsolvable:
+              VerifyButton.this.setChecked(false);
+              Notifier.error(String.format("%s cannot be completed, no solution was found", data.name));
+              break;
+            case Unknown:
+              Notifier.warn(String.format("Could not check whether %s can be completed", data.name));
+              ScreenManager.instance().showScreen(new SinglePlayerGame(map, true));
+              break;
+            case Solvable:
+              ScreenManager.instance().showScreen(new SinglePlayerGame(map, true));
+              break;
+          }
+          return null;
+        }, "Checking " + data.name + " can be completed");
+      }
     }
   }
 
@@ -70,6 +70,12 @@ public class SinglePlayerGame extends GameScreen {
 
     followActor = Optional.of(player);
     player.setDetails(details);
+    if (navigation != null) {
+      navigation.setFootprint(
+        (int) Math.ceil(details.hitboxInfo.width),
+        (int) Math.ceil(details.hitboxInfo.height)
+      );
+    }
   }
 
   @Override
@@ -3,6 +3,7 @@ package group24.escaperoom.screens.utils;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 
@@ -47,6 +48,17 @@ public class CamMan {
   }
 
 
+  /**
+   * @param out rectangle to store the result in
+   *
+   * @return {@code out}, set to the region of the world currently visible
+   */
+  public Rectangle getVisibleBounds(Rectangle out){
+    float width = cam.viewportWidth * cam.zoom;
+    float height = cam.viewportHeight * cam.zoom;
+    return out.set(cam.position.x - width / 2, cam.position.y - height / 2, width, height);
+  }
+
   private float translationFactor(){
     float zoomProgress = MathUtils.map(MIN_ZOOM, MAX_ZOOM, 0f, 1f, cam.zoom);
     float transProgress = transInterpolation.apply(zoomProgress);
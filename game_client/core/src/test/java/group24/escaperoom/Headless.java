@@ -0,0 +1,51 @@
+package group24.escaperoom;
+
+import org.mockito.Mockito;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.JsonReader;
+
+import group24.escaperoom.engine.assets.items.ItemTypeData;
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.world.Grid;
+
+/**
+ * A headless application with a mocked GL, for tests which build maps, as
+ * items look up their textures when created
+ */
+public class Headless {
+  private static boolean started = false;
+
+  /**
+   * Start the application, once for every test
+   */
+  public static void start() {
+    if (started) return;
+    started = true;
+
+    new HeadlessApplication(new ApplicationAdapter() {});
+    Gdx.gl = Gdx.gl20 = Mockito.mock(GL20.class);
+  }
+
+  /**
+   * @param source the definition, or the file of a built in item under {@code objects/}
+   */
+  public static ItemTypeData type(String category, String source) {
+    return ItemTypeData.fromJson(source.startsWith("{")
+      ? new JsonReader().parse(source)
+      : new JsonReader().parse(Gdx.files.internal("objects/" + source)), category);
+  }
+
+  /**
+   * Place a new item of {@code type} on {@code grid} with its lower left corner at {@code x, y}
+   */
+  public static Item place(Grid grid, ItemTypeData type, int x, int y) {
+    Item item = new Item(type);
+    item.setPosition(x, y);
+    grid.placeItem(item);
+    return item;
+  }
+}
@@ -0,0 +1,96 @@
+package group24.escaperoom.game.state;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+import group24.escaperoom.engine.control.ControlsManager;
+import group24.escaperoom.engine.control.input.Input;
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.entities.player.Player;
+import group24.escaperoom.game.entities.player.PlayerDetails;
+import group24.escaperoom.game.state.GameSimulation.InputScript;
+import group24.escaperoom.game.world.Grid;
+
+/**
+ * Games played on an empty grid, which needs no textures and so no application
+ */
+public class GameSimulationTest {
+  private static final InputScript SCRIPT = new InputScript()
+    .hold(Input.MOVE_RIGHT, 0, 90)
+    .hold(Input.MOVE_UP, 60, 150)
+    .hold(Input.MOVE_LEFT, 200, 230);
+
+  private GameWorld world;
+
+  private GameWorld newWorld() {
+    ControlsManager.clearRegisteredInputs();
+    if (world != null) world.dispose();
+
+    Grid grid = new Grid(20, 20);
+    GameSimulation.Headless view = new GameSimulation.Headless(grid);
+    GameEventBus.Scope events = GameEventBus.get().scope();
+    Player player = new Player(2, 2, view, events);
+    player.setDetails(new PlayerDetails());
+    player.registerBinds();
+
+    world = new GameWorld(grid, player, view, events, new Array<Item>());
+    return world;
+  }
+
+  /**
+   * @return the position of the player after every tick of {@code ticks}
+   */
+  private Array<Vector2> play(long ticks) {
+    GameWorld world = newWorld();
+    GameSimulation simulation = new GameSimulation(world);
+    Array<Vector2> positions = new Array<>();
+    for (long i = 0; i < ticks; i++) {
+      simulation.step(SCRIPT);
+      positions.add(world.getPlayer().getPosition());
+    }
+    return positions;
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (world != null) world.dispose();
+    world = null;
+    ControlsManager.clearRegisteredInputs();
+  }
+
+  @Test
+  public void sameInputsPlaySameGame() {
+    Array<Vector2> first = play(300);
+    Array<Vector2> second = play(300);
+
+    assertEquals(first.size, second.size);
+    for (int i = 0; i < first.size; i++) {
+      assertEquals(first.get(i), second.get(i), "positions differ on tick " + i);
+    }
+    assertEquals(300 * 1000 / GameWorld.TICKS_PER_SECOND, world.getGameTimeMillis());
+  }
+
+  @Test
+  public void movementAppliesOnItsTick() {
+    Array<Vector2> positions = play(2);
+
+    // held on tick 0, so the player has already moved once it has run
+    assertTrue(positions.get(0).x > 2, "no movement on the tick input was given");
+    assertEquals(2f, positions.get(0).y);
+  }
+
+  @Test
+  public void movementOnlyLastsForItsTick() {
+    Array<Vector2> positions = play(92);
+
+    // right is released after tick 89, up still held: only y changes
+    assertEquals(positions.get(89).x, positions.get(91).x);
+    assertTrue(positions.get(91).y > positions.get(89).y);
+  }
+}
@@ -0,0 +1,82 @@
+package group24.escaperoom.game.verify;
+
+import static group24.escaperoom.Headless.place;
+import static group24.escaperoom.Headless.type;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import group24.escaperoom.Headless;
+import group24.escaperoom.engine.assets.items.ItemTypeData;
+import group24.escaperoom.game.verify.SolvabilityVerifier.Outcome;
+import group24.escaperoom.game.verify.SolvabilityVerifier.Result;
+import group24.escaperoom.game.world.Grid;
+
+/**
+ * Fixture maps, 12 by 6 tiles, with the player in the lower left corner and
+ * the exit on the right
+ */
+public class SolvabilityVerifierTest {
+  private static ItemTypeData player, exit, wall;
+
+  @BeforeAll
+  public static void startApplication() {
+    Headless.start();
+
+    player = type("Player", "GameControl/Player.json");
+    exit = type("Exit", "{ name: Exit, size: { width: 2, height: 2 }, properties: [ interactable, completes_level ], texture: flag.png }");
+    wall = type("Walls", "{ name: Wall, size: { width: 1, height: 1 }, properties: [ barrier, collideable ], texture: stone_wall.png }");
+  }
+
+  private static Grid room() {
+    Grid grid = new Grid(12, 6);
+    place(grid, player, 0, 0);
+    place(grid, exit, 10, 2);
+    return grid;
+  }
+
+  /**
+   * A column of walls across the room, with a gap at {@code gapY} unless it is negative
+   */
+  private static void wallOff(Grid grid, int gapY) {
+    for (int y = 0; y < grid.getHeight(); y++) {
+      if (y == gapY || y == gapY + 1) continue;
+      place(grid, wall, 6, y);
+    }
+  }
+
+  @Test
+  public void openRoomIsSolvable() {
+    Result result = new SolvabilityVerifier(room()).verify();
+
+    assertEquals(Outcome.Solvable, result.outcome);
+    assertEquals(1, result.solution.size);
+  }
+
+  @Test
+  public void walledOffExitIsUnsolvable() {
+    Grid grid = room();
+    wallOff(grid, -1);
+
+    assertEquals(Outcome.Unsolvable, new SolvabilityVerifier(grid).verify().outcome);
+  }
+
+  @Test
+  public void gapInWallIsSolvable() {
+    Grid grid = room();
+    wallOff(grid, 2);
+
+    assertEquals(Outcome.Solvable, new SolvabilityVerifier(grid).verify().outcome);
+  }
+
+  @Test
+  public void regionsAreForgottenAfterSearch() {
+    Grid grid = room();
+    wallOff(grid, 2);
+    SolvabilityVerifier verifier = new SolvabilityVerifier(grid);
+    verifier.verify();
+
+    assertEquals(0, verifier.memoisedRegions());
+  }
+}
@@ -0,0 +1,117 @@
+package group24.escaperoom.game.world;
+
+import static group24.escaperoom.Headless.place;
+import static group24.escaperoom.Headless.type;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.utils.Array;
+
+import group24.escaperoom.Headless;
+import group24.escaperoom.engine.assets.items.ItemTypeData;
+import group24.escaperoom.game.entities.Item;
+import group24.escaperoom.game.world.NavGrid.Path;
+
+/**
+ * Changes made to a grid after its nav grid was built must be seen as if it
+ * was built afresh
+ */
+public class NavGridTest {
+  private static ItemTypeData wall;
+
+  private Grid grid;
+  private NavGrid nav;
+  private Array<Item> column;
+
+  @BeforeAll
+  public static void startApplication() {
+    Headless.start();
+    wall = type("Walls", "{ name: Wall, size: { width: 1, height: 1 }, properties: [ barrier, collideable ], texture: stone_wall.png }");
+  }
+
+  /**
+   * A 16 by 10 grid, split by a column of walls at x = 8
+   */
+  @BeforeEach
+  public void split() {
+    grid = new Grid(16, 10);
+    nav = new NavGrid(grid);
+    nav.setFootprint(2, 2);
+    grid.addListener(nav);
+
+    column = new Array<>();
+    for (int y = 0; y < grid.getHeight(); y++) {
+      column.add(place(grid, wall, 8, y));
+    }
+  }
+
+  private void assertMatchesFresh() {
+    NavGrid fresh = new NavGrid(grid);
+    fresh.setFootprint(2, 2);
+    for (int y = 0; y < grid.getHeight(); y++) {
+      for (int x = 0; x < grid.getWidth(); x++) {
+        assertEquals(fresh.isWalkable(x, y), nav.isWalkable(x, y), "walkable at " + x + ", " + y);
+        assertEquals(fresh.regionOf(x, y), nav.regionOf(x, y), "region at " + x + ", " + y);
+      }
+    }
+  }
+
+  @Test
+  public void openingMergesRegions() {
+    assertFalse(nav.isReachable(0, 0, 12, 0));
+
+    grid.removeItem(column.get(4));
+    grid.removeItem(column.get(5));
+
+    assertTrue(nav.isReachable(0, 0, 12, 0));
+    assertMatchesFresh();
+  }
+
+  @Test
+  public void closingSplitsRegions() {
+    grid.removeItem(column.get(4));
+    grid.removeItem(column.get(5));
+    assertNotNull(nav.findPath(0, 0, 12, 0));
+
+    column.set(4, place(grid, wall, 8, 4));
+
+    assertNull(nav.findPath(0, 0, 12, 0));
+    assertMatchesFresh();
+  }
+
+  @Test
+  public void changesElsewhereKeepCachedPaths() {
+    Path path = nav.findPath(0, 0, 6, 8);
+    assertNotNull(path);
+
+    // on the other side of the wall, nothing on the left changes
+    place(grid, wall, 12, 4);
+
+    assertTrue(path == nav.findPath(0, 0, 6, 8));
+    assertMatchesFresh();
+  }
+
+  @Test
+  public void blockedPathIsFoundAgain() {
+    Path path = nav.findPath(0, 0, 6, 0);
+    assertNotNull(path);
+
+    Item rock = place(grid, wall, 3, 0);
+    Path around = nav.findPath(0, 0, 6, 0);
+    assertNotNull(around);
+    for (int i = 0; i < around.size(); i++) {
+      assertFalse(around.getX(i) + 1 >= 3 && around.getX(i) <= 3 && around.getY(i) == 0, "path through the rock");
+    }
+
+    grid.removeItem(rock);
+    assertEquals(path.size(), nav.findPath(0, 0, 6, 0).size());
+    assertMatchesFresh();
+  }
+}
@@ -1,32 +1,28 @@
 package group24.escaperoom.lwjgl3;
 
 import java.io.File;
+import java.util.Map;
 
 import com.badlogic.gdx.tools.texturepacker.TexturePacker;
 
+import group24.escaperoom.engine.assets.UserAtlasBuilder;
+
 public class AtlasBuilder {
   public AtlasBuilder() {}
 
   /**
    * We need to build the atlas if 
    * 1. the atlas does not exist
-   * 2. there are textures in the user texture directory which 
-   * are newer than the atlas
+   * 2. the textures differ from what was packed, according to the
+   * manifest of the atlas
    */
-  private static boolean needsBuild(File textureDir, String atlasPath){
+  private static boolean needsBuild(Map<String, String> hashes, File atlasDir, String atlasPath){
     File atlasFile = new File(atlasPath);
     if (!atlasFile.exists()){
       return true;
     }
 
-    for (File f : textureDir.listFiles()){
-      if (f.lastModified() > atlasFile.lastModified()){
-        return true;
-      }
-    }
-
-    return false;
-
+    return !UserAtlasBuilder.changedBetween(UserAtlasBuilder.readManifest(atlasDir), hashes).isEmpty();
   }
   public static void buildAtlas(){
     File textureDir = new File("textures/entity_textures");
@@ -45,7 +41,8 @@ public class AtlasBuilder {
     }
 
     String atlasPath = atlasDir.getAbsolutePath() + "/textureAtlas.atlas";
-    if (!needsBuild(textureDir,atlasPath )){
+    Map<String, String> hashes = UserAtlasBuilder.hashTextures(textureDir);
+    if (!needsBuild(hashes, atlasDir, atlasPath)){
       return;
     }
 
@@ -54,6 +51,6 @@ public class AtlasBuilder {
     settings.paddingY = 0;
     settings.bleed = false;
     TexturePacker.process(settings,textureDir.getAbsolutePath(), atlasDir.getAbsolutePath(), "textureAtlas");
-
+    UserAtlasBuilder.writeManifest(atlasDir, hashes);
   }
 }
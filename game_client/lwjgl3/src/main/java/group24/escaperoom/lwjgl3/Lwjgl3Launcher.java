@@ -3,6 +3,7 @@ package group24.escaperoom.lwjgl3;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import group24.escaperoom.EscapeRoomGame;
+import group24.escaperoom.engine.StartupTimer;
 
 /** Launches the desktop (LWJGL3) application. */
 public class Lwjgl3Launcher {
@@ -12,7 +13,8 @@ public class Lwjgl3Launcher {
     }
 
     private static Lwjgl3Application createApplication() {
-        AtlasBuilder.buildAtlas();
+        StartupTimer.begin();
+        StartupTimer.time("Building atlas", AtlasBuilder::buildAtlas);
         return new Lwjgl3Application(new EscapeRoomGame(), getDefaultConfiguration());
     }
 